@@ -0,0 +1,57 @@
+package lu.mms.common.quality.assets.db.re;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the construction of the {@link Expression} filters.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExpressionBenchmark {
+
+    private final Object[] inValues = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+    @Benchmark
+    public String eq() {
+        return Expression.value("ID").eq(1).build();
+    }
+
+    @Benchmark
+    public String between() {
+        return Expression.value("ID").between(1, 100).build();
+    }
+
+    @Benchmark
+    public String in() {
+        return Expression.value("ID").in(inValues).build();
+    }
+
+    @Benchmark
+    public String conjunction() {
+        return Expression.value("ID").between(1, 100)
+                .and(Expression.value("LA_NAME").like("row"))
+                .or(Expression.value("PARENT_ID").eq(null))
+                .build();
+    }
+
+    @Benchmark
+    public String alias() {
+        final Expression expression = Expression.value("ID");
+        expression.gt(1);
+        return expression.withAlias("T0").build();
+    }
+}
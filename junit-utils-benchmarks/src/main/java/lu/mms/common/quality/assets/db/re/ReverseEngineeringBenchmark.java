@@ -0,0 +1,58 @@
+package lu.mms.common.quality.assets.db.re;
+
+import lu.mms.common.quality.assets.db.re.schema.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the whole extraction ({@link ReverseEngineeringWizard#build()}): tables definition and records.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReverseEngineeringBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int tables;
+
+    @Param({"100"})
+    public int rows;
+
+    @Param({"2"})
+    public int fkDepth;
+
+    private SyntheticSchema syntheticSchema;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        syntheticSchema = SyntheticSchema.create(tables, rows, fkDepth);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        syntheticSchema.close();
+    }
+
+    @Benchmark
+    public Schema build() {
+        // the wizard is single use: the scan level is consumed by the build
+        return syntheticSchema.newWizard(fkDepth).build();
+    }
+}
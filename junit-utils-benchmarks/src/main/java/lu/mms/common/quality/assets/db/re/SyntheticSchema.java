@@ -0,0 +1,130 @@
+package lu.mms.common.quality.assets.db.re;
+
+import lu.mms.common.quality.assets.db.InMemoryDb;
+import org.h2.jdbcx.JdbcDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Synthetic H2 schema for the benchmarks: the tables are linked in foreign key chains of {@code fkDepth} tables,
+ * each table referencing the previous one of its chain (the chain root references no table).
+ */
+public final class SyntheticSchema implements AutoCloseable {
+
+    public static final String SCHEMA_NAME = "PUBLIC";
+
+    private static final String TABLE_NAME_FORMAT = "T_%04d";
+    private static final String CREATE_TABLE = "CREATE TABLE %s (ID NUMBER(10) PRIMARY KEY, PARENT_ID NUMBER(10), "
+            + "LA_NAME VARCHAR2(50), NU_AMOUNT NUMBER(12,2), DT_CREATED TIMESTAMP%s)";
+    private static final String FK_CONSTRAINT = ", CONSTRAINT FK_%1$s FOREIGN KEY (PARENT_ID) REFERENCES %2$s (ID)";
+    private static final String INSERT_INTO = "INSERT INTO %s (ID, PARENT_ID, LA_NAME, NU_AMOUNT, DT_CREATED) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcDataSource dataSource;
+    private final List<String> tableNames = new ArrayList<>();
+    private final List<String> rootTableNames = new ArrayList<>();
+
+    private SyntheticSchema() {
+        this.dataSource = new JdbcDataSource();
+        this.dataSource.setURL(String.format(InMemoryDb.H2_ORACLE.getUrlTemplate(), "bench_" + UUID.randomUUID()));
+    }
+
+    /**
+     * Create and fill the synthetic schema in a new H2 in-memory database.
+     * @param tables    The amount of tables
+     * @param rows  The amount of rows per table
+     * @param fkDepth   The amount of tables per foreign key chain (0 or 1: no foreign key)
+     * @return  The synthetic schema
+     * @throws SQLException Thrown when the schema can not be created
+     */
+    public static SyntheticSchema create(final int tables, final int rows, final int fkDepth) throws SQLException {
+        final SyntheticSchema schema = new SyntheticSchema();
+        final int chainLength = Math.max(fkDepth, 1);
+        try (Connection connection = schema.dataSource.getConnection()) {
+            for (int index = 0; index < tables; index++) {
+                final String tableName = String.format(TABLE_NAME_FORMAT, index);
+                final boolean root = index % chainLength == 0;
+                final String constraint = root
+                        ? ""
+                        : String.format(FK_CONSTRAINT, tableName, schema.tableNames.get(index - 1));
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(String.format(CREATE_TABLE, tableName, constraint));
+                }
+                insertRows(connection, tableName, rows, root);
+
+                schema.tableNames.add(tableName);
+                if (root) {
+                    schema.rootTableNames.add(tableName);
+                }
+            }
+        }
+        return schema;
+    }
+
+    private static void insertRows(final Connection connection, final String tableName, final int rows,
+                                   final boolean root) throws SQLException {
+        final Timestamp created = Timestamp.valueOf("2024-01-01 00:00:00");
+        try (PreparedStatement statement = connection.prepareStatement(String.format(INSERT_INTO, tableName))) {
+            for (int row = 1; row <= rows; row++) {
+                statement.setInt(1, row);
+                // each row references the row with the same ID in the parent table
+                statement.setObject(2, root ? null : row);
+                statement.setString(3, String.format("%s 'row' %s", tableName, row));
+                statement.setBigDecimal(4, BigDecimal.valueOf(row * 100L + row % 100, 2));
+                statement.setTimestamp(5, created);
+                statement.addBatch();
+                if (row % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public List<String> getTableNames() {
+        return tableNames;
+    }
+
+    /**
+     * @return  The first table of each foreign key chain
+     */
+    public List<String> getRootTableNames() {
+        return rootTableNames;
+    }
+
+    /**
+     * Configure a wizard extracting the whole schema: the chain roots, and the related tables up to the chain end.
+     * @param fkDepth   The amount of tables per foreign key chain
+     * @return  The wizard
+     */
+    public ReverseEngineeringWizard newWizard(final int fkDepth) {
+        final ReverseEngineeringWizard wizard = new ReverseEngineeringWizard(dataSource, SCHEMA_NAME, fkDepth);
+        for (final String tableName : rootTableNames) {
+            wizard.withTable(tableName);
+        }
+        return wizard;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package lu.mms.common.quality.assets.db.re.schema;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the records deduplication of {@link Table#addRecord(Record)}: every other record is a duplicate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TableBenchmark {
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public boolean primaryKey;
+
+    @Param({"false", "true"})
+    public boolean columnarStorage;
+
+    private final List<Record> records = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int row = 0; row < rows; row++) {
+            // the odd records duplicate the previous one
+            final int id = row - row % 2;
+            final Record record = new Record();
+            record.appendColumnValue("ID", BigDecimal.valueOf(id));
+            record.appendColumnValue("LA_NAME", "name " + id);
+            record.appendColumnValue("NU_AMOUNT", BigDecimal.valueOf(id * 100L, 2));
+            records.add(record);
+        }
+    }
+
+    @Benchmark
+    public Table addRecord() {
+        final Table table = new Table("T_0000");
+        table.addColumn(new Column(1, "ID", "NUMBER(10)", primaryKey, false, false, null));
+        table.addColumn(new Column(2, "LA_NAME", "VARCHAR2(50)", false, false, false, null));
+        table.addColumn(new Column(3, "NU_AMOUNT", "NUMBER(12,2)", false, false, false, null));
+        if (columnarStorage) {
+            table.enableColumnarStorage();
+        }
+        records.forEach(table::addRecord);
+        return table;
+    }
+}
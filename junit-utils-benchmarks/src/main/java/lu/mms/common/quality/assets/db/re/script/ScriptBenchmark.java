@@ -0,0 +1,59 @@
+package lu.mms.common.quality.assets.db.re.script;
+
+import lu.mms.common.quality.assets.db.re.SyntheticSchema;
+import lu.mms.common.quality.assets.db.re.schema.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the SQL scripts rendering ({@link Dml#build()}, {@link Ddl#build()}) of an extracted schema.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ScriptBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int tables;
+
+    @Param({"100"})
+    public int rows;
+
+    @Param({"2"})
+    public int fkDepth;
+
+    private Schema schema;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        try (SyntheticSchema syntheticSchema = SyntheticSchema.create(tables, rows, fkDepth)) {
+            schema = syntheticSchema.newWizard(fkDepth).build();
+        }
+    }
+
+    @Benchmark
+    public String dml() {
+        return Dml.with(schema).build();
+    }
+
+    @Benchmark
+    public String ddl() {
+        return Ddl.with(schema).build();
+    }
+}
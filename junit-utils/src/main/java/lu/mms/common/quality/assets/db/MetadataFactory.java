@@ -1,28 +1,85 @@
 package lu.mms.common.quality.assets.db;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 public interface MetadataFactory {
 
     Set<String> UNSIGNED_TYPE = Set.of("DATE");
 
+    /* The columns of the foreign key catalog rows (see the vendor 'fetchForeignKeys' methods). */
+    String FK_TABLE_NAME = "FK_TABLE_NAME";
+    String FK_COLUMN_NAME = "FK_COLUMN_NAME";
+    String PK_TABLE_NAME = "PK_TABLE_NAME";
+    String PK_COLUMN_NAME = "PK_COLUMN_NAME";
+    /* The foreign key constraint name: the columns of a composite foreign key share it. */
+    String FK_NAME = "FK_NAME";
+
+    /* The columns of the index catalog rows (see {@link #getIndexColumns()}). */
+    String INDEX_NAME = "INDEX_NAME";
+    String INDEX_COLUMN_NAME = "COLUMN_NAME";
+    String INDEX_COLUMN_POSITION = "ORDINAL_POSITION";
+    /* 1, when the index values must be unique, 0 otherwise. */
+    String INDEX_UNIQUE = "IS_UNIQUE";
+
+    /**
+     * Group the catalog rows by table name.
+     * @param rows  The catalog rows
+     * @param tableNameKey  The key of the table name in a catalog row
+     * @return  The catalog rows, indexed by table name
+     */
+    static Map<String, List<Map<String, Object>>> groupByTable(final List<Map<String, Object>> rows,
+                                                                final String tableNameKey) {
+        return rows.stream()
+                .collect(Collectors.groupingBy(row -> String.valueOf(row.get(tableNameKey))));
+    }
+
+    /**
+     * Index the catalog rows of a table by column name.
+     * @param rows  The table catalog rows
+     * @param columnNameKey The key of the column name in a catalog row
+     * @return  The catalog rows, indexed by column name
+     */
+    static Map<String, Map<String, Object>> indexByColumn(final List<Map<String, Object>> rows,
+                                                           final String columnNameKey) {
+        return rows.stream()
+                .collect(Collectors.toMap(row -> String.valueOf(row.get(columnNameKey)), row -> row, (a, b) -> a));
+    }
+
     default Integer parseInt(final Map<String, Object> columnMetadata, final String key) {
         final Object value = columnMetadata.get(key);
         if (value == null) {
             return null;
         }
-        return Integer.parseInt(String.valueOf(value));
+        // the LOB lengths may exceed the integer range
+        return (int) Math.min(Long.parseLong(String.valueOf(value)), Integer.MAX_VALUE);
     }
 
     String getDatabaseType();
 
+    /**
+     * Provide the metadata of another table. <br>
+     * A schema scoped factory (created without table name) fetches the metadata of all the schema tables at once:
+     * the returned factory only looks up in memory. Otherwise, the metadata are fetched for the given table.
+     * @param tableName The table name
+     * @return  The table metadata
+     */
+    MetadataFactory forTable(final String tableName);
+
     String getUniqueTableConstraint();
 
     Map<String, Object> getColumnMetadata(final String columnName);
 
     String getCheckConstraints();
 
+    /**
+     * @return  The index columns of the table, one catalog row per index column (see {@link #INDEX_NAME}). The
+     *          indexes backing the constraints are included.
+     */
+    List<Map<String, Object>> getIndexColumns();
+
     String computeColumnType(final Map<String, Object> columnMetadata);
 
     String getKeyColumnId();
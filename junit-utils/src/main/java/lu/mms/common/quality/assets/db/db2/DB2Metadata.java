@@ -31,7 +31,7 @@ public class DB2Metadata implements MetadataFactory {
     private static final String INFORMATION_SCHEMA_COLUMNS_SQL = StringUtils.EMPTY
             + "select * "
             + "from SYSIBM.SYSCOLUMNS "
-            + "where TBCREATOR = :schemaName and TBNAME = :tableName";
+            + "where TBCREATOR = :schemaName";
 
     private static final String INFORMATION_SCHEMA_CHECKS_SQL = StringUtils.EMPTY+
             "select columns.TBNAME, checks.* " +
@@ -50,16 +50,83 @@ public class DB2Metadata implements MetadataFactory {
                     "       and " +
                     "       checks.CHECKNAME = scdep.CHECKNAME" +
                     "   ) " +
-            "where columns.TBCREATOR = :schemaName and columns.TBNAME = :tableName";
+            "where columns.TBCREATOR = :schemaName";
 
     private static final String INFORMATION_SCHEMA_CONSTRAINTS_SQL = StringUtils.EMPTY
             + "select tableConst.* "
             + "from SYSIBM.SYSTABCONST tableConst "
-            + "where tableConst.TBCREATOR = :schemaName and tableConst.TBNAME = :tableName";
+            + "where tableConst.TBCREATOR = :schemaName";
+
+    /**
+     * The table ALTEREDTS is not updated by CREATE/DROP INDEX: the indexes count and last creation time are added.
+     */
+    private static final String DEFINITION_FINGERPRINT_SQL = StringUtils.EMPTY
+            + "select tables.NAME as TBNAME, "
+            + "       CHAR(tables.ALTEREDTS) || '|' || COUNT(indexes.NAME) || '|' "
+            + "       || COALESCE(CHAR(MAX(indexes.CREATEDTS)), '') as FINGERPRINT "
+            + "from SYSIBM.SYSTABLES tables "
+            + "left join SYSIBM.SYSINDEXES indexes on ("
+            + "       indexes.TBCREATOR = tables.CREATOR "
+            + "       and "
+            + "       indexes.TBNAME = tables.NAME"
+            + "   ) "
+            + "where tables.CREATOR = :schemaName "
+            + "group by tables.NAME, tables.ALTEREDTS";
+
+    private static final String FOREIGN_KEYS_SQL = StringUtils.EMPTY
+            + "select rels.RELNAME as FK_NAME, fk.TBNAME as FK_TABLE_NAME, fk.COLNAME as FK_COLUMN_NAME, "
+            + "       rels.REFTBNAME as PK_TABLE_NAME, pk.COLNAME as PK_COLUMN_NAME "
+            + "from SYSIBM.SYSRELS rels "
+            + "join SYSIBM.SYSFOREIGNKEYS fk on ("
+            + "       fk.CREATOR = rels.CREATOR "
+            + "       and "
+            + "       fk.TBNAME = rels.TBNAME"
+            + "       and "
+            + "       fk.RELNAME = rels.RELNAME"
+            + "   ) "
+            + "join SYSIBM.SYSKEYS pk on ("
+            + "       pk.IXCREATOR = rels.IXOWNER "
+            + "       and "
+            + "       pk.IXNAME = rels.IXNAME"
+            + "       and "
+            + "       pk.COLSEQ = fk.COLSEQ"
+            + "   ) "
+            + "where rels.CREATOR = :schemaName and rels.REFTBCREATOR = :schemaName";
+
+    /**
+     * The unique rule 'D' allows the duplicates.
+     */
+    private static final String INFORMATION_SCHEMA_INDEX_COLUMNS_SQL = StringUtils.EMPTY
+            + "select indexes.TBNAME, indexes.NAME as INDEX_NAME, keys.COLNAME as COLUMN_NAME, "
+            + "       keys.COLSEQ as ORDINAL_POSITION, "
+            + "       case when indexes.UNIQUERULE = 'D' then 0 else 1 end as IS_UNIQUE "
+            + "from SYSIBM.SYSINDEXES indexes "
+            + "join SYSIBM.SYSKEYS keys on ("
+            + "       keys.IXCREATOR = indexes.CREATOR "
+            + "       and "
+            + "       keys.IXNAME = indexes.NAME"
+            + "   ) "
+            + "where indexes.TBCREATOR = :schemaName";
+
+    private static final String TABLE_FILTER = " and TBNAME = :tableName";
+    private static final String CHECKS_TABLE_FILTER = " and columns.TBNAME = :tableName";
+    private static final String CONSTRAINTS_TABLE_FILTER = " and tableConst.TBNAME = :tableName";
+    private static final String INDEX_COLUMNS_TABLE_FILTER = " and indexes.TBNAME = :tableName";
+
+    private final DataSource dataSource;
+    private final String schema;
+    private final boolean schemaScoped;
+
+    /* Catalog rows, indexed by table name. */
+    private final Map<String, List<Map<String, Object>>> schemaColumnsMetadata;
+    private final Map<String, List<Map<String, Object>>> schemaConstraintsMetadata;
+    private final Map<String, List<Map<String, Object>>> schemaChecksMetadata;
+    private final Map<String, List<Map<String, Object>>> schemaIndexColumnsMetadata;
 
     private final Map<String, Map<String, Object>> columnsMetadata;
     private final List<Map<String, Object>> tableConstraintsMetadata;
     private final List<Map<String, Object>> tableChecksMetadata;
+    private final List<Map<String, Object>> tableIndexColumnsMetadata;
     private final List<String> notNullConstraints;
 
     /**
@@ -69,21 +136,52 @@ public class DB2Metadata implements MetadataFactory {
      * @param tableName The table name
      */
     public DB2Metadata(final DataSource dataSource, final String schema, final String tableName) {
-        final NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
-        final SqlParameterSource sqlParams = new MapSqlParameterSource()
-                .addValue("schemaName", schema)
-                .addValue("tableName", tableName);
+        this(dataSource, schema, tableName, false);
+    }
 
-        columnsMetadata = jdbcTemplate.queryForList(
-                INFORMATION_SCHEMA_COLUMNS_SQL, sqlParams
-        ).parallelStream()
-                .flatMap(map -> Map.of(map.get("NAME"), map).entrySet().stream())
-                .collect(Collectors.toMap(entry -> String.valueOf(entry.getKey()), Map.Entry::getValue));
+    /**
+     * Schema scoped constructor: the metadata of all the schema tables are fetched at once, with one query per
+     * catalog view. Use {@link #forTable(String)} to access a table metadata.
+     * @param dataSource The datasource
+     * @param schema    The schema
+     */
+    public DB2Metadata(final DataSource dataSource, final String schema) {
+        this(dataSource, schema, null, true);
+    }
 
-        tableConstraintsMetadata = jdbcTemplate.queryForList(INFORMATION_SCHEMA_CONSTRAINTS_SQL, sqlParams);
+    private DB2Metadata(final DataSource dataSource, final String schema, final String tableName,
+                        final boolean schemaScoped) {
+        this(dataSource, schema, tableName, schemaScoped,
+                fetch(dataSource, INFORMATION_SCHEMA_COLUMNS_SQL, TABLE_FILTER, schema, tableName),
+                fetch(dataSource, INFORMATION_SCHEMA_CONSTRAINTS_SQL, CONSTRAINTS_TABLE_FILTER, schema, tableName),
+                fetch(dataSource, INFORMATION_SCHEMA_CHECKS_SQL, CHECKS_TABLE_FILTER, schema, tableName),
+                fetch(dataSource, INFORMATION_SCHEMA_INDEX_COLUMNS_SQL, INDEX_COLUMNS_TABLE_FILTER, schema, tableName)
+        );
+    }
+
+    private DB2Metadata(final DataSource dataSource, final String schema, final String tableName,
+                        final boolean schemaScoped,
+                        final Map<String, List<Map<String, Object>>> schemaColumnsMetadata,
+                        final Map<String, List<Map<String, Object>>> schemaConstraintsMetadata,
+                        final Map<String, List<Map<String, Object>>> schemaChecksMetadata,
+                        final Map<String, List<Map<String, Object>>> schemaIndexColumnsMetadata) {
+        this.dataSource = dataSource;
+        this.schema = schema;
+        this.schemaScoped = schemaScoped;
+        this.schemaColumnsMetadata = schemaColumnsMetadata;
+        this.schemaConstraintsMetadata = schemaConstraintsMetadata;
+        this.schemaChecksMetadata = schemaChecksMetadata;
+        this.schemaIndexColumnsMetadata = schemaIndexColumnsMetadata;
+
+        columnsMetadata = MetadataFactory.indexByColumn(
+                schemaColumnsMetadata.getOrDefault(tableName, List.of()), "NAME"
+        );
 
+        tableConstraintsMetadata = schemaConstraintsMetadata.getOrDefault(tableName, List.of());
 
-        tableChecksMetadata = jdbcTemplate.queryForList(INFORMATION_SCHEMA_CHECKS_SQL, sqlParams);
+        tableChecksMetadata = schemaChecksMetadata.getOrDefault(tableName, List.of());
+
+        tableIndexColumnsMetadata = schemaIndexColumnsMetadata.getOrDefault(tableName, List.of());
 
         notNullConstraints = tableConstraintsMetadata.stream()
                 .map(constraint -> String.valueOf(constraint.get("SEARCH_CONDITION")))
@@ -91,6 +189,54 @@ public class DB2Metadata implements MetadataFactory {
                 .collect(Collectors.toList());
     }
 
+    private static Map<String, List<Map<String, Object>>> fetch(final DataSource dataSource, final String sql,
+                                                                final String tableFilter, final String schema,
+                                                                final String tableName) {
+        final NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        final SqlParameterSource sqlParams = new MapSqlParameterSource()
+                .addValue("schemaName", schema)
+                .addValue("tableName", tableName);
+        final String query = tableName == null ? sql : sql + tableFilter;
+        return MetadataFactory.groupByTable(jdbcTemplate.queryForList(query, sqlParams), "TBNAME");
+    }
+
+    /**
+     * Fetch a cheap fingerprint of each table definition of the schema: the last alteration timestamp.
+     * @param dataSource The datasource
+     * @param schema    The schema
+     * @return  The fingerprints, indexed by table name
+     */
+    public static Map<String, String> fetchDefinitionFingerprints(final DataSource dataSource, final String schema) {
+        final NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        return jdbcTemplate.queryForList(DEFINITION_FINGERPRINT_SQL, new MapSqlParameterSource("schemaName", schema))
+                .stream()
+                .collect(Collectors.toMap(
+                        row -> String.valueOf(row.get("TBNAME")).trim(),
+                        row -> String.valueOf(row.get("FINGERPRINT")),
+                        (a, b) -> a
+                ));
+    }
+
+    /**
+     * Fetch the foreign key columns of all the schema tables at once, referencing a table of the same schema.
+     * @param dataSource The datasource
+     * @param schema    The schema
+     * @return  The foreign key columns (see {@link MetadataFactory#FK_TABLE_NAME})
+     */
+    public static List<Map<String, Object>> fetchForeignKeys(final DataSource dataSource, final String schema) {
+        final NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        return jdbcTemplate.queryForList(FOREIGN_KEYS_SQL, new MapSqlParameterSource("schemaName", schema));
+    }
+
+    @Override
+    public MetadataFactory forTable(final String tableName) {
+        if (schemaScoped) {
+            return new DB2Metadata(dataSource, schema, tableName, true, schemaColumnsMetadata,
+                    schemaConstraintsMetadata, schemaChecksMetadata, schemaIndexColumnsMetadata);
+        }
+        return new DB2Metadata(dataSource, schema, tableName);
+    }
+
     @Override
     public String getDatabaseType() {
         return "DB2";
@@ -111,6 +257,11 @@ public class DB2Metadata implements MetadataFactory {
         return columnsMetadata.get(columnName);
     }
 
+    @Override
+    public List<Map<String, Object>> getIndexColumns() {
+        return tableIndexColumnsMetadata;
+    }
+
     @Override
     public String getKeyColumnDefault() {
         return "DEFAULTVALUE";
@@ -11,11 +11,13 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.util.DigestUtils;
 
 import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public class H2Metadata implements MetadataFactory {
 
@@ -28,20 +30,78 @@ public class H2Metadata implements MetadataFactory {
 
 //    private static final String NUMBER_
 
+    private final DataSource dataSource;
+    private final String schema;
+    private final boolean schemaScoped;
+
+    /* Catalog rows, indexed by table name. */
+    private final Map<String, List<Map<String, Object>>> schemaColumnsMetadata;
+    private final Map<String, List<Map<String, Object>>> schemaConstraintsMetadata;
+    private final Map<String, List<Map<String, Object>>> schemaIndexColumnsMetadata;
+
     private final Map<String, Map<String, Object>> columnsMetadata;
     private final List<Map<String, Object>> tableConstraintsMetadata;
+    private final List<Map<String, Object>> tableIndexColumnsMetadata;
 
     /* ------------------------- H2 -------------------------*/
     private static final String INFORMATION_SCHEMA_COLUMNS_SQL = StringUtils.EMPTY
             + "select * "
             + "from INFORMATION_SCHEMA.COLUMNS "
-            + "where TABLE_SCHEMA = :schemaName and TABLE_NAME = :tableName";
+            + "where TABLE_SCHEMA = :schemaName";
 
     private static final String INFORMATION_SCHEMA_CONSTRAINTS_SQL = StringUtils.EMPTY
-            + "select tc.*, ck.CHECK_CLAUSE "
+            + "select tc.*, ck.CHECK_CLAUSE, "
+            // H2 2.x no longer provides the constraint COLUMN_LIST
+            + "       (select listagg(kcu.COLUMN_NAME, ',') within group (order by kcu.ORDINAL_POSITION) "
+            + "        from INFORMATION_SCHEMA.KEY_COLUMN_USAGE kcu "
+            + "        where kcu.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA "
+            + "          and kcu.CONSTRAINT_NAME = tc.CONSTRAINT_NAME) as COLUMN_LIST "
             + "from INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc "
             + "left join INFORMATION_SCHEMA.CHECK_CONSTRAINTS ck on ck.CONSTRAINT_NAME = tc.CONSTRAINT_NAME "
-            + "where tc.CONSTRAINT_SCHEMA = :schemaName and tc.TABLE_NAME = :tableName";
+            + "where tc.CONSTRAINT_SCHEMA = :schemaName";
+
+    /**
+     * H2 does not keep track of the DDL time: the fingerprint is computed from the columns, constraints and index
+     * columns.
+     */
+    private static final String DEFINITION_FINGERPRINT_SQL = StringUtils.EMPTY
+            + "select TABLE_NAME, COLUMN_NAME as ITEM_NAME, DATA_TYPE as ITEM_TYPE, CHARACTER_MAXIMUM_LENGTH as ITEM_LENGTH, "
+            + "       NUMERIC_PRECISION as ITEM_PRECISION, NUMERIC_SCALE as ITEM_SCALE, IS_NULLABLE as ITEM_NULLABLE, "
+            + "       COLUMN_DEFAULT as ITEM_DEFAULT "
+            + "from INFORMATION_SCHEMA.COLUMNS "
+            + "where TABLE_SCHEMA = :schemaName "
+            + "union all "
+            + "select TABLE_NAME, CONSTRAINT_NAME, CONSTRAINT_TYPE, null, null, null, null, null "
+            + "from INFORMATION_SCHEMA.TABLE_CONSTRAINTS "
+            + "where CONSTRAINT_SCHEMA = :schemaName "
+            + "union all "
+            + "select ic.TABLE_NAME, ic.INDEX_NAME || '.' || ic.COLUMN_NAME, i.INDEX_TYPE_NAME, ic.ORDINAL_POSITION, "
+            + "       null, null, null, null "
+            + "from INFORMATION_SCHEMA.INDEX_COLUMNS ic "
+            + "join INFORMATION_SCHEMA.INDEXES i on i.INDEX_SCHEMA = ic.INDEX_SCHEMA and i.INDEX_NAME = ic.INDEX_NAME "
+            + "where ic.TABLE_SCHEMA = :schemaName "
+            + "order by 1, 2";
+
+    private static final String FOREIGN_KEYS_SQL = StringUtils.EMPTY
+            + "select rc.CONSTRAINT_NAME as FK_NAME, fk.TABLE_NAME as FK_TABLE_NAME, fk.COLUMN_NAME as FK_COLUMN_NAME, "
+            + "       pk.TABLE_NAME as PK_TABLE_NAME, pk.COLUMN_NAME as PK_COLUMN_NAME "
+            + "from INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS rc "
+            + "join INFORMATION_SCHEMA.KEY_COLUMN_USAGE fk on fk.CONSTRAINT_SCHEMA = rc.CONSTRAINT_SCHEMA "
+            + "     and fk.CONSTRAINT_NAME = rc.CONSTRAINT_NAME "
+            + "join INFORMATION_SCHEMA.KEY_COLUMN_USAGE pk on pk.CONSTRAINT_SCHEMA = rc.UNIQUE_CONSTRAINT_SCHEMA "
+            + "     and pk.CONSTRAINT_NAME = rc.UNIQUE_CONSTRAINT_NAME "
+            + "     and pk.ORDINAL_POSITION = fk.POSITION_IN_UNIQUE_CONSTRAINT "
+            + "where rc.CONSTRAINT_SCHEMA = :schemaName and rc.UNIQUE_CONSTRAINT_SCHEMA = :schemaName";
+
+    private static final String INFORMATION_SCHEMA_INDEX_COLUMNS_SQL = StringUtils.EMPTY
+            + "select ic.TABLE_NAME, ic.INDEX_NAME, ic.COLUMN_NAME, ic.ORDINAL_POSITION, "
+            + "       case when ic.IS_UNIQUE then 1 else 0 end as IS_UNIQUE "
+            + "from INFORMATION_SCHEMA.INDEX_COLUMNS ic "
+            + "where ic.TABLE_SCHEMA = :schemaName";
+
+    private static final String TABLE_FILTER = " and TABLE_NAME = :tableName";
+    private static final String CONSTRAINTS_TABLE_FILTER = " and tc.TABLE_NAME = :tableName";
+    private static final String INDEX_COLUMNS_TABLE_FILTER = " and ic.TABLE_NAME = :tableName";
 
     /**
      * For future use.<br>
@@ -50,19 +110,99 @@ public class H2Metadata implements MetadataFactory {
     private final DBDriverName mode;
 
     public H2Metadata(final DataSource dataSource, final String schema, final String tableName) {
-        mode = getCompatibilityMode(dataSource);
+        this(dataSource, schema, tableName, false);
+    }
+
+    /**
+     * Schema scoped constructor: the metadata of all the schema tables are fetched at once, with one query per
+     * catalog view. Use {@link #forTable(String)} to access a table metadata.
+     * @param dataSource The datasource
+     * @param schema    The schema
+     */
+    public H2Metadata(final DataSource dataSource, final String schema) {
+        this(dataSource, schema, null, true);
+    }
+
+    private H2Metadata(final DataSource dataSource, final String schema, final String tableName,
+                       final boolean schemaScoped) {
+        this(dataSource, schema, tableName, schemaScoped, getCompatibilityMode(dataSource),
+                fetch(dataSource, INFORMATION_SCHEMA_COLUMNS_SQL, TABLE_FILTER, schema, tableName),
+                fetch(dataSource, INFORMATION_SCHEMA_CONSTRAINTS_SQL, CONSTRAINTS_TABLE_FILTER, schema, tableName),
+                fetch(dataSource, INFORMATION_SCHEMA_INDEX_COLUMNS_SQL, INDEX_COLUMNS_TABLE_FILTER, schema, tableName)
+        );
+    }
+
+    private H2Metadata(final DataSource dataSource, final String schema, final String tableName,
+                       final boolean schemaScoped, final DBDriverName mode,
+                       final Map<String, List<Map<String, Object>>> schemaColumnsMetadata,
+                       final Map<String, List<Map<String, Object>>> schemaConstraintsMetadata,
+                       final Map<String, List<Map<String, Object>>> schemaIndexColumnsMetadata) {
+        this.dataSource = dataSource;
+        this.schema = schema;
+        this.schemaScoped = schemaScoped;
+        this.mode = mode;
+        this.schemaColumnsMetadata = schemaColumnsMetadata;
+        this.schemaConstraintsMetadata = schemaConstraintsMetadata;
+        this.schemaIndexColumnsMetadata = schemaIndexColumnsMetadata;
+
+        columnsMetadata = MetadataFactory.indexByColumn(
+                schemaColumnsMetadata.getOrDefault(tableName, List.of()), "COLUMN_NAME"
+        );
+
+        tableConstraintsMetadata = schemaConstraintsMetadata.getOrDefault(tableName, List.of());
+
+        tableIndexColumnsMetadata = schemaIndexColumnsMetadata.getOrDefault(tableName, List.of());
+    }
+
+    private static Map<String, List<Map<String, Object>>> fetch(final DataSource dataSource, final String sql,
+                                                                final String tableFilter, final String schema,
+                                                                final String tableName) {
         final NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
         final SqlParameterSource sqlParams = new MapSqlParameterSource()
                 .addValue("schemaName", schema)
                 .addValue("tableName", tableName);
+        final String query = tableName == null ? sql : sql + tableFilter;
+        return MetadataFactory.groupByTable(jdbcTemplate.queryForList(query, sqlParams), "TABLE_NAME");
+    }
+
+    /**
+     * Fetch a cheap fingerprint of each table definition of the schema: a digest of the columns and constraints.
+     * @param dataSource The datasource
+     * @param schema    The schema
+     * @return  The fingerprints, indexed by table name
+     */
+    public static Map<String, String> fetchDefinitionFingerprints(final DataSource dataSource, final String schema) {
+        final NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        final Map<String, List<Map<String, Object>>> definitions = MetadataFactory.groupByTable(
+                jdbcTemplate.queryForList(DEFINITION_FINGERPRINT_SQL, new MapSqlParameterSource("schemaName", schema)),
+                "TABLE_NAME"
+        );
+        final Map<String, String> fingerprints = new HashMap<>();
+        definitions.forEach((table, rows) -> fingerprints.put(
+                table,
+                DigestUtils.md5DigestAsHex(rows.toString().getBytes(StandardCharsets.UTF_8))
+        ));
+        return fingerprints;
+    }
 
-        columnsMetadata = jdbcTemplate.queryForList(
-                INFORMATION_SCHEMA_COLUMNS_SQL, sqlParams
-        ).parallelStream()
-                .flatMap(map -> Map.of(map.get("COLUMN_NAME"), map).entrySet().stream())
-                .collect(Collectors.toMap(entry -> String.valueOf(entry.getKey()), Map.Entry::getValue));
+    /**
+     * Fetch the foreign key columns of all the schema tables at once, referencing a table of the same schema.
+     * @param dataSource The datasource
+     * @param schema    The schema
+     * @return  The foreign key columns (see {@link MetadataFactory#FK_TABLE_NAME})
+     */
+    public static List<Map<String, Object>> fetchForeignKeys(final DataSource dataSource, final String schema) {
+        final NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        return jdbcTemplate.queryForList(FOREIGN_KEYS_SQL, new MapSqlParameterSource("schemaName", schema));
+    }
 
-        tableConstraintsMetadata = jdbcTemplate.queryForList(INFORMATION_SCHEMA_CONSTRAINTS_SQL, sqlParams);
+    @Override
+    public MetadataFactory forTable(final String tableName) {
+        if (schemaScoped) {
+            return new H2Metadata(dataSource, schema, tableName, true, mode, schemaColumnsMetadata,
+                    schemaConstraintsMetadata, schemaIndexColumnsMetadata);
+        }
+        return new H2Metadata(dataSource, schema, tableName);
     }
 
     @Override
@@ -94,6 +234,11 @@ public class H2Metadata implements MetadataFactory {
                 .orElse(StringUtils.EMPTY);
     }
 
+    @Override
+    public List<Map<String, Object>> getIndexColumns() {
+        return tableIndexColumnsMetadata;
+    }
+
     @Override
     public String computeColumnType(final Map<String, Object> columnMetadata) {
         final String type = String.valueOf(columnMetadata.get("DATA_TYPE"));
@@ -101,7 +101,8 @@ public enum NumberDataType {
                     }
                     return  formatted;
                 })
-                .orElse(StringUtils.EMPTY);
+                // out of the ranges (example: a NUMBER without precision)
+                .orElse(NUMBER.getFormat());
     }
 
     private static boolean isValidPrecision(final NumberDataType dataType, final Integer precision) {
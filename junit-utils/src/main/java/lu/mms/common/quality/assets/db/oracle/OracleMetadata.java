@@ -27,20 +27,73 @@ public class OracleMetadata implements MetadataFactory {
     private static final String INFORMATION_SCHEMA_COLUMNS_SQL = StringUtils.EMPTY
             + "select * "
             + "from all_tab_columns "
-            + "where OWNER = :schemaName and TABLE_NAME = :tableName";
+            + "where OWNER = :schemaName";
 
     private static final String INFORMATION_SCHEMA_CONSTRAINTS_SQL = StringUtils.EMPTY
             + "select table_columns.column_name, cons.* "
             + "from all_constraints cons "
             + "join all_cons_columns table_columns on ( "
+            + "    table_columns.owner = cons.owner"
+            + "    and "
             + "    table_columns.constraint_name = cons.constraint_name"
             + "    and "
             + "    table_columns.table_name = cons.table_name"
             + ")"
-            + "where cons.OWNER = :schemaName and cons.table_name = :tableName";
+            + "where cons.OWNER = :schemaName";
+
+    private static final String DEFINITION_FINGERPRINT_SQL = StringUtils.EMPTY
+            + "select OBJECT_NAME as TABLE_NAME, to_char(LAST_DDL_TIME, 'YYYYMMDDHH24MISS') as FINGERPRINT "
+            + "from all_objects "
+            + "where OWNER = :schemaName and OBJECT_TYPE = 'TABLE'";
+
+    private static final String FOREIGN_KEYS_SQL = StringUtils.EMPTY
+            + "select cons.CONSTRAINT_NAME as FK_NAME, "
+            + "       fk_columns.TABLE_NAME as FK_TABLE_NAME, fk_columns.COLUMN_NAME as FK_COLUMN_NAME, "
+            + "       pk_columns.TABLE_NAME as PK_TABLE_NAME, pk_columns.COLUMN_NAME as PK_COLUMN_NAME "
+            + "from all_constraints cons "
+            + "join all_cons_columns fk_columns on ( "
+            + "    fk_columns.owner = cons.owner"
+            + "    and "
+            + "    fk_columns.constraint_name = cons.constraint_name"
+            + ") "
+            + "join all_cons_columns pk_columns on ( "
+            + "    pk_columns.owner = cons.r_owner"
+            + "    and "
+            + "    pk_columns.constraint_name = cons.r_constraint_name"
+            + "    and "
+            + "    pk_columns.position = fk_columns.position"
+            + ") "
+            + "where cons.OWNER = :schemaName and cons.R_OWNER = :schemaName "
+            + "and cons.CONSTRAINT_TYPE = '" + FOREIGN_KEY + "'";
+
+    private static final String INFORMATION_SCHEMA_INDEX_COLUMNS_SQL = StringUtils.EMPTY
+            + "select ind_columns.TABLE_NAME, ind_columns.INDEX_NAME, ind_columns.COLUMN_NAME, "
+            + "       ind_columns.COLUMN_POSITION as ORDINAL_POSITION, "
+            + "       case when ind.UNIQUENESS = 'UNIQUE' then 1 else 0 end as IS_UNIQUE "
+            + "from all_ind_columns ind_columns "
+            + "join all_indexes ind on ( "
+            + "    ind.owner = ind_columns.index_owner"
+            + "    and "
+            + "    ind.index_name = ind_columns.index_name"
+            + ") "
+            + "where ind_columns.TABLE_OWNER = :schemaName";
+
+    private static final String TABLE_FILTER = " and TABLE_NAME = :tableName";
+    private static final String CONSTRAINTS_TABLE_FILTER = " and cons.table_name = :tableName";
+    private static final String INDEX_COLUMNS_TABLE_FILTER = " and ind_columns.TABLE_NAME = :tableName";
+
+    private final DataSource dataSource;
+    private final String schema;
+    private final boolean schemaScoped;
+
+    /* Catalog rows, indexed by table name. */
+    private final Map<String, List<Map<String, Object>>> schemaColumnsMetadata;
+    private final Map<String, List<Map<String, Object>>> schemaConstraintsMetadata;
+    private final Map<String, List<Map<String, Object>>> schemaIndexColumnsMetadata;
 
     private final Map<String, Map<String, Object>> columnsMetadata;
     private final List<Map<String, Object>> tableConstraintsMetadata;
+    private final List<Map<String, Object>> tableIndexColumnsMetadata;
     private final List<String> notNullConstraints;
 
     /**
@@ -50,18 +103,47 @@ public class OracleMetadata implements MetadataFactory {
      * @param tableName The table name
      */
     public OracleMetadata(final DataSource dataSource, final String schema, final String tableName) {
-        final NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
-        final SqlParameterSource sqlParams = new MapSqlParameterSource()
-                .addValue("schemaName", schema)
-                .addValue("tableName", tableName);
+        this(dataSource, schema, tableName, false);
+    }
+
+    /**
+     * Schema scoped constructor: the metadata of all the schema tables are fetched at once, with one query per
+     * catalog view. Use {@link #forTable(String)} to access a table metadata.
+     * @param dataSource The datasource
+     * @param schema    The schema
+     */
+    public OracleMetadata(final DataSource dataSource, final String schema) {
+        this(dataSource, schema, null, true);
+    }
+
+    private OracleMetadata(final DataSource dataSource, final String schema, final String tableName,
+                           final boolean schemaScoped) {
+        this(dataSource, schema, tableName, schemaScoped,
+                fetch(dataSource, INFORMATION_SCHEMA_COLUMNS_SQL, TABLE_FILTER, schema, tableName),
+                fetch(dataSource, INFORMATION_SCHEMA_CONSTRAINTS_SQL, CONSTRAINTS_TABLE_FILTER, schema, tableName),
+                fetch(dataSource, INFORMATION_SCHEMA_INDEX_COLUMNS_SQL, INDEX_COLUMNS_TABLE_FILTER, schema, tableName)
+        );
+    }
+
+    private OracleMetadata(final DataSource dataSource, final String schema, final String tableName,
+                           final boolean schemaScoped,
+                           final Map<String, List<Map<String, Object>>> schemaColumnsMetadata,
+                           final Map<String, List<Map<String, Object>>> schemaConstraintsMetadata,
+                           final Map<String, List<Map<String, Object>>> schemaIndexColumnsMetadata) {
+        this.dataSource = dataSource;
+        this.schema = schema;
+        this.schemaScoped = schemaScoped;
+        this.schemaColumnsMetadata = schemaColumnsMetadata;
+        this.schemaConstraintsMetadata = schemaConstraintsMetadata;
+        this.schemaIndexColumnsMetadata = schemaIndexColumnsMetadata;
+
+        columnsMetadata = MetadataFactory.indexByColumn(
+                schemaColumnsMetadata.getOrDefault(tableName, List.of()), "COLUMN_NAME"
+        );
 
-        columnsMetadata = jdbcTemplate.queryForList(
-                INFORMATION_SCHEMA_COLUMNS_SQL, sqlParams
-        ).parallelStream()
-                .flatMap(map -> Map.of(map.get("COLUMN_NAME"), map).entrySet().stream())
-                .collect(Collectors.toMap(entry -> String.valueOf(entry.getKey()), Map.Entry::getValue));
+        tableConstraintsMetadata = schemaConstraintsMetadata.getOrDefault(tableName, List.of());
 
-        tableConstraintsMetadata = jdbcTemplate.queryForList(INFORMATION_SCHEMA_CONSTRAINTS_SQL, sqlParams);
+        tableIndexColumnsMetadata = schemaIndexColumnsMetadata.getOrDefault(tableName, List.of());
 
         notNullConstraints = tableConstraintsMetadata.stream()
                 .map(constraint -> String.valueOf(constraint.get("SEARCH_CONDITION")))
@@ -69,6 +151,54 @@ public class OracleMetadata implements MetadataFactory {
                 .collect(Collectors.toList());
     }
 
+    private static Map<String, List<Map<String, Object>>> fetch(final DataSource dataSource, final String sql,
+                                                                final String tableFilter, final String schema,
+                                                                final String tableName) {
+        final NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        final SqlParameterSource sqlParams = new MapSqlParameterSource()
+                .addValue("schemaName", schema)
+                .addValue("tableName", tableName);
+        final String query = tableName == null ? sql : sql + tableFilter;
+        return MetadataFactory.groupByTable(jdbcTemplate.queryForList(query, sqlParams), "TABLE_NAME");
+    }
+
+    /**
+     * Fetch a cheap fingerprint of each table definition of the schema: the last DDL time.
+     * @param dataSource The datasource
+     * @param schema    The schema
+     * @return  The fingerprints, indexed by table name
+     */
+    public static Map<String, String> fetchDefinitionFingerprints(final DataSource dataSource, final String schema) {
+        final NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        return jdbcTemplate.queryForList(DEFINITION_FINGERPRINT_SQL, new MapSqlParameterSource("schemaName", schema))
+                .stream()
+                .collect(Collectors.toMap(
+                        row -> String.valueOf(row.get("TABLE_NAME")),
+                        row -> String.valueOf(row.get("FINGERPRINT")),
+                        (a, b) -> a
+                ));
+    }
+
+    /**
+     * Fetch the foreign key columns of all the schema tables at once, referencing a table of the same schema.
+     * @param dataSource The datasource
+     * @param schema    The schema
+     * @return  The foreign key columns (see {@link MetadataFactory#FK_TABLE_NAME})
+     */
+    public static List<Map<String, Object>> fetchForeignKeys(final DataSource dataSource, final String schema) {
+        final NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        return jdbcTemplate.queryForList(FOREIGN_KEYS_SQL, new MapSqlParameterSource("schemaName", schema));
+    }
+
+    @Override
+    public MetadataFactory forTable(final String tableName) {
+        if (schemaScoped) {
+            return new OracleMetadata(dataSource, schema, tableName, true, schemaColumnsMetadata, schemaConstraintsMetadata,
+                    schemaIndexColumnsMetadata);
+        }
+        return new OracleMetadata(dataSource, schema, tableName);
+    }
+
     @Override
     public String getDatabaseType() {
         return "ORACLE";
@@ -99,6 +229,11 @@ public class OracleMetadata implements MetadataFactory {
                 .orElse(StringUtils.EMPTY);
     }
 
+    @Override
+    public List<Map<String, Object>> getIndexColumns() {
+        return tableIndexColumnsMetadata;
+    }
+
     @Override
     public String computeColumnType(final Map<String, Object> columnMetadata) {
 
@@ -55,7 +55,8 @@ public enum VarcharDataType {
                 .findFirst()
                 .or(() -> Optional.ofNullable(VarcharDataType.of(type)))
                 .map(value -> StringUtils.replace(value.getFormat(), "s", length.toString()))
-                .orElse(StringUtils.EMPTY);
+                // the other character types (example: CHARACTER LARGE OBJECT) are not sized
+                .orElse(type);
     }
 
     public static VarcharDataType of(final String description) {
@@ -0,0 +1,333 @@
+package lu.mms.common.quality.assets.db.re;
+
+import lu.mms.common.quality.assets.db.InMemoryDb;
+import lu.mms.common.quality.assets.db.re.schema.Column;
+import lu.mms.common.quality.assets.db.re.schema.ForeignKeyGraph;
+import lu.mms.common.quality.assets.db.re.schema.Table;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Connection;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Load the extracted tables in a target (in memory) database: the tables are created from the collected definitions,
+ * then the source rows are inserted with JDBC batches, without generating nor parsing any SQL script. <br>
+ * H2 and HSQL commit the DDL statements: the tables are (re)created first, then the rows are inserted in a single
+ * transaction, and the foreign keys are added once this transaction is committed. A failure while loading the rows
+ * rolls them back, but leaves the (empty) tables in place.
+ */
+final class BatchLoader implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchLoader.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final int MAX_NUMERIC_PRECISION = 1000;
+
+    private static final String CREATE_SCHEMA = "CREATE SCHEMA %s";
+    private static final String DROP_TABLE = "DROP TABLE %s.%s IF EXISTS CASCADE";
+    private static final String CREATE_TABLE = "CREATE TABLE %s.%s (%s)";
+    private static final String PK_CONSTRAINT = ", CONSTRAINT PK_%s PRIMARY KEY (%s)";
+    private static final String ADD_FK_CONSTRAINT = "ALTER TABLE %s.%s ADD CONSTRAINT FK_%s_%s FOREIGN KEY (%s) "
+            + "REFERENCES %s.%s (%s)";
+    private static final String INSERT_INTO = "INSERT INTO %s.%s (%s) VALUES (%s)";
+
+    private final Connection connection;
+    private final EmbeddedDatabaseType dbType;
+    private final boolean autoCommit;
+    private boolean inTransaction;
+
+    private BatchLoader(final Connection connection, final InMemoryDb dialect) throws SQLException {
+        this.connection = connection;
+        this.dbType = dialect.getDbType();
+        this.autoCommit = connection.getAutoCommit();
+    }
+
+    /**
+     * Start loading in the target database: the referential integrity is disabled until the loader is closed.
+     * @param connection    The target connection
+     * @param dialect   The target database
+     * @return  The loader
+     * @throws SQLException Thrown when the target database can not be configured
+     */
+    static BatchLoader open(final Connection connection, final InMemoryDb dialect) throws SQLException {
+        final BatchLoader loader = new BatchLoader(connection, dialect);
+        loader.execute(loader.referentialIntegrity(false));
+        return loader;
+    }
+
+    /**
+     * Create the schema in the target database, if it does not exist yet.
+     * @param schemaName    The schema name
+     * @throws SQLException Thrown when the schema can not be created
+     */
+    void createSchema(final String schemaName) throws SQLException {
+        try (ResultSet schemas = connection.getMetaData().getSchemas(null, schemaName)) {
+            if (schemas.next()) {
+                return;
+            }
+        }
+        execute(String.format(CREATE_SCHEMA, schemaName));
+    }
+
+    /**
+     * (Re)create the table in the target database. The DDL statements are committed: the tables must be created
+     * before the rows are loaded.
+     * @param table The table definition
+     * @param fallbackTypes The column types (in the table columns order), used when the catalog type is empty
+     * @throws SQLException Thrown when the table can not be created
+     */
+    void createTable(final Table table, final String[] fallbackTypes) throws SQLException {
+        if (inTransaction) {
+            throw new IllegalStateException(String.format(
+                    "The table [%s] can't be created once the rows are being loaded.", table.getName()
+            ));
+        }
+        execute(String.format(DROP_TABLE, table.getSchema().getName(), table.getName()));
+        execute(createTableStatement(table, fallbackTypes));
+    }
+
+    /**
+     * @param metadata  The source rows metadata, with the columns selected in the table columns order (null when
+     *                  unknown)
+     * @param columnCount   The amount of columns
+     * @return  The portable column types of the source rows (see {@link #columnType(JDBCType, int, int)})
+     * @throws SQLException Thrown when the metadata can not be read
+     */
+    static String[] fallbackTypes(final ResultSetMetaData metadata, final int columnCount) throws SQLException {
+        final String[] fallbackTypes = new String[columnCount];
+        for (int index = 0; metadata != null && index < columnCount; index++) {
+            fallbackTypes[index] = columnType(
+                    JDBCType.valueOf(metadata.getColumnType(index + 1)),
+                    metadata.getPrecision(index + 1),
+                    metadata.getScale(index + 1)
+            );
+        }
+        return fallbackTypes;
+    }
+
+    /**
+     * Insert the source rows in the table, in the loading transaction.
+     * @param table The table definition, created with {@link #createTable(Table, String[])}
+     * @param source    The source rows, with the columns selected in the table columns order
+     * @return  The amount of rows inserted
+     * @throws SQLException Thrown when the rows can not be read or inserted
+     */
+    long load(final Table table, final ResultSet source) throws SQLException {
+        final ResultSetMetaData metadata = source.getMetaData();
+        final int[] columnTypes = new int[table.getColumns().size()];
+        for (int index = 0; index < columnTypes.length; index++) {
+            columnTypes[index] = metadata.getColumnType(index + 1);
+        }
+        return load(table, target -> {
+            if (!source.next()) {
+                return false;
+            }
+            for (int index = 1; index <= columnTypes.length; index++) {
+                copyValue(source, target, index, columnTypes[index - 1]);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Insert the rows of the source in the table, in the loading transaction.
+     * @param table The table definition, created with {@link #createTable(Table, String[])}
+     * @param source    The source rows
+     * @return  The amount of rows inserted
+     * @throws SQLException Thrown when the rows can not be read or inserted
+     */
+    long load(final Table table, final RowSource source) throws SQLException {
+        if (!inTransaction) {
+            connection.setAutoCommit(false);
+            inTransaction = true;
+        }
+        final List<String> columnNames = new ArrayList<>(table.getColumns().keySet());
+        final String insertSql = String.format(
+                INSERT_INTO,
+                table.getSchema().getName(),
+                table.getName(),
+                String.join(", ", columnNames),
+                columnNames.stream().map(column -> "?").collect(Collectors.joining(", "))
+        );
+
+        long rows = 0;
+        try (PreparedStatement statement = connection.prepareStatement(insertSql)) {
+            while (source.next(statement)) {
+                statement.addBatch();
+                if (++rows % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+            }
+            if (rows % BATCH_SIZE != 0) {
+                statement.executeBatch();
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Commit the loaded rows.
+     * @throws SQLException Thrown when the rows can not be committed
+     */
+    void commit() throws SQLException {
+        if (inTransaction) {
+            connection.commit();
+            connection.setAutoCommit(autoCommit);
+            inTransaction = false;
+        }
+    }
+
+    /**
+     * Add the foreign keys between the loaded tables, once the rows are committed (see {@link #commit()}).
+     * @param tables    The loaded tables
+     * @throws SQLException Thrown when a constraint can not be added
+     */
+    void addForeignKeys(final Collection<Table> tables) throws SQLException {
+        final ForeignKeyGraph graph = ForeignKeyGraph.of(tables);
+        final Set<String> loadedTables = tables.stream().map(Table::getName).collect(Collectors.toSet());
+        for (final Table table : tables) {
+            int index = 0;
+            for (final ForeignKeyGraph.ForeignKey foreignKey : graph.getForeignKeys(table.getName())) {
+                index++;
+                if (!loadedTables.contains(foreignKey.getTargetTable())) {
+                    continue;
+                }
+                final String schemaName = table.getSchema().getName();
+                execute(String.format(ADD_FK_CONSTRAINT, schemaName, table.getName(), table.getName(), index,
+                        foreignKey.getColumn(), schemaName, foreignKey.getTargetTable(), foreignKey.getTargetColumn()));
+            }
+        }
+    }
+
+    /**
+     * Restore the referential integrity and the connection auto commit. The loaded rows are rolled back, unless
+     * committed.
+     * @throws SQLException Thrown when the target database can not be configured
+     */
+    @Override
+    public void close() throws SQLException {
+        try {
+            if (inTransaction) {
+                connection.rollback();
+            }
+            execute(referentialIntegrity(true));
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private String referentialIntegrity(final boolean enabled) {
+        if (EmbeddedDatabaseType.HSQL == dbType) {
+            return "SET DATABASE REFERENTIAL INTEGRITY " + String.valueOf(enabled).toUpperCase();
+        }
+        return "SET REFERENTIAL_INTEGRITY " + String.valueOf(enabled).toUpperCase();
+    }
+
+    private static String createTableStatement(final Table table, final String[] fallbackTypes) {
+        final StringBuilder columnsSql = new StringBuilder();
+        int index = 0;
+        for (final Column column : table.getColumns().values()) {
+            index++;
+            // fall back to the source type, when the column type could not be computed from the catalog
+            final String columnType = StringUtils.isBlank(column.getColumnType())
+                    ? fallbackTypes[index - 1]
+                    : column.getColumnType();
+            if (columnsSql.length() > 0) {
+                columnsSql.append(", ");
+            }
+            columnsSql.append(column.getName()).append(' ').append(columnType);
+        }
+
+        final List<String> primaryKeys = table.getPrimaryKeyColumns();
+        if (!primaryKeys.isEmpty()) {
+            columnsSql.append(String.format(PK_CONSTRAINT, table.getName(), String.join(", ", primaryKeys)));
+        }
+        return String.format(CREATE_TABLE, table.getSchema().getName(), table.getName(), columnsSql);
+    }
+
+    /**
+     * The portable column type of a JDBC type.
+     * @param type  The JDBC type
+     * @param precision The precision (or length), 0 when unknown
+     * @param scale The scale
+     * @return  The column type
+     */
+    static String columnType(final JDBCType type, final int precision, final int scale) {
+        switch (type) {
+            case CHAR:
+            case VARCHAR:
+            case NCHAR:
+            case NVARCHAR:
+            case BINARY:
+            case VARBINARY:
+                return precision > 0 ? String.format("%s(%s)", type.getName(), precision) : type.getName();
+            case NUMERIC:
+            case DECIMAL:
+                return precision > 0 && precision <= MAX_NUMERIC_PRECISION
+                        ? String.format("%s(%s,%s)", type.getName(), precision, scale)
+                        : type.getName();
+            default:
+                return type.getName();
+        }
+    }
+
+    private static void copyValue(final ResultSet source, final PreparedStatement target, final int index,
+                                  final int columnType) throws SQLException {
+        final Object value;
+        switch (columnType) {
+            case Types.CLOB:
+            case Types.NCLOB:
+                value = source.getString(index);
+                break;
+            case Types.BLOB:
+                value = source.getBytes(index);
+                break;
+            default:
+                value = source.getObject(index);
+                break;
+        }
+        if (value == null) {
+            target.setNull(index, columnType);
+        } else {
+            target.setObject(index, value);
+        }
+    }
+
+    /**
+     * The rows to insert in a table.
+     */
+    @FunctionalInterface
+    interface RowSource {
+
+        /**
+         * Move to the next row, and bind its values to the insert statement parameters.
+         * @param target    The insert statement
+         * @return  true, if a row was bound. <br>
+         *          false, if there is no more row.
+         * @throws SQLException Thrown when the row can not be read or bound
+         */
+        boolean next(PreparedStatement target) throws SQLException;
+    }
+
+    private void execute(final String sql) throws SQLException {
+        LOGGER.debug("SQL statement: {}", sql);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
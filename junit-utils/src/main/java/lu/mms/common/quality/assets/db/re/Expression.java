@@ -3,6 +3,7 @@ package lu.mms.common.quality.assets.db.re;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
@@ -16,15 +17,28 @@ public class Expression implements Comparable<Expression>, Operator<Expression>,
 
     public static final String ALIAS = "#alias_placeholder#";
     private static final String EXP_TMPL = "(%s)";
+    private static final String AND = " and ";
+    private static final String OR = " or ";
 
     private final String columnName;
     private String expression = StringUtils.EMPTY;
+    /*
+     * The structure of the expression (column, operator, literal), regardless of how the SQL text is rendered.
+     */
+    private List<Object> structure = List.of();
     private String alias;
 
     private Expression(final String columnName) {
         this.columnName = columnName;
     }
 
+    private Expression(final Expression expression, final String alias) {
+        this.columnName = expression.columnName;
+        this.expression = expression.expression;
+        this.structure = expression.structure;
+        this.alias = alias;
+    }
+
     public static Expression value(final String columnName) {
         return new Expression(columnName);
     }
@@ -35,6 +49,7 @@ public class Expression implements Comparable<Expression>, Operator<Expression>,
 
     public void setExpression(final String expression) {
         this.expression = StringUtils.isBlank(expression) ? StringUtils.EMPTY : expression;
+        this.structure = List.of(this.expression);
     }
 
     public String getColumnName() {
@@ -46,68 +61,70 @@ public class Expression implements Comparable<Expression>, Operator<Expression>,
     }
 
     @Override
-    public void applyAlias(final String alias) {
-        this.alias = alias;
-        expression = expression.replace(ALIAS, alias);
+    public Expression withAlias(final String alias) {
+        return new Expression(this, alias);
     }
 
     @Override
     public Expression and(final Statement statement) {
         this.expression = String.format("%s and %s", appendParenthesis(this.expression), appendParenthesis(statement.build()));
+        this.structure = List.of(structure, "and", structureOf(statement));
         return this;
     }
 
     @Override
     public Expression or(final Statement statement) {
         this.expression = String.format("%s or %s", appendParenthesis(this.expression), appendParenthesis(statement.build()));
+        this.structure = List.of(structure, "or", structureOf(statement));
         return this;
     }
 
     @Override
     public Operator<Expression> not(Statement statement) {
         this.expression = String.format("%s not %s", appendParenthesis(this.expression), appendParenthesis(statement.build()));
+        this.structure = List.of(structure, "not", structureOf(statement));
         return this;
     }
 
     @Override
     public Operator<Expression> eq(final Object value) {
-        setExpression(buildUnaryExpression("=", value));
+        setPredicate(buildUnaryExpression("=", value));
         return this;
     }
 
     @Override
     public Operator<Expression> gt(final Object value) {
-        setExpression(buildUnaryExpression(">", value));
+        setPredicate(buildUnaryExpression(">", value));
         return this;
     }
 
     @Override
     public Operator<Expression> ge(final Object value) {
-        setExpression(buildUnaryExpression(">=", value));
+        setPredicate(buildUnaryExpression(">=", value));
         return this;
     }
 
     @Override
     public Operator<Expression> lt(final Object value) {
-        setExpression(buildUnaryExpression("<", value));
+        setPredicate(buildUnaryExpression("<", value));
         return this;
     }
 
     @Override
     public Operator<Expression> le(final Object value) {
-        setExpression(buildUnaryExpression("<=", value));
+        setPredicate(buildUnaryExpression("<=", value));
         return this;
     }
 
     @Override
     public Operator<Expression> not(final Object value) {
-        setExpression(buildUnaryExpression("<>", value));
+        setPredicate(buildUnaryExpression("<>", value));
         return this;
     }
 
     @Override
     public Operator<Expression> between(final Object from, final Object to) {
-        setExpression(buildBetweenExpression(from, to));
+        setPredicate(buildBetweenExpression(from, to));
         return this;
     }
 
@@ -117,7 +134,7 @@ public class Expression implements Comparable<Expression>, Operator<Expression>,
         if (value != null) {
             expression = "%" + value + "%";
         }
-        setExpression(buildUnaryExpression( "LIKE", expression));
+        setPredicate(buildUnaryExpression( "LIKE", expression));
         return this;
     }
 
@@ -138,32 +155,88 @@ public class Expression implements Comparable<Expression>, Operator<Expression>,
                         .reduce((a, b) -> StringUtils.joinWith(", ", a, b))
                         .map(value -> "(" + value + ")")
                         .orElse(StringUtils.EMPTY);
-                setExpression(buildUnaryExpression("IN", expression));
+                setPredicate(buildUnaryExpression("IN", expression));
             }
         }
         return this;
     }
 
+    /**
+     * @return  The SQL condition, its columns being prefixed with the alias (or with the {@link #ALIAS} placeholder,
+     *          before {@link #withAlias(String)})
+     */
     @Override
     public String build() {
-        return expression;
+        return alias == null ? expression : expression.replace(ALIAS, alias);
+    }
+
+    /**
+     * Split the expression on its top level 'and' operators (the nested conjunctions are flattened). A conjunct
+     * holding a top level 'or' keeps its parenthesis, so that it can be joined with other conjuncts.
+     * @return  The conjuncts
+     */
+    @Override
+    public List<String> buildConjuncts() {
+        final List<String> conjuncts = new ArrayList<>();
+        appendConjuncts(collapseSpaces(build()), conjuncts);
+        return conjuncts;
     }
 
     @Override
     public String toString() {
-        return expression;
+        return build();
+    }
+
+    /**
+     * Two expressions are equal when they have the same structure (column, operator and literal of each predicate)
+     * and the same alias.
+     */
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        final Expression that = (Expression) other;
+        return Objects.equals(alias, that.alias) && structure.equals(that.structure);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(alias, structure);
+    }
+
+    /*
+     * Set the expression of a predicate, its structure being computed by the build method.
+     */
+    private void setPredicate(final String predicate) {
+        final List<Object> predicateStructure = this.structure;
+        setExpression(predicate);
+        this.structure = predicateStructure;
+    }
+
+    private static Object structureOf(final Statement statement) {
+        if (statement instanceof Expression) {
+            final Expression expression = (Expression) statement;
+            return expression.alias == null
+                    ? expression.structure
+                    : List.of(expression.alias, expression.structure);
+        }
+        return statement.build();
     }
 
     private String buildUnaryExpression(final String operation, final Object value) {
-        String expression;
         if (value == null || (value instanceof String && StringUtils.isBlank((String) value))) {
-            expression = String.format(ALIAS + ".%s IS NULL", columnName);
-        } else if (value instanceof String && !operation.equals("IN")) {
-            expression = String.format(ALIAS + ".%s %s '%s'", columnName, operation, value);
-        } else {
-            expression = String.format(ALIAS + ".%s %s %s", columnName, operation, value);
+            structure = List.of(columnName, "IS NULL");
+            return String.format(ALIAS + ".%s IS NULL", columnName);
         }
-        return expression;
+        final String literal = value instanceof String && !operation.equals("IN")
+                ? String.format("'%s'", value)
+                : String.valueOf(value);
+        structure = List.of(columnName, operation, literal);
+        return String.format(ALIAS + ".%s %s %s", columnName, operation, literal);
     }
 
     private String buildBetweenExpression(final Object valueOne, final Object valueTwo) {
@@ -174,15 +247,109 @@ public class Expression implements Comparable<Expression>, Operator<Expression>,
             expression = ge(valueOne).build();
         } else if ((valueOne instanceof String) || (valueTwo instanceof String)) {
             expression = String.format(ALIAS + ".%s BETWEEN '%s' AND '%s'", columnName, valueOne, valueTwo);
+            structure = List.of(columnName, "BETWEEN", "'" + valueOne + "'", "'" + valueTwo + "'");
         } else {
             expression = String.format(ALIAS + ".%s BETWEEN %s AND %s", columnName, valueOne, valueTwo);
+            structure = List.of(columnName, "BETWEEN", String.valueOf(valueOne), String.valueOf(valueTwo));
         }
         return expression.replaceFirst("\\(", StringUtils.EMPTY)
                 .replaceFirst("\\)", StringUtils.EMPTY);
     }
 
+    /*
+     * Collapse the white spaces outside the quoted literals.
+     */
+    private static String collapseSpaces(final String expression) {
+        final StringBuilder collapsed = new StringBuilder(expression.length());
+        boolean quoted = false;
+        for (int index = 0; index < expression.length(); index++) {
+            final char current = expression.charAt(index);
+            if (current == '\'') {
+                quoted = !quoted;
+            }
+            if (quoted || !Character.isWhitespace(current)) {
+                collapsed.append(current);
+            } else if (collapsed.length() > 0 && collapsed.charAt(collapsed.length() - 1) != ' ') {
+                collapsed.append(' ');
+            }
+        }
+        return collapsed.toString().trim();
+    }
+
+    private static void appendConjuncts(final String expression, final List<String> conjuncts) {
+        if (StringUtils.isEmpty(expression)) {
+            return;
+        }
+        final List<String> terms = splitTopLevel(expression, AND);
+        if (terms.size() == 1) {
+            final String term = terms.get(0);
+            if (isEnclosed(term)) {
+                // redundant parenthesis
+                appendConjuncts(unwrap(term), conjuncts);
+            } else if (splitTopLevel(term, OR).size() > 1) {
+                conjuncts.add(String.format(EXP_TMPL, term));
+            } else {
+                conjuncts.add(term);
+            }
+            return;
+        }
+        terms.forEach(term -> appendConjuncts(term, conjuncts));
+    }
+
+    /*
+     * Split the expression on the operator, outside the parenthesis and the quoted literals.
+     */
+    private static List<String> splitTopLevel(final String expression, final String operator) {
+        final List<String> terms = new ArrayList<>();
+        int depth = 0;
+        boolean quoted = false;
+        int start = 0;
+        for (int index = 0; index < expression.length(); index++) {
+            final char current = expression.charAt(index);
+            if (current == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && current == '(') {
+                depth++;
+            } else if (!quoted && current == ')') {
+                depth--;
+            } else if (!quoted && depth == 0 && expression.startsWith(operator, index)) {
+                terms.add(expression.substring(start, index).trim());
+                start = index + operator.length();
+                index = start - 1;
+            }
+        }
+        terms.add(expression.substring(start).trim());
+        return terms;
+    }
+
+    /*
+     * true when the expression is enclosed in one pair of parenthesis: "(a) and (b)" is not.
+     */
+    private static boolean isEnclosed(final String expression) {
+        if (!expression.startsWith("(") || !expression.endsWith(")")) {
+            return false;
+        }
+        int depth = 0;
+        boolean quoted = false;
+        for (int index = 0; index < expression.length() - 1; index++) {
+            final char current = expression.charAt(index);
+            if (current == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && current == '(') {
+                depth++;
+            } else if (!quoted && current == ')' && --depth == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String unwrap(final String expression) {
+        return expression.substring(1, expression.length() - 1).trim();
+    }
+
     private static String appendParenthesis(final String expression) {
-        if (expression.contains(" and ") || expression.contains(" or ")) {
+        if (expression.contains(AND) || expression.contains(OR)) {
             return String.format(EXP_TMPL, expression);
         }
         return expression;
@@ -190,6 +357,6 @@ public class Expression implements Comparable<Expression>, Operator<Expression>,
 
     @Override
     public int compareTo(Expression expression) {
-        return Comparator.comparing(Expression::getExpression).compare(this, expression);
+        return Comparator.comparing(Expression::build).compare(this, expression);
     }
 }
@@ -0,0 +1,83 @@
+package lu.mms.common.quality.assets.db.re;
+
+import lu.mms.common.quality.assets.db.re.schema.Schema;
+
+/**
+ * Receive the events of an extraction (see {@link ReverseEngineeringWizard#withListener(ExtractionListener)}), to
+ * find out where the extraction time goes. All the methods do nothing by default. <br>
+ * The events are delivered one at a time, even when the records are collected by several workers. The durations are
+ * in nanoseconds.
+ */
+public interface ExtractionListener {
+
+    /**
+     * The extraction phases.
+     */
+    enum Phase {
+        /** Collect the definition of the configured tables (and sample them). */
+        METADATA,
+        /** Scan the foreign keys to add the related tables, depending on the level. */
+        FOREIGN_KEYS,
+        /** Read the tables records. */
+        DATA,
+        /**
+         * Encode the records values in SQL and write them in the script: the values of the current row when the
+         * records are streamed (the query execution and the cursor moves belong to {@link #DATA}), or the values of
+         * the records in memory (see {@code Dml#listener}).
+         */
+        RENDER
+    }
+
+    /**
+     * A table is added in the context.
+     * @param tableName The table name
+     * @param relatedTable  The table it is related to, null when the table is configured
+     */
+    default void onTableDiscovered(final String tableName, final String relatedTable) {
+    }
+
+    /**
+     * A catalog query was executed.
+     * @param tableName The table the query was executed for, null when the query covers the whole schema
+     * @param query The query description
+     * @param durationNanos The query duration
+     */
+    default void onMetadataQuery(final String tableName, final String query, final long durationNanos) {
+    }
+
+    /**
+     * The records of a table were read.
+     * @param tableName The table name
+     * @param rows  The amount of rows read
+     * @param queries   The amount of queries executed (pages)
+     * @param durationNanos The reading duration: the queries execution and the cursor moves, the rows handling
+     *                      (records creation, or encoding when streamed) excluded
+     */
+    default void onRowsFetched(final String tableName, final long rows, final int queries, final long durationNanos) {
+    }
+
+    /**
+     * The records of a table were encoded in the SQL script.
+     * @param tableName The table name
+     * @param rows  The amount of rows encoded
+     * @param bytes The amount of bytes of the encoded values, in UTF-8
+     */
+    default void onRowsEncoded(final String tableName, final long rows, final long bytes) {
+    }
+
+    /**
+     * An extraction phase is completed.
+     * @param phase The phase
+     * @param durationNanos The phase duration
+     */
+    default void onPhaseCompleted(final Phase phase, final long durationNanos) {
+    }
+
+    /**
+     * The extraction is completed.
+     * @param schema    The extracted schema
+     * @param durationNanos The extraction duration
+     */
+    default void onExtractionCompleted(final Schema schema, final long durationNanos) {
+    }
+}
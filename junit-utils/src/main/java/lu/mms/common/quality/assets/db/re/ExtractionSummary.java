@@ -0,0 +1,133 @@
+package lu.mms.common.quality.assets.db.re;
+
+import lu.mms.common.quality.assets.db.re.schema.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Built-in {@link ExtractionListener}: collect the extraction figures (per phase and per table), and log a summary
+ * once the extraction is completed.
+ */
+public class ExtractionSummary implements ExtractionListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExtractionSummary.class);
+
+    private static final String TABLE_LINE = "%n  %-30s %10s rows %5s queries %12s bytes  %s";
+
+    private final Map<Phase, Long> phases = new EnumMap<>(Phase.class);
+    private final Map<String, TableFigures> tables = new TreeMap<>();
+    private int metadataQueries;
+    private long metadataNanos;
+    private long totalNanos;
+
+    @Override
+    public void onTableDiscovered(final String tableName, final String relatedTable) {
+        tables.computeIfAbsent(tableName, name -> new TableFigures());
+    }
+
+    @Override
+    public void onMetadataQuery(final String tableName, final String query, final long durationNanos) {
+        metadataQueries++;
+        metadataNanos += durationNanos;
+    }
+
+    @Override
+    public void onRowsFetched(final String tableName, final long rows, final int queries, final long durationNanos) {
+        final TableFigures figures = tables.computeIfAbsent(tableName, name -> new TableFigures());
+        figures.rows += rows;
+        figures.queries += queries;
+        figures.nanos += durationNanos;
+    }
+
+    @Override
+    public void onRowsEncoded(final String tableName, final long rows, final long bytes) {
+        tables.computeIfAbsent(tableName, name -> new TableFigures()).bytes += bytes;
+    }
+
+    @Override
+    public void onPhaseCompleted(final Phase phase, final long durationNanos) {
+        phases.merge(phase, durationNanos, Long::sum);
+    }
+
+    @Override
+    public void onExtractionCompleted(final Schema schema, final long durationNanos) {
+        totalNanos += durationNanos;
+        LOGGER.info(getSummary());
+    }
+
+    /**
+     * @param phase The phase
+     * @return  The phase duration, in nanoseconds (0 when the phase did not run)
+     */
+    public long getPhaseNanos(final Phase phase) {
+        return phases.getOrDefault(phase, 0L);
+    }
+
+    /**
+     * @return  The amount of catalog queries.
+     */
+    public int getMetadataQueries() {
+        return metadataQueries;
+    }
+
+    /**
+     * @param tableName The table name
+     * @return  The amount of rows read from the table.
+     */
+    public long getRows(final String tableName) {
+        final TableFigures figures = tables.get(tableName);
+        return figures == null ? 0 : figures.rows;
+    }
+
+    /**
+     * @param tableName The table name
+     * @return  The amount of queries executed to read the table records.
+     */
+    public int getQueries(final String tableName) {
+        final TableFigures figures = tables.get(tableName);
+        return figures == null ? 0 : figures.queries;
+    }
+
+    /**
+     * @param tableName The table name
+     * @return  The amount of bytes of the table values encoded in the SQL script (UTF-8).
+     */
+    public long getEncodedBytes(final String tableName) {
+        final TableFigures figures = tables.get(tableName);
+        return figures == null ? 0 : figures.bytes;
+    }
+
+    /**
+     * @return  The summary: the duration of each phase, then the figures of each table.
+     */
+    public String getSummary() {
+        final StringBuilder summary = new StringBuilder("Extraction summary: ")
+                .append(tables.size()).append(" table(s) in ").append(Schema.formatElapsedTime(totalNanos));
+        for (final Phase phase : Phase.values()) {
+            if (phases.containsKey(phase)) {
+                summary.append(String.format("%n  %-12s %s", phase, Schema.formatElapsedTime(phases.get(phase))));
+            }
+        }
+        summary.append(String.format("%n  %s catalog queries in %s", metadataQueries,
+                Schema.formatElapsedTime(metadataNanos)));
+        tables.forEach((tableName, figures) -> summary.append(String.format(
+                TABLE_LINE, tableName, figures.rows, figures.queries, figures.bytes,
+                Schema.formatElapsedTime(figures.nanos)
+        )));
+        return summary.toString();
+    }
+
+    /**
+     * The figures of a table.
+     */
+    private static final class TableFigures {
+        private long rows;
+        private int queries;
+        private long bytes;
+        private long nanos;
+    }
+}
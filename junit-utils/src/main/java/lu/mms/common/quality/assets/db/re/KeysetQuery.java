@@ -0,0 +1,95 @@
+package lu.mms.common.quality.assets.db.re;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset pagination of a table query: the rows are read by pages, ordered by primary key, each page resuming after
+ * the last key of the previous one. Unlike an offset, the key predicate lets the database seek the primary key index,
+ * so that each page costs the same.
+ */
+final class KeysetQuery {
+
+    private static final String PAGE_TEMPLATE = "SELECT * FROM (\n%s\n) page%s\nORDER BY %s\nFETCH FIRST %s ROWS ONLY";
+
+    private final String query;
+    private final List<String> keyColumns;
+    private final int[] keyIndexes;
+    private final int pageSize;
+
+    /**
+     * Constructor.
+     * @param query The table query
+     * @param columnNames   The columns selected by the query, in order
+     * @param keyColumns    The primary key columns
+     * @param pageSize  The amount of rows per page
+     */
+    KeysetQuery(final String query, final List<String> columnNames, final List<String> keyColumns,
+                final int pageSize) {
+        this.query = query;
+        this.keyColumns = keyColumns;
+        this.keyIndexes = keyColumns.stream().mapToInt(column -> columnNames.indexOf(column) + 1).toArray();
+        this.pageSize = pageSize;
+    }
+
+    int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @param lastKey   The last key of the previous page, null for the first page
+     * @return  The page query
+     */
+    String buildPage(final Object[] lastKey) {
+        final String predicate = lastKey == null ? "" : "\nWHERE " + keyPredicate();
+        return String.format(PAGE_TEMPLATE, query, predicate, String.join(", ", keyColumns), pageSize);
+    }
+
+    /**
+     * Bind the last key of the previous page to the page query parameters.
+     * @param statement The page query statement
+     * @param lastKey   The last key of the previous page
+     * @throws SQLException Thrown when a parameter can not be bound
+     */
+    void bind(final PreparedStatement statement, final Object[] lastKey) throws SQLException {
+        int parameter = 0;
+        for (int column = 0; column < keyColumns.size(); column++) {
+            for (int index = 0; index <= column; index++) {
+                statement.setObject(++parameter, lastKey[index]);
+            }
+        }
+    }
+
+    /**
+     * @param resultSet The page rows, positioned on a row
+     * @return  The primary key of the current row
+     * @throws SQLException Thrown when the key can not be read
+     */
+    Object[] readKey(final ResultSet resultSet) throws SQLException {
+        final Object[] key = new Object[keyIndexes.length];
+        for (int index = 0; index < keyIndexes.length; index++) {
+            key[index] = resultSet.getObject(keyIndexes[index]);
+        }
+        return key;
+    }
+
+    /**
+     * The rows after the key (K1, K2): K1 > ? or (K1 = ? and K2 > ?).
+     */
+    private String keyPredicate() {
+        final List<String> conditions = new ArrayList<>();
+        for (int column = 0; column < keyColumns.size(); column++) {
+            final List<String> terms = new ArrayList<>();
+            for (int index = 0; index < column; index++) {
+                terms.add(keyColumns.get(index) + " = ?");
+            }
+            terms.add(keyColumns.get(column) + " > ?");
+            conditions.add(terms.stream().collect(Collectors.joining(" and ", "(", ")")));
+        }
+        return String.join(" or ", conditions);
+    }
+}
@@ -1,16 +1,31 @@
 package lu.mms.common.quality.assets.db.re;
 
 import lu.mms.common.quality.assets.db.DBDriverName;
+import lu.mms.common.quality.assets.db.InMemoryDb;
 import lu.mms.common.quality.assets.db.MetadataFactory;
 import lu.mms.common.quality.assets.db.db2.DB2Metadata;
 import lu.mms.common.quality.assets.db.h2.H2Metadata;
 import lu.mms.common.quality.assets.db.oracle.OracleMetadata;
 import lu.mms.common.quality.assets.db.re.schema.Column;
+import lu.mms.common.quality.assets.db.re.schema.ForeignKeyGraph;
+import lu.mms.common.quality.assets.db.re.schema.ForeignKeyIndex;
+import lu.mms.common.quality.assets.db.re.schema.Index;
+import lu.mms.common.quality.assets.db.re.schema.MetadataCache;
 import lu.mms.common.quality.assets.db.re.schema.Record;
 import lu.mms.common.quality.assets.db.re.schema.Schema;
+import lu.mms.common.quality.assets.db.re.schema.ColumnEncoder;
+import lu.mms.common.quality.assets.db.re.schema.SqlLiteral;
 import lu.mms.common.quality.assets.db.re.schema.Table;
+import lu.mms.common.quality.assets.db.re.script.Dml;
+import lu.mms.common.quality.assets.db.re.script.DmlWriter;
+import lu.mms.common.quality.assets.db.re.script.LobFiles;
 import lu.mms.common.quality.assets.db.re.script.Dql;
+import lu.mms.common.quality.assets.db.re.script.From;
+import lu.mms.common.quality.assets.db.re.script.IndexCreation;
+import lu.mms.common.quality.assets.db.re.script.LoadProfile;
+import lu.mms.common.quality.assets.db.re.script.MigrationScript;
 import lu.mms.common.quality.assets.db.re.script.Relation;
+import lu.mms.common.quality.assets.db.re.script.SnapshotManifest;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.BooleanUtils;
@@ -19,22 +34,34 @@ import org.apache.commons.lang3.StringUtils;
 import org.apiguardian.api.API;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.jdbc.support.JdbcUtils;
-import org.springframework.jdbc.support.MetaDataAccessException;
 import org.springframework.util.StopWatch;
 
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -51,14 +78,43 @@ public class ReverseEngineeringWizard {
 
     private static final Set<String> TRUE_VALUES = Set.of(BooleanUtils.TRUE, BooleanUtils.ON, BooleanUtils.YES);
 
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private static final String SAMPLE_ALIAS = "S";
+
     private int level = 0;
+    private int parallelism = 1;
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+    private int pageSize;
     private boolean ddlOnly;
+    private boolean prefetchMetadata;
+    private Path metadataCacheDirectory;
+    private boolean columnarStorage;
+    private boolean compressedScripts;
+    private IndexCreation indexCreation = IndexCreation.BEFORE_LOAD;
+    private LoadProfile loadProfile = LoadProfile.CONSTRAINED;
+    private DBDriverName dmlDialect = DBDriverName.H2;
+    private int dmlBatchSize = Dml.DEFAULT_BATCH_SIZE;
+    private LobFiles lobFiles;
+    private SnapshotManifest snapshot;
     private final DataSource dataSource;
     private final String schemaName;
 
+    /* ****** CONTEXT ****** */
+    private DBDriverName driverName;
+    private MetadataFactory schemaMetadata;
+    private MetadataCache metadataCache;
+    private Map<String, String> definitionFingerprints = Map.of();
+    private ForeignKeyIndex foreignKeyIndex;
+    /* ****** CONTEXT ****** */
+
     /* ****** CONFIG ****** */
     private final Map<String, Collection<Statement>> filters = new HashMap<>();
     private final Map<String, Set<Relation>> joins = new HashMap<>();
+    private final Map<String, Sampling> samplings = new HashMap<>();
+    private final Map<String, Integer> fetchSizes = new HashMap<>();
+    private final Map<String, String> lastModifiedColumns = new HashMap<>();
+    private final List<ExtractionListener> listeners = new ArrayList<>();
     /* ****** CONFIG ****** */
 
     public ReverseEngineeringWizard(final DataSource dataSource, final String schema) {
@@ -76,6 +132,216 @@ public class ReverseEngineeringWizard {
         return this;
     }
 
+    /**
+     * Define the amount of workers collecting the tables records. Each worker uses its own connection, borrowed
+     * from the data source, and extracts a subset of the tables.
+     * @param parallelism   The amount of workers (1 by default: the records are collected with the main connection)
+     * @return  The {@link ReverseEngineeringWizard} object
+     */
+    public ReverseEngineeringWizard withParallelism(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be greater than zero.");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Define the amount of rows fetched per database round trip, when reading the tables records (the drivers
+     * default is often small: 10 rows on Oracle).
+     * @param fetchSize The amount of rows per round trip (1000 by default)
+     * @return  The {@link ReverseEngineeringWizard} object
+     */
+    public ReverseEngineeringWizard withFetchSize(final int fetchSize) {
+        this.fetchSize = checkFetchSize(fetchSize);
+        return this;
+    }
+
+    /**
+     * Define the amount of rows fetched per database round trip, when reading the given table records.
+     * @param tableName The table name
+     * @param fetchSize The amount of rows per round trip
+     * @return  The {@link ReverseEngineeringWizard} object
+     * @see #withFetchSize(int)
+     */
+    public ReverseEngineeringWizard withFetchSize(final String tableName, final int fetchSize) {
+        if (StringUtils.isBlank(tableName)) {
+            throw new IllegalArgumentException("The table name is required.");
+        }
+        this.fetchSizes.put(tableName.toUpperCase(), checkFetchSize(fetchSize));
+        return this;
+    }
+
+    private static int checkFetchSize(final int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("The fetch size must be greater than zero.");
+        }
+        return fetchSize;
+    }
+
+    /**
+     * Read the tables records by pages (keyset pagination): the records are ordered by primary key, and each page
+     * resumes after the last key of the previous one. The tables without primary key are read at once.
+     * @param pageSize  The amount of records per page, 0 (default) to read each table at once
+     * @return  The {@link ReverseEngineeringWizard} object
+     */
+    public ReverseEngineeringWizard withPageSize(final int pageSize) {
+        if (pageSize < 0) {
+            throw new IllegalArgumentException("The page size can't be negative.");
+        }
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Register a listener of the extraction events (tables discovered, catalog queries, rows read, phases
+     * duration...). See {@link ExtractionSummary} for a built-in summary reporter.
+     * @param listener  The extraction listener
+     * @return  The {@link ReverseEngineeringWizard} object
+     */
+    public ReverseEngineeringWizard withListener(final ExtractionListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("The extraction listener is required.");
+        }
+        this.listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Fetch the columns, constraints and check clauses of all the schema tables at once (one query per catalog
+     * view), instead of querying the catalog for each table added in the context.
+     * @param prefetchMetadata  true, to prefetch the schema metadata
+     * @return  The {@link ReverseEngineeringWizard} object
+     */
+    public ReverseEngineeringWizard prefetchMetadata(final boolean prefetchMetadata) {
+        this.prefetchMetadata = prefetchMetadata;
+        return this;
+    }
+
+    /**
+     * Keep the collected tables definition in a cache file, in the given directory, and reuse it during the next
+     * runs. A cached table definition is only reused when the table DDL did not change since it was cached (checked
+     * with one catalog query for the whole schema).
+     * @param directory The cache directory
+     * @return  The {@link ReverseEngineeringWizard} object
+     */
+    public ReverseEngineeringWizard withMetadataCache(final Path directory) {
+        this.metadataCacheDirectory = directory;
+        return this;
+    }
+
+    /**
+     * Store the extracted records by column, in typed arrays (see {@link Table#enableColumnarStorage()}), to reduce
+     * the memory footprint of the large tables.
+     * @param columnarStorage   true, to enable the columnar storage
+     * @return  The {@link ReverseEngineeringWizard} object
+     */
+    public ReverseEngineeringWizard columnarStorage(final boolean columnarStorage) {
+        this.columnarStorage = columnarStorage;
+        return this;
+    }
+
+    /**
+     * Write the streamed DML file gzip compressed (see {@link #streamDml(Class)}).
+     * @param compressedScripts true, to compress the DML file
+     * @return  The {@link ReverseEngineeringWizard} object
+     */
+    public ReverseEngineeringWizard compressedScripts(final boolean compressedScripts) {
+        this.compressedScripts = compressedScripts;
+        return this;
+    }
+
+    /**
+     * Define when the secondary indexes are created, for the streamed DML file: with
+     * {@link IndexCreation#AFTER_LOAD}, the indexes are created at the end of the DML file (see {@link #streamDml}).
+     * @param indexCreation The index creation (before the load by default, in the DDL)
+     * @return  The {@link ReverseEngineeringWizard} object
+     */
+    public ReverseEngineeringWizard withIndexCreation(final IndexCreation indexCreation) {
+        this.indexCreation = Objects.requireNonNull(indexCreation, "The index creation is mandatory.");
+        return this;
+    }
+
+    /**
+     * Define how the streamed DML file loads the records: with {@link LoadProfile#BULK}, the constraints and the
+     * indexes are added at the end of the DML file (see {@link #streamDml}), the DDL being created with the same
+     * profile.
+     * @param loadProfile   The load profile ({@link LoadProfile#CONSTRAINED} by default)
+     * @return  The {@link ReverseEngineeringWizard} object
+     */
+    public ReverseEngineeringWizard withLoadProfile(final LoadProfile loadProfile) {
+        this.loadProfile = Objects.requireNonNull(loadProfile, "The load profile is mandatory.");
+        return this;
+    }
+
+    /**
+     * Define the database the streamed DML file is written for (see {@link #streamDml}), to use its multi-row
+     * 'INSERT' syntax and to drop the constraints and indexes the file adds.
+     * @param dialect   The target database (H2 by default)
+     * @return  The {@link ReverseEngineeringWizard} object
+     */
+    public ReverseEngineeringWizard withDmlDialect(final DBDriverName dialect) {
+        this.dmlDialect = Objects.requireNonNull(dialect, "The dialect is mandatory.");
+        return this;
+    }
+
+    /**
+     * Define the maximum amount of rows per 'INSERT' statement of the streamed DML file (see {@link #streamDml}).
+     * @param batchSize The amount of rows (1000 by default)
+     * @return  The {@link ReverseEngineeringWizard} object
+     */
+    public ReverseEngineeringWizard withDmlBatchSize(final int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be greater than zero.");
+        }
+        this.dmlBatchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Stream the large objects columns (see {@link Column#isLob()}) to side files in the given directory, named after
+     * their content, instead of reading them in memory: the DML reads them back with the H2 <i>FILE_READ</i>
+     * function (see {@link LobFiles}), so the DML can only target H2. The CSV files and the schema snapshot inline
+     * the files content.
+     * @param directory The side files directory
+     * @return  The {@link ReverseEngineeringWizard} object
+     */
+    public ReverseEngineeringWizard withLobFiles(final Path directory) {
+        this.lobFiles = LobFiles.in(directory);
+        return this;
+    }
+
+    /**
+     * Extract only the rows changed since the snapshot described by the {@code manifest}, to write them as a
+     * {@link lu.mms.common.quality.assets.db.re.script.Delta}: the rows above the saved maximum key, the rows
+     * modified since the saved last modification (see {@link #withLastModified(String, String)}), and the rows of
+     * the key ranges whose summary (amount of rows, sum of the keys) changed. The watermarks are computed by the
+     * database, and replace the saved ones when the delta file is created. <br>
+     * The key range summaries only detect the inserted and deleted rows: the tables without last modification
+     * column, without single numeric primary key, or not in the saved snapshot, are extracted entirely.
+     * @param manifest  The snapshot manifest (see {@link SnapshotManifest#load(Path)})
+     * @return  The {@link ReverseEngineeringWizard} object
+     */
+    public ReverseEngineeringWizard withSnapshot(final SnapshotManifest manifest) {
+        this.snapshot = Objects.requireNonNull(manifest, "The snapshot manifest is mandatory.");
+        return this;
+    }
+
+    /**
+     * Define the last modification column of a table (example: an update timestamp), so that the rows updated since
+     * the saved snapshot are extracted (see {@link #withSnapshot(SnapshotManifest)}).
+     * @param tableName The table name
+     * @param columnName    The last modification column
+     * @return  The {@link ReverseEngineeringWizard} object
+     */
+    public ReverseEngineeringWizard withLastModified(final String tableName, final String columnName) {
+        if (StringUtils.isBlank(tableName) || StringUtils.isBlank(columnName)) {
+            throw new IllegalArgumentException("The table name and the last modification column are required.");
+        }
+        this.lastModifiedColumns.put(tableName.toUpperCase(), columnName.toUpperCase());
+        return this;
+    }
+
     public ReverseEngineeringWizard ddlOnly(boolean ddlOnly) {
         this.ddlOnly = ddlOnly;
         return this;
@@ -104,6 +370,24 @@ public class ReverseEngineeringWizard {
         return this;
     }
 
+    /**
+     * Add a table to the scanning context, and extract only a sample of its records (among the records matching the
+     * {@code filters}). The related tables records are restricted to the ones related to the sampled records, so
+     * that the extracted subset stays consistent.
+     * @param tableName The table name
+     * @param sampling  The sampling strategy
+     * @param filters The SQL expression to filter the tables rows.
+     * @return  The {@link ReverseEngineeringWizard} object
+     */
+    public ReverseEngineeringWizard withTable(final String tableName, final Sampling sampling,
+                                              final Statement... filters) {
+        if (StringUtils.isBlank(tableName) || sampling == null) {
+            throw new IllegalArgumentException("The table name and the sampling strategy are required.");
+        }
+        this.samplings.put(tableName.toUpperCase(), sampling);
+        return withTable(tableName, filters);
+    }
+
     /**
      * Add a table to the scanning context. Only the records matching the provided {@code values} will be included as
      * table records. If no match is found, the table will remain empty.
@@ -132,58 +416,161 @@ public class ReverseEngineeringWizard {
 
         // get connection
         try (final Connection connection = dataSource.getConnection()){
-            final DatabaseMetaData metadata = connection.getMetaData();
+            final Schema schema = collectSchemaDefinition(connection);
 
-            final Schema schema = createSchema(schemaName.toUpperCase(), metadata);
-
-            // add default config definitions & values
-            for (Map.Entry<String, Collection<Statement>> entry : filters.entrySet()) {
-                schema.appendTable(entry.getKey(), metadata, this::collectTableDefinition);
+            // collect each table records
+            if (!this.ddlOnly) {
+                final long start = System.nanoTime();
+                if (snapshot != null) {
+                    for (final Table table : schema.getTables().values()) {
+                        applySnapshot(connection, table);
+                    }
+                }
+                collectTablesValues(connection, schema);
+                fire(listener -> listener.onPhaseCompleted(ExtractionListener.Phase.DATA, System.nanoTime() - start));
             }
 
-            // Add PK & FK tables definition depending on level.
-            final Set<String> skip = new HashSet<>();
-            while(--this.level >= 0) {
-                // add relations definitions
-                final Collection<Table> scope = new HashSet<>(schema.getTables().values());
-                for (Table table : scope) {
-                    if (skip.contains(table.getName())) {
-                        continue;
-                    }
-                    skip.add(table.getName());
+            // Clean table constraints (make the difference between Table constraints and Columns constraints)
+            schema.cleanConstraints();
 
-                    // Explorer exported Keys: Foreign keys
-                    appendImportedKeys(metadata, schema, table);
+            // sort the tables columns
+            stopWatch.stop();
+            schema.setElapsedTime(stopWatch);
+            fire(listener -> listener.onExtractionCompleted(schema, stopWatch.getLastTaskTimeNanos()));
+            return schema;
+        } catch (SQLException ex){
+            LOGGER.error("Failed to extract the data. Code: {}, Cause: {}.", ex.getErrorCode(), ex.getMessage());
+            throw new IllegalStateException(ex.getMessage(), ex);
+        } finally {
+            if (stopWatch.isRunning()) {
+                stopWatch.stop();
+            }
+        }
+    }
 
-                    // Explorer exported Keys: Primary keys
-                    appendExportedKeys(metadata, schema, table);
+    /**
+     * Extract the records and write them in a DML file, in the same package as the {@code packageProvider} (or in
+     * the <i>/SQL</i> folder when no provider is given). <br>
+     * Unlike {@link #build()} followed by {@link lu.mms.common.quality.assets.db.re.script.Dml#createFile()}, the
+     * records are written as soon as they are read from the database, so that the memory usage does not depend on
+     * the tables size. The execution time printed in the banner is the one of the tables definition collection.
+     * @param packageProvider   The class been with in the target package
+     * @return  The created DML file
+     */
+    public Path streamDml(final Class<?> packageProvider) {
+        return streamDml(MigrationScript.resolveFile(packageProvider, DmlWriter.newFileName(compressedScripts)));
+    }
 
-                    LOGGER.info("Table [{}] added in the context.", table.getName());
+    /**
+     * Extract the records and write them in the given DML file, as soon as they are read from the database. The file
+     * is gzip compressed when its name ends with {@link MigrationScript#GZIP_EXTENSION}.
+     * @param file  The DML file to create
+     * @return  The created DML file
+     * @see #streamDml(Class)
+     */
+    public Path streamDml(final Path file) {
+        final StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
 
-                    this.joins.merge(
-                            table.getAlias(), table.getAllRelations(),
-                            (a, b) -> Stream.concat(a.stream(), b.stream()).collect(Collectors.toSet())
-                    );
+        try (final Connection connection = dataSource.getConnection()){
+            final Schema schema = collectSchemaDefinition(connection);
+            stopWatch.stop();
+            schema.setElapsedTime(stopWatch);
+
+            final long start = System.nanoTime();
+            long renderNanos = 0;
+            try (final DmlWriter writer = DmlWriter.open(file, schema.getExecutionTime())
+                    .dialect(dmlDialect)
+                    .batchSize(dmlBatchSize)
+                    .loadProfile(loadProfile)
+                    .indexCreation(indexCreation)) {
+                writer.writeDeletes(schema.getTables().values());
+                final List<Table> insertOrder = ForeignKeyGraph.of(schema).getInsertOrder();
+                for (final Table table : insertOrder) {
+                    writer.beginTable(table);
+                    renderNanos += streamColumnsValues(connection, table, writer);
+                    final long rows = writer.endTable();
+                    final long bytes = writer.getEncodedBytes();
+                    fire(listener -> listener.onRowsEncoded(table.getName(), rows, bytes));
+                    LOGGER.info("Table [{}]: {} record(s) written.", table.getName(), rows);
                 }
+                writer.writeDeferred(insertOrder);
+                LOGGER.info("File created: [{}]", writer.getFile());
             }
+            final long dataNanos = System.nanoTime() - start - renderNanos;
+            final long encodingNanos = renderNanos;
+            fire(listener -> {
+                listener.onPhaseCompleted(ExtractionListener.Phase.DATA, dataNanos);
+                listener.onPhaseCompleted(ExtractionListener.Phase.RENDER, encodingNanos);
+                listener.onExtractionCompleted(schema, stopWatch.getLastTaskTimeNanos() + dataNanos + encodingNanos);
+            });
+            return file;
+        } catch (SQLException ex){
+            LOGGER.error("Failed to extract the data. Code: {}, Cause: {}.", ex.getErrorCode(), ex.getMessage());
+            throw new IllegalStateException(ex.getMessage(), ex);
+        } catch (IOException ex) {
+            LOGGER.error("Failed to write the data: {}.", ex.getMessage());
+            throw new IllegalStateException(ex.getMessage(), ex);
+        } finally {
+            if (stopWatch.isRunning()) {
+                stopWatch.stop();
+            }
+        }
+    }
 
-            // collect each table records
-            if (!this.ddlOnly) {
-                for (final Table table : schema.getTables().values()) {
-                    // collect the columns values
-                    collectColumnsValues(connection, table);
+    /**
+     * Copy the extracted tables in the {@code target} data source: the tables are created from the collected
+     * definitions, and the records are streamed from the source to the target with JDBC batches, without rendering
+     * nor parsing any SQL script. The records are inserted in a single transaction, but the tables creation is
+     * committed before it (see {@link BatchLoader}).
+     * @param target    The target data source (example: an in memory database)
+     * @param dialect   The target database type
+     * @return  The copied schema definition (no records)
+     */
+    public Schema copyTo(final DataSource target, final InMemoryDb dialect) {
+        final StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+
+        try (final Connection connection = dataSource.getConnection();
+             final Connection targetConnection = target.getConnection();
+             final BatchLoader loader = BatchLoader.open(targetConnection, dialect)) {
+            final Schema schema = collectSchemaDefinition(connection);
+            loader.createSchema(schema.getName());
+
+            final long start = System.nanoTime();
+            final List<Table> tables = ForeignKeyGraph.of(schema).getInsertOrder();
+            final Map<Table, String> queries = new HashMap<>();
+            // the DDL statements are committed by the target database: the tables are created before the rows
+            for (final Table table : tables) {
+                queries.put(table, buildDistinctQuery(table));
+                try (final PreparedStatement statement = connection.prepareStatement(queries.get(table))) {
+                    loader.createTable(table,
+                            BatchLoader.fallbackTypes(statement.getMetaData(), table.getColumns().size()));
                 }
             }
+            for (final Table table : tables) {
+                final long tableStart = System.nanoTime();
+                try (final PreparedStatement statement = connection.prepareStatement(queries.get(table))) {
+                    statement.setFetchSize(fetchSizeOf(table));
+                    try (final ResultSet resultSet = statement.executeQuery()) {
+                        final long rows = loader.load(table, resultSet);
+                        final long duration = System.nanoTime() - tableStart;
+                        fire(listener -> listener.onRowsFetched(table.getName(), rows, 1, duration));
+                        LOGGER.info("Table [{}]: {} record(s) copied.", table.getName(), rows);
+                    }
+                }
+            }
+            loader.commit();
+            loader.addForeignKeys(tables);
+            final long dataNanos = System.nanoTime() - start;
+            fire(listener -> listener.onPhaseCompleted(ExtractionListener.Phase.DATA, dataNanos));
 
-            // Clean table constraints (make the difference between Table constraints and Columns constraints)
-            schema.cleanConstraints();
-
-            // sort the tables columns
             stopWatch.stop();
             schema.setElapsedTime(stopWatch);
+            fire(listener -> listener.onExtractionCompleted(schema, stopWatch.getLastTaskTimeNanos()));
             return schema;
         } catch (SQLException ex){
-            LOGGER.error("Failed to extract the data. Code: {}, Cause: {}.", ex.getErrorCode(), ex.getMessage());
+            LOGGER.error("Failed to copy the data. Code: {}, Cause: {}.", ex.getErrorCode(), ex.getMessage());
             throw new IllegalStateException(ex.getMessage(), ex);
         } finally {
             if (stopWatch.isRunning()) {
@@ -192,6 +579,284 @@ public class ReverseEngineeringWizard {
         }
     }
 
+    /**
+     * Collect the definition of the configured tables, and of the related tables depending on the scan level.
+     * @param connection    The DB connection
+     * @return  The schema with the tables definition (no records)
+     * @throws SQLException The exception thrown when accessing the metadata
+     */
+    private Schema collectSchemaDefinition(final Connection connection) throws SQLException {
+        final DatabaseMetaData metadata = connection.getMetaData();
+        final long start = System.nanoTime();
+
+        final Schema schema = createSchema(schemaName.toUpperCase(), metadata);
+        this.driverName = DBDriverName.from(metadata.getDriverName());
+        this.schemaMetadata = null;
+        this.metadataCache = null;
+        this.definitionFingerprints = Map.of();
+        if (metadataCacheDirectory != null) {
+            this.metadataCache = MetadataCache.load(metadataCacheDirectory, metadata.getURL(), schema.getName());
+            final long fingerprintsStart = System.nanoTime();
+            this.definitionFingerprints = fetchDefinitionFingerprints(schema.getName());
+            final long duration = System.nanoTime() - fingerprintsStart;
+            fire(listener -> listener.onMetadataQuery(null, "definition fingerprints", duration));
+        }
+
+        // the foreign keys are fetched before the tables definition: the indexes backing them are left out
+        final long foreignKeysFetchStart = System.nanoTime();
+        this.foreignKeyIndex = level > 0 ? fetchForeignKeys(schema.getName()) : null;
+        final long foreignKeysFetchNanos = System.nanoTime() - foreignKeysFetchStart;
+
+        // add default config definitions & values
+        for (Map.Entry<String, Collection<Statement>> entry : filters.entrySet()) {
+            fire(listener -> listener.onTableDiscovered(entry.getKey(), null));
+            schema.appendTable(entry.getKey(), metadata, this::collectTableDefinition);
+        }
+
+        // sample the configured tables, before the filters are shared with the related tables
+        for (final Map.Entry<String, Sampling> entry : samplings.entrySet()) {
+            applySampling(schema.getTables().get(entry.getKey()), entry.getValue());
+        }
+        final long metadataNanos = System.nanoTime() - start - foreignKeysFetchNanos;
+        fire(listener -> listener.onPhaseCompleted(ExtractionListener.Phase.METADATA, metadataNanos));
+
+        // Add PK & FK tables definition depending on level: each level only explores the tables discovered by the
+        // previous one (breadth first).
+        final long foreignKeysStart = System.nanoTime() - foreignKeysFetchNanos;
+        List<Table> frontier = new ArrayList<>(schema.getTables().values());
+        while(--this.level >= 0 && !frontier.isEmpty()) {
+            final List<Table> discovered = new ArrayList<>();
+            for (Table table : frontier) {
+                final ForeignKeyIndex foreignKeys = foreignKeysOf(metadata, schema, table);
+
+                // Explorer exported Keys: Foreign keys
+                appendImportedKeys(metadata, schema, table, foreignKeys, discovered);
+
+                // Explorer exported Keys: Primary keys
+                appendExportedKeys(metadata, schema, table, foreignKeys, discovered);
+
+                LOGGER.info("Table [{}] added in the context.", table.getName());
+
+                this.joins.merge(
+                        table.getAlias(), table.getAllRelations(),
+                        (a, b) -> Stream.concat(a.stream(), b.stream()).collect(Collectors.toSet())
+                );
+            }
+            frontier = discovered;
+        }
+        final long foreignKeysNanos = System.nanoTime() - foreignKeysStart;
+        fire(listener -> listener.onPhaseCompleted(ExtractionListener.Phase.FOREIGN_KEYS, foreignKeysNanos));
+
+        if (metadataCache != null) {
+            metadataCache.save();
+        }
+        return schema;
+    }
+
+    /**
+     * Restrict the table records to the sampled rows: a semi-join on the sample query, computed by the database. The
+     * related tables share the table statements: they are restricted with the same semi-join.
+     * @param table The sampled table
+     * @param sampling  The sampling strategy
+     */
+    private void applySampling(final Table table, final Sampling sampling) {
+        // the key columns, in the table columns order
+        final List<String> primaryKeys = table.getPrimaryKeyColumns();
+        final List<String> keyColumns = table.getColumns().keySet().stream()
+                .filter(primaryKeys::contains)
+                .collect(Collectors.toList());
+        if (keyColumns.isEmpty()) {
+            throw new IllegalStateException(
+                    String.format("The table [%s] has no primary key: it can't be sampled.", table.getName())
+            );
+        }
+        final List<Column> keys = keyColumns.stream()
+                .map(table.getColumns()::get)
+                .collect(Collectors.toList());
+        final Set<Relation> relations = collectActiveRelations(table);
+        // the semi-joined keys are unique, the joined ones are not
+        final From select = hasOuterJoin(relations) ? Dql.selectDistinct(keys) : Dql.select(keys);
+        final String keysQuery = select
+                .from(table)
+                .semiJoin(relations)
+                .where(table.getStatements())
+                .build();
+        final String sampleQuery = sampling.buildSampleQuery(keysQuery, keyColumns, driverName);
+        final String keyCondition = keyColumns.stream()
+                .map(column -> String.format("%s.%s = %s.%s", SAMPLE_ALIAS, column, Expression.ALIAS, column))
+                .collect(Collectors.joining(" and "));
+
+        final SqlCondition predicate = SqlCondition.of(String.format(
+                "EXISTS (SELECT 1 FROM (%s) %s WHERE %s)", sampleQuery, SAMPLE_ALIAS, keyCondition
+        ));
+        table.getStatements().add(predicate.withAlias(table.getAlias()));
+        LOGGER.info("Table [{}]: records sampled by the database ({}).", table.getName(), sampling);
+    }
+
+    /**
+     * Compute the table watermark with the database, then restrict the table records to the rows changed since the
+     * saved snapshot (see {@link #withSnapshot(SnapshotManifest)}). The related tables already hold their own copy
+     * of the table statements: the restriction only applies to the table.
+     * @param connection    The DB connection
+     * @param table The table
+     * @throws SQLException The exception thrown when reading the watermark
+     */
+    private void applySnapshot(final Connection connection, final Table table) throws SQLException {
+        final List<String> primaryKeys = table.getPrimaryKeyColumns();
+        final String lastModifiedColumn = lastModifiedColumns.get(table.getName());
+        // without last modification, the rows updated in place would not be detected
+        final SnapshotManifest.TableWatermark watermark = primaryKeys.size() == 1 && lastModifiedColumn != null
+                ? fetchWatermark(connection, table, primaryKeys.get(0), lastModifiedColumn)
+                : SnapshotManifest.TableWatermark.allRows();
+        snapshot.setExtracted(table.getName(), watermark);
+        final SnapshotManifest.TableWatermark previous = snapshot.getWatermark(table.getName());
+        if (lastModifiedColumn == null) {
+            LOGGER.info("Table [{}]: all the records are extracted (no last modification column).", table.getName());
+            return;
+        }
+        if (!snapshot.isIncremental(table.getName()) || previous.getMaxKey() == null) {
+            LOGGER.info("Table [{}]: all the records are extracted (no previous snapshot).", table.getName());
+            return;
+        }
+
+        final String keyColumn = Expression.ALIAS + "." + watermark.getKeyColumn();
+        final List<String> conditions = new ArrayList<>();
+        conditions.add(keyColumn + " > " + previous.getMaxKey());
+        final String lastModified = Expression.ALIAS + "." + lastModifiedColumn;
+        conditions.add(previous.getLastModified() == null
+                ? lastModified + " IS NOT NULL"
+                : lastModified + " > " + previous.getLastModified());
+        final Set<Long> changedBuckets = snapshot.getChangedBuckets(table.getName());
+        for (final long bucket : changedBuckets) {
+            conditions.add(String.format("(%s >= %s and %s < %s)",
+                    keyColumn, bucket * SnapshotManifest.BUCKET_WIDTH,
+                    keyColumn, (bucket + 1) * SnapshotManifest.BUCKET_WIDTH));
+        }
+        final SqlCondition predicate = SqlCondition.anyOf(conditions);
+        table.getStatements().add(predicate.withAlias(table.getAlias()));
+        LOGGER.info("Table [{}]: changed records extracted ({} changed key range(s)).", table.getName(),
+                changedBuckets.size());
+    }
+
+    /**
+     * Compute the table watermark with two aggregate queries on the table records: the maximum values, then the
+     * summary of each key range.
+     * @param connection    The DB connection
+     * @param table The table
+     * @param keyColumn The primary key column
+     * @param lastModifiedColumn    The last modification column
+     * @return  The table watermark ({@link SnapshotManifest.TableWatermark#allRows()} when the key is not numeric)
+     * @throws SQLException The exception thrown when reading the watermark
+     */
+    private SnapshotManifest.TableWatermark fetchWatermark(final Connection connection, final Table table,
+                                                           final String keyColumn, final String lastModifiedColumn)
+            throws SQLException {
+        final List<Column> columns = new ArrayList<>();
+        columns.add(table.getColumns().get(keyColumn));
+        if (!table.getColumns().containsKey(lastModifiedColumn)) {
+            throw new IllegalStateException(String.format(
+                    "The table [%s] has no column [%s].", table.getName(), lastModifiedColumn
+            ));
+        }
+        columns.add(table.getColumns().get(lastModifiedColumn));
+        final Set<Relation> relations = collectActiveRelations(table);
+        final From select = hasOuterJoin(relations) ? Dql.selectDistinct(columns) : Dql.select(columns);
+        final String records = select
+                .from(table)
+                .semiJoin(relations)
+                .where(table.getStatements())
+                .build();
+
+        final String maxSql = String.format("SELECT MAX(S.%s), MAX(S.%s) FROM (%s) S", keyColumn,
+                lastModifiedColumn, records);
+        LOGGER.debug("SQL query: \n" + maxSql);
+        final String maxKey;
+        final String lastModified;
+        try (final PreparedStatement statement = connection.prepareStatement(maxSql);
+             final ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            final SqlLiteral[] literals = SqlLiteral.forColumns(resultSet.getMetaData());
+            if (literals[0] != SqlLiteral.NUMBER && literals[0] != SqlLiteral.INTEGER) {
+                return SnapshotManifest.TableWatermark.allRows();
+            }
+            maxKey = readLiteral(resultSet, literals, 1);
+            lastModified = readLiteral(resultSet, literals, 2);
+        }
+
+        final String bucketSql = String.format(
+                "SELECT FLOOR(S.%1$s / %2$s), COUNT(*), SUM(S.%1$s) FROM (%3$s) S GROUP BY FLOOR(S.%1$s / %2$s)",
+                keyColumn, SnapshotManifest.BUCKET_WIDTH, records
+        );
+        LOGGER.debug("SQL query: \n" + bucketSql);
+        final Map<Long, String> buckets = new HashMap<>();
+        try (final PreparedStatement statement = connection.prepareStatement(bucketSql);
+             final ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                buckets.put(resultSet.getLong(1),
+                        resultSet.getLong(2) + ":" + resultSet.getBigDecimal(3).toPlainString());
+            }
+        }
+        return new SnapshotManifest.TableWatermark(keyColumn, maxKey, lastModifiedColumn, lastModified, buckets);
+    }
+
+    private static String readLiteral(final ResultSet resultSet, final SqlLiteral[] literals, final int column)
+            throws SQLException {
+        final StringBuilder buffer = new StringBuilder();
+        return literals[column - 1].append(resultSet, column, buffer) ? buffer.toString() : null;
+    }
+
+    /**
+     * Fetch the foreign keys of all the schema tables at once (one catalog query), so that the related tables are
+     * looked up in memory while scanning the levels.
+     * @param schema    The schema name
+     * @return  The foreign key index, null when the database is not supported (the keys are then read per table)
+     */
+    private ForeignKeyIndex fetchForeignKeys(final String schema) {
+        final long start = System.nanoTime();
+        final List<Map<String, Object>> foreignKeys;
+        if (DBDriverName.ORACLE == driverName) {
+            foreignKeys = OracleMetadata.fetchForeignKeys(dataSource, schema);
+        } else if (DBDriverName.DB2 == driverName) {
+            foreignKeys = DB2Metadata.fetchForeignKeys(dataSource, schema);
+        } else if (DBDriverName.H2 == driverName) {
+            foreignKeys = H2Metadata.fetchForeignKeys(dataSource, schema);
+        } else {
+            return null;
+        }
+        final long duration = System.nanoTime() - start;
+        fire(listener -> listener.onMetadataQuery(null, "foreign keys", duration));
+        final ForeignKeyIndex index = ForeignKeyIndex.of(foreignKeys);
+        LOGGER.info("Schema [{}]: {} foreign key column(s) indexed.", schema, index.size());
+        return index;
+    }
+
+    /**
+     * Provide the foreign keys of the table: looked up in the schema index, or read from the JDBC metadata when the
+     * schema foreign keys could not be fetched at once.
+     * @param metadata  The DB metadata
+     * @param schema    The DB schema
+     * @param table The table
+     * @return  The foreign keys index, containing at least the table foreign keys
+     * @throws SQLException The exception thrown when accessing the metadata
+     */
+    private ForeignKeyIndex foreignKeysOf(final DatabaseMetaData metadata, final Schema schema, final Table table)
+            throws SQLException {
+        if (foreignKeyIndex != null) {
+            return foreignKeyIndex;
+        }
+        final long start = System.nanoTime();
+        final ForeignKeyIndex tableKeys = new ForeignKeyIndex();
+        try (ResultSet importedKeys = metadata.getImportedKeys(null, schema.getName(), table.getName())) {
+            tableKeys.addAll(importedKeys);
+        }
+        try (ResultSet exportedKeys = metadata.getExportedKeys(null, schema.getName(), table.getName())) {
+            tableKeys.addAll(exportedKeys);
+        }
+        final long duration = System.nanoTime() - start;
+        fire(listener -> listener.onMetadataQuery(table.getName(), "imported and exported keys", duration));
+        return tableKeys;
+    }
+
     private Schema createSchema(final String schemaName, final DatabaseMetaData metadata) throws SQLException {
         final ResultSet schemaResultSet = metadata.getSchemas(null, schemaName);
         if (!schemaResultSet.next()) {
@@ -207,21 +872,26 @@ public class ReverseEngineeringWizard {
      * @param metadata  The DB metadata
      * @param schema    The DB schema to enrich
      * @param table The source table
-     * @throws SQLException The exception thrown when accessing the data
+     * @param foreignKeys   The foreign keys index
+     * @param discovered    The tables added in the context, to explore at the next level
      */
-    private void appendExportedKeys(final DatabaseMetaData metadata, final Schema schema, final Table table) throws SQLException {
+    private void appendExportedKeys(final DatabaseMetaData metadata, final Schema schema, final Table table,
+                                    final ForeignKeyIndex foreignKeys, final Collection<Table> discovered) {
         LOGGER.info("Adding table [{}] in the context.", table.getName());
 
         // Handle the exported Keys
-        final ResultSet exportedKeys = metadata.getExportedKeys(null, schema.getName(), table.getName());
-        while (exportedKeys.next()) {
-            final String targetTableName = exportedKeys.getString(7);
-            final String targetColumnName = exportedKeys.getString(8);
+        for (final ForeignKeyGraph.ForeignKey exportedKey : foreignKeys.getExportedKeys(table.getName())) {
+            final String targetTableName = exportedKey.getTable();
+            final String targetColumnName = exportedKey.getColumn();
 
-            final String originColumnName = exportedKeys.getString(4);
+            final String originColumnName = exportedKey.getTargetColumn();
 
             // retrieve the target table
-            final Table targetTable = schema.appendTable(targetTableName, metadata, this::collectTableDefinition);
+            if (!schema.getTables().containsKey(targetTableName)) {
+                fire(listener -> listener.onTableDiscovered(targetTableName, table.getName()));
+                discovered.add(schema.appendTable(targetTableName, metadata, this::collectTableDefinition));
+            }
+            final Table targetTable = schema.getTables().get(targetTableName);
             targetTable.appendForeignKey(targetColumnName, table, originColumnName);
             targetTable.getStatements().addAll(table.getStatements());
 
@@ -235,21 +905,26 @@ public class ReverseEngineeringWizard {
      * @param metadata  The DB metadata
      * @param schema    The DB schema to enrich
      * @param table The source table
-     * @throws SQLException The exception thrown when accessing the data
+     * @param foreignKeys   The foreign keys index
+     * @param discovered    The tables added in the context, to explore at the next level
      */
-    private void appendImportedKeys(final DatabaseMetaData metadata, final Schema schema, final Table table) throws SQLException {
+    private void appendImportedKeys(final DatabaseMetaData metadata, final Schema schema, final Table table,
+                                    final ForeignKeyIndex foreignKeys, final Collection<Table> discovered) {
         LOGGER.info("Adding table [{}] in the context.", table.getName());
 
         // Imported Keys
-        final ResultSet importedKeys = metadata.getImportedKeys(null, schema.getName(), table.getName());
-        while (importedKeys.next()) {
-            final String targetTableName = importedKeys.getString(3);
-            final String targetColumnName = importedKeys.getString(4);
+        for (final ForeignKeyGraph.ForeignKey importedKey : foreignKeys.getImportedKeys(table.getName())) {
+            final String targetTableName = importedKey.getTargetTable();
+            final String targetColumnName = importedKey.getTargetColumn();
 
-            final String originColumnName = importedKeys.getString(8);
+            final String originColumnName = importedKey.getColumn();
 
             // retrieve the target table
-            final Table targetTable = schema.appendTable(targetTableName, metadata, this::collectTableDefinition);
+            if (!schema.getTables().containsKey(targetTableName)) {
+                fire(listener -> listener.onTableDiscovered(targetTableName, table.getName()));
+                discovered.add(schema.appendTable(targetTableName, metadata, this::collectTableDefinition));
+            }
+            final Table targetTable = schema.getTables().get(targetTableName);
             targetTable.appendPrimaryKey(targetColumnName, table, originColumnName);
             targetTable.getStatements().addAll(table.getStatements());
 
@@ -258,17 +933,32 @@ public class ReverseEngineeringWizard {
     }
 
     private void collectTableDefinition(final DatabaseMetaData metadata, final Table table) {
-        LOGGER.info("Collecting table [{}] definition.", table.getName());
-        final DBDriverName driverName = retrieveDriverName(dataSource);
-        MetadataFactory metadataFactory;
-        if (DBDriverName.ORACLE == driverName) {
-            metadataFactory = new OracleMetadata(dataSource, table.getSchema().getName(), table.getName());
-        } else if (DBDriverName.DB2 == driverName) {
-            metadataFactory = new DB2Metadata(dataSource, table.getSchema().getName(), table.getName());
-        } else /*if (DatabaseType.H2 == dbType) */ {
-            metadataFactory = new H2Metadata(dataSource, table.getSchema().getName(), table.getName());
+        final String fingerprint = definitionFingerprints.get(table.getName());
+        if (metadataCache != null && metadataCache.restore(table, fingerprint)) {
+            LOGGER.info("Table [{}] definition restored from the metadata cache.", table.getName());
+        } else {
+            introspectTableDefinition(metadata, table);
+            if (metadataCache != null) {
+                metadataCache.store(table, fingerprint);
+            }
         }
 
+        final List<Statement> tableFilters = ObjectUtils.defaultIfNull(filters.get(table.getName()), List.<Expression>of())
+                .stream()
+                .map(statement -> statement.withAlias(table.getAlias()))
+                .collect(Collectors.toList());
+        table.getStatements().addAll(tableFilters);
+
+        if (columnarStorage) {
+            table.enableColumnarStorage();
+        }
+    }
+
+    private void introspectTableDefinition(final DatabaseMetaData metadata, final Table table) {
+        LOGGER.info("Collecting table [{}] definition.", table.getName());
+        final long start = System.nanoTime();
+        final MetadataFactory metadataFactory = newMetadataFactory(table);
+
         // collect PKs
         final Set<String> pkTableConstraint = new HashSet<>();
         try (final ResultSet resultSet = metadata.getPrimaryKeys(null, table.getSchema().getName(), table.getName())) {
@@ -308,60 +998,202 @@ public class ReverseEngineeringWizard {
                     .appendCheckConstraint(metadataFactory.getCheckConstraints())
                     .appendUniqueConstraint(uniqueTableConstraint)
                     .setDescription(tableDescription);
-
-            final List<Statement> tableFilters = ObjectUtils.defaultIfNull(filters.get(table.getName()), List.<Expression>of())
-                    .stream()
-                    .map(statement -> {
-                        statement.applyAlias(table.getAlias());
-                        return statement;
-                    })
-                    .collect(Collectors.toList());
-            table.getStatements().addAll(tableFilters);
         } catch (SQLException ex) {
             LOGGER.error(ex.getMessage(), ex);
             throw new RuntimeException(ex.getMessage());
         }
+
+        collectIndexes(metadata, metadataFactory, table, pkTableConstraint, uniqueTableConstraint);
+        final long duration = System.nanoTime() - start;
+        fire(listener -> listener.onMetadataQuery(table.getName(), "table definition", duration));
         LOGGER.info("Table [{}] definition collected.", table.getName());
     }
 
     /**
-     * Determine the database type from a given {@code datasource}.
-     * @param dataSource    The datasource
-     * @return  The database type object
+     * Collect the secondary indexes of the table. The indexes backing the primary key, the unique constraint or a
+     * foreign key (same columns) are left out, since the constraints create them, as well as the indexes on
+     * expressions.
+     * @param metadata  The DB metadata
+     * @param metadataFactory   The table metadata
+     * @param table The table to enrich
+     * @param primaryKeys   The primary key columns
+     * @param uniqueConstraint  The unique constraint columns
      */
-    private static DBDriverName retrieveDriverName(final DataSource dataSource) {
-        String driverName = null;
+    private void collectIndexes(final DatabaseMetaData metadata, final MetadataFactory metadataFactory,
+                                final Table table, final Set<String> primaryKeys, final String uniqueConstraint) {
+        final Map<String, Index> indexes = new LinkedHashMap<>();
+        final Set<String> invalidIndexes = new HashSet<>();
+        metadataFactory.getIndexColumns().stream()
+                .sorted(Comparator.comparingInt(row -> metadataFactory.parseInt(row,
+                        MetadataFactory.INDEX_COLUMN_POSITION)))
+                .forEach(row -> {
+                    final String indexName = StringUtils.trim(String.valueOf(row.get(MetadataFactory.INDEX_NAME)));
+                    final String columnName = StringUtils.trim(Objects.toString(row.get(MetadataFactory.INDEX_COLUMN_NAME), null));
+                    if (columnName == null || !table.getColumns().containsKey(columnName)) {
+                        invalidIndexes.add(indexName);
+                        return;
+                    }
+                    final boolean unique = "1".equals(String.valueOf(row.get(MetadataFactory.INDEX_UNIQUE)));
+                    indexes.computeIfAbsent(indexName, name -> new Index(name, unique)).appendColumn(columnName);
+                });
+
+        final Set<String> uniqueColumns = Stream.of(StringUtils.split(StringUtils.defaultString(uniqueConstraint), ','))
+                .map(StringUtils::trim)
+                .collect(Collectors.toSet());
+        final Collection<Set<String>> foreignKeys = foreignKeyColumnsOf(metadata, table);
+        indexes.values().stream()
+                .filter(index -> !invalidIndexes.contains(index.getName()))
+                .filter(index -> !new HashSet<>(index.getColumns()).equals(primaryKeys))
+                .filter(index -> !(index.isUnique() && new HashSet<>(index.getColumns()).equals(uniqueColumns)))
+                .filter(index -> !foreignKeys.contains(new HashSet<>(index.getColumns())))
+                .forEach(table::appendIndex);
+    }
+
+    /**
+     * Provide the columns of each table foreign key: looked up in the schema index, or read from the JDBC metadata
+     * when the schema foreign keys were not fetched at once.
+     * @param metadata  The DB metadata
+     * @param table The table
+     * @return  The columns of each table foreign key
+     */
+    private Collection<Set<String>> foreignKeyColumnsOf(final DatabaseMetaData metadata, final Table table) {
+        if (foreignKeyIndex != null) {
+            return foreignKeyIndex.getConstraintColumns(table.getName());
+        }
+        try (final ResultSet resultSet = metadata.getImportedKeys(null, table.getSchema().getName(),
+                table.getName())) {
+            return new ForeignKeyIndex().addAll(resultSet).getConstraintColumns(table.getName());
+        } catch (SQLException ex) {
+            LOGGER.warn("Failed to collect the table [{}] foreign keys: {}", table.getName(), ex.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Fetch the fingerprint of each schema table definition, used to check the metadata cache validity.
+     * @param schema    The schema name
+     * @return  The fingerprints, by table name
+     */
+    private Map<String, String> fetchDefinitionFingerprints(final String schema) {
+        if (DBDriverName.ORACLE == driverName) {
+            return OracleMetadata.fetchDefinitionFingerprints(dataSource, schema);
+        } else if (DBDriverName.DB2 == driverName) {
+            return DB2Metadata.fetchDefinitionFingerprints(dataSource, schema);
+        } else /*if (DatabaseType.H2 == dbType) */ {
+            return H2Metadata.fetchDefinitionFingerprints(dataSource, schema);
+        }
+    }
+
+    /**
+     * Provide the metadata of the given table. When the metadata are prefetched, the schema metadata are fetched
+     * with the first table, then looked up in memory.
+     * @param table The table
+     * @return  The table metadata
+     */
+    private MetadataFactory newMetadataFactory(final Table table) {
+        final String schema = table.getSchema().getName();
+        if (!prefetchMetadata) {
+            if (DBDriverName.ORACLE == driverName) {
+                return new OracleMetadata(dataSource, schema, table.getName());
+            } else if (DBDriverName.DB2 == driverName) {
+                return new DB2Metadata(dataSource, schema, table.getName());
+            } else /*if (DatabaseType.H2 == dbType) */ {
+                return new H2Metadata(dataSource, schema, table.getName());
+            }
+        }
+
+        if (schemaMetadata == null) {
+            LOGGER.info("Prefetching schema [{}] metadata.", schema);
+            if (DBDriverName.ORACLE == driverName) {
+                schemaMetadata = new OracleMetadata(dataSource, schema);
+            } else if (DBDriverName.DB2 == driverName) {
+                schemaMetadata = new DB2Metadata(dataSource, schema);
+            } else /*if (DatabaseType.H2 == dbType) */ {
+                schemaMetadata = new H2Metadata(dataSource, schema);
+            }
+        }
+        return schemaMetadata.forTable(table.getName());
+    }
+
+    /**
+     * Collect the records of all the schema tables, using {@link #parallelism} workers. <br>
+     * The queries are built upfront (the relations aliases are resolved while building them), and the records are
+     * added to the tables once collected, in the schema tables order: the result is the same as a serial run.
+     * @param connection    The main DB connection
+     * @param schema    The schema
+     */
+    private void collectTablesValues(final Connection connection, final Schema schema) {
+        final Map<Table, String> queries = new LinkedHashMap<>();
+        for (final Table table : schema.getTables().values()) {
+            queries.put(table, buildQuery(table));
+        }
+
+        if (parallelism == 1 || queries.size() < 2) {
+            queries.forEach((table, sql) -> collectColumnsValues(connection, table, sql).forEach(table::addRecord));
+            return;
+        }
+
+        final Queue<Map.Entry<Table, String>> pending = new ConcurrentLinkedQueue<>(queries.entrySet());
+        final Map<Table, List<Record>> results = new ConcurrentHashMap<>();
+        final int workers = Math.min(parallelism, queries.size());
+        final ExecutorService executor = Executors.newFixedThreadPool(workers);
         try {
-            driverName = JdbcUtils.extractDatabaseMetaData(
-                    dataSource, DatabaseMetaData::getDriverName
-            );
-        } catch (MetaDataAccessException ex) {
-            LOGGER.error(ex.getMessage());
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int worker = 0; worker < workers; worker++) {
+                futures.add(executor.submit(() -> {
+                    try (final Connection workerConnection = dataSource.getConnection()) {
+                        Map.Entry<Table, String> query;
+                        while ((query = pending.poll()) != null) {
+                            results.put(
+                                    query.getKey(),
+                                    collectColumnsValues(workerConnection, query.getKey(), query.getValue())
+                            );
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex.getMessage(), ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause().getMessage(), ex.getCause());
+        } finally {
+            executor.shutdownNow();
         }
-        return DBDriverName.from(driverName);
+
+        // merge the records in the schema
+        queries.keySet().forEach(table -> results.get(table).forEach(table::addRecord));
     }
 
-    private void collectColumnsValues(final Connection connection, final Table table) {
+    private String buildQuery(final Table table) {
         final String sql = Dql
                 .select(table.getColumns().values())
                 .from(table)
-                .join(collectActiveRelations(table))
+                .semiJoin(collectActiveRelations(table))
                 .where(table.getStatements())
                 .build();
 
         LOGGER.debug("SQL query: \n" + sql);
+        return sql;
+    }
 
-        // execute the statement
-        try (final PreparedStatement statement = connection.prepareStatement(sql)){
-            try (final ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    final Record record = new Record();
-                    for (Map.Entry<String, Column> entry: table.getColumns().entrySet()){
-                        record.appendColumnValue(entry.getKey(), resultSet.getObject(entry.getKey()));
-                    }
-                    table.addRecord(record);
+    private List<Record> collectColumnsValues(final Connection connection, final Table table, final String sql) {
+        final List<Record> records = new ArrayList<>();
+        // the columns are selected in the table columns order
+        final String[] columnNames = table.getColumns().keySet().toArray(String[]::new);
+        final StringBuilder buffer = new StringBuilder();
+        try {
+            readRows(connection, table, sql, (resultSet, encoders) -> {
+                final Record record = new Record();
+                for (int index = 0; index < columnNames.length; index++) {
+                    record.appendColumnLiteral(columnNames[index], encoders[index].read(resultSet, index + 1, buffer));
                 }
-            }
+                records.add(record);
+            });
         } catch (final SQLException ex) {
             final String msg = String.format("Failed to extract the data. Code: %s, Cause: %s.", ex.getErrorCode(), ex.getMessage());
             LOGGER.error(msg);
@@ -369,7 +1201,171 @@ public class ReverseEngineeringWizard {
         } catch (final Exception exception) {
             throw new IllegalStateException(exception.getMessage(), exception);
         }
+        return records;
+    }
 
+    /**
+     * Build the query of the table records. The related tables are semi-joined, so that each record is selected
+     * once. The records are still made distinct by the database when the table is (outer) joined or has no primary
+     * key, since they are not collected in a {@link Table}.
+     * @param table The table
+     * @return  The SQL query
+     */
+    private String buildDistinctQuery(final Table table) {
+        final Set<Relation> relations = collectActiveRelations(table);
+        final boolean distinct = !relations.isEmpty()
+                && (hasOuterJoin(relations) || table.getPrimaryKeyColumns().isEmpty());
+        final From select = distinct
+                ? Dql.selectDistinct(table.getColumns().values())
+                : Dql.select(table.getColumns().values());
+        final String sql = select
+                .from(table)
+                .semiJoin(relations)
+                .where(table.getStatements())
+                .build();
+
+        LOGGER.debug("SQL query: \n" + sql);
+        return sql;
+    }
+
+    /**
+     * Read the table records and write them straight into the DML {@code writer}. <br>
+     * The related tables are semi-joined (see {@link #buildDistinctQuery(Table)}): each record is written once, as
+     * no record is kept in memory.
+     * @param connection    The DB connection
+     * @param table The table to extract
+     * @param writer    The DML writer
+     * @return  The time spent encoding and writing the records, the query execution and the cursor moves excluded,
+     *          in nanoseconds
+     */
+    private long streamColumnsValues(final Connection connection, final Table table, final DmlWriter writer) {
+        final String sql = buildDistinctQuery(table);
+        try {
+            return readRows(connection, table, sql, writer::appendRow);
+        } catch (final SQLException ex) {
+            final String msg = String.format("Failed to extract the data. Code: %s, Cause: %s.", ex.getErrorCode(), ex.getMessage());
+            LOGGER.error(msg);
+            throw new IllegalStateException(msg, ex);
+        } catch (final Exception exception) {
+            throw new IllegalStateException(exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Execute the table query, and pass each row to the {@code handler}. When the keyset pagination is enabled (see
+     * {@link #withPageSize(int)}), the rows are read by pages, in the primary key order.
+     * @param connection    The DB connection
+     * @param table The table
+     * @param sql   The table query, selecting the columns in the table columns order
+     * @param handler   The row handler
+     * @return  The time spent in the row handler, in nanoseconds: the reported fetching duration excludes it
+     * @throws SQLException The exception thrown when reading the rows
+     * @throws IOException  The exception thrown by the handler
+     */
+    private long readRows(final Connection connection, final Table table, final String sql, final RowHandler handler)
+            throws SQLException, IOException {
+        final long start = System.nanoTime();
+        long handlerNanos = 0;
+        final List<String> primaryKeys = table.getPrimaryKeyColumns();
+        if (pageSize == 0 || primaryKeys.isEmpty()) {
+            long rows = 0;
+            try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setFetchSize(fetchSizeOf(table));
+                try (final ResultSet resultSet = statement.executeQuery()) {
+                    final ColumnEncoder[] encoders = encodersOf(table, resultSet);
+                    while (resultSet.next()) {
+                        final long rowStart = System.nanoTime();
+                        handler.handle(resultSet, encoders);
+                        handlerNanos += System.nanoTime() - rowStart;
+                        rows++;
+                    }
+                }
+            }
+            final long totalRows = rows;
+            final long duration = System.nanoTime() - start - handlerNanos;
+            fire(listener -> listener.onRowsFetched(table.getName(), totalRows, 1, duration));
+            return handlerNanos;
+        }
+
+        // the key columns, in the table columns order
+        final List<String> columnNames = new ArrayList<>(table.getColumns().keySet());
+        final List<String> keyColumns = columnNames.stream()
+                .filter(primaryKeys::contains)
+                .collect(Collectors.toList());
+        final KeysetQuery keysetQuery = new KeysetQuery(sql, columnNames, keyColumns, pageSize);
+        Object[] lastKey = null;
+        int pages = 0;
+        long totalRows = 0;
+        int rows;
+        do {
+            rows = 0;
+            try (final PreparedStatement statement = connection.prepareStatement(keysetQuery.buildPage(lastKey))) {
+                statement.setFetchSize(Math.min(fetchSizeOf(table), pageSize));
+                if (lastKey != null) {
+                    keysetQuery.bind(statement, lastKey);
+                }
+                try (final ResultSet resultSet = statement.executeQuery()) {
+                    final ColumnEncoder[] encoders = encodersOf(table, resultSet);
+                    while (resultSet.next()) {
+                        final long rowStart = System.nanoTime();
+                        handler.handle(resultSet, encoders);
+                        handlerNanos += System.nanoTime() - rowStart;
+                        lastKey = keysetQuery.readKey(resultSet);
+                        rows++;
+                    }
+                }
+            }
+            pages++;
+            totalRows += rows;
+        } while (rows == pageSize);
+        LOGGER.debug("Table [{}]: {} page(s) read.", table.getName(), pages);
+        final long fetchedRows = totalRows;
+        final int queries = pages;
+        final long duration = System.nanoTime() - start - handlerNanos;
+        fire(listener -> listener.onRowsFetched(table.getName(), fetchedRows, queries, duration));
+        return handlerNanos;
+    }
+
+    /**
+     * Deliver an event to the listeners, one event at a time.
+     * @param event The event
+     */
+    private void fire(final Consumer<ExtractionListener> event) {
+        synchronized (listeners) {
+            listeners.forEach(event);
+        }
+    }
+
+    /**
+     * @param table The table
+     * @param resultSet The table records
+     * @return  The columns encoders: the SQL literals, or the side files of the LOB columns (see
+     *          {@link #withLobFiles(Path)})
+     * @throws SQLException Thrown when the metadata can not be read
+     */
+    private ColumnEncoder[] encodersOf(final Table table, final ResultSet resultSet) throws SQLException {
+        final SqlLiteral[] literals = SqlLiteral.forColumns(resultSet.getMetaData());
+        return lobFiles == null ? literals : lobFiles.forColumns(table, literals);
+    }
+
+    private int fetchSizeOf(final Table table) {
+        return fetchSizes.getOrDefault(table.getName(), fetchSize);
+    }
+
+    /**
+     * The handler of the rows read from a table.
+     */
+    @FunctionalInterface
+    private interface RowHandler {
+
+        void handle(ResultSet resultSet, ColumnEncoder[] encoders) throws SQLException, IOException;
+    }
+
+    /**
+     * @return  true, if a relation is an outer join: the relations are then joined instead of semi-joined.
+     */
+    private static boolean hasOuterJoin(final Set<Relation> relations) {
+        return relations.stream().anyMatch(relation -> relation.getJoinType() != null);
     }
 
     private HashSet<Relation> collectActiveRelations(Table table) {
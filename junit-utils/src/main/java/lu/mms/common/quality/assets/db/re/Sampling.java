@@ -0,0 +1,158 @@
+package lu.mms.common.quality.assets.db.re;
+
+import lu.mms.common.quality.assets.db.DBDriverName;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The sampling strategy of a table: only the sampled rows are extracted, along with the rows of the related tables
+ * they reference (or that reference them). <br>
+ * The rows are sampled by the database, on the table primary key or on a seeded hash of it: with the same data and
+ * the same seed, the same rows are sampled. The keys are never read by the wizard, the related tables are restricted
+ * with a semi-join on the sample query.
+ */
+public final class Sampling {
+
+    private static final long DEFAULT_SEED = 0L;
+
+    private static final String KEYS_ALIAS = "K";
+    /*
+     * The hash ranges: 1/100th of percent for the percentage, the ORA_HASH maximum otherwise.
+     */
+    private static final long PERCENTAGE_BUCKETS = 9999L;
+    private static final long MAX_HASH = 4294967295L;
+    /*
+     * The arithmetic hash of a numeric key: (key * multiplier + seed) modulo a prime number.
+     */
+    private static final long HASH_MULTIPLIER = 7919L;
+    private static final long HASH_MODULUS = 1000003L;
+
+    private enum Strategy {
+        FIRST_ROWS,
+        PERCENTAGE,
+        RANDOM
+    }
+
+    private final Strategy strategy;
+    private final int rows;
+    private final double percentage;
+    private final long seed;
+
+    private Sampling(final Strategy strategy, final int rows, final double percentage, final long seed) {
+        this.strategy = strategy;
+        this.rows = rows;
+        this.percentage = percentage;
+        this.seed = seed;
+    }
+
+    /**
+     * Sample the first rows, by primary key.
+     * @param rows  The amount of rows
+     * @return  The sampling strategy
+     */
+    public static Sampling firstRows(final int rows) {
+        checkRows(rows);
+        return new Sampling(Strategy.FIRST_ROWS, rows, 0, DEFAULT_SEED);
+    }
+
+    /**
+     * Sample a percentage of the rows: each row is kept when the hash of its key falls in the percentage.
+     * @param percentage    The percentage of rows, between 0 and 100
+     * @return  The sampling strategy
+     */
+    public static Sampling percentage(final double percentage) {
+        return percentage(percentage, DEFAULT_SEED);
+    }
+
+    /**
+     * Sample a percentage of the rows: each row is kept when the hash of its key falls in the percentage.
+     * @param percentage    The percentage of rows, between 0 and 100 (with a precision of 1/100th of percent)
+     * @param seed  The hash seed
+     * @return  The sampling strategy
+     */
+    public static Sampling percentage(final double percentage, final long seed) {
+        if (percentage < 0 || percentage > 100) {
+            throw new IllegalArgumentException("The sampling percentage must be between 0 and 100.");
+        }
+        return new Sampling(Strategy.PERCENTAGE, 0, percentage, seed);
+    }
+
+    /**
+     * Sample a fixed amount of random rows: the rows with the lowest hash of their key.
+     * @param rows  The amount of rows
+     * @param seed  The hash seed
+     * @return  The sampling strategy
+     */
+    public static Sampling random(final int rows, final long seed) {
+        checkRows(rows);
+        return new Sampling(Strategy.RANDOM, rows, 0, seed);
+    }
+
+    private static void checkRows(final int rows) {
+        if (rows < 1) {
+            throw new IllegalArgumentException("The amount of sampled rows must be greater than zero.");
+        }
+    }
+
+    /**
+     * Build the query selecting the sampled keys in the database: the rows are ordered (first rows), filtered
+     * (percentage) or ordered (random rows) by their primary key or by a hash of it, then the first ones are fetched.
+     * The hash is the <i>ORA_HASH</i> of the key text (H2, Oracle), or an arithmetic hash of a single numeric key for the
+     * other databases.
+     * @param keysQuery The query selecting the primary key of the table rows
+     * @param keyColumns    The primary key columns
+     * @param driverName    The database driver
+     * @return  The query selecting the sampled keys
+     */
+    String buildSampleQuery(final String keysQuery, final List<String> keyColumns, final DBDriverName driverName) {
+        final String orderByKey = keyColumns.stream()
+                .map(column -> KEYS_ALIAS + "." + column)
+                .collect(Collectors.joining(", "));
+        final String select = String.format("SELECT %s FROM (%s) %s", orderByKey, keysQuery, KEYS_ALIAS);
+        switch (strategy) {
+            case FIRST_ROWS:
+                return String.format("%s ORDER BY %s FETCH FIRST %s ROWS ONLY", select, orderByKey, rows);
+            case PERCENTAGE:
+                return String.format("%s WHERE %s < %s", select,
+                        hash(keyColumns, driverName, PERCENTAGE_BUCKETS), Math.round(percentage * 100));
+            default:
+                return String.format("%s ORDER BY %s, %s FETCH FIRST %s ROWS ONLY", select,
+                        hash(keyColumns, driverName, MAX_HASH), orderByKey, rows);
+        }
+    }
+
+    /**
+     * @return  The SQL hash of the key, between 0 and the given maximum value (inclusive)
+     */
+    private String hash(final List<String> keyColumns, final DBDriverName driverName, final long maxValue) {
+        if (DBDriverName.H2 == driverName || DBDriverName.ORACLE == driverName) {
+            // the key is hashed as text (H2 does not hash the numbers)
+            final String key = keyColumns.size() == 1
+                    ? "TO_CHAR(" + KEYS_ALIAS + "." + keyColumns.get(0) + ")"
+                    : keyColumns.stream()
+                        .map(column -> KEYS_ALIAS + "." + column)
+                        .collect(Collectors.joining(" || '|' || "));
+            return String.format("ORA_HASH(%s, %s, %s)", key, maxValue, Math.floorMod(seed, MAX_HASH + 1));
+        }
+        if (keyColumns.size() > 1) {
+            throw new IllegalStateException(String.format(
+                    "The composite primary keys can't be sampled randomly with the [%s] database.", driverName
+            ));
+        }
+        return String.format("MOD(ABS(%s.%s * %s + %s), %s)", KEYS_ALIAS, keyColumns.get(0), HASH_MULTIPLIER,
+                Math.floorMod(seed, HASH_MODULUS), Math.min(maxValue, HASH_MODULUS - 1) + 1);
+    }
+
+    @Override
+    public String toString() {
+        switch (strategy) {
+            case FIRST_ROWS:
+                return String.format("first %s rows", rows);
+            case PERCENTAGE:
+                return String.format("%s%% of the rows, seed %s", percentage, seed);
+            default:
+                return String.format("%s random rows, seed %s", rows, seed);
+        }
+    }
+}
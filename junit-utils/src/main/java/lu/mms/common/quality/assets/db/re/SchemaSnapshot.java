@@ -0,0 +1,643 @@
+package lu.mms.common.quality.assets.db.re;
+
+import lu.mms.common.quality.assets.db.InMemoryDb;
+import lu.mms.common.quality.assets.db.re.schema.Column;
+import lu.mms.common.quality.assets.db.re.schema.ForeignKeyGraph;
+import lu.mms.common.quality.assets.db.re.schema.Index;
+import lu.mms.common.quality.assets.db.re.schema.Record;
+import lu.mms.common.quality.assets.db.re.schema.Schema;
+import lu.mms.common.quality.assets.db.re.schema.Table;
+import lu.mms.common.quality.assets.db.re.script.LobFiles;
+import lu.mms.common.quality.assets.db.re.script.Relation;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Binary snapshot of the extracted {@link Schema} data: a faster alternative to the SQL scripts, to store and reload
+ * the test data. <br>
+ * Each table is written as a header describing the columns and constraints, followed by one length-prefixed block of
+ * values per column. The snapshot file is memory-mapped when opened, so that a column can be read in place (see
+ * {@link #getColumnValues(String, String)}), the whole schema restored (see {@link #toSchema()}), or the records
+ * loaded in a database with JDBC batches (see {@link #loadInto(DataSource, InMemoryDb)}).
+ */
+public final class SchemaSnapshot {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchemaSnapshot.class);
+
+    private static final int MAGIC = 0x52454253;
+    private static final short VERSION = 2;
+
+    private static final byte PRIMARY_KEY = 1;
+    private static final byte UNIQUE = 2;
+    private static final byte AUTO_INCREMENT = 4;
+
+    private static final byte PRIMARY_KEY_RELATION = 0;
+    private static final byte FOREIGN_KEY_RELATION = 1;
+
+    /*
+     * The value tags: each value is written as a tag, followed by its payload (if any).
+     */
+    private static final byte NULL_VALUE = 0;
+    private static final byte STRING_VALUE = 1;
+    private static final byte LONG_VALUE = 2;
+    private static final byte INTEGER_VALUE = 3;
+    private static final byte SHORT_VALUE = 4;
+    private static final byte DOUBLE_VALUE = 5;
+    private static final byte FLOAT_VALUE = 6;
+    private static final byte DECIMAL_VALUE = 7;
+    private static final byte TRUE_VALUE = 8;
+    private static final byte FALSE_VALUE = 9;
+
+    private static final String HEX_LITERAL_PREFIX = "X'";
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final String schemaName;
+    private final Map<String, TableEntry> entries;
+
+    private SchemaSnapshot(final Path file, final ByteBuffer buffer, final String schemaName,
+                           final Map<String, TableEntry> entries) {
+        this.file = file;
+        this.buffer = buffer;
+        this.schemaName = schemaName;
+        this.entries = entries;
+    }
+
+    /**
+     * Write the schema tables definition and records in a snapshot file.
+     * @param schema    The schema
+     * @param file  The snapshot file (replaced if it exists)
+     */
+    public static void write(final Schema schema, final Path file) {
+        final List<Table> tables = schema.getTables().values().stream()
+                .sorted()
+                .collect(Collectors.toList());
+        try {
+            Optional.ofNullable(file.toAbsolutePath().getParent()).ifPresent(SchemaSnapshot::createDirectories);
+            try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(file));
+                 DataOutputStream output = new DataOutputStream(stream)) {
+                output.writeInt(MAGIC);
+                output.writeShort(VERSION);
+                writeString(output, schema.getName());
+                output.writeInt(tables.size());
+                for (final Table table : tables) {
+                    writeTable(output, table);
+                }
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException(String.format("Failed to write the snapshot [%s].", file), ex);
+        }
+        LOGGER.info("Snapshot [{}] written: {} table(s).", file, tables.size());
+    }
+
+    /**
+     * Open (memory-map) a snapshot file. Only the tables header are read: the values are decoded on demand.
+     * @param file  The snapshot file
+     * @return  The snapshot
+     */
+    public static SchemaSnapshot open(final Path file) {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException(String.format("The snapshot [%s] exceeds 2 GB.", file));
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException ex) {
+            throw new IllegalStateException(String.format("Failed to open the snapshot [%s].", file), ex);
+        }
+
+        if (buffer.remaining() < Integer.BYTES + Short.BYTES || buffer.getInt() != MAGIC) {
+            throw new IllegalStateException(String.format("The file [%s] is not a schema snapshot.", file));
+        }
+        final short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IllegalStateException(
+                    String.format("The snapshot [%s] version [%s] is not supported.", file, version)
+            );
+        }
+        final String schemaName = readString(buffer);
+        final int tableCount = buffer.getInt();
+        final Map<String, TableEntry> entries = new LinkedHashMap<>();
+        for (int index = 0; index < tableCount; index++) {
+            final TableEntry entry = readTableEntry(buffer);
+            entries.put(entry.name, entry);
+        }
+        return new SchemaSnapshot(file, buffer, schemaName, entries);
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public Set<String> getTableNames() {
+        return entries.keySet();
+    }
+
+    public int getRowCount(final String tableName) {
+        return getEntry(tableName).rowCount;
+    }
+
+    /**
+     * Read the values of a column, without restoring the table records.
+     * @param tableName The table name
+     * @param columnName    The column name
+     * @return  The column values, formatted the way a {@link Record} stores them
+     */
+    public List<Object> getColumnValues(final String tableName, final String columnName) {
+        final TableEntry entry = getEntry(tableName);
+        final Integer position = entry.columnPositions.get(columnName.toUpperCase());
+        if (position == null) {
+            throw new IllegalArgumentException(
+                    String.format("The table [%s] or column [%s] do not exists.", tableName, columnName)
+            );
+        }
+        final ByteBuffer cursor = buffer.duplicate().position(position);
+        final List<Object> values = new ArrayList<>(entry.rowCount);
+        for (int row = 0; row < entry.rowCount; row++) {
+            values.add(readValue(cursor));
+        }
+        return values;
+    }
+
+    /**
+     * Restore the schema: the tables definition, relations and records.
+     * @return  The schema
+     */
+    public Schema toSchema() {
+        final Schema schema = readDefinitions();
+        for (final TableEntry entry : entries.values()) {
+            final Table table = schema.getTables().get(entry.name);
+            final ByteBuffer[] cursors = openCursors(entry);
+            for (int row = 0; row < entry.rowCount; row++) {
+                final Record record = new Record();
+                for (int index = 0; index < cursors.length; index++) {
+                    record.appendColumnLiteral(entry.columnNames.get(index), readValue(cursors[index]));
+                }
+                table.addRecord(record);
+            }
+        }
+        return schema;
+    }
+
+    /**
+     * Load the snapshot records in a target database, with JDBC batches: the tables are (re)created, the records
+     * inserted in a single transaction, then the foreign keys added once the records are committed.
+     * @param target    The target data source
+     * @param dialect   The target database
+     * @return  The schema with the tables definition (no records)
+     */
+    public Schema loadInto(final DataSource target, final InMemoryDb dialect) {
+        final Schema schema = readDefinitions();
+        try (final Connection connection = target.getConnection();
+             final BatchLoader loader = BatchLoader.open(connection, dialect)) {
+            loader.createSchema(schema.getName());
+
+            final List<Table> tables = ForeignKeyGraph.of(schema).getInsertOrder();
+            for (final Table table : tables) {
+                loader.createTable(table, entries.get(table.getName()).fallbackTypes);
+            }
+            for (final Table table : tables) {
+                final TableEntry entry = entries.get(table.getName());
+                final ByteBuffer[] cursors = openCursors(entry);
+                final int[] remainingRows = {entry.rowCount};
+                final long rows = loader.load(table, statement -> {
+                    if (remainingRows[0] == 0) {
+                        return false;
+                    }
+                    remainingRows[0]--;
+                    for (int index = 0; index < cursors.length; index++) {
+                        bindValue(statement, index + 1, readValue(cursors[index]));
+                    }
+                    return true;
+                });
+                LOGGER.info("Table [{}]: {} record(s) loaded.", table.getName(), rows);
+            }
+            loader.commit();
+            loader.addForeignKeys(tables);
+            return schema;
+        } catch (SQLException ex) {
+            LOGGER.error("Failed to load the snapshot [{}]. Code: {}, Cause: {}.", file, ex.getErrorCode(),
+                    ex.getMessage());
+            throw new IllegalStateException(ex.getMessage(), ex);
+        }
+    }
+
+    private TableEntry getEntry(final String tableName) {
+        return Optional.ofNullable(entries.get(tableName.toUpperCase()))
+                .orElseThrow(() -> new IllegalArgumentException(
+                        String.format("The table [%s] does not exist in the snapshot.", tableName)
+                ));
+    }
+
+    private ByteBuffer[] openCursors(final TableEntry entry) {
+        final ByteBuffer[] cursors = new ByteBuffer[entry.columnNames.size()];
+        for (int index = 0; index < cursors.length; index++) {
+            cursors[index] = buffer.duplicate().position(entry.columnPositions.get(entry.columnNames.get(index)));
+        }
+        return cursors;
+    }
+
+    /**
+     * Read the tables definition (columns, constraints, relations) from their header.
+     * @return  The schema, without records
+     */
+    private Schema readDefinitions() {
+        final Schema schema = new Schema(schemaName);
+        final Map<Table, List<String[]>> relations = new LinkedHashMap<>();
+        for (final TableEntry entry : entries.values()) {
+            final ByteBuffer header = buffer.duplicate().position(entry.headerPosition);
+            final Table table = new Table(readString(header));
+            table.setDescription(readString(header));
+            final int columnCount = header.getInt();
+            for (int index = 0; index < columnCount; index++) {
+                final int columnId = header.getInt();
+                final String name = readString(header);
+                final String columnType = readString(header);
+                readString(header);
+                final byte flags = header.get();
+                table.addColumn(new Column(columnId, name, columnType, (flags & PRIMARY_KEY) != 0,
+                        (flags & UNIQUE) != 0, (flags & AUTO_INCREMENT) != 0, readValue(header)));
+            }
+            table.appendPrimaryConstraint(List.of(StringUtils.split(readString(header), ',')))
+                    .appendUniqueConstraint(readString(header))
+                    .appendCheckConstraint(readString(header));
+            final int relationCount = header.getInt();
+            final List<String[]> tableRelations = new ArrayList<>(relationCount);
+            for (int index = 0; index < relationCount; index++) {
+                tableRelations.add(new String[]{
+                        String.valueOf(header.get()), readString(header), readString(header), readString(header)
+                });
+            }
+            final int indexCount = header.getInt();
+            for (int index = 0; index < indexCount; index++) {
+                final Index tableIndex = new Index(readString(header), header.get() != 0);
+                final int indexColumnCount = header.getInt();
+                for (int column = 0; column < indexColumnCount; column++) {
+                    tableIndex.appendColumn(readString(header));
+                }
+                table.appendIndex(tableIndex);
+            }
+            relations.put(table, tableRelations);
+            schema.addTable(table);
+        }
+
+        for (final Map.Entry<Table, List<String[]>> entry : relations.entrySet()) {
+            final Table table = entry.getKey();
+            for (final String[] relation : entry.getValue()) {
+                final Table refTable = Optional.ofNullable(schema.getTables().get(relation[2]))
+                        .orElseGet(() -> new Table(relation[2]));
+                if (Byte.parseByte(relation[0]) == PRIMARY_KEY_RELATION) {
+                    table.appendPrimaryKey(relation[1], refTable, relation[3]);
+                } else {
+                    table.appendForeignKey(relation[1], refTable, relation[3]);
+                }
+            }
+        }
+        return schema;
+    }
+
+    private static TableEntry readTableEntry(final ByteBuffer buffer) {
+        final int headerPosition = buffer.position();
+        final String name = readString(buffer);
+        readString(buffer);
+        final int columnCount = buffer.getInt();
+        final List<String> columnNames = new ArrayList<>(columnCount);
+        final String[] fallbackTypes = new String[columnCount];
+        for (int index = 0; index < columnCount; index++) {
+            buffer.getInt();
+            columnNames.add(readString(buffer));
+            readString(buffer);
+            fallbackTypes[index] = readString(buffer);
+            buffer.get();
+            readValue(buffer);
+        }
+        for (int index = 0; index < 3; index++) {
+            readString(buffer);
+        }
+        final int relationCount = buffer.getInt();
+        for (int index = 0; index < relationCount; index++) {
+            buffer.get();
+            readString(buffer);
+            readString(buffer);
+            readString(buffer);
+        }
+        final int indexCount = buffer.getInt();
+        for (int index = 0; index < indexCount; index++) {
+            readString(buffer);
+            buffer.get();
+            final int indexColumnCount = buffer.getInt();
+            for (int column = 0; column < indexColumnCount; column++) {
+                readString(buffer);
+            }
+        }
+        final int rowCount = buffer.getInt();
+
+        // skip the column blocks, only their position is kept
+        final Map<String, Integer> columnPositions = new LinkedHashMap<>();
+        for (final String columnName : columnNames) {
+            final int length = buffer.getInt();
+            columnPositions.put(columnName, buffer.position());
+            buffer.position(buffer.position() + length);
+        }
+        return new TableEntry(name, headerPosition, rowCount, columnNames, fallbackTypes, columnPositions);
+    }
+
+    private static void writeTable(final DataOutputStream output, final Table table) throws IOException {
+        final List<Column> columns = new ArrayList<>(table.getColumns().values());
+        final List<Record> records = table.getRecords();
+
+        // encode the column blocks first: the fallback types are computed from the values
+        final List<byte[]> blocks = new ArrayList<>(columns.size());
+        final List<String> fallbackTypes = new ArrayList<>(columns.size());
+        for (final Column column : columns) {
+            final ValueStatistics statistics = new ValueStatistics();
+            final ByteArrayOutputStream block = new ByteArrayOutputStream();
+            final DataOutputStream blockOutput = new DataOutputStream(block);
+            for (final Record record : records) {
+                // the LOB side files can't be read back from the snapshot: their content is inlined
+                final Object value = LobFiles.inline(record.getValue(column.getName()));
+                statistics.accept(value);
+                writeValue(blockOutput, value);
+            }
+            blockOutput.flush();
+            blocks.add(block.toByteArray());
+            fallbackTypes.add(statistics.columnType());
+        }
+
+        writeString(output, table.getName());
+        writeString(output, table.getDescription());
+        output.writeInt(columns.size());
+        for (int index = 0; index < columns.size(); index++) {
+            final Column column = columns.get(index);
+            output.writeInt(column.getColumnId());
+            writeString(output, column.getName());
+            writeString(output, column.getColumnType());
+            writeString(output, fallbackTypes.get(index));
+            output.writeByte((column.isPrimaryKey() ? PRIMARY_KEY : 0)
+                    | (column.isUnique() ? UNIQUE : 0)
+                    | (column.isAutoIncrement() ? AUTO_INCREMENT : 0));
+            writeValue(output, column.getDefaultValue());
+        }
+        writeString(output, table.getPrimaryKeyConstraint());
+        writeString(output, table.getUniqueConstraint());
+        writeString(output, table.getCheckConstraint());
+
+        final List<String[]> relations = new ArrayList<>();
+        // the table relations are the primary key relations merged with the foreign keys
+        final Map<String, Set<Relation>> primaryKeys = new LinkedHashMap<>();
+        table.getRelations().forEach((column, columnRelations) -> primaryKeys.put(column, columnRelations.stream()
+                .filter(relation -> !table.getForeignKeys().getOrDefault(column, Set.of()).contains(relation))
+                .collect(Collectors.toSet())));
+        collectRelations(relations, PRIMARY_KEY_RELATION, primaryKeys);
+        collectRelations(relations, FOREIGN_KEY_RELATION, table.getForeignKeys());
+        output.writeInt(relations.size());
+        for (final String[] relation : relations) {
+            output.writeByte(Byte.parseByte(relation[0]));
+            writeString(output, relation[1]);
+            writeString(output, relation[2]);
+            writeString(output, relation[3]);
+        }
+
+        output.writeInt(table.getIndexes().size());
+        for (final Index index : table.getIndexes()) {
+            writeString(output, index.getName());
+            output.writeByte(index.isUnique() ? 1 : 0);
+            output.writeInt(index.getColumns().size());
+            for (final String column : index.getColumns()) {
+                writeString(output, column);
+            }
+        }
+
+        output.writeInt(records.size());
+        for (final byte[] block : blocks) {
+            output.writeInt(block.length);
+            output.write(block);
+        }
+    }
+
+    private static void collectRelations(final List<String[]> relations, final byte kind,
+                                         final Map<String, Set<Relation>> relationsByColumn) {
+        relationsByColumn.forEach((column, columnRelations) -> columnRelations.stream()
+                .sorted()
+                .forEach(relation -> relations.add(new String[]{
+                        String.valueOf(kind), column, relation.getTargetTable(), relation.getTargetColumn()
+                })));
+    }
+
+    private static void writeValue(final DataOutputStream output, final Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(NULL_VALUE);
+        } else if (value instanceof Long) {
+            output.writeByte(LONG_VALUE);
+            output.writeLong((Long) value);
+        } else if (value instanceof Integer) {
+            output.writeByte(INTEGER_VALUE);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Short) {
+            output.writeByte(SHORT_VALUE);
+            output.writeShort((Short) value);
+        } else if (value instanceof Double) {
+            output.writeByte(DOUBLE_VALUE);
+            output.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            output.writeByte(FLOAT_VALUE);
+            output.writeFloat((Float) value);
+        } else if (value instanceof BigDecimal) {
+            final BigDecimal decimal = (BigDecimal) value;
+            final byte[] unscaledValue = decimal.unscaledValue().toByteArray();
+            output.writeByte(DECIMAL_VALUE);
+            output.writeInt(decimal.scale());
+            output.writeInt(unscaledValue.length);
+            output.write(unscaledValue);
+        } else if (value instanceof Boolean) {
+            output.writeByte((Boolean) value ? TRUE_VALUE : FALSE_VALUE);
+        } else {
+            // the character and temporal values are already formatted as SQL literals
+            output.writeByte(STRING_VALUE);
+            writeString(output, String.valueOf(value));
+        }
+    }
+
+    private static Object readValue(final ByteBuffer buffer) {
+        final byte tag = buffer.get();
+        switch (tag) {
+            case NULL_VALUE:
+                return null;
+            case STRING_VALUE:
+                return readString(buffer);
+            case LONG_VALUE:
+                return buffer.getLong();
+            case INTEGER_VALUE:
+                return buffer.getInt();
+            case SHORT_VALUE:
+                return buffer.getShort();
+            case DOUBLE_VALUE:
+                return buffer.getDouble();
+            case FLOAT_VALUE:
+                return buffer.getFloat();
+            case DECIMAL_VALUE:
+                final int scale = buffer.getInt();
+                final byte[] unscaledValue = new byte[buffer.getInt()];
+                buffer.get(unscaledValue);
+                return new BigDecimal(new BigInteger(unscaledValue), scale);
+            case TRUE_VALUE:
+                return Boolean.TRUE;
+            case FALSE_VALUE:
+                return Boolean.FALSE;
+            default:
+                throw new IllegalStateException(String.format("Unknown snapshot value tag [%s].", tag));
+        }
+    }
+
+    /**
+     * Bind a snapshot value to a statement parameter: the SQL literals are converted back to their raw value.
+     */
+    private static void bindValue(final PreparedStatement statement, final int index, final Object value)
+            throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.NULL);
+        } else if (value instanceof String) {
+            final String literal = (String) value;
+            if (literal.length() >= 2 && literal.startsWith("'") && literal.endsWith("'")) {
+                statement.setString(index, literal.substring(1, literal.length() - 1).replace("\\'", "'"));
+            } else if (literal.startsWith(HEX_LITERAL_PREFIX) && literal.endsWith("'")) {
+                statement.setBytes(index, decodeHex(literal.substring(2, literal.length() - 1)));
+            } else {
+                statement.setString(index, literal);
+            }
+        } else {
+            statement.setObject(index, value);
+        }
+    }
+
+    private static byte[] decodeHex(final String hex) {
+        final byte[] bytes = new byte[hex.length() / 2];
+        for (int index = 0; index < bytes.length; index++) {
+            bytes[index] = (byte) Integer.parseInt(hex.substring(index * 2, index * 2 + 2), 16);
+        }
+        return bytes;
+    }
+
+    private static void writeString(final DataOutputStream output, final String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void createDirectories(final Path directory) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new IllegalStateException(String.format("Failed to create the directory [%s].", directory), ex);
+        }
+    }
+
+    /**
+     * The position of a table in the snapshot: [header, column blocks].
+     */
+    private static final class TableEntry {
+        private final String name;
+        private final int headerPosition;
+        private final int rowCount;
+        private final List<String> columnNames;
+        private final String[] fallbackTypes;
+        private final Map<String, Integer> columnPositions;
+
+        private TableEntry(final String name, final int headerPosition, final int rowCount,
+                           final List<String> columnNames, final String[] fallbackTypes,
+                           final Map<String, Integer> columnPositions) {
+            this.name = name;
+            this.headerPosition = headerPosition;
+            this.rowCount = rowCount;
+            this.columnNames = columnNames;
+            this.fallbackTypes = fallbackTypes;
+            this.columnPositions = columnPositions;
+        }
+    }
+
+    /**
+     * The column type computed from the column values, used when the column type is not known.
+     */
+    private static final class ValueStatistics {
+        private JDBCType type;
+        private int precision;
+        private int scale;
+        private int length;
+
+        private void accept(final Object value) {
+            if (value == null) {
+                return;
+            }
+            length = Math.max(length, String.valueOf(value).length());
+            final JDBCType valueType;
+            if (value instanceof Long || value instanceof BigInteger) {
+                valueType = JDBCType.BIGINT;
+            } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                valueType = JDBCType.INTEGER;
+            } else if (value instanceof Double || value instanceof Float) {
+                valueType = JDBCType.DOUBLE;
+            } else if (value instanceof BigDecimal) {
+                final BigDecimal decimal = (BigDecimal) value;
+                valueType = JDBCType.NUMERIC;
+                final int integerDigits = Math.max(decimal.precision() - decimal.scale(), 1);
+                scale = Math.max(scale, Math.max(decimal.scale(), 0));
+                precision = Math.max(precision, integerDigits + scale);
+            } else if (value instanceof Boolean) {
+                valueType = JDBCType.BOOLEAN;
+            } else {
+                valueType = JDBCType.VARCHAR;
+            }
+            // mixed value types: stored as characters
+            type = type == null || type == valueType ? valueType : JDBCType.VARCHAR;
+        }
+
+        private String columnType() {
+            if (type == null || type == JDBCType.VARCHAR) {
+                return BatchLoader.columnType(JDBCType.VARCHAR, Math.max(length, 1), 0);
+            }
+            return BatchLoader.columnType(type, precision, scale);
+        }
+    }
+}
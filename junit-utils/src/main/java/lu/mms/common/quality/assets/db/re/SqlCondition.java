@@ -0,0 +1,67 @@
+package lu.mms.common.quality.assets.db.re;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A SQL condition computed by the wizard, its columns being prefixed with the {@link Expression#ALIAS} placeholder
+ * (example: <i>#alias_placeholder#.ID &gt; 42</i>).
+ */
+final class SqlCondition implements Statement {
+
+    private static final String NO_ROW_CONDITION = "1 = 0";
+
+    private final String condition;
+    private final String alias;
+
+    private SqlCondition(final String condition) {
+        this(condition, null);
+    }
+
+    private SqlCondition(final String condition, final String alias) {
+        this.condition = Objects.requireNonNull(condition, "The condition is mandatory.");
+        this.alias = alias;
+    }
+
+    /**
+     * @param condition The SQL condition
+     * @return  The statement
+     */
+    static SqlCondition of(final String condition) {
+        return new SqlCondition(condition);
+    }
+
+    /**
+     * @param conditions    The SQL conditions
+     * @return  The statement matching any of the conditions (no row when there is no condition)
+     */
+    static SqlCondition anyOf(final List<String> conditions) {
+        if (conditions.isEmpty()) {
+            return new SqlCondition(NO_ROW_CONDITION);
+        }
+        if (conditions.size() == 1) {
+            return new SqlCondition(conditions.get(0));
+        }
+        return new SqlCondition("(" + String.join(" or ", conditions) + ")");
+    }
+
+    @Override
+    public String getAlias() {
+        return alias;
+    }
+
+    @Override
+    public SqlCondition withAlias(final String alias) {
+        return new SqlCondition(condition, alias);
+    }
+
+    @Override
+    public String build() {
+        return alias == null ? condition : condition.replace(Expression.ALIAS, alias);
+    }
+
+    @Override
+    public String toString() {
+        return build();
+    }
+}
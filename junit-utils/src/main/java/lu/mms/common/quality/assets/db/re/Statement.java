@@ -1,9 +1,24 @@
 package lu.mms.common.quality.assets.db.re;
 
+import java.util.List;
+
 public interface Statement extends CanBuild {
 
     String getAlias();
 
-    void applyAlias(final String alias);
+    /**
+     * The statement is left unchanged: the statements are shared by the related tables, and kept in hash sets.
+     * @param alias The table alias
+     * @return  A copy of the statement, its columns being prefixed with the alias
+     */
+    Statement withAlias(final String alias);
+
+    /**
+     * The conjuncts of the statement, so that the redundant ones can be removed from the 'WHERE' clause.
+     * @return  The conjuncts ('and' terms) of the statement (the statement itself by default)
+     */
+    default List<String> buildConjuncts() {
+        return List.of(build());
+    }
 
 }
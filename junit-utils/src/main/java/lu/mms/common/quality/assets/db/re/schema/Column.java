@@ -13,6 +13,8 @@ public class Column implements Comparable<Column>, Cloneable  {
 
     private static final String NOT_NULL = " NOT NULL";
     private static final String UNIQUE = "UNIQUE";
+    private static final String[] LOB_TYPES = {"LOB", "LARGE OBJECT"};
+    private static final String[] BINARY_LOB_TYPES = {"BLOB", "BINARY LARGE OBJECT"};
 
     private Table parentTable;
     private final int columnId;
@@ -64,7 +66,23 @@ public class Column implements Comparable<Column>, Cloneable  {
         return name;
     }
 
+    public String getColumnType() {
+        return columnType;
+    }
+
+    public Object getDefaultValue() {
+        return defaultValue;
+    }
+
     public String getDefinition() {
+        return getDefinition(true);
+    }
+
+    /**
+     * @param withUniqueConstraint  false, to leave the unique constraint out (when it is added afterwards)
+     * @return  The column definition: the type followed by the column constraint or the default value.
+     */
+    public String getDefinition(final boolean withUniqueConstraint) {
         final StringBuilder definition = new StringBuilder(columnType);
         if (isPrimaryKey()) {
             final int startIndex = definition.indexOf(NOT_NULL);
@@ -75,7 +93,7 @@ public class Column implements Comparable<Column>, Cloneable  {
             definition.append(StringUtils.SPACE).append("PRIMARY KEY");
             return definition.toString();
         }
-        if (isUnique()) {
+        if (isUnique() && withUniqueConstraint) {
             definition.append(StringUtils.SPACE).append(UNIQUE);
             return definition.toString();
         }
@@ -107,6 +125,22 @@ public class Column implements Comparable<Column>, Cloneable  {
         return autoIncrement;
     }
 
+    /**
+     * @return  true, if the column is a large object (example: CLOB, BLOB, CHARACTER LARGE OBJECT).
+     */
+    public boolean isLob() {
+        final String type = StringUtils.upperCase(columnType);
+        return StringUtils.containsAny(type, LOB_TYPES);
+    }
+
+    /**
+     * @return  true, if the column is a binary large object (example: BLOB, BINARY LARGE OBJECT).
+     */
+    public boolean isBinaryLob() {
+        final String type = StringUtils.upperCase(columnType);
+        return StringUtils.containsAny(type, BINARY_LOB_TYPES);
+    }
+
     private static String formattedDefault(final Object defaultValue) {
         if (!(defaultValue instanceof String)) {
             return String.valueOf(ObjectUtils.defaultIfNull(defaultValue, StringUtils.EMPTY));
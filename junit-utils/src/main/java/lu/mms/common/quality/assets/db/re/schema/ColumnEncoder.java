@@ -0,0 +1,35 @@
+package lu.mms.common.quality.assets.db.re.schema;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Encode the column values of a result set as SQL values (see {@link SqlLiteral} for the literal encoders).
+ */
+public interface ColumnEncoder {
+
+    /**
+     * Append the SQL value of the column value (of the current row) to the buffer.
+     * @param resultSet The result set
+     * @param column    The column index (starting at 1)
+     * @param buffer    The buffer
+     * @return  true, if the value was appended. <br>
+     *          false, if the value is null (nothing appended).
+     * @throws SQLException Thrown when the value can not be read
+     */
+    boolean append(ResultSet resultSet, int column, StringBuilder buffer) throws SQLException;
+
+    /**
+     * Read the column value (of the current row) as stored in a {@link Record}: the numbers and booleans are kept
+     * as read, the other values are formatted as SQL values.
+     * @param resultSet The result set
+     * @param column    The column index (starting at 1)
+     * @param buffer    The reusable buffer
+     * @return  The record value, or null
+     * @throws SQLException Thrown when the value can not be read
+     */
+    default Object read(final ResultSet resultSet, final int column, final StringBuilder buffer) throws SQLException {
+        buffer.setLength(0);
+        return append(resultSet, column, buffer) ? buffer.toString() : null;
+    }
+}
@@ -0,0 +1,238 @@
+package lu.mms.common.quality.assets.db.re.schema;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The growable values of one table column. <br>
+ * The storage type is chosen from the first non null value: integral numbers (and decimals with a constant scale)
+ * are kept in a {@code long[]}, floating numbers in a {@code double[]}, and character values are dictionary encoded.
+ * Once a value does not fit the chosen type, the column falls back to an {@code Object[]}.
+ */
+final class ColumnVector {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private enum Kind { EMPTY, LONG, DOUBLE, STRING, OBJECT }
+
+    private Kind kind = Kind.EMPTY;
+    private Class<?> valueType;
+    private int scale;
+    private int size;
+    private final BitSet nulls = new BitSet();
+
+    private long[] longs;
+    private double[] doubles;
+    private int[] codes;
+    private List<String> dictionary;
+    private Map<String, Integer> dictionaryCodes;
+    private Object[] objects;
+
+    int size() {
+        return size;
+    }
+
+    void add(final Object value) {
+        ensureCapacity(size + 1);
+        size++;
+        set(size - 1, value);
+    }
+
+    Object get(final int row) {
+        if (nulls.get(row)) {
+            return null;
+        }
+        switch (kind) {
+            case LONG:
+                return toNumber(longs[row]);
+            case DOUBLE:
+                return valueType == Float.class ? (Object) (float) doubles[row] : (Object) doubles[row];
+            case STRING:
+                return dictionary.get(codes[row]);
+            case OBJECT:
+                return objects[row];
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Compare the stored value with the given one, without boxing the stored value.
+     * @param row   The row
+     * @param value The value to compare to
+     * @return  true when the stored value equals the given one
+     */
+    boolean valueEquals(final int row, final Object value) {
+        if (value == null || nulls.get(row)) {
+            return value == null && nulls.get(row);
+        }
+        if (kind == Kind.OBJECT) {
+            return value.equals(objects[row]);
+        }
+        if (value.getClass() != valueType) {
+            return false;
+        }
+        switch (kind) {
+            case LONG:
+                if (value instanceof BigDecimal) {
+                    final BigDecimal decimal = (BigDecimal) value;
+                    return decimal.scale() == scale && decimal.unscaledValue().bitLength() <= Long.SIZE - 1
+                            && decimal.unscaledValue().longValue() == longs[row];
+                }
+                return ((Number) value).longValue() == longs[row];
+            case DOUBLE:
+                return valueType == Float.class
+                        ? Float.floatToIntBits((Float) value) == Float.floatToIntBits((float) doubles[row])
+                        : Double.doubleToLongBits((Double) value) == Double.doubleToLongBits(doubles[row]);
+            case STRING:
+                final Integer code = dictionaryCodes.get(value);
+                return code != null && code == codes[row];
+            default:
+                return false;
+        }
+    }
+
+    void set(final int row, final Object value) {
+        if (value == null) {
+            nulls.set(row);
+            if (kind == Kind.OBJECT) {
+                objects[row] = null;
+            }
+            return;
+        }
+        if (kind == Kind.EMPTY) {
+            initKind(value);
+        }
+        if (!store(row, value)) {
+            toObjects();
+            objects[row] = value;
+        }
+        nulls.clear(row);
+    }
+
+    private void initKind(final Object value) {
+        valueType = value.getClass();
+        if (value instanceof BigDecimal) {
+            kind = Kind.LONG;
+            scale = ((BigDecimal) value).scale();
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            kind = Kind.LONG;
+        } else if (value instanceof Double || value instanceof Float) {
+            kind = Kind.DOUBLE;
+        } else if (value instanceof String) {
+            kind = Kind.STRING;
+            dictionary = new ArrayList<>();
+            dictionaryCodes = new HashMap<>();
+        } else {
+            kind = Kind.OBJECT;
+        }
+        allocate(Math.max(INITIAL_CAPACITY, size));
+    }
+
+    private boolean store(final int row, final Object value) {
+        if (kind != Kind.OBJECT && value.getClass() != valueType) {
+            return false;
+        }
+        switch (kind) {
+            case LONG:
+                if (value instanceof BigDecimal) {
+                    final BigDecimal decimal = (BigDecimal) value;
+                    if (decimal.scale() != scale || decimal.unscaledValue().bitLength() > Long.SIZE - 1) {
+                        return false;
+                    }
+                    longs[row] = decimal.unscaledValue().longValue();
+                } else {
+                    longs[row] = ((Number) value).longValue();
+                }
+                return true;
+            case DOUBLE:
+                doubles[row] = ((Number) value).doubleValue();
+                return true;
+            case STRING:
+                codes[row] = dictionaryCodes.computeIfAbsent((String) value, key -> {
+                    dictionary.add(key);
+                    return dictionary.size() - 1;
+                });
+                return true;
+            default:
+                objects[row] = value;
+                return true;
+        }
+    }
+
+    private Object toNumber(final long value) {
+        if (valueType == BigDecimal.class) {
+            return BigDecimal.valueOf(value, scale);
+        } else if (valueType == Integer.class) {
+            return (int) value;
+        } else if (valueType == Short.class) {
+            return (short) value;
+        } else if (valueType == Byte.class) {
+            return (byte) value;
+        }
+        return value;
+    }
+
+    /**
+     * Fall back to the {@code Object[]} storage, keeping the values already stored.
+     */
+    private void toObjects() {
+        final Object[] values = new Object[capacity()];
+        for (int row = 0; row < size; row++) {
+            values[row] = get(row);
+        }
+        kind = Kind.OBJECT;
+        longs = null;
+        doubles = null;
+        codes = null;
+        dictionary = null;
+        dictionaryCodes = null;
+        objects = values;
+    }
+
+    private int capacity() {
+        switch (kind) {
+            case LONG:
+                return longs.length;
+            case DOUBLE:
+                return doubles.length;
+            case STRING:
+                return codes.length;
+            case OBJECT:
+                return objects.length;
+            default:
+                return 0;
+        }
+    }
+
+    private void allocate(final int capacity) {
+        switch (kind) {
+            case LONG:
+                longs = longs == null ? new long[capacity] : Arrays.copyOf(longs, capacity);
+                break;
+            case DOUBLE:
+                doubles = doubles == null ? new double[capacity] : Arrays.copyOf(doubles, capacity);
+                break;
+            case STRING:
+                codes = codes == null ? new int[capacity] : Arrays.copyOf(codes, capacity);
+                break;
+            case OBJECT:
+                objects = objects == null ? new Object[capacity] : Arrays.copyOf(objects, capacity);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void ensureCapacity(final int minCapacity) {
+        final int capacity = capacity();
+        if (kind != Kind.EMPTY && minCapacity > capacity) {
+            allocate(Math.max(minCapacity, capacity + (capacity >> 1)));
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package lu.mms.common.quality.assets.db.re.schema;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The columnar storage of the table records: one {@link ColumnVector} per column. <br>
+ * The duplicated rows are detected with an index of row ordinals, chained by the hash of their key values. The
+ * records are views on a row of the store, created when they are read (see {@link #getRecords()}).
+ */
+final class ColumnarStore {
+
+    private static final int INITIAL_BUCKETS = 16;
+
+    /*
+     * The column index, resolved once per column: [column name, vector index]
+     */
+    private final Map<String, Integer> columnIndexes = new LinkedHashMap<>();
+    private final List<ColumnVector> vectors = new ArrayList<>();
+    private int size;
+
+    /*
+     * The rows index: the first row of each hash bucket, then the next row of the same bucket and the key hash of
+     * each row (-1 ends a chain).
+     */
+    private List<String> keyColumns;
+    private int[] buckets = newBuckets(INITIAL_BUCKETS);
+    private int[] nextRows = new int[INITIAL_BUCKETS];
+    private int[] hashes = new int[INITIAL_BUCKETS];
+
+    ColumnarStore(final Collection<String> columnNames) {
+        columnNames.forEach(this::addColumn);
+    }
+
+    /**
+     * Add a column in the store. The existing rows have no value for this column.
+     * @param columnName    The column name
+     */
+    void addColumn(final String columnName) {
+        if (columnIndexes.containsKey(columnName)) {
+            return;
+        }
+        final ColumnVector vector = new ColumnVector();
+        for (int row = 0; row < size; row++) {
+            vector.add(null);
+        }
+        columnIndexes.put(columnName, vectors.size());
+        vectors.add(vector);
+    }
+
+    /**
+     * Copy the values in a new row of the store, unless an equal row already exists. <br>
+     * Only the rows with the same key values are compared.
+     * @param values    The row values: [column name, value]
+     * @param keyColumns    The key columns (all the columns when empty)
+     * @return  true when the row was added, false when it is a duplicate
+     */
+    boolean appendIfAbsent(final Map<String, Object> values, final List<String> keyColumns) {
+        values.keySet().forEach(this::addColumn);
+        if (!keyColumns.equals(this.keyColumns)) {
+            reindex(keyColumns);
+        }
+        int hash = 1;
+        for (final String columnName : hashedColumns()) {
+            hash = 31 * hash + Objects.hashCode(values.get(columnName));
+        }
+        for (int row = buckets[hash & (buckets.length - 1)]; row >= 0; row = nextRows[row]) {
+            if (hashes[row] == hash && rowEquals(row, values)) {
+                return false;
+            }
+        }
+
+        for (final Map.Entry<String, Integer> entry : columnIndexes.entrySet()) {
+            vectors.get(entry.getValue()).add(values.get(entry.getKey()));
+        }
+        index(size++, hash);
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return  The records, created on each read as views on the stored rows.
+     */
+    List<Record> getRecords() {
+        return new AbstractList<>() {
+            @Override
+            public Record get(final int row) {
+                Objects.checkIndex(row, size);
+                return new Record(new RowView(row));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    List<Object> getColumnValues(final String columnName) {
+        final Integer index = columnIndexes.get(columnName);
+        final List<Object> values = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            values.add(index == null ? null : vectors.get(index).get(row));
+        }
+        return values;
+    }
+
+    private Collection<String> hashedColumns() {
+        return keyColumns.isEmpty() ? columnIndexes.keySet() : keyColumns;
+    }
+
+    private boolean rowEquals(final int row, final Map<String, Object> values) {
+        if (values.size() != columnIndexes.size()) {
+            return false;
+        }
+        for (final Map.Entry<String, Integer> entry : columnIndexes.entrySet()) {
+            if (!vectors.get(entry.getValue()).valueEquals(row, values.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Index the stored rows on new key columns.
+     */
+    private void reindex(final List<String> keyColumns) {
+        this.keyColumns = List.copyOf(keyColumns);
+        Arrays.fill(buckets, -1);
+        for (int row = 0; row < size; row++) {
+            int hash = 1;
+            for (final String columnName : hashedColumns()) {
+                final Integer index = columnIndexes.get(columnName);
+                hash = 31 * hash + Objects.hashCode(index == null ? null : vectors.get(index).get(row));
+            }
+            index(row, hash);
+        }
+    }
+
+    private void index(final int row, final int hash) {
+        if (row >= hashes.length) {
+            hashes = Arrays.copyOf(hashes, hashes.length << 1);
+            nextRows = Arrays.copyOf(nextRows, nextRows.length << 1);
+        }
+        hashes[row] = hash;
+        // keep a load factor of 0.75 at most
+        if (row + 1 > buckets.length - (buckets.length >> 2)) {
+            buckets = newBuckets(buckets.length << 1);
+            for (int previous = 0; previous < row; previous++) {
+                link(previous);
+            }
+        }
+        link(row);
+    }
+
+    private void link(final int row) {
+        final int bucket = hashes[row] & (buckets.length - 1);
+        nextRows[row] = buckets[bucket];
+        buckets[bucket] = row;
+    }
+
+    private static int[] newBuckets(final int capacity) {
+        final int[] buckets = new int[capacity];
+        Arrays.fill(buckets, -1);
+        return buckets;
+    }
+
+    /**
+     * The values of a store row, as a map: [column name, value].
+     */
+    private final class RowView extends AbstractMap<String, Object> {
+
+        private final int row;
+
+        private RowView(final int row) {
+            this.row = row;
+        }
+
+        @Override
+        public Object get(final Object columnName) {
+            final Integer index = columnIndexes.get(columnName);
+            return index == null ? null : vectors.get(index).get(row);
+        }
+
+        @Override
+        public boolean containsKey(final Object columnName) {
+            return columnIndexes.containsKey(columnName);
+        }
+
+        @Override
+        public Object put(final String columnName, final Object value) {
+            addColumn(columnName);
+            final ColumnVector vector = vectors.get(columnIndexes.get(columnName));
+            final Object previous = vector.get(row);
+            vector.set(row, value);
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return columnIndexes.size();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    final Iterator<String> columns = List.copyOf(columnIndexes.keySet()).iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return columns.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            final String columnName = columns.next();
+                            return new SimpleImmutableEntry<>(columnName, get(columnName));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return columnIndexes.size();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package lu.mms.common.quality.assets.db.re.schema;
+
+import lu.mms.common.quality.assets.db.re.script.Relation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * The foreign key graph of the schema tables: each table depends on the tables its foreign keys reference. <br>
+ * The tables are sorted in dependency order (the referenced tables first), so that the tables can be created and
+ * filled without constraint violation. The tables of a foreign key cycle are sorted by name, and the foreign keys
+ * referencing a table of the same cycle sorted after the source table are 'deferred': they must be added once all the
+ * cycle tables exist.
+ */
+public final class ForeignKeyGraph {
+
+    private final List<Table> insertOrder;
+    private final Map<String, List<ForeignKey>> foreignKeys;
+    private final Set<String> cyclicTables;
+
+    private ForeignKeyGraph(final List<Table> insertOrder, final Map<String, List<ForeignKey>> foreignKeys,
+                            final Set<String> cyclicTables) {
+        this.insertOrder = insertOrder;
+        this.foreignKeys = foreignKeys;
+        this.cyclicTables = cyclicTables;
+    }
+
+    /**
+     * Build the foreign key graph of the schema tables.
+     * @param schema    The schema
+     * @return  The foreign key graph
+     */
+    public static ForeignKeyGraph of(final Schema schema) {
+        return of(schema.getTables().values());
+    }
+
+    /**
+     * Build the foreign key graph of the given tables. The foreign keys referencing other tables are kept, but do not
+     * take part in the ordering.
+     * @param tables    The tables
+     * @return  The foreign key graph
+     */
+    public static ForeignKeyGraph of(final Collection<Table> tables) {
+        final Map<String, Table> nodes = new TreeMap<>();
+        tables.forEach(table -> nodes.put(table.getName(), table));
+
+        // the distinct dependencies of each table (self references excluded)
+        final Map<String, Map<String, ForeignKey>> distinctKeys = new HashMap<>();
+        final Map<String, Set<String>> parents = new HashMap<>();
+        for (final Table table : nodes.values()) {
+            final Map<String, ForeignKey> keys = new TreeMap<>();
+            final Set<String> tableParents = new HashSet<>();
+            for (final Map.Entry<String, Set<Relation>> entry : table.getForeignKeys().entrySet()) {
+                for (final Relation relation : entry.getValue()) {
+                    final ForeignKey foreignKey = new ForeignKey(table.getName(), entry.getKey(),
+                            relation.getTargetTable(), relation.getTargetColumn());
+                    keys.putIfAbsent(foreignKey.toString(), foreignKey);
+                    if (nodes.containsKey(foreignKey.targetTable) && !foreignKey.isSelfReference()) {
+                        tableParents.add(foreignKey.targetTable);
+                    }
+                }
+            }
+            distinctKeys.put(table.getName(), keys);
+            parents.put(table.getName(), tableParents);
+        }
+
+        final List<List<String>> components = stronglyConnectedComponents(nodes.keySet(), parents);
+        final List<String> order = sortComponents(components, parents);
+
+        // the foreign keys referencing a table of the same cycle, not created yet, are deferred
+        final Map<String, Integer> positions = new HashMap<>();
+        final Map<String, Integer> componentIds = new HashMap<>();
+        final Set<String> cyclicTables = new HashSet<>();
+        for (int index = 0; index < order.size(); index++) {
+            positions.put(order.get(index), index);
+        }
+        for (int index = 0; index < components.size(); index++) {
+            for (final String tableName : components.get(index)) {
+                componentIds.put(tableName, index);
+                if (components.get(index).size() > 1) {
+                    cyclicTables.add(tableName);
+                }
+            }
+        }
+
+        final List<Table> insertOrder = new ArrayList<>(order.size());
+        final Map<String, List<ForeignKey>> foreignKeys = new LinkedHashMap<>();
+        for (final String tableName : order) {
+            insertOrder.add(nodes.get(tableName));
+            final List<ForeignKey> keys = new ArrayList<>(distinctKeys.get(tableName).values());
+            for (final ForeignKey foreignKey : keys) {
+                foreignKey.deferred = componentIds.get(tableName).equals(componentIds.get(foreignKey.targetTable))
+                        && positions.get(foreignKey.targetTable) > positions.get(tableName);
+            }
+            foreignKeys.put(tableName, Collections.unmodifiableList(keys));
+        }
+        return new ForeignKeyGraph(
+                Collections.unmodifiableList(insertOrder),
+                Collections.unmodifiableMap(foreignKeys),
+                Collections.unmodifiableSet(cyclicTables)
+        );
+    }
+
+    /**
+     * Find the strongly connected components of the graph (iterative Tarjan algorithm): a component of more than one
+     * table is a foreign key cycle.
+     */
+    private static List<List<String>> stronglyConnectedComponents(final Collection<String> nodes,
+                                                                  final Map<String, Set<String>> parents) {
+        final Map<String, Integer> indexes = new HashMap<>();
+        final Map<String, Integer> lowLinks = new HashMap<>();
+        final Set<String> onStack = new HashSet<>();
+        final Deque<String> stack = new ArrayDeque<>();
+        final List<List<String>> components = new ArrayList<>();
+        int counter = 0;
+
+        for (final String root : nodes) {
+            if (indexes.containsKey(root)) {
+                continue;
+            }
+            // the DFS path: [node, remaining successors]
+            final Deque<Map.Entry<String, Deque<String>>> path = new ArrayDeque<>();
+            indexes.put(root, counter);
+            lowLinks.put(root, counter++);
+            stack.push(root);
+            onStack.add(root);
+            path.push(Map.entry(root, new ArrayDeque<>(new TreeSet<>(parents.get(root)))));
+
+            while (!path.isEmpty()) {
+                final String node = path.peek().getKey();
+                final Deque<String> successors = path.peek().getValue();
+                if (!successors.isEmpty()) {
+                    final String successor = successors.pop();
+                    if (!indexes.containsKey(successor)) {
+                        indexes.put(successor, counter);
+                        lowLinks.put(successor, counter++);
+                        stack.push(successor);
+                        onStack.add(successor);
+                        path.push(Map.entry(successor,
+                                new ArrayDeque<>(new TreeSet<>(parents.get(successor)))));
+                    } else if (onStack.contains(successor)) {
+                        lowLinks.put(node, Math.min(lowLinks.get(node), indexes.get(successor)));
+                    }
+                    continue;
+                }
+
+                path.pop();
+                if (!path.isEmpty()) {
+                    final String caller = path.peek().getKey();
+                    lowLinks.put(caller, Math.min(lowLinks.get(caller), lowLinks.get(node)));
+                }
+                if (lowLinks.get(node).equals(indexes.get(node))) {
+                    final List<String> component = new ArrayList<>();
+                    String member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        component.add(member);
+                    } while (!member.equals(node));
+                    Collections.sort(component);
+                    components.add(component);
+                }
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Sort the components in dependency order (Kahn algorithm), the ties being sorted by table name.
+     */
+    private static List<String> sortComponents(final List<List<String>> components,
+                                               final Map<String, Set<String>> parents) {
+        final Map<String, Integer> componentIds = new HashMap<>();
+        for (int index = 0; index < components.size(); index++) {
+            for (final String tableName : components.get(index)) {
+                componentIds.put(tableName, index);
+            }
+        }
+
+        // [component, dependent components] and the amount of (distinct) components each component depends on
+        final List<Set<Integer>> dependents = new ArrayList<>(components.size());
+        final int[] dependencies = new int[components.size()];
+        components.forEach(component -> dependents.add(new HashSet<>()));
+        for (int index = 0; index < components.size(); index++) {
+            final int componentId = index;
+            final Set<Integer> parentComponents = components.get(index).stream()
+                    .flatMap(tableName -> parents.get(tableName).stream())
+                    .map(componentIds::get)
+                    .filter(parentId -> parentId != componentId)
+                    .collect(Collectors.toSet());
+            dependencies[index] = parentComponents.size();
+            parentComponents.forEach(parentId -> dependents.get(parentId).add(componentId));
+        }
+
+        final PriorityQueue<Integer> ready = new PriorityQueue<>(
+                Comparator.comparing((Integer componentId) -> components.get(componentId).get(0))
+        );
+        for (int index = 0; index < components.size(); index++) {
+            if (dependencies[index] == 0) {
+                ready.add(index);
+            }
+        }
+        final List<String> order = new ArrayList<>();
+        while (!ready.isEmpty()) {
+            final int componentId = ready.poll();
+            order.addAll(components.get(componentId));
+            for (final Integer dependent : dependents.get(componentId)) {
+                if (--dependencies[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * @return  The tables in creation / insertion order: the referenced tables first.
+     */
+    public List<Table> getInsertOrder() {
+        return insertOrder;
+    }
+
+    /**
+     * @return  The tables in deletion order: the referencing tables first.
+     */
+    public List<Table> getDeleteOrder() {
+        final List<Table> deleteOrder = new ArrayList<>(insertOrder);
+        Collections.reverse(deleteOrder);
+        return deleteOrder;
+    }
+
+    /**
+     * @return  The name of the tables involved in a foreign key cycle.
+     */
+    public Set<String> getCyclicTables() {
+        return cyclicTables;
+    }
+
+    /**
+     * @param tableName The table name
+     * @return  The distinct foreign keys of the table, sorted by column.
+     */
+    public List<ForeignKey> getForeignKeys(final String tableName) {
+        return foreignKeys.getOrDefault(tableName, List.of());
+    }
+
+    /**
+     * @return  The deferred foreign keys: the ones referencing a table of the same cycle, created later.
+     */
+    public List<ForeignKey> getDeferredForeignKeys() {
+        return foreignKeys.values().stream()
+                .flatMap(Collection::stream)
+                .filter(ForeignKey::isDeferred)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * A (distinct) foreign key of a table.
+     */
+    public static final class ForeignKey {
+
+        private final String table;
+        private final String column;
+        private final String targetTable;
+        private final String targetColumn;
+        private boolean deferred;
+
+        ForeignKey(final String table, final String column, final String targetTable, final String targetColumn) {
+            this.table = table;
+            this.column = column;
+            this.targetTable = targetTable;
+            this.targetColumn = targetColumn;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+
+        public String getTargetTable() {
+            return targetTable;
+        }
+
+        public String getTargetColumn() {
+            return targetColumn;
+        }
+
+        /**
+         * @return  true, if the foreign key references a table created later (foreign key cycle): the constraint must
+         *          be added once the tables exist.
+         */
+        public boolean isDeferred() {
+            return deferred;
+        }
+
+        private boolean isSelfReference() {
+            return table.equals(targetTable);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s.%s -> %s.%s", table, column, targetTable, targetColumn);
+        }
+    }
+}
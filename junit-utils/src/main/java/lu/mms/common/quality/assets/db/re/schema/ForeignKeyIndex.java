@@ -0,0 +1,133 @@
+package lu.mms.common.quality.assets.db.re.schema;
+
+import lu.mms.common.quality.assets.db.MetadataFactory;
+import org.apache.commons.lang3.StringUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In memory adjacency index of the foreign keys: for each table, the foreign keys it holds (imported keys) and the
+ * foreign keys referencing it (exported keys). <br>
+ * The index is filled once from the catalog, then the related tables are looked up without querying the database.
+ */
+public final class ForeignKeyIndex {
+
+    private final Map<String, ForeignKeyGraph.ForeignKey> foreignKeys = new LinkedHashMap<>();
+    private final Map<String, List<ForeignKeyGraph.ForeignKey>> importedKeys = new HashMap<>();
+    private final Map<String, List<ForeignKeyGraph.ForeignKey>> exportedKeys = new HashMap<>();
+    /* The columns of each foreign key constraint, by table name then constraint name. */
+    private final Map<String, Map<String, Set<String>>> constraintColumns = new HashMap<>();
+
+    /**
+     * Index the foreign key catalog rows, as returned by the vendor metadata (see
+     * {@link MetadataFactory#FK_TABLE_NAME}).
+     * @param rows  The foreign key columns
+     * @return  The foreign key index
+     */
+    public static ForeignKeyIndex of(final List<Map<String, Object>> rows) {
+        final ForeignKeyIndex index = new ForeignKeyIndex();
+        for (final Map<String, Object> row : rows) {
+            index.add(
+                    row.get(MetadataFactory.FK_NAME) == null ? null : valueOf(row, MetadataFactory.FK_NAME),
+                    valueOf(row, MetadataFactory.FK_TABLE_NAME),
+                    valueOf(row, MetadataFactory.FK_COLUMN_NAME),
+                    valueOf(row, MetadataFactory.PK_TABLE_NAME),
+                    valueOf(row, MetadataFactory.PK_COLUMN_NAME)
+            );
+        }
+        return index;
+    }
+
+    /**
+     * Index the foreign keys of a JDBC {@link java.sql.DatabaseMetaData#getImportedKeys} or
+     * {@link java.sql.DatabaseMetaData#getExportedKeys} result set.
+     * @param keys  The foreign keys result set
+     * @return  The foreign key index
+     * @throws SQLException Thrown when the result set can not be read
+     */
+    public ForeignKeyIndex addAll(final ResultSet keys) throws SQLException {
+        while (keys.next()) {
+            add(keys.getString("FK_NAME"), keys.getString("FKTABLE_NAME"), keys.getString("FKCOLUMN_NAME"),
+                    keys.getString("PKTABLE_NAME"), keys.getString("PKCOLUMN_NAME"));
+        }
+        return this;
+    }
+
+    /**
+     * Add a foreign key column. The duplicates are ignored.
+     * @param table The table holding the foreign key
+     * @param column    The foreign key column
+     * @param targetTable   The referenced table
+     * @param targetColumn  The referenced column
+     */
+    public void add(final String table, final String column, final String targetTable, final String targetColumn) {
+        add(null, table, column, targetTable, targetColumn);
+    }
+
+    /**
+     * Add a column of a named foreign key constraint. The duplicates are ignored.
+     * @param name  The constraint name, null when unknown (the constraint is then identified by the referenced
+     *              table)
+     * @param table The table holding the foreign key
+     * @param column    The foreign key column
+     * @param targetTable   The referenced table
+     * @param targetColumn  The referenced column
+     */
+    public void add(final String name, final String table, final String column, final String targetTable,
+                    final String targetColumn) {
+        constraintColumns.computeIfAbsent(table, key -> new LinkedHashMap<>())
+                .computeIfAbsent(name == null ? targetTable : name, key -> new LinkedHashSet<>())
+                .add(column);
+        final ForeignKeyGraph.ForeignKey foreignKey = new ForeignKeyGraph.ForeignKey(table, column, targetTable,
+                targetColumn);
+        if (foreignKeys.putIfAbsent(foreignKey.toString(), foreignKey) == null) {
+            importedKeys.computeIfAbsent(table, key -> new ArrayList<>()).add(foreignKey);
+            exportedKeys.computeIfAbsent(targetTable, key -> new ArrayList<>()).add(foreignKey);
+        }
+    }
+
+    /**
+     * @param tableName The table name
+     * @return  The foreign keys of the table: the table is the source of the relations.
+     */
+    public List<ForeignKeyGraph.ForeignKey> getImportedKeys(final String tableName) {
+        return importedKeys.getOrDefault(tableName, List.of());
+    }
+
+    /**
+     * @param tableName The table name
+     * @return  The foreign keys referencing the table: the table is the target of the relations.
+     */
+    public List<ForeignKeyGraph.ForeignKey> getExportedKeys(final String tableName) {
+        return exportedKeys.getOrDefault(tableName, List.of());
+    }
+
+    /**
+     * @param tableName The table name
+     * @return  The columns of each foreign key constraint of the table.
+     */
+    public Collection<Set<String>> getConstraintColumns(final String tableName) {
+        return constraintColumns.getOrDefault(tableName, Map.of()).values();
+    }
+
+    /**
+     * @return  The amount of indexed foreign key columns.
+     */
+    public int size() {
+        return foreignKeys.size();
+    }
+
+    private static String valueOf(final Map<String, Object> row, final String key) {
+        // some catalogs (DB2) pad the names
+        return StringUtils.trim(String.valueOf(row.get(key)));
+    }
+}
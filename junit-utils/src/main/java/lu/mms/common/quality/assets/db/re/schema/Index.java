@@ -0,0 +1,53 @@
+package lu.mms.common.quality.assets.db.re.schema;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A secondary index of a table (see {@link java.sql.DatabaseMetaData#getIndexInfo}): the index columns are kept in
+ * the index order.
+ */
+public final class Index {
+
+    private final String name;
+    private final boolean unique;
+    private final List<String> columns = new ArrayList<>();
+
+    /**
+     * Constructor.
+     * @param name  The index name
+     * @param unique    true, when the index values must be unique
+     */
+    public Index(final String name, final boolean unique) {
+        this.name = name;
+        this.unique = unique;
+    }
+
+    /**
+     * Add a column to the index. The columns are expected in the index order.
+     * @param column    The column name
+     * @return  The {@link Index} object
+     */
+    public Index appendColumn(final String column) {
+        columns.add(column);
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+
+    public List<String> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    @Override
+    public String toString() {
+        return name + columns;
+    }
+}
@@ -0,0 +1,241 @@
+package lu.mms.common.quality.assets.db.re.schema;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * File based cache of the tables definition (columns and constraints), shared between the reverse engineering runs.
+ * <br>
+ * The cache is bound to a data source URL and a schema, and each table definition is kept along with a fingerprint of
+ * the table DDL (example: the last DDL time). A cached definition is only reused when the fingerprint still matches.
+ */
+public class MetadataCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetadataCache.class);
+
+    private static final String CACHE_FILENAME_FORMAT = "re_metadata_%s.cache";
+
+    private static final ObjectInputFilter CACHE_FILTER = ObjectInputFilter.Config.createFilter(
+            MetadataCache.class.getName() + "$*;java.base/*;!*"
+    );
+
+    private final Path file;
+    private final Map<String, TableDefinition> definitions;
+    private boolean modified;
+
+    private MetadataCache(final Path file, final Map<String, TableDefinition> definitions) {
+        this.file = file;
+        this.definitions = definitions;
+    }
+
+    /**
+     * Load the cache of the given data source and schema, or create an empty one when no (valid) cache file exists.
+     * @param directory The cache directory
+     * @param url   The data source URL
+     * @param schema    The schema name
+     * @return  The metadata cache
+     */
+    public static MetadataCache load(final Path directory, final String url, final String schema) {
+        final String key = DigestUtils.md5DigestAsHex((url + "|" + schema).getBytes(StandardCharsets.UTF_8));
+        final Path file = directory.resolve(String.format(CACHE_FILENAME_FORMAT, key));
+
+        final Map<String, TableDefinition> definitions = new HashMap<>();
+        if (Files.isRegularFile(file)) {
+            try (InputStream input = Files.newInputStream(file);
+                 ObjectInputStream objectInput = new ObjectInputStream(input)) {
+                objectInput.setObjectInputFilter(CACHE_FILTER);
+                for (final Object entry : (List<?>) objectInput.readObject()) {
+                    final TableDefinition definition = (TableDefinition) entry;
+                    definitions.put(definition.name, definition);
+                }
+                LOGGER.info("Metadata cache [{}] loaded: {} table definition(s).", file, definitions.size());
+            } catch (IOException | ClassNotFoundException | ClassCastException ex) {
+                LOGGER.warn("Ignoring the metadata cache [{}]: {}", file, ex.getMessage());
+                definitions.clear();
+            }
+        }
+        return new MetadataCache(file, definitions);
+    }
+
+    /**
+     * Restore the table definition from the cache.
+     * @param table The table to enrich
+     * @param fingerprint   The current fingerprint of the table definition
+     * @return  true, if a cached definition with the same fingerprint was found and restored. <br>
+     *          false, otherwise.
+     */
+    public boolean restore(final Table table, final String fingerprint) {
+        final TableDefinition definition = definitions.get(table.getName());
+        if (fingerprint == null || definition == null || !fingerprint.equals(definition.fingerprint)) {
+            return false;
+        }
+        for (final ColumnDefinition column : definition.columns) {
+            table.addColumn(new Column(column.columnId, column.name, column.columnType, column.primaryKey,
+                    column.unique, column.autoIncrement, column.defaultValue));
+        }
+        table.appendPrimaryConstraint(new HashSet<>(definition.primaryKeys))
+                .appendCheckConstraint(definition.checkConstraint)
+                .appendUniqueConstraint(definition.uniqueConstraint)
+                .setDescription(definition.description);
+        for (final IndexDefinition index : definition.indexes) {
+            final Index tableIndex = new Index(index.name, index.unique);
+            index.columns.forEach(tableIndex::appendColumn);
+            table.appendIndex(tableIndex);
+        }
+        return true;
+    }
+
+    /**
+     * Keep the (freshly collected) table definition in the cache.
+     * @param table The table
+     * @param fingerprint   The current fingerprint of the table definition. Nothing is cached when missing.
+     */
+    public void store(final Table table, final String fingerprint) {
+        if (fingerprint == null) {
+            return;
+        }
+        final TableDefinition definition = new TableDefinition(table, fingerprint);
+        if (!Objects.equals(definitions.put(table.getName(), definition), definition)) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Write the cache file, if some definitions changed.
+     */
+    public void save() {
+        if (!modified) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (OutputStream output = Files.newOutputStream(file);
+                 ObjectOutputStream objectOutput = new ObjectOutputStream(output)) {
+                objectOutput.writeObject(new ArrayList<>(definitions.values()));
+            }
+            modified = false;
+            LOGGER.info("Metadata cache [{}] saved: {} table definition(s).", file, definitions.size());
+        } catch (IOException ex) {
+            LOGGER.error("Failed to save the metadata cache [{}]: {}", file, ex.getMessage());
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * The cached table definition.
+     */
+    private static final class TableDefinition implements Serializable {
+
+        private static final long serialVersionUID = 2L;
+
+        private final String name;
+        private final String fingerprint;
+        private final String description;
+        private final ArrayList<String> primaryKeys;
+        private final String uniqueConstraint;
+        private final String checkConstraint;
+        private final ArrayList<ColumnDefinition> columns;
+        private final ArrayList<IndexDefinition> indexes;
+
+        private TableDefinition(final Table table, final String fingerprint) {
+            this.name = table.getName();
+            this.fingerprint = fingerprint;
+            this.description = table.getDescription();
+            this.primaryKeys = table.getColumns().values().stream()
+                    .filter(Column::isPrimaryKey)
+                    .map(Column::getName)
+                    .collect(Collectors.toCollection(ArrayList::new));
+            this.uniqueConstraint = table.getUniqueConstraint();
+            this.checkConstraint = table.getCheckConstraint();
+            this.columns = table.getColumns().values().stream()
+                    .map(ColumnDefinition::new)
+                    .collect(Collectors.toCollection(ArrayList::new));
+            this.indexes = table.getIndexes().stream()
+                    .map(IndexDefinition::new)
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof TableDefinition)) {
+                return false;
+            }
+            final TableDefinition definition = (TableDefinition) other;
+            return name.equals(definition.name) && fingerprint.equals(definition.fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, fingerprint);
+        }
+    }
+
+    /**
+     * The cached column definition.
+     */
+    private static final class ColumnDefinition implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int columnId;
+        private final String name;
+        private final String columnType;
+        private final boolean primaryKey;
+        private final boolean unique;
+        private final boolean autoIncrement;
+        private final Serializable defaultValue;
+
+        private ColumnDefinition(final Column column) {
+            this.columnId = column.getColumnId();
+            this.name = column.getName();
+            this.columnType = column.getColumnType();
+            this.primaryKey = column.isPrimaryKey();
+            this.unique = column.isUnique();
+            this.autoIncrement = column.isAutoIncrement();
+            final Object value = column.getDefaultValue();
+            this.defaultValue = value == null || value instanceof Serializable
+                    ? (Serializable) value
+                    : String.valueOf(value);
+        }
+    }
+
+    /**
+     * The cached index definition.
+     */
+    private static final class IndexDefinition implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final boolean unique;
+        private final ArrayList<String> columns;
+
+        private IndexDefinition(final Index index) {
+            this.name = index.getName();
+            this.unique = index.isUnique();
+            this.columns = new ArrayList<>(index.getColumns());
+        }
+    }
+}
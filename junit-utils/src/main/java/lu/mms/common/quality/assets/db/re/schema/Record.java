@@ -14,6 +14,16 @@ public class Record {
 
     private static final Set<String> TEMPORAL_CLASS = Set.of("TEMPORAL", "TIMESTAMP");
 
+    /*
+     * The quoted value types (character and temporal values), resolved once per class.
+     */
+    private static final ClassValue<Boolean> QUOTED_CLASS = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            return type == String.class || TEMPORAL_CLASS.contains(type.getSimpleName().toUpperCase());
+        }
+    };
+
     /**
      * The record values: [Column, Value]
      */
@@ -23,6 +33,14 @@ public class Record {
         this.values = new HashMap<>();
     }
 
+    /**
+     * Create a record on the given values (example: a view on a columnar storage row).
+     * @param values    The record values: [Column, Value]
+     */
+    Record(final Map<String, Object> values) {
+        this.values = values;
+    }
+
     public Map<String, Object> getValues() {
         return values;
     }
@@ -37,16 +55,29 @@ public class Record {
      * @param value The column value
      */
     public void appendColumnValue(final String columnName, final Object value) {
-        Object formattedValue = value;
-        final boolean isCharSeq = value != null &&
-                (value instanceof String || TEMPORAL_CLASS.contains(value.getClass().getSimpleName().toUpperCase()));
-        if (isCharSeq) {
-            formattedValue = String.valueOf(value)
-                    .replace("'", "\\'")
-                    .replace("\n", StringUtils.EMPTY);
-            formattedValue  = String.format("'%s'", formattedValue);
+        values.put(columnName, toSqlValue(value));
+    }
+
+    /**
+     * Add a new value to the record, already formatted (see {@link SqlLiteral#read}).
+     * @param columnName    The column name
+     * @param value The formatted column value
+     */
+    public void appendColumnLiteral(final String columnName, final Object value) {
+        values.put(columnName, value);
+    }
+
+    /**
+     * Format a raw column value the way it is stored in a record: character and temporal values are quoted.
+     * @param value The raw column value
+     * @return  The formatted value
+     */
+    public static Object toSqlValue(final Object value) {
+        if (value == null || !QUOTED_CLASS.get(value.getClass())) {
+            return value;
         }
-        values.put(columnName, formattedValue);
+        final String rawValue = String.valueOf(value);
+        return SqlLiteral.appendQuoted(new StringBuilder(rawValue.length() + 2), rawValue).toString();
     }
 
     public Object getColumnValue(final String columnName) {
@@ -72,14 +72,22 @@ public class Schema {
     }
 
     public void setElapsedTime(final StopWatch stopWatch) {
-        final long minutes = TimeUnit.MINUTES.convert(stopWatch.getLastTaskTimeNanos(), TimeUnit.NANOSECONDS);
-        final long seconds = TimeUnit.SECONDS.convert(stopWatch.getLastTaskTimeNanos(), TimeUnit.NANOSECONDS);
-        final long millis = stopWatch.getLastTaskTimeMillis();
+        this.executionTime = formatElapsedTime(stopWatch.getLastTaskTimeNanos());
+    }
+
+    /**
+     * Format an elapsed time, example: "1 min, 5 sec 30 ms.".
+     * @param nanos The elapsed time, in nanoseconds
+     * @return  The formatted elapsed time
+     */
+    public static String formatElapsedTime(final long nanos) {
+        final long minutes = TimeUnit.NANOSECONDS.toMinutes(nanos);
+        final long seconds = TimeUnit.NANOSECONDS.toSeconds(nanos) % 60;
+        final long millis = TimeUnit.NANOSECONDS.toMillis(nanos) % 1000;
         if (minutes == 0) {
-            this.executionTime = String.format("%s sec %s ms.",  seconds, millis);
-        } else {
-            this.executionTime = String.format("%s min, %s sec %s ms.", minutes, seconds, millis);
+            return String.format("%s sec %s ms.",  seconds, millis);
         }
+        return String.format("%s min, %s sec %s ms.", minutes, seconds, millis);
     }
 
     @Override
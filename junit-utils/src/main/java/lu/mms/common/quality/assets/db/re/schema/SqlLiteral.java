@@ -0,0 +1,342 @@
+package lu.mms.common.quality.assets.db.re.schema;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+/**
+ * The SQL literal encoders, by JDBC type. <br>
+ * The encoder of each column is resolved once from the {@link ResultSetMetaData}, then the column values are read
+ * with the typed {@link ResultSet} getters and written straight into a reusable buffer.
+ */
+public enum SqlLiteral implements ColumnEncoder {
+
+    /** DECIMAL, NUMERIC, and the unsigned integers (see {@link #forColumns(ResultSetMetaData)}). */
+    NUMBER {
+        @Override
+        public boolean append(final ResultSet resultSet, final int column, final StringBuilder buffer)
+                throws SQLException {
+            final BigDecimal value = resultSet.getBigDecimal(column);
+            if (value == null) {
+                return false;
+            }
+            buffer.append(value);
+            return true;
+        }
+
+        @Override
+        public Object read(final ResultSet resultSet, final int column, final StringBuilder buffer)
+                throws SQLException {
+            return resultSet.getBigDecimal(column);
+        }
+    },
+
+    /** TINYINT, SMALLINT, INTEGER, BIGINT: signed, so that the values fit in a long. */
+    INTEGER {
+        @Override
+        public boolean append(final ResultSet resultSet, final int column, final StringBuilder buffer)
+                throws SQLException {
+            final long value = resultSet.getLong(column);
+            if (resultSet.wasNull()) {
+                return false;
+            }
+            buffer.append(value);
+            return true;
+        }
+
+        @Override
+        public Object read(final ResultSet resultSet, final int column, final StringBuilder buffer)
+                throws SQLException {
+            final long value = resultSet.getLong(column);
+            return resultSet.wasNull() ? null : value;
+        }
+    },
+
+    /** REAL. */
+    REAL {
+        @Override
+        public boolean append(final ResultSet resultSet, final int column, final StringBuilder buffer)
+                throws SQLException {
+            final float value = resultSet.getFloat(column);
+            if (resultSet.wasNull()) {
+                return false;
+            }
+            buffer.append(value);
+            return true;
+        }
+
+        @Override
+        public Object read(final ResultSet resultSet, final int column, final StringBuilder buffer)
+                throws SQLException {
+            final float value = resultSet.getFloat(column);
+            return resultSet.wasNull() ? null : value;
+        }
+    },
+
+    /** FLOAT, DOUBLE. */
+    DOUBLE {
+        @Override
+        public boolean append(final ResultSet resultSet, final int column, final StringBuilder buffer)
+                throws SQLException {
+            final double value = resultSet.getDouble(column);
+            if (resultSet.wasNull()) {
+                return false;
+            }
+            buffer.append(value);
+            return true;
+        }
+
+        @Override
+        public Object read(final ResultSet resultSet, final int column, final StringBuilder buffer)
+                throws SQLException {
+            final double value = resultSet.getDouble(column);
+            return resultSet.wasNull() ? null : value;
+        }
+    },
+
+    /** BIT, BOOLEAN. */
+    BOOLEAN {
+        @Override
+        public boolean append(final ResultSet resultSet, final int column, final StringBuilder buffer)
+                throws SQLException {
+            final boolean value = resultSet.getBoolean(column);
+            if (resultSet.wasNull()) {
+                return false;
+            }
+            buffer.append(value);
+            return true;
+        }
+
+        @Override
+        public Object read(final ResultSet resultSet, final int column, final StringBuilder buffer)
+                throws SQLException {
+            final boolean value = resultSet.getBoolean(column);
+            return resultSet.wasNull() ? null : value;
+        }
+    },
+
+    /** CHAR, VARCHAR, LONGVARCHAR and their national variants. */
+    STRING {
+        @Override
+        public boolean append(final ResultSet resultSet, final int column, final StringBuilder buffer)
+                throws SQLException {
+            final String value = resultSet.getString(column);
+            if (value == null) {
+                return false;
+            }
+            appendQuoted(buffer, value);
+            return true;
+        }
+    },
+
+    /** CLOB, NCLOB: the content is read, and quoted as a character value. */
+    CLOB {
+        @Override
+        public boolean append(final ResultSet resultSet, final int column, final StringBuilder buffer)
+                throws SQLException {
+            try (Reader reader = resultSet.getCharacterStream(column)) {
+                if (reader == null) {
+                    return false;
+                }
+                buffer.append('\'');
+                final char[] chars = new char[CLOB_BUFFER_SIZE];
+                int length;
+                while ((length = reader.read(chars)) > 0) {
+                    for (int index = 0; index < length; index++) {
+                        appendEscaped(buffer, chars[index]);
+                    }
+                }
+                buffer.append('\'');
+                return true;
+            } catch (IOException ex) {
+                throw new SQLException(ex.getMessage(), ex);
+            }
+        }
+    },
+
+    DATE {
+        @Override
+        public boolean append(final ResultSet resultSet, final int column, final StringBuilder buffer)
+                throws SQLException {
+            final Date value = resultSet.getDate(column);
+            return appendQuotedValue(buffer, value);
+        }
+    },
+
+    TIME {
+        @Override
+        public boolean append(final ResultSet resultSet, final int column, final StringBuilder buffer)
+                throws SQLException {
+            final Time value = resultSet.getTime(column);
+            return appendQuotedValue(buffer, value);
+        }
+    },
+
+    TIMESTAMP {
+        @Override
+        public boolean append(final ResultSet resultSet, final int column, final StringBuilder buffer)
+                throws SQLException {
+            final Timestamp value = resultSet.getTimestamp(column);
+            return appendQuotedValue(buffer, value);
+        }
+    },
+
+    /** TIME WITH TIME ZONE, TIMESTAMP WITH TIME ZONE. */
+    TEMPORAL_WITH_TIMEZONE {
+        @Override
+        public boolean append(final ResultSet resultSet, final int column, final StringBuilder buffer)
+                throws SQLException {
+            final Object value = resultSet.getObject(column);
+            return appendQuotedValue(buffer, value);
+        }
+    },
+
+    /** BINARY, VARBINARY, LONGVARBINARY, BLOB: hexadecimal literal, example: X'CAFE'. */
+    BINARY {
+        @Override
+        public boolean append(final ResultSet resultSet, final int column, final StringBuilder buffer)
+                throws SQLException {
+            final byte[] value = resultSet.getBytes(column);
+            if (value == null) {
+                return false;
+            }
+            buffer.append("X'");
+            for (final byte entry : value) {
+                buffer.append(HEX_DIGITS[(entry >> 4) & 0x0F]).append(HEX_DIGITS[entry & 0x0F]);
+            }
+            buffer.append('\'');
+            return true;
+        }
+    },
+
+    /** Any other type: formatted the way a {@link Record} formats its values. */
+    OTHER {
+        @Override
+        public boolean append(final ResultSet resultSet, final int column, final StringBuilder buffer)
+                throws SQLException {
+            final Object value = Record.toSqlValue(resultSet.getObject(column));
+            if (value == null) {
+                return false;
+            }
+            buffer.append(value);
+            return true;
+        }
+
+        @Override
+        public Object read(final ResultSet resultSet, final int column, final StringBuilder buffer)
+                throws SQLException {
+            return Record.toSqlValue(resultSet.getObject(column));
+        }
+    };
+
+    private static final int CLOB_BUFFER_SIZE = 4096;
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * Resolve the encoder of a JDBC type.
+     * @param jdbcType  The JDBC type (see {@link Types})
+     * @return  The encoder
+     */
+    public static SqlLiteral from(final int jdbcType) {
+        switch (jdbcType) {
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return NUMBER;
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return INTEGER;
+            case Types.REAL:
+                return REAL;
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return DOUBLE;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return BOOLEAN;
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return STRING;
+            case Types.CLOB:
+            case Types.NCLOB:
+                return CLOB;
+            case Types.DATE:
+                return DATE;
+            case Types.TIME:
+                return TIME;
+            case Types.TIMESTAMP:
+                return TIMESTAMP;
+            case Types.TIME_WITH_TIMEZONE:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return TEMPORAL_WITH_TIMEZONE;
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                return BINARY;
+            default:
+                return OTHER;
+        }
+    }
+
+    /**
+     * Resolve the encoder of each result set column. The unsigned integers are read as {@link #NUMBER}, an unsigned
+     * BIGINT value may overflow a long.
+     * @param metadata  The result set metadata
+     * @return  The encoders, by column index (starting at 0)
+     * @throws SQLException Thrown when the metadata can not be read
+     */
+    public static SqlLiteral[] forColumns(final ResultSetMetaData metadata) throws SQLException {
+        final SqlLiteral[] literals = new SqlLiteral[metadata.getColumnCount()];
+        for (int index = 0; index < literals.length; index++) {
+            literals[index] = from(metadata.getColumnType(index + 1));
+            if (literals[index] == INTEGER && !metadata.isSigned(index + 1)) {
+                literals[index] = NUMBER;
+            }
+        }
+        return literals;
+    }
+
+    /**
+     * Append a quoted character value: the quotes are escaped and the line feeds removed.
+     * @param buffer    The buffer
+     * @param value The character value
+     * @return  The buffer
+     */
+    public static StringBuilder appendQuoted(final StringBuilder buffer, final CharSequence value) {
+        buffer.append('\'');
+        for (int index = 0; index < value.length(); index++) {
+            appendEscaped(buffer, value.charAt(index));
+        }
+        return buffer.append('\'');
+    }
+
+    private static boolean appendQuotedValue(final StringBuilder buffer, final Object value) {
+        if (value == null) {
+            return false;
+        }
+        buffer.append('\'').append(value).append('\'');
+        return true;
+    }
+
+    private static void appendEscaped(final StringBuilder buffer, final char character) {
+        if (character == '\'') {
+            buffer.append("\\'");
+        } else if (character != '\n') {
+            buffer.append(character);
+        }
+    }
+}
@@ -7,12 +7,14 @@ import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -24,17 +26,30 @@ public class Table implements Comparable<Table> {
     private final String name;
     private final String alias;
     private final List<Record> records = new ArrayList<>();
+    /*
+     * Records index, to detect the duplicated records: [PK values (or record hash), records]. The columnar storage
+     * has its own index, of row ordinals.
+     */
+    private final Map<Object, List<Record>> recordsIndex = new HashMap<>();
+    private List<String> indexColumns;
+    /*
+     * The columnar storage of the records values, when enabled.
+     */
+    private ColumnarStore columnarStore;
+    private boolean columnarStorage;
     private final Map<String, Column> columns = new LinkedHashMap<>();
     private final Map<String, Set<Relation>> primaryKeys = new HashMap<>();
     private final Map<String, Set<Relation>> foreignKeys = new HashMap<>();
     private String primaryKeyConstraint = StringUtils.EMPTY;
     private String uniqueConstraint = StringUtils.EMPTY;
     private String checkConstraint = StringUtils.EMPTY;
+    private final Map<String, Index> indexes = new LinkedHashMap<>();
 
     /*
-     * Filters for the SQL WHERE clause.
+     * Filters for the SQL WHERE clause: the equal expressions are kept once, in their insertion order (the same
+     * query text is generated at each run).
      */
-    private final Set<Statement> statements = new HashSet<>();
+    private final Set<Statement> statements = new LinkedHashSet<>();
     private Schema schema;
     private String description;
 
@@ -46,14 +61,72 @@ public class Table implements Comparable<Table> {
         this.alias = RandomStringUtils.randomAlphabetic(4);
     }
 
+    /**
+     * Add the record to the table, unless an equal record already exists. <br>
+     * The records are indexed by primary key values (by content hash when the table has no primary key), so that
+     * only the records sharing the same key are compared.
+     * @param record    The record to add
+     */
     public void addRecord(final Record record) {
-        final boolean found = this.records.stream()
+        if (columnarStorage) {
+            columnarStore().appendIfAbsent(record.getValues(), indexColumns());
+            return;
+        }
+        final List<Record> candidates = recordsIndex.computeIfAbsent(computeIndexKey(record), key -> new ArrayList<>(1));
+        final boolean found = candidates.stream()
                 .anyMatch(entry -> entry.equalTo(record));
         if (!found) {
+            candidates.add(record);
             this.records.add(record);
         }
     }
 
+    /**
+     * Store the records values by column, in typed arrays, instead of one map per record. The records returned by
+     * {@link #getRecords()} are then views on the stored rows, created when they are read. <br>
+     * Must be enabled before adding the records.
+     */
+    public void enableColumnarStorage() {
+        if (!records.isEmpty()) {
+            throw new IllegalStateException(
+                    String.format("The table [%s] already contains records: can't enable the columnar storage.", name)
+            );
+        }
+        this.columnarStorage = true;
+    }
+
+    public boolean isColumnarStorage() {
+        return columnarStorage;
+    }
+
+    private ColumnarStore columnarStore() {
+        if (columnarStore == null) {
+            columnarStore = new ColumnarStore(columns.keySet());
+        }
+        return columnarStore;
+    }
+
+    private List<String> indexColumns() {
+        if (indexColumns == null) {
+            indexColumns = columns.values().stream()
+                    .filter(Column::isPrimaryKey)
+                    .map(Column::getName)
+                    .collect(Collectors.toList());
+        }
+        return indexColumns;
+    }
+
+    private Object computeIndexKey(final Record record) {
+        if (indexColumns().isEmpty()) {
+            return record.getValues().hashCode();
+        }
+        final Object[] key = new Object[indexColumns.size()];
+        for (int index = 0; index < key.length; index++) {
+            key[index] = record.getValue(indexColumns.get(index));
+        }
+        return Arrays.asList(key);
+    }
+
     public Map<String, Set<Relation>> getRelations() {
         final Map<String, Set<Relation>> relations = new HashMap<>();
         primaryKeys.forEach((key, value) -> relations.merge(
@@ -74,18 +147,44 @@ public class Table implements Comparable<Table> {
     }
 
     public List<Record> getRecords() {
+        if (columnarStorage) {
+            return columnarStore == null ? Collections.emptyList() : columnarStore.getRecords();
+        }
         return records;
     }
 
     public void addColumn(final Column column) {
         column.setParent(this);
         this.columns.put(column.getName(), column);
+        if (columnarStore != null) {
+            columnarStore.addColumn(column.getName());
+        }
+
+        // the index key may change: re-index the existing records
+        this.indexColumns = null;
+        this.recordsIndex.clear();
+        for (final Record record : records) {
+            recordsIndex.computeIfAbsent(computeIndexKey(record), key -> new ArrayList<>(1)).add(record);
+        }
     }
 
     public String getPrimaryKeyConstraint() {
         return primaryKeyConstraint;
     }
 
+    /**
+     * @return  The primary key columns name, whether the primary key is defined at table level or at column level.
+     */
+    public List<String> getPrimaryKeyColumns() {
+        if (StringUtils.isNotBlank(primaryKeyConstraint)) {
+            return List.of(StringUtils.split(primaryKeyConstraint, ','));
+        }
+        return columns.values().stream()
+                .filter(Column::isPrimaryKey)
+                .map(Column::getName)
+                .collect(Collectors.toList());
+    }
+
     public Table appendPrimaryConstraint(final Collection<String> constraints) {
         final Collection<String> safeConstraints = ObjectUtils.defaultIfNull(constraints, Collections.emptyList());
 
@@ -150,6 +249,23 @@ public class Table implements Comparable<Table> {
         return name;
     }
 
+    /**
+     * Add a secondary index to the table. An index with the same name is replaced.
+     * @param index The index
+     * @return  The {@link Table} object
+     */
+    public Table appendIndex(final Index index) {
+        indexes.put(index.getName(), index);
+        return this;
+    }
+
+    /**
+     * @return  The secondary indexes, in the collection order.
+     */
+    public Collection<Index> getIndexes() {
+        return Collections.unmodifiableCollection(indexes.values());
+    }
+
     public void setSchema(final Schema schema) {
         this.schema = schema;
     }
@@ -198,6 +314,9 @@ public class Table implements Comparable<Table> {
     }
 
     public List<Object> getValue(final String columnName) {
+        if (columnarStore != null) {
+            return columnarStore.getColumnValues(columnName);
+        }
         return records.parallelStream()
                 .map(record -> record.getValue(columnName))
                 .collect(Collectors.toList());
@@ -208,7 +327,7 @@ public class Table implements Comparable<Table> {
         return "Table{" +
                 "name='" + name + '\'' +
                 ", description='" + description + '\'' +
-                ": " + records +
+                ": " + getRecords() +
                 '}';
     }
 
@@ -0,0 +1,102 @@
+package lu.mms.common.quality.assets.db.re.script;
+
+import lu.mms.common.quality.assets.db.re.schema.Record;
+import lu.mms.common.quality.assets.db.re.schema.Table;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+
+/**
+ * RFC-4180 encoding of the table records: a header line with the column names, then one line per record. <br>
+ * The records values are SQL literals (see {@link Record}): the character values are unquoted and written between
+ * double quotes, the binary values are written in hexadecimal, and the null values are left empty (an empty
+ * character value is written as <i>""</i>). The LOB side files (see {@link LobFiles}) are written inline.
+ */
+final class CsvFormat {
+
+    static final String CSV_EXTENSION = ".csv";
+
+    private static final char SEPARATOR = ',';
+    private static final String LINE_END = "\r\n";
+    private static final String BINARY_PREFIX = "X'";
+
+    private CsvFormat() {
+    }
+
+    /**
+     * Write the table records.
+     * @param writer    The CSV file writer
+     * @param table The table
+     * @throws IOException  Thrown when the file can not be written
+     */
+    static void write(final Writer writer, final Table table) throws IOException {
+        writer.write(String.join(String.valueOf(SEPARATOR), table.getColumns().keySet()));
+        writer.write(LINE_END);
+        final StringBuilder line = new StringBuilder();
+        for (final Record record : table.getRecords()) {
+            line.setLength(0);
+            boolean first = true;
+            for (final String columnName : table.getColumns().keySet()) {
+                if (!first) {
+                    line.append(SEPARATOR);
+                }
+                first = false;
+                appendField(line, record.getValue(columnName));
+            }
+            writer.append(line).write(LINE_END);
+        }
+    }
+
+    /**
+     * @param table The table
+     * @param columnName    The column name
+     * @return  true when the column values are binary literals (example: X'CAFE'), written in hexadecimal.
+     */
+    static boolean isBinary(final Table table, final String columnName) {
+        return table.getRecords().stream()
+                .map(record -> record.getValue(columnName))
+                .filter(value -> value != null)
+                .findFirst()
+                .map(value -> isBinaryLiteral(String.valueOf(LobFiles.inline(value))))
+                .orElse(false);
+    }
+
+    /**
+     * @param tables    The tables
+     * @return  true when at least one table has records.
+     */
+    static boolean hasRecords(final Collection<Table> tables) {
+        return tables.stream().anyMatch(table -> !table.getRecords().isEmpty());
+    }
+
+    private static void appendField(final StringBuilder line, final Object value) {
+        if (value == null) {
+            return;
+        }
+        final String literal = String.valueOf(LobFiles.inline(value));
+        if (isBinaryLiteral(literal)) {
+            line.append(literal, BINARY_PREFIX.length(), literal.length() - 1);
+        } else if (literal.length() > 1 && literal.startsWith("'") && literal.endsWith("'")) {
+            appendQuoted(line, literal.substring(1, literal.length() - 1).replace("\\'", "'"));
+        } else {
+            line.append(literal);
+        }
+    }
+
+    private static void appendQuoted(final StringBuilder line, final String value) {
+        line.append('"');
+        for (int index = 0; index < value.length(); index++) {
+            final char character = value.charAt(index);
+            if (character == '"') {
+                line.append('"');
+            }
+            line.append(character);
+        }
+        line.append('"');
+    }
+
+    private static boolean isBinaryLiteral(final String literal) {
+        return literal.startsWith(BINARY_PREFIX) && literal.endsWith("'");
+    }
+}
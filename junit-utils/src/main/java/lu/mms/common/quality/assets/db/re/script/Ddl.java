@@ -1,14 +1,17 @@
 package lu.mms.common.quality.assets.db.re.script;
 
+import lu.mms.common.quality.assets.db.re.schema.Column;
+import lu.mms.common.quality.assets.db.re.schema.ForeignKeyGraph;
+import lu.mms.common.quality.assets.db.re.schema.Index;
 import lu.mms.common.quality.assets.db.re.schema.Schema;
 import lu.mms.common.quality.assets.db.re.schema.Table;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Objects;
 
 /**
  * Data Definition Language.
@@ -36,10 +39,9 @@ public class Ddl implements MigrationScript {
             + "-------------------------------------- CREATE TABLE ----------------------------------\n"
             + "--------------------------------------------- ----------------------------------------\n";
 
-    private static final String CREATE_TABLE = StringUtils.EMPTY
-            + "CREATE TABLE %s.%s (\n"
-            + "%s"
-            + ");\n\n";
+    private static final String CREATE_TABLE = "CREATE TABLE %s.%s (\n";
+
+    private static final String CREATE_TABLE_END = ");\n\n";
 
     /** Table column definition. example: DT_VALEUR VARCHAR2(100 CHAR) */
     private static final String TABLE_COLUMN = "\t%s %s\n";
@@ -49,8 +51,35 @@ public class Ddl implements MigrationScript {
     private static final String UNIQUE_TEMPLATE = ",\tCONSTRAINT UC_%s UNIQUE (%s)\n";
     private static final String CHECK_TEMPLATE = ",\tCONSTRAINT CHK_%s CHECK (%s)\n";
 
+    private static final String DEFERRED_CONSTRAINTS_BANNER =  StringUtils.LF
+            + "--------------------------------------------- ----------------------------------------\n"
+            + "----------------------------------- DEFERRED CONSTRAINTS -----------------------------\n"
+            + "--------------------------------------------- ----------------------------------------\n";
+
+    private static final String ADD_FK_TEMPLATE = "ALTER TABLE %s.%s ADD CONSTRAINT FK_%s FOREIGN KEY (%s) "
+            + "REFERENCES %s(%s);\n";
+    private static final String DROP_FK_TEMPLATE = "ALTER TABLE %s.%s DROP CONSTRAINT IF EXISTS FK_%s;\n";
+    private static final String ADD_UNIQUE_TEMPLATE = "ALTER TABLE %s.%s ADD CONSTRAINT UC_%s UNIQUE (%s);\n";
+    private static final String ADD_CHECK_TEMPLATE = "ALTER TABLE %s.%s ADD CONSTRAINT CHK_%s CHECK (%s);\n";
+    private static final String DROP_CONSTRAINT_TEMPLATE = "ALTER TABLE %s.%s DROP CONSTRAINT IF EXISTS %s;\n";
+
+    static final String CONSTRAINTS_BANNER =  StringUtils.LF
+            + "--------------------------------------------- ----------------------------------------\n"
+            + "------------------------------------- ADD CONSTRAINTS --------------------------------\n"
+            + "--------------------------------------------- ----------------------------------------\n";
+
+    static final String INDEXES_BANNER =  StringUtils.LF
+            + "--------------------------------------------- ----------------------------------------\n"
+            + "-------------------------------------- CREATE INDEX ----------------------------------\n"
+            + "--------------------------------------------- ----------------------------------------\n";
+
+    private static final String CREATE_INDEX = "CREATE %sINDEX %s.%s ON %s.%s (%s);\n";
+    private static final String DROP_INDEX = "DROP INDEX IF EXISTS %s.%s;\n";
+
     private final Schema schema;
     private final Class<?> packageProvider;
+    private IndexCreation indexCreation = IndexCreation.BEFORE_LOAD;
+    private LoadProfile loadProfile = LoadProfile.CONSTRAINED;
 
     private Ddl(final Schema schema, final Class<?> packageProvider) {
         this.schema = schema;
@@ -65,76 +94,290 @@ public class Ddl implements MigrationScript {
         return new Ddl(schema, packageProvider);
     }
 
+    /**
+     * Define when the secondary indexes are created: with the tables (by default), or at the end of the DML script
+     * (see {@link Dml#indexCreation(IndexCreation)}).
+     * @param indexCreation The index creation
+     * @return  The {@link Ddl} object
+     */
+    public Ddl indexCreation(final IndexCreation indexCreation) {
+        this.indexCreation = Objects.requireNonNull(indexCreation, "The index creation is mandatory.");
+        return this;
+    }
+
+    /**
+     * Define how the records are loaded: with {@link LoadProfile#BULK}, the tables are created with their primary
+     * key only, the other constraints and the indexes being added at the end of the DML script (see
+     * {@link Dml#loadProfile(LoadProfile)}).
+     * @param loadProfile   The load profile ({@link LoadProfile#CONSTRAINED} by default)
+     * @return  The {@link Ddl} object
+     */
+    public Ddl loadProfile(final LoadProfile loadProfile) {
+        this.loadProfile = Objects.requireNonNull(loadProfile, "The load profile is mandatory.");
+        return this;
+    }
+
     /**
      * Create the DDL from the provided {@code schema} in the same package that the {@code packageProvider}.
      */
     @Override
     public boolean createFile() {
         final String banner = MigrationScript.prepareBanner(schema.getExecutionTime());
-        final String ddl = build();
         final String filename = String.format(
                 SCHEMA_FILENAME_FORMAT,
                 NOW_DATETIME_FORMATTER.format(LocalDateTime.now())
         );
-        return MigrationScript.createFile(packageProvider, filename, List.of(banner, ddl));
+        return MigrationScript.createFile(packageProvider, filename, banner, this);
     }
 
     /**
-     * @return  The DDL string
+     * Write the DDL: the tables are dropped and created in foreign key dependency order (see
+     * {@link ForeignKeyGraph}), followed by the secondary indexes (unless they are created after the data load).
+     * The foreign keys of a cycle are left out: they are added by the DML script, once the records are inserted
+     * (see {@link Dml#writeTo(Appendable)}). <br>
+     * With the {@link LoadProfile#BULK} profile, the tables are created with their primary key only.
      */
     @Override
-    public String build() {
-        final String schemaSql = String.format(CREATE_SCHEMA, schema.getName());
-        final String dropTablesSql = schema.getTables().values().stream()
-                .map(table -> String.format(DROP_TABLE, schema.getName(), table.getName(), table.getDescription()))
-                .reduce(StringUtils::join)
-                .orElse(StringUtils.EMPTY);
-        final String createTableSql = schema.getTables().values().stream()
-                .sorted(Comparator.reverseOrder())
-                .map(Ddl::mapTableToDDL)
-                .reduce(StringUtils::join)
-                .orElse(StringUtils.EMPTY);
-        return StringUtils.join(schemaSql, DROP_TABLES_BANNER, dropTablesSql, CREATE_TABLES_BANNER, createTableSql);
-    }
-
-    private static String mapTableToDDL(final Table table) {
-        final String columnsSql = table.getColumns().values().stream()
-                .map(column -> String.format(TABLE_COLUMN, column.getName(), column.getDefinition()))
-                .reduce((a, b) -> StringUtils.joinWith(",", a, b))
-                .orElse(StringUtils.EMPTY);
-
-        String tablePK = StringUtils.EMPTY;
+    public void writeTo(final Appendable output) throws IOException {
+        final ForeignKeyGraph graph = ForeignKeyGraph.of(schema);
+        final boolean constrained = loadProfile == LoadProfile.CONSTRAINED;
+        output.append(String.format(CREATE_SCHEMA, schema.getName()));
+        output.append(DROP_TABLES_BANNER);
+        for (final Table table : graph.getDeleteOrder()) {
+            output.append(String.format(DROP_TABLE, schema.getName(), table.getName(), table.getDescription()));
+        }
+        output.append(CREATE_TABLES_BANNER);
+        for (final Table table : graph.getInsertOrder()) {
+            writeTableDDL(output, table, graph.getForeignKeys(table.getName()), constrained);
+        }
+        if (constrained && indexCreation == IndexCreation.BEFORE_LOAD) {
+            writeIndexes(output, graph.getInsertOrder());
+        }
+    }
+
+    /**
+     * Write the 'ALTER TABLE ... ADD CONSTRAINT' section of the foreign keys of a cycle (see
+     * {@link ForeignKeyGraph#getDeferredForeignKeys()}), nothing when the tables have no cycle. The records of a
+     * cycle reference each other, so the constraints can only be added once all of them are inserted.
+     * @param output    The script output
+     * @param graph The foreign key graph of the tables
+     * @throws IOException  Thrown when the output can not be written
+     */
+    static void writeDeferredForeignKeys(final Appendable output, final ForeignKeyGraph graph) throws IOException {
+        if (graph.getDeferredForeignKeys().isEmpty()) {
+            return;
+        }
+        output.append(DEFERRED_CONSTRAINTS_BANNER);
+        for (final Table table : graph.getInsertOrder()) {
+            for (final ForeignKeyGraph.ForeignKey foreignKey : graph.getForeignKeys(table.getName())) {
+                if (foreignKey.isDeferred()) {
+                    writeForeignKey(output, table.getSchema().getName(), graph, foreignKey);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the 'ALTER TABLE ... DROP CONSTRAINT IF EXISTS' statements of the foreign keys of a cycle, so that
+     * their records can be deleted again (H2 and PostgreSQL syntax).
+     * @param output    The script output
+     * @param graph The foreign key graph of the tables
+     * @throws IOException  Thrown when the output can not be written
+     */
+    static void writeDropDeferredForeignKeys(final Appendable output, final ForeignKeyGraph graph)
+                                                                                                throws IOException {
+        for (final Table table : graph.getDeleteOrder()) {
+            final List<ForeignKeyGraph.ForeignKey> foreignKeys = graph.getForeignKeys(table.getName());
+            for (final ForeignKeyGraph.ForeignKey foreignKey : foreignKeys) {
+                if (foreignKey.isDeferred()) {
+                    output.append(String.format(DROP_FK_TEMPLATE, table.getSchema().getName(), table.getName(),
+                            table.getName() + "_" + (foreignKeys.indexOf(foreignKey) + 1)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the 'ALTER TABLE ... ADD CONSTRAINT' section of the tables created without constraint (see
+     * {@link LoadProfile#BULK}): the foreign keys, then the unique and check constraints.
+     * @param output    The script output
+     * @param graph The foreign key graph of the tables
+     * @throws IOException  Thrown when the output can not be written
+     */
+    static void writeConstraints(final Appendable output, final ForeignKeyGraph graph) throws IOException {
+        output.append(CONSTRAINTS_BANNER);
+        for (final Table table : graph.getInsertOrder()) {
+            final String schemaName = table.getSchema().getName();
+            for (final ForeignKeyGraph.ForeignKey foreignKey : graph.getForeignKeys(table.getName())) {
+                writeForeignKey(output, schemaName, graph, foreignKey);
+            }
+        }
+        for (final Table table : graph.getInsertOrder()) {
+            final String schemaName = table.getSchema().getName();
+            if (!table.getUniqueConstraint().isBlank()) {
+                output.append(String.format(ADD_UNIQUE_TEMPLATE, schemaName, table.getName(), table.getName(),
+                        table.getUniqueConstraint()));
+            }
+            for (final Column column : table.getColumns().values()) {
+                if (column.isUnique() && !column.isPrimaryKey()) {
+                    output.append(String.format(ADD_UNIQUE_TEMPLATE, schemaName, table.getName(),
+                            table.getName() + "_" + column.getName(), column.getName()));
+                }
+            }
+            if (!table.getCheckConstraint().isBlank()) {
+                output.append(String.format(ADD_CHECK_TEMPLATE, schemaName, table.getName(), table.getName(),
+                        table.getCheckConstraint()));
+            }
+        }
+    }
+
+    /**
+     * Write the 'ALTER TABLE ... DROP CONSTRAINT IF EXISTS' statements of the constraints written by
+     * {@link #writeConstraints(Appendable, ForeignKeyGraph)}, so that the records can be deleted and loaded again
+     * (H2 and PostgreSQL syntax).
+     * @param output    The script output
+     * @param graph The foreign key graph of the tables
+     * @throws IOException  Thrown when the output can not be written
+     */
+    static void writeDropConstraints(final Appendable output, final ForeignKeyGraph graph) throws IOException {
+        for (final Table table : graph.getDeleteOrder()) {
+            final String schemaName = table.getSchema().getName();
+            final List<ForeignKeyGraph.ForeignKey> foreignKeys = graph.getForeignKeys(table.getName());
+            for (int index = 1; index <= foreignKeys.size(); index++) {
+                output.append(String.format(DROP_FK_TEMPLATE, schemaName, table.getName(),
+                        table.getName() + "_" + index));
+            }
+            if (!table.getUniqueConstraint().isBlank()) {
+                output.append(String.format(DROP_CONSTRAINT_TEMPLATE, schemaName, table.getName(),
+                        "UC_" + table.getName()));
+            }
+            for (final Column column : table.getColumns().values()) {
+                if (column.isUnique() && !column.isPrimaryKey()) {
+                    output.append(String.format(DROP_CONSTRAINT_TEMPLATE, schemaName, table.getName(),
+                            "UC_" + table.getName() + "_" + column.getName()));
+                }
+            }
+            if (!table.getCheckConstraint().isBlank()) {
+                output.append(String.format(DROP_CONSTRAINT_TEMPLATE, schemaName, table.getName(),
+                        "CHK_" + table.getName()));
+            }
+        }
+    }
+
+    /**
+     * @param graph The foreign key graph of the tables
+     * @return  true, when {@link #writeConstraints(Appendable, ForeignKeyGraph)} writes at least one constraint.
+     */
+    static boolean hasConstraints(final ForeignKeyGraph graph) {
+        return graph.getInsertOrder().stream().anyMatch(table -> !graph.getForeignKeys(table.getName()).isEmpty()
+                || !table.getUniqueConstraint().isBlank()
+                || !table.getCheckConstraint().isBlank()
+                || table.getColumns().values().stream().anyMatch(column -> column.isUnique() && !column.isPrimaryKey()));
+    }
+
+    private static void writeForeignKey(final Appendable output, final String schemaName,
+                                        final ForeignKeyGraph graph, final ForeignKeyGraph.ForeignKey foreignKey)
+                                                                                                throws IOException {
+        // the constraint is named after its position, the same way as the inline constraints
+        final int index = graph.getForeignKeys(foreignKey.getTable()).indexOf(foreignKey) + 1;
+        output.append(String.format(
+                ADD_FK_TEMPLATE,
+                schemaName,
+                foreignKey.getTable(),
+                foreignKey.getTable() + "_" + index,
+                foreignKey.getColumn(),
+                foreignKey.getTargetTable(),
+                foreignKey.getTargetColumn()
+        ));
+    }
+
+    /**
+     * Write the 'CREATE INDEX' section of the given tables, nothing when the tables have no secondary index.
+     * @param output    The script output
+     * @param tables    The tables
+     * @throws IOException  Thrown when the output can not be written
+     */
+    static void writeIndexes(final Appendable output, final Collection<Table> tables) throws IOException {
+        if (tables.stream().allMatch(table -> table.getIndexes().isEmpty())) {
+            return;
+        }
+        output.append(INDEXES_BANNER);
+        for (final Table table : tables) {
+            for (final Index index : table.getIndexes()) {
+                output.append(String.format(
+                        CREATE_INDEX,
+                        index.isUnique() ? "UNIQUE " : StringUtils.EMPTY,
+                        table.getSchema().getName(),
+                        index.getName(),
+                        table.getSchema().getName(),
+                        table.getName(),
+                        String.join(", ", index.getColumns())
+                ));
+            }
+        }
+    }
+
+    /**
+     * Write the 'DROP INDEX IF EXISTS' statements of the indexes written by
+     * {@link #writeIndexes(Appendable, Collection)}, so that they can be created again (H2, HSQL and
+     * PostgreSQL syntax).
+     * @param output    The script output
+     * @param tables    The tables
+     * @throws IOException  Thrown when the output can not be written
+     */
+    static void writeDropIndexes(final Appendable output, final Collection<Table> tables) throws IOException {
+        for (final Table table : tables) {
+            for (final Index index : table.getIndexes()) {
+                output.append(String.format(DROP_INDEX, table.getSchema().getName(), index.getName()));
+            }
+        }
+    }
+
+    private static void writeTableDDL(final Appendable output, final Table table,
+                                      final List<ForeignKeyGraph.ForeignKey> foreignKeys, final boolean constrained)
+                                                                                                throws IOException {
+        output.append(String.format(CREATE_TABLE, table.getSchema().getName(), table.getName()));
+
+        boolean first = true;
+        for (final Column column : table.getColumns().values()) {
+            if (!first) {
+                output.append(',');
+            }
+            output.append(String.format(TABLE_COLUMN, column.getName(), column.getDefinition(constrained)));
+            first = false;
+        }
+
         if (!table.getPrimaryKeyConstraint().isBlank()) {
-            tablePK = String.format(PK_TEMPLATE, table.getName(), table.getPrimaryKeyConstraint());
-        }
-
-        String tableFK = StringUtils.EMPTY;
-        if (!table.getForeignKeys().isEmpty()) {
-            final AtomicInteger index = new AtomicInteger(0);
-            tableFK = table.getForeignKeys().entrySet().stream()
-                    .flatMap(entry -> entry.getValue().parallelStream().map(ref -> Map.entry(entry.getKey(), ref)))
-                    .map(entry -> String.format(
-                            FK_TEMPLATE,
-                            table.getName() + "_" + index.incrementAndGet(),
-                            entry.getKey(),
-                            entry.getValue().getTargetTable(),
-                            entry.getValue().getTargetColumn())
-                    )
-                    .reduce(StringUtils::join)
-                    .orElse(StringUtils.EMPTY);
-        }
-
-        String uniqueConstraint = StringUtils.EMPTY;
+            output.append(String.format(PK_TEMPLATE, table.getName(), table.getPrimaryKeyConstraint()));
+        }
+
+        if (!constrained) {
+            output.append(CREATE_TABLE_END);
+            return;
+        }
+
+        int index = 0;
+        for (final ForeignKeyGraph.ForeignKey foreignKey : foreignKeys) {
+            index++;
+            if (foreignKey.isDeferred()) {
+                continue;
+            }
+            output.append(String.format(
+                    FK_TEMPLATE,
+                    table.getName() + "_" + index,
+                    foreignKey.getColumn(),
+                    foreignKey.getTargetTable(),
+                    foreignKey.getTargetColumn()
+            ));
+        }
+
         if (!table.getUniqueConstraint().isBlank()) {
-            uniqueConstraint = String.format(UNIQUE_TEMPLATE, table.getName(), table.getUniqueConstraint());
+            output.append(String.format(UNIQUE_TEMPLATE, table.getName(), table.getUniqueConstraint()));
         }
 
-        String checkConstraint = StringUtils.EMPTY;
         if (!table.getCheckConstraint().isBlank()) {
-            checkConstraint = String.format(CHECK_TEMPLATE, table.getName(), table.getCheckConstraint());
+            output.append(String.format(CHECK_TEMPLATE, table.getName(), table.getCheckConstraint()));
         }
-
-        final String tableDdl = StringUtils.join(columnsSql, tablePK, tableFK, uniqueConstraint, checkConstraint);
-        return String.format(CREATE_TABLE, table.getSchema().getName(), table.getName(), tableDdl);
+        output.append(CREATE_TABLE_END);
     }
 }
@@ -0,0 +1,241 @@
+package lu.mms.common.quality.assets.db.re.script;
+
+import lu.mms.common.quality.assets.db.DBDriverName;
+import lu.mms.common.quality.assets.db.re.schema.ForeignKeyGraph;
+import lu.mms.common.quality.assets.db.re.schema.Record;
+import lu.mms.common.quality.assets.db.re.schema.Schema;
+import lu.mms.common.quality.assets.db.re.schema.Table;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental Data Manipulation Language: the rows inserted, updated or deleted since the snapshot described by the
+ * {@link SnapshotManifest}. <br>
+ * The schema records are the ones extracted with the manifest (see {@code ReverseEngineeringWizard#withSnapshot}):
+ * <ul>
+ *     <li>the rows above the previous maximum key are inserted</li>
+ *     <li>the other ones (modified since the previous snapshot, or in a key range whose summary changed) are merged
+ *     (see {@link #dialect(DBDriverName)})</li>
+ *     <li>the rows of a changed key range which were not extracted again are deleted</li>
+ *     <li>the tables without single numeric primary key, without last modification column, or not in the previous
+ *     snapshot, are reloaded</li>
+ * </ul>
+ */
+public class Delta implements MigrationScript {
+
+    static final String DELTA_FILENAME_FORMAT = "delta_%s.sql";
+
+    private static final String MERGE_RECORDS_BANNER = StringUtils.LF
+            + "--------------------------------------------- ----------------------------------------\n"
+            + "------------------------------------- MERGE RECORDS ----------------------------------\n"
+            + "--------------------------------------------- ----------------------------------------\n";
+
+    private static final String DELETE_ALL_RECORDS = "DELETE FROM %s.%s;\n";
+
+    private static final String DELETE_RANGE = "DELETE FROM %s.%s WHERE %s >= %s AND %s < %s%s;\n";
+
+    private static final String MERGE_RECORD = "MERGE INTO %s.%s (%s) KEY (%s) VALUES (%s);\n";
+
+    private static final String MERGE_USING_RECORD = "MERGE INTO %s.%s T USING %s ON (T.%s = S.%s)%s "
+            + "WHEN NOT MATCHED THEN INSERT (%s) VALUES (%s);\n";
+
+    private static final String WHEN_MATCHED_UPDATE = " WHEN MATCHED THEN UPDATE SET %s";
+
+    private static final Set<DBDriverName> MERGE_DIALECTS = EnumSet.of(DBDriverName.H2, DBDriverName.HSQL,
+            DBDriverName.ORACLE);
+
+    private static final String INSERT_RECORD = "INSERT INTO %s.%s (%s) VALUES (%s);\n";
+
+    private final Schema schema;
+    private final SnapshotManifest manifest;
+    private final Class<?> packageProvider;
+    private DBDriverName dialect = DBDriverName.H2;
+
+    private Delta(final Schema schema, final SnapshotManifest manifest, final Class<?> packageProvider) {
+        this.schema = schema;
+        this.manifest = Objects.requireNonNull(manifest, "The snapshot manifest is mandatory.");
+        this.packageProvider = packageProvider;
+    }
+
+    public static Delta with(final Schema schema, final SnapshotManifest manifest) {
+        return new Delta(schema, manifest, null);
+    }
+
+    public static Delta with(final Schema schema, final SnapshotManifest manifest, final Class<?> packageProvider) {
+        return new Delta(schema, manifest, packageProvider);
+    }
+
+    /**
+     * Define the database the delta is written for, to use its 'MERGE' syntax: 'MERGE INTO ... KEY' with H2, the
+     * standard 'MERGE INTO ... USING' with HSQL and Oracle.
+     * @param dialect   The target database (H2 by default)
+     * @return  The {@link Delta} object
+     */
+    public Delta dialect(final DBDriverName dialect) {
+        this.dialect = Objects.requireNonNull(dialect, "The dialect is mandatory.");
+        return this;
+    }
+
+    /**
+     * Create the delta file in the same package that the {@code packageProvider} (or in the <i>/SQL</i> folder), then
+     * save the manifest, so that the next delta starts from this snapshot.
+     */
+    @Override
+    public boolean createFile() {
+        final String banner = MigrationScript.prepareBanner(schema.getExecutionTime());
+        final String filename = String.format(
+                DELTA_FILENAME_FORMAT,
+                NOW_DATETIME_FORMATTER.format(LocalDateTime.now())
+        );
+        final boolean isCreated = MigrationScript.createFile(packageProvider, filename, banner, this);
+        if (isCreated) {
+            manifest.save();
+        }
+        return isCreated;
+    }
+
+    @Override
+    public void writeTo(final Appendable output) throws IOException {
+        if (!MERGE_DIALECTS.contains(dialect)) {
+            throw new IllegalStateException(String.format("The records can not be merged in %s.", dialect));
+        }
+        final ForeignKeyGraph graph = ForeignKeyGraph.of(schema);
+        for (final Table table : graph.getInsertOrder()) {
+            if (manifest.getExtracted(table.getName()) == null) {
+                throw new IllegalStateException(String.format(
+                        "The table [%s] was not extracted with the snapshot manifest.", table.getName()
+                ));
+            }
+        }
+
+        output.append(Dml.DELETE_RECORDS_BANNER);
+        for (final Table table : graph.getDeleteOrder()) {
+            if (manifest.isIncremental(table.getName())) {
+                writeDeletedRanges(output, table);
+            } else {
+                output.append(String.format(DELETE_ALL_RECORDS, table.getSchema().getName(), table.getName()));
+            }
+        }
+
+        output.append(MERGE_RECORDS_BANNER);
+        for (final Table table : graph.getInsertOrder()) {
+            if (manifest.isIncremental(table.getName())) {
+                final String keyColumn = manifest.getExtracted(table.getName()).getKeyColumn();
+                for (final Record record : table.getRecords()) {
+                    if (!isInserted(table, record)) {
+                        output.append(mergeRecord(table, record, keyColumn));
+                    }
+                }
+            }
+        }
+
+        output.append(Dml.INSERT_INTO_BANNER);
+        for (final Table table : graph.getInsertOrder()) {
+            for (final Record record : table.getRecords()) {
+                if (isInserted(table, record)) {
+                    output.append(mapRecord(INSERT_RECORD, table, record, null));
+                }
+            }
+        }
+    }
+
+    /*
+     * The rows of a changed key range are all extracted again: the other ones were deleted.
+     */
+    private void writeDeletedRanges(final Appendable output, final Table table) throws IOException {
+        final String keyColumn = manifest.getExtracted(table.getName()).getKeyColumn();
+        final Set<Long> changedBuckets = manifest.getChangedBuckets(table.getName());
+        for (final long bucket : changedBuckets) {
+            final List<String> keys = new ArrayList<>();
+            for (final Record record : table.getRecords()) {
+                final Object key = record.getValue(keyColumn);
+                if (bucketOf(key) == bucket) {
+                    keys.add(String.valueOf(key));
+                }
+            }
+            final StringBuilder retainedKeys = new StringBuilder();
+            for (int start = 0; start < keys.size(); start += Dml.DEFAULT_BATCH_SIZE) {
+                retainedKeys.append(" AND ").append(keyColumn).append(" NOT IN (")
+                        .append(String.join(", ", keys.subList(start, Math.min(start + Dml.DEFAULT_BATCH_SIZE,
+                                keys.size()))))
+                        .append(')');
+            }
+            output.append(String.format(DELETE_RANGE, table.getSchema().getName(), table.getName(),
+                    keyColumn, bucket * SnapshotManifest.BUCKET_WIDTH,
+                    keyColumn, (bucket + 1) * SnapshotManifest.BUCKET_WIDTH,
+                    retainedKeys));
+        }
+    }
+
+    /*
+     * The records of a reloaded table, and the ones above the previous maximum key, are new.
+     */
+    private boolean isInserted(final Table table, final Record record) {
+        if (!manifest.isIncremental(table.getName())) {
+            return true;
+        }
+        final SnapshotManifest.TableWatermark previous = manifest.getWatermark(table.getName());
+        if (previous.getMaxKey() == null) {
+            return true;
+        }
+        final Object key = record.getValue(previous.getKeyColumn());
+        return new BigDecimal(String.valueOf(key)).compareTo(new BigDecimal(previous.getMaxKey())) > 0;
+    }
+
+    private static long bucketOf(final Object key) {
+        return new BigDecimal(String.valueOf(key))
+                .divide(BigDecimal.valueOf(SnapshotManifest.BUCKET_WIDTH), 0, RoundingMode.FLOOR)
+                .longValueExact();
+    }
+
+    private String mergeRecord(final Table table, final Record record, final String keyColumn) {
+        if (dialect == DBDriverName.H2) {
+            return mapRecord(MERGE_RECORD, table, record, keyColumn);
+        }
+        final List<String> columns = new ArrayList<>(table.getColumns().keySet());
+        final List<String> values = columns.stream()
+                .map(columnName -> String.valueOf(record.getValue(columnName)))
+                .collect(Collectors.toList());
+        final String source;
+        if (dialect == DBDriverName.ORACLE) {
+            final List<String> selected = new ArrayList<>();
+            for (int index = 0; index < columns.size(); index++) {
+                selected.add(values.get(index) + " " + columns.get(index));
+            }
+            source = String.format("(SELECT %s FROM DUAL) S", String.join(", ", selected));
+        } else {
+            source = String.format("(VALUES (%s)) S (%s)", String.join(", ", values), String.join(", ", columns));
+        }
+        // the key column is matched, it can not be updated
+        final String updates = columns.stream()
+                .filter(columnName -> !columnName.equals(keyColumn))
+                .map(columnName -> "T." + columnName + " = S." + columnName)
+                .collect(Collectors.joining(", "));
+        final String whenMatched = updates.isEmpty() ? StringUtils.EMPTY : String.format(WHEN_MATCHED_UPDATE, updates);
+        return String.format(MERGE_USING_RECORD, table.getSchema().getName(), table.getName(), source,
+                keyColumn, keyColumn, whenMatched, String.join(", ", columns),
+                columns.stream().map(columnName -> "S." + columnName).collect(Collectors.joining(", ")));
+    }
+
+    private static String mapRecord(final String template, final Table table, final Record record,
+                                    final String keyColumn) {
+        final String columnsSql = String.join(", ", table.getColumns().keySet());
+        final String valuesSql = table.getColumns().keySet().stream()
+                .map(columnName -> String.valueOf(record.getValue(columnName)))
+                .collect(Collectors.joining(", "));
+        return keyColumn == null
+                ? String.format(template, table.getSchema().getName(), table.getName(), columnsSql, valuesSql)
+                : String.format(template, table.getSchema().getName(), table.getName(), columnsSql, keyColumn,
+                        valuesSql);
+    }
+}
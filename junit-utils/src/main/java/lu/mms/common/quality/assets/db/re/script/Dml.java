@@ -1,43 +1,83 @@
 package lu.mms.common.quality.assets.db.re.script;
 
+import lu.mms.common.quality.assets.db.DBDriverName;
+import lu.mms.common.quality.assets.db.re.ExtractionListener;
+import lu.mms.common.quality.assets.db.re.schema.Column;
+import lu.mms.common.quality.assets.db.re.schema.ForeignKeyGraph;
+import lu.mms.common.quality.assets.db.re.schema.Record;
 import lu.mms.common.quality.assets.db.re.schema.Schema;
 import lu.mms.common.quality.assets.db.re.schema.Table;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
-import java.util.Collection;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Data Query Language.
  */
 public class Dml implements MigrationScript {
 
-    private static final String DATA_FILENAME_FORMAT = "data_%s.sql";
+    static final String DATA_FILENAME_FORMAT = "data_%s.sql";
 
-    private static final String DELETE_RECORDS_BANNER =  StringUtils.LF
+    static final String CSV_LOADER_FILENAME_FORMAT = "data_%s.csv.sql";
+
+    /* The dialects dropping the constraints ('DROP CONSTRAINT IF EXISTS') the script adds after the inserts. */
+    private static final Set<DBDriverName> DROP_CONSTRAINT_DIALECTS = EnumSet.of(DBDriverName.H2,
+            DBDriverName.POSTGRES);
+
+    /* The dialects dropping the indexes ('DROP INDEX IF EXISTS') the script creates after the inserts. */
+    private static final Set<DBDriverName> DROP_INDEX_DIALECTS = EnumSet.of(DBDriverName.H2, DBDriverName.HSQL,
+            DBDriverName.POSTGRES);
+
+    static final String DELETE_RECORDS_BANNER =  StringUtils.LF
             + "--------------------------------------------- ----------------------------------------\n"
             + "------------------------------------- DELETE RECORDS ---------------------------------\n"
             + "--------------------------------------------- ----------------------------------------\n";
 
-    private static final String DELETE_RECORDS = StringUtils.EMPTY
+    static final String DELETE_RECORDS = StringUtils.EMPTY
             + "DELETE FROM  %s.%s;\n";
 
-    private static final String INSERT_INTO_BANNER = StringUtils.LF
+    static final String INSERT_INTO_BANNER = StringUtils.LF
             + "--------------------------------------------- ----------------------------------------\n"
             + "------------------------------------- INSERT RECORDS ---------------------------------\n"
             + "--------------------------------------------- ----------------------------------------\n";
 
-    private static final String INSERT_INTO = StringUtils.EMPTY
-            + "INSERT INTO %s.%s (\n"
-            + "\t(%s) \n"
-            + "VALUES \n"
-            + "%s \n"
-            + ";\n\n";
+    static final String LOAD_CSV_BANNER = StringUtils.LF
+            + "--------------------------------------------- ----------------------------------------\n"
+            + "------------------------------------- LOAD CSV FILES ---------------------------------\n"
+            + "--------------------------------------------- ----------------------------------------\n";
+
+    static final String H2_CSV_LOAD = StringUtils.EMPTY
+            + "INSERT INTO %s.%s (%s) SELECT %s FROM CSVREAD('%s', NULL, 'charset=UTF-8');\n";
+
+    static final String HSQL_CSV_TABLE = StringUtils.EMPTY
+            + "CREATE TEXT TABLE %s.%s (%s);\n"
+            + "SET TABLE %s.%s SOURCE '%s;ignore_first=true;encoding=UTF-8;quoted=true';\n"
+            + "INSERT INTO %s.%s (%s) SELECT %s FROM %s.%s;\n"
+            + "DROP TABLE %s.%s;\n";
+
+    static final String HSQL_CSV_TABLE_SUFFIX = "_CSV";
+
+    /** The default amount of rows per 'INSERT' statement. */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
 
     private final Schema schema;
     private final Class<?> packageProvider;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private DBDriverName dialect = DBDriverName.H2;
+    private boolean compressed;
+    private IndexCreation indexCreation = IndexCreation.BEFORE_LOAD;
+    private LoadProfile loadProfile = LoadProfile.CONSTRAINED;
+    private ExtractionListener listener;
 
     private Dml(final Schema schema, final Class<?> packageProvider) {
         this.schema = schema;
@@ -52,6 +92,73 @@ public class Dml implements MigrationScript {
         return new Dml(schema, packageProvider);
     }
 
+    /**
+     * Define the maximum amount of rows per 'INSERT' statement.
+     * @param batchSize The amount of rows (1000 by default)
+     * @return  The {@link Dml} object
+     */
+    public Dml batchSize(final int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be greater than zero.");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Define the database the script is written for, to use its multi-row 'INSERT' syntax.
+     * @param dialect   The target database (H2 by default)
+     * @return  The {@link Dml} object
+     */
+    public Dml dialect(final DBDriverName dialect) {
+        this.dialect = Objects.requireNonNull(dialect, "The dialect is mandatory.");
+        return this;
+    }
+
+    /**
+     * Write the DML file gzip compressed (<i>data_*.sql.gz</i>), the script being compressed while it is rendered.
+     * The compressed scripts are loaded as they are by the {@code MyBatisMapperTest} migration scripts.
+     * @param compressed    true, to compress the file
+     * @return  The {@link Dml} object
+     */
+    public Dml compressed(final boolean compressed) {
+        this.compressed = compressed;
+        return this;
+    }
+
+    /**
+     * Define when the secondary indexes are created: with the tables in the DDL script (by default), or at the end
+     * of this script, once the records are inserted (see {@link Ddl#indexCreation(IndexCreation)}).
+     * @param indexCreation The index creation
+     * @return  The {@link Dml} object
+     */
+    public Dml indexCreation(final IndexCreation indexCreation) {
+        this.indexCreation = Objects.requireNonNull(indexCreation, "The index creation is mandatory.");
+        return this;
+    }
+
+    /**
+     * Define how the records are loaded: with {@link LoadProfile#BULK}, the constraints and the indexes the DDL
+     * script left out (see {@link Ddl#loadProfile(LoadProfile)}) are added once the records are inserted.
+     * @param loadProfile   The load profile ({@link LoadProfile#CONSTRAINED} by default)
+     * @return  The {@link Dml} object
+     */
+    public Dml loadProfile(final LoadProfile loadProfile) {
+        this.loadProfile = Objects.requireNonNull(loadProfile, "The load profile is mandatory.");
+        return this;
+    }
+
+    /**
+     * Report the records encoding to the listener (see {@link ExtractionListener#onRowsEncoded} and
+     * {@link ExtractionListener.Phase#RENDER}), as {@code ReverseEngineeringWizard#streamDml} does.
+     * @param listener  The extraction listener
+     * @return  The {@link Dml} object
+     */
+    public Dml listener(final ExtractionListener listener) {
+        this.listener = Objects.requireNonNull(listener, "The listener is mandatory.");
+        return this;
+    }
+
     /**
      * Create the DML from the provided {@code tables} in the <i>/SQL</i> folder with the rest resources folder..
      */
@@ -59,47 +166,255 @@ public class Dml implements MigrationScript {
     public boolean createFile() {
         final String execTime = schema.getExecutionTime();
         final String banner = MigrationScript.prepareBanner(execTime);
-        final String dml = build();
         final String filename = String.format(
                 DATA_FILENAME_FORMAT,
                 NOW_DATETIME_FORMATTER.format(LocalDateTime.now())
+        ) + (compressed ? GZIP_EXTENSION : StringUtils.EMPTY);
+        return MigrationScript.createFile(packageProvider, filename, banner, this);
+    }
+
+    /**
+     * Create the CSV files and their loader script (<i>data_*.csv.sql</i>) in the <i>/SQL</i> folder with the rest
+     * resources folder (see {@link #writeCsv(Path)}).
+     * @return  The loader script path
+     * @throws IOException  Thrown when a file can not be written
+     */
+    public Path createCsvFiles() throws IOException {
+        final String filename = String.format(
+                CSV_LOADER_FILENAME_FORMAT,
+                NOW_DATETIME_FORMATTER.format(LocalDateTime.now())
         );
-        return MigrationScript.createFile(packageProvider, filename, List.of(banner, dml));
+        return writeCsv(MigrationScript.resolveFile(packageProvider, filename));
+    }
+
+    /**
+     * Write the records as RFC-4180 CSV files, one per table, in the folder named after the loader script
+     * (example: <i>data_20240101_120000_00/CUSTOMER.csv</i>), then write the loader script: it deletes the records,
+     * and loads each CSV file with the database bulk reader, which is much faster than parsing the 'INSERT'
+     * statements. The loader script can be used as a {@code MyBatisMapperTest} migration script, provided its name
+     * ends with <i>.csv.sql</i> (its statements are executed one at a time). <br>
+     * <ul>
+     *     <li>H2: 'INSERT ... SELECT FROM CSVREAD(...)', the files in the test resources are read from the
+     *     classpath</li>
+     *     <li>HSQL: a temporary text table is bound to the file, the file path is relative to the working
+     *     directory</li>
+     * </ul>
+     * The tables without records have no CSV file.
+     * @param loaderFile    The loader script path
+     * @return  The loader script path
+     * @throws IOException  Thrown when a file can not be written
+     */
+    public Path writeCsv(final Path loaderFile) throws IOException {
+        if (dialect != DBDriverName.H2 && dialect != DBDriverName.HSQL) {
+            throw new IllegalStateException(String.format("The CSV files can not be loaded in %s.", dialect));
+        }
+        final ForeignKeyGraph graph = ForeignKeyGraph.of(schema);
+        final String loaderName = loaderFile.getFileName().toString();
+        final Path csvDirectory = loaderFile.resolveSibling(StringUtils.substringBefore(loaderName, "."));
+        final List<Table> tables = new ArrayList<>();
+        for (final Table table : graph.getInsertOrder()) {
+            if (table.getRecords().isEmpty()) {
+                continue;
+            }
+            Files.createDirectories(csvDirectory);
+            try (Writer writer = MigrationScript.newWriter(csvDirectory.resolve(csvFileName(table)))) {
+                CsvFormat.write(writer, table);
+            }
+            tables.add(table);
+        }
+        try (Writer writer = MigrationScript.newWriter(loaderFile)) {
+            writer.write(MigrationScript.prepareBanner(schema.getExecutionTime()));
+            writer.write(System.lineSeparator());
+            writeDelete(writer, graph);
+            writer.write(LOAD_CSV_BANNER);
+            for (final Table table : tables) {
+                writeCsvLoad(writer, table, csvDirectory.resolve(csvFileName(table)));
+            }
+            writeDeferred(writer, graph);
+        }
+        LOGGER.info("File created: [{}], with {} CSV file(s)", loaderFile, tables.size());
+        return loaderFile;
     }
 
     /**
-     * @return  The DML string
+     * Write the DML: the records are deleted, then inserted in foreign key dependency order (see
+     * {@link ForeignKeyGraph}). The foreign keys of a cycle, left out of the DDL script, are added once the records
+     * are inserted. The constraints and indexes the script adds are dropped before the records are deleted, so that
+     * the script can be run again.
+     * @throws IllegalStateException    Thrown when the dialect can't drop the constraints ({@link LoadProfile#BULK})
+     *                                  or the indexes created after the load
      */
     @Override
-    public String build() {
-        final Collection<Table> tables = schema.getTables().values();
-        final String deleteRecordsSql = tables.stream()
-                .sorted()
-                .map(table -> String.format(DELETE_RECORDS, table.getSchema().getName(), table.getName()))
-                .reduce(StringUtils::join)
-                .orElse(StringUtils.EMPTY);
-        final String insertRecordsSql = tables.stream()
-                .sorted(Comparator.reverseOrder())
-                .map(Dml::mapTableToInsertDML)
-                .reduce(StringUtils::join)
-                .orElse(StringUtils.EMPTY);
-        return StringUtils.join(DELETE_RECORDS_BANNER, deleteRecordsSql, INSERT_INTO_BANNER, insertRecordsSql);
-    }
-
-    private static String mapTableToInsertDML(final Table table) {
-        // collect the column name (comma separated)
-        final String columnsSql = table.getColumns().keySet().stream()
-                .reduce((a, b) -> StringUtils.joinWith(", ", a, b))
-                .orElse(StringUtils.EMPTY);
-        return table.getRecords().stream()
-                // For each record, collect the concatenated (comma separated) column values
-                .map(record -> table.getColumns().keySet().stream()
-                        .map(columnName -> String.valueOf(record.getValue(columnName)))
-                        .reduce((a, b) -> StringUtils.joinWith(", ", a, b))
-                        .map(a -> String.format("\t(%s)", a))
-                        .orElse(StringUtils.EMPTY))
-                .reduce((a, b) -> StringUtils.joinWith(",\n", a, b))
-                .map(dataSql -> String.format(INSERT_INTO, table.getSchema().getName(), table.getName(), columnsSql, dataSql))
-                .orElse(StringUtils.EMPTY);
+    public void writeTo(final Appendable output) throws IOException {
+        checkLobFiles();
+        final long start = System.nanoTime();
+        // the records are deleted from the referencing tables first, and inserted in the referenced tables first
+        final ForeignKeyGraph graph = ForeignKeyGraph.of(schema);
+        writeDelete(output, graph);
+        output.append(INSERT_INTO_BANNER);
+        for (final Table table : graph.getInsertOrder()) {
+            final long bytes = writeTableInsertDML(output, table);
+            if (listener != null) {
+                listener.onRowsEncoded(table.getName(), table.getRecords().size(), bytes);
+            }
+        }
+        writeDeferred(output, graph);
+        if (listener != null) {
+            listener.onPhaseCompleted(ExtractionListener.Phase.RENDER, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * The LOB side files (see {@link LobFiles}) are read back with the H2 <i>FILE_READ</i> function: the DML can't
+     * be written for another database.
+     */
+    private void checkLobFiles() {
+        if (dialect == DBDriverName.H2) {
+            return;
+        }
+        for (final Table table : schema.getTables().values()) {
+            for (final Column column : table.getColumns().values()) {
+                if (column.isLob() && table.getRecords().stream()
+                        .anyMatch(record -> LobFiles.isReference(record.getValue(column.getName())))) {
+                    throw new IllegalStateException(String.format(
+                            "The LOB files of the table [%s] can only be read by H2, not by %s.",
+                            table.getName(), dialect
+                    ));
+                }
+            }
+        }
+    }
+
+    private void writeDelete(final Appendable output, final ForeignKeyGraph graph) throws IOException {
+        writeDeleteSection(output, graph, dialect, loadProfile, indexCreation);
+    }
+
+    private void writeDeferred(final Appendable output, final ForeignKeyGraph graph) throws IOException {
+        writeDeferredSection(output, graph, loadProfile, indexCreation);
+    }
+
+    /**
+     * Write the 'DELETE' section, the referencing tables first. The constraints and indexes the script adds after
+     * the inserts (see {@link #writeDeferredSection}) are dropped first, so that the records can be deleted and the
+     * script run again: H2 and PostgreSQL drop the constraints, HSQL only the indexes (the foreign keys of a cycle
+     * are not dropped by the other databases).
+     * @param output    The script output
+     * @param graph The foreign key graph of the tables
+     * @param dialect   The target database
+     * @param loadProfile   The load profile
+     * @param indexCreation The index creation
+     * @throws IOException  Thrown when the output can not be written
+     * @throws IllegalStateException    Thrown when the target database can't drop the constraints or the indexes
+     */
+    static void writeDeleteSection(final Appendable output, final ForeignKeyGraph graph, final DBDriverName dialect,
+                                   final LoadProfile loadProfile, final IndexCreation indexCreation)
+                                                                                                throws IOException {
+        final boolean bulk = loadProfile == LoadProfile.BULK;
+        final boolean deferredIndexes = (bulk || indexCreation == IndexCreation.AFTER_LOAD)
+                && graph.getInsertOrder().stream().anyMatch(table -> !table.getIndexes().isEmpty());
+        if (bulk && !DROP_CONSTRAINT_DIALECTS.contains(dialect) && Ddl.hasConstraints(graph)) {
+            throw new IllegalStateException(String.format(
+                    "The %s load profile can't be used with %s: the constraints can't be dropped when the script "
+                            + "is run again.", loadProfile, dialect
+            ));
+        }
+        if (deferredIndexes && !DROP_INDEX_DIALECTS.contains(dialect)) {
+            throw new IllegalStateException(String.format(
+                    "The indexes can't be created after the load with %s: they can't be dropped when the script "
+                            + "is run again.", dialect
+            ));
+        }
+
+        output.append(DELETE_RECORDS_BANNER);
+        // the records can only be deleted (and loaded again) once the constraints the script added are dropped
+        if (DROP_CONSTRAINT_DIALECTS.contains(dialect)) {
+            if (bulk) {
+                Ddl.writeDropConstraints(output, graph);
+            } else {
+                Ddl.writeDropDeferredForeignKeys(output, graph);
+            }
+        }
+        if (deferredIndexes) {
+            Ddl.writeDropIndexes(output, graph.getInsertOrder());
+        }
+        for (final Table table : graph.getDeleteOrder()) {
+            output.append(String.format(DELETE_RECORDS, table.getSchema().getName(), table.getName()));
+        }
+    }
+
+    /**
+     * Write the constraints and indexes added once the records are inserted: all of them with the
+     * {@link LoadProfile#BULK} profile, otherwise the foreign keys of a cycle, and the indexes with
+     * {@link IndexCreation#AFTER_LOAD}.
+     * @param output    The script output
+     * @param graph The foreign key graph of the tables
+     * @param loadProfile   The load profile
+     * @param indexCreation The index creation
+     * @throws IOException  Thrown when the output can not be written
+     */
+    static void writeDeferredSection(final Appendable output, final ForeignKeyGraph graph,
+                                     final LoadProfile loadProfile, final IndexCreation indexCreation)
+                                                                                                throws IOException {
+        if (loadProfile == LoadProfile.BULK) {
+            Ddl.writeConstraints(output, graph);
+        } else {
+            Ddl.writeDeferredForeignKeys(output, graph);
+        }
+        if (loadProfile == LoadProfile.BULK || indexCreation == IndexCreation.AFTER_LOAD) {
+            Ddl.writeIndexes(output, graph.getInsertOrder());
+        }
+    }
+
+    private void writeCsvLoad(final Appendable output, final Table table, final Path csvFile) throws IOException {
+        final String schemaName = table.getSchema().getName();
+        final String columns = String.join(", ", table.getColumns().keySet());
+        final String values = table.getColumns().keySet().stream()
+                .map(column -> CsvFormat.isBinary(table, column) ? "HEXTORAW(" + column + ")" : column)
+                .collect(Collectors.joining(", "));
+        if (dialect == DBDriverName.H2) {
+            output.append(String.format(H2_CSV_LOAD, schemaName, table.getName(), columns, values,
+                    MigrationScript.toFileLocation(csvFile)));
+            return;
+        }
+        final String csvTable = table.getName() + HSQL_CSV_TABLE_SUFFIX;
+        final String csvColumns = table.getColumns().keySet().stream()
+                .map(column -> column + " LONGVARCHAR")
+                .collect(Collectors.joining(", "));
+        // the text table source is relative to the working directory
+        final Path source = Path.of(StringUtils.EMPTY).toAbsolutePath().relativize(csvFile.toAbsolutePath());
+        output.append(String.format(HSQL_CSV_TABLE,
+                schemaName, csvTable, csvColumns,
+                schemaName, csvTable, MigrationScript.toPortablePath(source),
+                schemaName, table.getName(), columns, values, schemaName, csvTable,
+                schemaName, csvTable));
+    }
+
+    private static String csvFileName(final Table table) {
+        return table.getName() + CsvFormat.CSV_EXTENSION;
+    }
+
+    /**
+     * @return  The amount of bytes (UTF-8) of the encoded values
+     */
+    private long writeTableInsertDML(final Appendable output, final Table table) throws IOException {
+        final InsertStatementWriter insertWriter = new InsertStatementWriter(output, table, batchSize, dialect);
+        long bytes = 0;
+        for (final Record record : table.getRecords()) {
+            final Appendable row = insertWriter.beginRow();
+            boolean firstValue = true;
+            for (final String columnName : table.getColumns().keySet()) {
+                if (!firstValue) {
+                    row.append(InsertStatementWriter.VALUE_SEPARATOR);
+                    bytes += InsertStatementWriter.VALUE_SEPARATOR.length();
+                }
+                final String value = String.valueOf(record.getValue(columnName));
+                row.append(value);
+                bytes += MigrationScript.utf8Length(value);
+                firstValue = false;
+            }
+            insertWriter.endRow();
+        }
+        insertWriter.close();
+        return bytes;
     }
 }
@@ -0,0 +1,202 @@
+package lu.mms.common.quality.assets.db.re.script;
+
+import lu.mms.common.quality.assets.db.DBDriverName;
+import lu.mms.common.quality.assets.db.re.schema.ForeignKeyGraph;
+import lu.mms.common.quality.assets.db.re.schema.ColumnEncoder;
+import lu.mms.common.quality.assets.db.re.schema.SqlLiteral;
+import lu.mms.common.quality.assets.db.re.schema.Table;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Streaming Data Manipulation Language writer. <br>
+ * Produces the same layout than {@link Dml}, but the records are written to the file as soon as they are read, so
+ * that no record has to be kept in memory.
+ */
+public class DmlWriter implements Closeable {
+
+    private static final String NULL_VALUE = "null";
+
+    private final Path file;
+    private final Writer writer;
+    /*
+     * The reusable row buffer.
+     */
+    private final StringBuilder buffer = new StringBuilder();
+    private int batchSize = Dml.DEFAULT_BATCH_SIZE;
+    private DBDriverName dialect = DBDriverName.H2;
+    private LoadProfile loadProfile = LoadProfile.CONSTRAINED;
+    private IndexCreation indexCreation = IndexCreation.BEFORE_LOAD;
+    private InsertStatementWriter insertWriter;
+    private long encodedBytes;
+
+    private DmlWriter(final Path file) throws IOException {
+        final Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.file = file;
+        this.writer = MigrationScript.newWriter(file);
+    }
+
+    /**
+     * Create the data script file name.
+     * @param compressed    true, for a gzip compressed script
+     * @return  The file name, example: data_20240101_120000_00.sql.gz
+     */
+    public static String newFileName(final boolean compressed) {
+        final String fileName = String.format(Dml.DATA_FILENAME_FORMAT,
+                MigrationScript.NOW_DATETIME_FORMATTER.format(LocalDateTime.now()));
+        return compressed ? fileName + MigrationScript.GZIP_EXTENSION : fileName;
+    }
+
+    /**
+     * Open a new data script (gzip compressed when the file name ends with {@link MigrationScript#GZIP_EXTENSION}).
+     * @param file  The data script file
+     * @param executionTime The execution time to print in the banner
+     * @return  The writer
+     * @throws IOException  Thrown when the file can not be created
+     */
+    public static DmlWriter open(final Path file, final String executionTime) throws IOException {
+        final DmlWriter dmlWriter = new DmlWriter(file);
+        dmlWriter.writer.write(MigrationScript.prepareBanner(executionTime));
+        dmlWriter.writer.write(System.lineSeparator());
+        return dmlWriter;
+    }
+
+    /**
+     * Define the maximum amount of rows per 'INSERT' statement (see {@link Dml#batchSize(int)}).
+     * @param batchSize The amount of rows (1000 by default)
+     * @return  The {@link DmlWriter} object
+     */
+    public DmlWriter batchSize(final int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be greater than zero.");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Define the database the script is written for (see {@link Dml#dialect(DBDriverName)}).
+     * @param dialect   The target database (H2 by default)
+     * @return  The {@link DmlWriter} object
+     */
+    public DmlWriter dialect(final DBDriverName dialect) {
+        this.dialect = Objects.requireNonNull(dialect, "The dialect is mandatory.");
+        return this;
+    }
+
+    /**
+     * Define the load profile of the target tables (see {@link Dml#loadProfile(LoadProfile)}).
+     * @param loadProfile   The load profile ({@link LoadProfile#CONSTRAINED} by default)
+     * @return  The {@link DmlWriter} object
+     */
+    public DmlWriter loadProfile(final LoadProfile loadProfile) {
+        this.loadProfile = Objects.requireNonNull(loadProfile, "The load profile is mandatory.");
+        return this;
+    }
+
+    /**
+     * Define when the indexes are created (see {@link Dml#indexCreation(IndexCreation)}).
+     * @param indexCreation The index creation ({@link IndexCreation#BEFORE_LOAD} by default)
+     * @return  The {@link DmlWriter} object
+     */
+    public DmlWriter indexCreation(final IndexCreation indexCreation) {
+        this.indexCreation = Objects.requireNonNull(indexCreation, "The index creation is mandatory.");
+        return this;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Write the 'DELETE' section for the given tables, the referencing tables first. The constraints and indexes
+     * this script adds (see {@link #writeDeferred(Collection)}) are dropped first (see {@link Dml#writeTo(Appendable)}).
+     * @param tables    The tables to clean
+     * @throws IOException  Thrown when the file can not be written
+     * @throws IllegalStateException    Thrown when the dialect can't drop the constraints or indexes this script adds
+     */
+    public void writeDeletes(final Collection<Table> tables) throws IOException {
+        Dml.writeDeleteSection(writer, ForeignKeyGraph.of(tables), dialect, loadProfile, indexCreation);
+        writer.write(Dml.INSERT_INTO_BANNER);
+    }
+
+    /**
+     * Start the 'INSERT' statements of a table. A statement header is only written with its first record.
+     * @param table The table
+     */
+    public void beginTable(final Table table) {
+        this.insertWriter = new InsertStatementWriter(writer, table, batchSize, dialect);
+        this.encodedBytes = 0;
+    }
+
+    /**
+     * @return  The amount of bytes (UTF-8) of the values encoded for the current (or last) table.
+     */
+    public long getEncodedBytes() {
+        return encodedBytes;
+    }
+
+    /**
+     * Write the current row of the result set as a record of the current table.
+     * @param resultSet The result set, with the columns selected in the table columns order
+     * @param encoders  The columns encoder (see {@link SqlLiteral#forColumns} and {@link LobFiles#forColumns})
+     * @throws IOException  Thrown when the file can not be written
+     * @throws SQLException Thrown when the row can not be read
+     */
+    public void appendRow(final ResultSet resultSet, final ColumnEncoder[] encoders) throws IOException, SQLException {
+        buffer.setLength(0);
+        for (int index = 0; index < encoders.length; index++) {
+            if (index > 0) {
+                buffer.append(InsertStatementWriter.VALUE_SEPARATOR);
+            }
+            if (!encoders[index].append(resultSet, index + 1, buffer)) {
+                buffer.append(NULL_VALUE);
+            }
+        }
+        encodedBytes += MigrationScript.utf8Length(buffer);
+        insertWriter.beginRow().append(buffer);
+        insertWriter.endRow();
+    }
+
+    /**
+     * Close the 'INSERT' statement of the current table.
+     * @return  The amount of rows written for the table
+     * @throws IOException  Thrown when the file can not be written
+     */
+    public long endTable() throws IOException {
+        insertWriter.close();
+        final long rows = insertWriter.getRows();
+        this.insertWriter = null;
+        return rows;
+    }
+
+    /**
+     * Write the constraints and indexes added once the records are inserted: all of them with the
+     * {@link LoadProfile#BULK} profile, otherwise the foreign keys of a cycle left out of the DDL script, and the
+     * indexes with {@link IndexCreation#AFTER_LOAD}.
+     * @param tables    The tables, once their records are written
+     * @throws IOException  Thrown when the file can not be written
+     */
+    public void writeDeferred(final Collection<Table> tables) throws IOException {
+        Dml.writeDeferredSection(writer, ForeignKeyGraph.of(tables), loadProfile, indexCreation);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (writer) {
+            writer.write(System.lineSeparator());
+        }
+    }
+}
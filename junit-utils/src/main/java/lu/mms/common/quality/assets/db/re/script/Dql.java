@@ -13,4 +13,8 @@ public interface Dql {
         return new From(selectColumns);
     }
 
+    static From selectDistinct(final Collection<Column> selectColumns) {
+        return new From(selectColumns).distinct();
+    }
+
 }
@@ -2,8 +2,8 @@ package lu.mms.common.quality.assets.db.re.script;
 
 import lu.mms.common.quality.assets.db.re.schema.Column;
 import lu.mms.common.quality.assets.db.re.schema.Table;
-import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
 import java.util.Collection;
 
 public class From implements SqlScript {
@@ -11,17 +11,23 @@ public class From implements SqlScript {
     /**
      * Retrieve all entries.
      */
-    private static final String SELECT_FROM_STATEMENT = StringUtils.EMPTY
-            + "SELECT %s \n"
-            + "FROM %s.%s %s";
+    private static final String SELECT_STATEMENT = "SELECT ";
+
+    private static final String FROM_STATEMENT = " \nFROM %s.%s %s";
 
     private final Collection<Column> columns;
     private Table table;
+    private boolean distinct;
 
     From(final Collection<Column> columns) {
         this.columns = columns;
     }
 
+    From distinct() {
+        this.distinct = true;
+        return this;
+    }
+
     public Where from(final Table table) {
         this.table = table;
         return new Where(this);
@@ -32,19 +38,20 @@ public class From implements SqlScript {
     }
 
     @Override
-    public String build() {
-        final String columnStr = columns.stream()
-                .map(column -> String.join(".", table.getAlias(), column.getName()))
-                .reduce((a, b) -> StringUtils.joinWith(", ", a, b))
-                .orElse(StringUtils.EMPTY);
-        // build the SQL depending on 'values' are empty or not
-        return String.format(
-                SELECT_FROM_STATEMENT,
-                columnStr,
-                table.getSchema().getName(),
-                table.getName(),
-                table.getAlias()
-        );
+    public void writeTo(final Appendable output) throws IOException {
+        output.append(SELECT_STATEMENT);
+        if (distinct) {
+            output.append("DISTINCT ");
+        }
+        boolean first = true;
+        for (final Column column : columns) {
+            if (!first) {
+                output.append(", ");
+            }
+            output.append(table.getAlias()).append('.').append(column.getName());
+            first = false;
+        }
+        output.append(String.format(FROM_STATEMENT, table.getSchema().getName(), table.getName(), table.getAlias()));
     }
 
     @Override
@@ -0,0 +1,15 @@
+package lu.mms.common.quality.assets.db.re.script;
+
+/**
+ * When the secondary indexes are created: filling an indexed table costs an index update for each row, so that
+ * large data scripts load faster when the indexes are created afterwards.
+ */
+public enum IndexCreation {
+
+    /** The indexes are created with the tables, in the DDL script. */
+    BEFORE_LOAD,
+
+    /** The indexes are created once the records are inserted, at the end of the DML script. */
+    AFTER_LOAD
+
+}
@@ -0,0 +1,101 @@
+package lu.mms.common.quality.assets.db.re.script;
+
+import lu.mms.common.quality.assets.db.DBDriverName;
+import lu.mms.common.quality.assets.db.re.schema.Table;
+
+import java.io.IOException;
+
+/**
+ * Write the records of a table as 'INSERT' statements of at most {@code batchSize} rows, using the multi-row syntax
+ * of the target database:
+ * <ul>
+ *     <li>Oracle: INSERT ALL INTO ... VALUES (...) ... SELECT 1 FROM DUAL;</li>
+ *     <li>DB2 for z/OS: one INSERT per row (no multi-row VALUES clause);</li>
+ *     <li>Others (H2, HSQL, DB2, ...): INSERT INTO ... VALUES (...), (...);</li>
+ * </ul>
+ * The row values are written by the caller, between {@link #beginRow()} and {@link #endRow()}.
+ */
+final class InsertStatementWriter {
+
+    private static final String INSERT_INTO = "INSERT INTO %s.%s \n\t(%s) \nVALUES \n";
+    private static final String FIRST_ROW_START = "\t(";
+    private static final String ROW_START = ",\n\t(";
+    private static final String ROW_END = ")";
+    private static final String INSERT_INTO_END = " \n;\n\n";
+
+    private static final String INSERT_ALL = "INSERT ALL \n";
+    private static final String INSERT_ALL_ROW_START = "\tINTO %s.%s (%s) VALUES (";
+    private static final String INSERT_ALL_ROW_END = ")\n";
+    private static final String INSERT_ALL_END = "SELECT 1 FROM DUAL;\n\n";
+
+    static final String VALUE_SEPARATOR = ", ";
+
+    private final Appendable output;
+    private final boolean insertAll;
+    private final int batchSize;
+    private final String insertInto;
+    private final String insertAllRowStart;
+    private int statementRows;
+    private long rows;
+
+    InsertStatementWriter(final Appendable output, final Table table, final int batchSize, final DBDriverName dialect) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be greater than zero.");
+        }
+        this.output = output;
+        this.insertAll = DBDriverName.ORACLE == dialect;
+        this.batchSize = DBDriverName.DB2ZOS == dialect ? 1 : batchSize;
+
+        final String columnsSql = String.join(VALUE_SEPARATOR, table.getColumns().keySet());
+        final String schemaName = table.getSchema().getName();
+        this.insertInto = String.format(INSERT_INTO, schemaName, table.getName(), columnsSql);
+        this.insertAllRowStart = String.format(INSERT_ALL_ROW_START, schemaName, table.getName(), columnsSql);
+    }
+
+    /**
+     * Start a row: open a new statement when needed, then write the row prefix.
+     * @return  The output, to write the comma separated row values
+     * @throws IOException  Thrown when the output can not be written
+     */
+    Appendable beginRow() throws IOException {
+        if (statementRows == 0) {
+            output.append(insertAll ? INSERT_ALL : insertInto);
+        }
+        if (insertAll) {
+            output.append(insertAllRowStart);
+        } else {
+            output.append(statementRows == 0 ? FIRST_ROW_START : ROW_START);
+        }
+        return output;
+    }
+
+    /**
+     * End a row, and close the statement once it contains {@code batchSize} rows.
+     * @throws IOException  Thrown when the output can not be written
+     */
+    void endRow() throws IOException {
+        output.append(insertAll ? INSERT_ALL_ROW_END : ROW_END);
+        rows++;
+        if (++statementRows == batchSize) {
+            close();
+        }
+    }
+
+    /**
+     * Close the pending statement, if any.
+     * @throws IOException  Thrown when the output can not be written
+     */
+    void close() throws IOException {
+        if (statementRows > 0) {
+            output.append(insertAll ? INSERT_ALL_END : INSERT_INTO_END);
+            statementRows = 0;
+        }
+    }
+
+    /**
+     * @return  The amount of rows written
+     */
+    long getRows() {
+        return rows;
+    }
+}
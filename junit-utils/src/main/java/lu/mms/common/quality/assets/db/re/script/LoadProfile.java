@@ -0,0 +1,23 @@
+package lu.mms.common.quality.assets.db.re.script;
+
+/**
+ * How the generated scripts load the records: the way the constraints are checked drives the load speed.
+ */
+public enum LoadProfile {
+
+    /**
+     * The tables are created with their constraints, then filled in foreign key dependency order: each inserted
+     * record is checked against the constraints. The foreign keys of a cycle are added at the end of the DML
+     * script, once the records referencing each other are inserted.
+     */
+    CONSTRAINED,
+
+    /**
+     * The tables are created with their primary key only, and the records are loaded without any other constraint
+     * check (whatever the insert order). The foreign key, unique and check constraints are added at the end of the
+     * DML script, followed by the secondary indexes, the way the bulk loaders work. <br>
+     * The DML script must be executed right after the DDL one.
+     */
+    BULK
+
+}
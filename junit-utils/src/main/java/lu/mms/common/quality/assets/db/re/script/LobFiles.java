@@ -0,0 +1,201 @@
+package lu.mms.common.quality.assets.db.re.script;
+
+import lu.mms.common.quality.assets.db.re.schema.Column;
+import lu.mms.common.quality.assets.db.re.schema.ColumnEncoder;
+import lu.mms.common.quality.assets.db.re.schema.SqlLiteral;
+import lu.mms.common.quality.assets.db.re.schema.Table;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Store the large objects (see {@link Column#isLob()}) in side files instead of inlining them in the DML: the values
+ * are streamed from the result set to the files, and the DML reads them back with the H2 file-load function
+ * (<i>FILE_READ</i>). The outputs that can't call this function (CSV files, schema snapshot) inline the files
+ * content instead (see {@link #inline(Object)}). <br>
+ * The files are named after the SHA-256 of their content, so that a content is stored once, whatever the amount of
+ * records holding it.
+ */
+public final class LobFiles {
+
+    static final String BINARY_EXTENSION = ".bin";
+    static final String CHARACTER_EXTENSION = ".txt";
+
+    private static final String BINARY_FILE_READ = "FILE_READ('%s')";
+    private static final String CHARACTER_FILE_READ = "FILE_READ('%s', 'UTF-8')";
+    private static final Pattern FILE_READ_PATTERN = Pattern.compile("FILE_READ\\('([^']*)'(, 'UTF-8')?\\)");
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final String TEMPORARY_PREFIX = "lob_";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    private final Path directory;
+
+    private LobFiles(final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param directory The side files directory (created with the first file)
+     * @return  The {@link LobFiles} object
+     */
+    public static LobFiles in(final Path directory) {
+        return new LobFiles(Objects.requireNonNull(directory, "The LOB directory is mandatory."));
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @param value The record value
+     * @return  true when the value is a side file reference (<i>FILE_READ</i>)
+     */
+    public static boolean isReference(final Object value) {
+        return value instanceof String && FILE_READ_PATTERN.matcher((String) value).matches();
+    }
+
+    /**
+     * Replace a side file reference by the SQL literal of the file content: a hexadecimal literal for the binary
+     * files, a quoted literal for the character files (see {@link SqlLiteral}).
+     * @param value The record value
+     * @return  The SQL literal of the referenced file content, or the value itself when it is not a reference
+     */
+    public static Object inline(final Object value) {
+        if (!(value instanceof String)) {
+            return value;
+        }
+        final Matcher matcher = FILE_READ_PATTERN.matcher((String) value);
+        if (!matcher.matches()) {
+            return value;
+        }
+        final String location = matcher.group(1);
+        final Path file = location.startsWith(MigrationScript.CLASSPATH_PREFIX)
+                ? MigrationScript.TEST_RESOURCES_DIRECTORY.toPath()
+                    .resolve(location.substring(MigrationScript.CLASSPATH_PREFIX.length()))
+                : Path.of(location);
+        try {
+            if (matcher.group(2) == null) {
+                return "X'" + HexFormat.of().withUpperCase().formatHex(Files.readAllBytes(file)) + "'";
+            }
+            return SqlLiteral.appendQuoted(new StringBuilder(), Files.readString(file, StandardCharsets.UTF_8))
+                    .toString();
+        } catch (IOException ex) {
+            throw new IllegalStateException(String.format("Failed to read the LOB file [%s].", file), ex);
+        }
+    }
+
+    /**
+     * Replace the encoders of the table LOB columns by side files encoders.
+     * @param table The table, with the columns selected in the table columns order
+     * @param encoders  The columns encoders
+     * @return  The columns encoders, the LOB columns being stored in side files
+     */
+    public ColumnEncoder[] forColumns(final Table table, final ColumnEncoder[] encoders) {
+        final ColumnEncoder[] lobEncoders = Arrays.copyOf(encoders, encoders.length, ColumnEncoder[].class);
+        int index = 0;
+        for (final Column column : table.getColumns().values()) {
+            if (column.isBinaryLob()) {
+                lobEncoders[index] = this::appendBinary;
+            } else if (column.isLob()) {
+                lobEncoders[index] = this::appendCharacters;
+            }
+            index++;
+        }
+        return lobEncoders;
+    }
+
+    private boolean appendBinary(final ResultSet resultSet, final int column, final StringBuilder buffer)
+            throws SQLException {
+        try (InputStream content = resultSet.getBinaryStream(column)) {
+            if (content == null) {
+                return false;
+            }
+            final Path file = store(content::transferTo, BINARY_EXTENSION);
+            buffer.append(String.format(BINARY_FILE_READ, MigrationScript.toFileLocation(file)));
+            return true;
+        } catch (IOException ex) {
+            throw new SQLException(ex.getMessage(), ex);
+        }
+    }
+
+    private boolean appendCharacters(final ResultSet resultSet, final int column, final StringBuilder buffer)
+            throws SQLException {
+        try (Reader content = resultSet.getCharacterStream(column)) {
+            if (content == null) {
+                return false;
+            }
+            final Path file = store(output -> {
+                final Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+                content.transferTo(writer);
+                writer.flush();
+            }, CHARACTER_EXTENSION);
+            buffer.append(String.format(CHARACTER_FILE_READ, MigrationScript.toFileLocation(file)));
+            return true;
+        } catch (IOException ex) {
+            throw new SQLException(ex.getMessage(), ex);
+        }
+    }
+
+    /*
+     * The content is written in a temporary file while its digest is computed, then the file is renamed after the
+     * digest, unless the same content is already stored (by this table or by another worker).
+     */
+    private Path store(final ContentWriter content, final String extension) throws IOException {
+        Files.createDirectories(directory);
+        final MessageDigest digest = newDigest();
+        final Path temporary = Files.createTempFile(directory, TEMPORARY_PREFIX, TEMPORARY_EXTENSION);
+        try {
+            try (OutputStream output = new DigestOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)), digest)) {
+                content.writeTo(output);
+            }
+            final Path file = directory.resolve(HexFormat.of().formatHex(digest.digest()) + extension);
+            if (!Files.exists(file)) {
+                try {
+                    Files.move(temporary, file);
+                } catch (FileAlreadyExistsException ex) {
+                    // the same content was stored in the meantime
+                }
+            }
+            return file;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Write a LOB content into the side file.
+     */
+    @FunctionalInterface
+    private interface ContentWriter {
+
+        void writeTo(OutputStream output) throws IOException;
+    }
+}
@@ -6,18 +6,20 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
 import org.springframework.core.io.FileUrlResource;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
-import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 import static java.time.format.DateTimeFormatter.ISO_LOCAL_DATE;
 import static java.time.format.DateTimeFormatter.ISO_LOCAL_TIME;
@@ -28,6 +30,12 @@ public interface MigrationScript extends SqlScript {
 
     File TEST_RESOURCES_DIRECTORY = new File("src/test/resources");
 
+    /** The prefix of the files read from the classpath by the database. */
+    String CLASSPATH_PREFIX = "classpath:/";
+
+    /** The extension of the gzip compressed scripts (example: data_20240101_120000_00.sql.gz). */
+    String GZIP_EXTENSION = ".gz";
+
     DateTimeFormatter NOW_DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SS");
 
     DateTimeFormatter LOCAL_DATE_TIME = new DateTimeFormatterBuilder()
@@ -53,17 +61,70 @@ public interface MigrationScript extends SqlScript {
                     return factory.getObject();
                 })
                 // retrieve the app version
-                .map(properties -> ((Map<?,?>) properties.get("application")).get("version"));
+                .map(properties -> properties.get("application.version"))
+                .orElse(StringUtils.EMPTY);
         return String.format(BANNER, appVersion, LOCAL_DATE_TIME.format(LocalDateTime.now()), executionTime);
     }
 
     /**
-     * Create the .sql file in the sql folder (test/resources).
+     * Create the .sql file in the sql folder (test/resources), rendering the script through a buffered writer.
+     * @param packageProvider   The class been with in the target package
+     * @param fileName  the files name
+     * @param banner    The file banner
+     * @param script    The script to render
+     */
+    static boolean createFile(final Class<?> packageProvider, final String fileName, final String banner,
+                              final SqlScript script) {
+        final Path file = resolveFile(packageProvider, fileName);
+
+        boolean isCreated = false;
+        try (Writer writer = newWriter(file)) {
+            writer.write(banner);
+            writer.write(System.lineSeparator());
+            script.writeTo(writer);
+            writer.write(System.lineSeparator());
+            isCreated = true;
+            LOGGER.info("File created: [{}]", file);
+        } catch(IOException ex) {
+            LOGGER.error("Failed to create the file [{}]", file);
+        }
+        return isCreated;
+    }
+
+    /**
+     * Open a buffered UTF-8 writer on the script file. The content is gzip compressed while it is written when the
+     * file name ends with {@link #GZIP_EXTENSION}.
+     * @param file  The script file
+     * @return  The writer
+     * @throws IOException  Thrown when the file can not be created
+     */
+    static Writer newWriter(final Path file) throws IOException {
+        if (!isCompressed(file.getFileName().toString())) {
+            return Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        }
+        return new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8
+        ));
+    }
+
+    /**
+     * Tell whether a script is gzip compressed: the same rule is used to write the scripts and to load them as
+     * migration scripts.
+     * @param fileName  The script file name
+     * @return  true when the script is gzip compressed
+     */
+    static boolean isCompressed(final String fileName) {
+        return StringUtils.endsWithIgnoreCase(fileName, GZIP_EXTENSION);
+    }
+
+    /**
+     * Resolve the path of a migration script: the package folder of the {@code packageProvider} when provided, the
+     * sql folder otherwise (test/resources).
      * @param packageProvider   The class been with in the target package
      * @param fileName  the files name
-     * @param lines The file lines.
+     * @return The file path
      */
-    static boolean createFile(final Class<?> packageProvider, final String fileName, final List<String> lines) {
+    static Path resolveFile(final Class<?> packageProvider, final String fileName) {
         Path file;
         if (packageProvider != null) {
             file = Path.of(
@@ -81,15 +142,54 @@ public interface MigrationScript extends SqlScript {
         } else {
             file = Path.of(TEST_RESOURCES_DIRECTORY.getPath(), "sql", fileName);
         }
+        return file;
+    }
 
-        boolean isCreated = false;
-        try {
-            isCreated = Files.write(file, lines, StandardCharsets.UTF_8).toFile().exists();
-            LOGGER.info("File created: [{}]", file);
-        } catch(IOException ex) {
-            LOGGER.error("Failed to create the file [{}]", file);
+    /**
+     * @param text  The text
+     * @return  The amount of bytes of the text, encoded in UTF-8 (the scripts encoding)
+     */
+    static long utf8Length(final CharSequence text) {
+        long bytes = 0;
+        for (int index = 0; index < text.length(); index++) {
+            final char character = text.charAt(index);
+            if (character < 0x80) {
+                bytes++;
+            } else if (character < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(character) && index + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(index + 1))) {
+                bytes += 4;
+                index++;
+            } else {
+                bytes += 3;
+            }
         }
-        return isCreated;
+        return bytes;
+    }
+
+    /**
+     * Resolve the location of a file read by the database (CSV file, LOB file...): the files within the test
+     * resources are read from the classpath (<i>classpath:/...</i>), to be found whatever the working directory, the
+     * other files from their absolute path.
+     * @param file  The file
+     * @return  The file location
+     */
+    static String toFileLocation(final Path file) {
+        final Path resources = TEST_RESOURCES_DIRECTORY.toPath().toAbsolutePath();
+        final Path location = file.toAbsolutePath();
+        if (location.startsWith(resources)) {
+            return CLASSPATH_PREFIX + toPortablePath(resources.relativize(location));
+        }
+        return toPortablePath(location);
+    }
+
+    /**
+     * @param path  The path
+     * @return  The path, with slash separators
+     */
+    static String toPortablePath(final Path path) {
+        return path.toString().replace(File.separatorChar, '/');
     }
 
     boolean createFile();
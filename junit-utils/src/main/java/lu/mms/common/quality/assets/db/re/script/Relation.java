@@ -9,6 +9,8 @@ import java.util.Comparator;
 public class Relation implements Comparable<Relation> {
 
     private static final String JOIN_TEMPLATE = "JOIN %s.%s %s ON %s.%s = %s.%s";
+    private static final String TABLE_REFERENCE_TEMPLATE = "%s.%s %s";
+    private static final String CONDITION_TEMPLATE = "%s.%s = %s.%s";
 
     private final String sourceColumn;
     private final String targetTable;
@@ -124,7 +126,68 @@ public class Relation implements Comparable<Relation> {
     }
 
     public String build(final Table table) {
-        // resolve the columns
+        final Column[] columns = resolveColumns(table);
+        final Column sourceColumn = columns[0];
+        final Column foreignColumn = columns[1];
+
+        final String prefix = this.joinType == null ? StringUtils.EMPTY : this.joinType.name() + StringUtils.SPACE;
+
+        // build the SQL expression
+        return String.format(
+                prefix + JOIN_TEMPLATE,
+                sourceColumn.getParentTable().getSchema().getName(),
+                sourceColumn.getParentTable().getName(),
+                this.sourceTableAlias,
+                this.sourceTableAlias,
+                sourceColumn.getName(),
+                this.targetTableAlias,
+                foreignColumn.getName()
+        );
+    }
+
+    /**
+     * The joined table of the relation, as a 'FROM' item of a semi-join sub query (see {@link Where#semiJoin}).
+     * @param table The queried table
+     * @return  The table reference, example: PUBLIC.ADDRESS T2
+     */
+    String buildTableReference(final Table table) {
+        final Column sourceColumn = resolveColumns(table)[0];
+        return String.format(
+                TABLE_REFERENCE_TEMPLATE,
+                sourceColumn.getParentTable().getSchema().getName(),
+                sourceColumn.getParentTable().getName(),
+                this.sourceTableAlias
+        );
+    }
+
+    /**
+     * The join condition of the relation, as a predicate of a semi-join sub query (see {@link Where#semiJoin}).
+     * @param table The queried table
+     * @return  The join condition, example: T2.ID = T1.ADDRESS_ID
+     */
+    String buildCondition(final Table table) {
+        final Column[] columns = resolveColumns(table);
+        return String.format(
+                CONDITION_TEMPLATE,
+                this.sourceTableAlias,
+                columns[0].getName(),
+                this.targetTableAlias,
+                columns[1].getName()
+        );
+    }
+
+    /**
+     * @return  true, if the relation links a table to itself.
+     */
+    boolean isSelfReference() {
+        return StringUtils.equals(sourceTable, targetTable);
+    }
+
+    /**
+     * Resolve the relation columns: the column of the joined table first, then the column it is joined with. The
+     * tables alias are resolved as well.
+     */
+    private Column[] resolveColumns(final Table table) {
         final Column columnOne = table.getSchema()
                 .getTables().get(sourceTable)
                 .getColumns().get(getSourceColumn());
@@ -141,22 +204,9 @@ public class Relation implements Comparable<Relation> {
             foreignColumn = columnTwo;
         }
 
-        final String prefix = this.joinType == null ? StringUtils.EMPTY : this.joinType.name() + StringUtils.SPACE;
-
         this.sourceTableAlias = sourceColumn.getParentTable().getAlias();
         this.targetTableAlias = foreignColumn.getParentTable().getAlias();
-
-        // build the SQL expression
-        return String.format(
-                prefix + JOIN_TEMPLATE,
-                sourceColumn.getParentTable().getSchema().getName(),
-                sourceColumn.getParentTable().getName(),
-                this.sourceTableAlias,
-                this.sourceTableAlias,
-                sourceColumn.getName(),
-                this.targetTableAlias,
-                foreignColumn.getName()
-        );
+        return new Column[] {sourceColumn, foreignColumn};
     }
 
     @Override
@@ -0,0 +1,272 @@
+package lu.mms.common.quality.assets.db.re.script;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The watermarks of the last extracted snapshot, used to extract only the rows changed since then (see
+ * {@code ReverseEngineeringWizard#withSnapshot}) and to write them as a {@link Delta}. <br>
+ * The manifest size does not depend on the rows: per table, it holds the primary key column and its maximum value,
+ * the last modification column and its maximum value, and a summary (amount of rows and sum of the keys) per range
+ * of {@link #BUCKET_WIDTH} keys. The summaries are computed by the database: they detect the inserted and deleted
+ * rows, the last modification detects the updated ones.
+ */
+public class SnapshotManifest {
+
+    /**
+     * The amount of keys per range: a range whose summary changed is extracted again.
+     */
+    public static final int BUCKET_WIDTH = 1000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SnapshotManifest.class);
+
+    private static final char TABLE_SEPARATOR = '|';
+    private static final String KEY_PROPERTY = "key";
+    private static final String MAX_KEY_PROPERTY = "maxKey";
+    private static final String LAST_MODIFIED_PROPERTY = "lastModified";
+    private static final String LAST_MODIFIED_VALUE_PROPERTY = "lastModifiedValue";
+    private static final String BUCKET_PROPERTY_PREFIX = "bucket.";
+
+    private final Path file;
+    /*
+     * The watermarks of the saved snapshot, and the ones of the current extraction: [table name, watermark]
+     */
+    private final Map<String, TableWatermark> watermarks;
+    private final Map<String, TableWatermark> extracted = new HashMap<>();
+
+    private SnapshotManifest(final Path file, final Map<String, TableWatermark> watermarks) {
+        this.file = file;
+        this.watermarks = watermarks;
+    }
+
+    /**
+     * Load the manifest file, or create an empty manifest when the file does not exist (first extraction).
+     * @param file  The manifest file
+     * @return  The snapshot manifest
+     */
+    public static SnapshotManifest load(final Path file) {
+        final Map<String, Map<String, String>> tablesProperties = new HashMap<>();
+        if (Files.isRegularFile(file)) {
+            final Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException ex) {
+                LOGGER.error("Failed to read the snapshot manifest [{}]", file);
+                throw new IllegalStateException(ex.getMessage(), ex);
+            }
+            for (final String entry : properties.stringPropertyNames()) {
+                final int index = entry.indexOf(TABLE_SEPARATOR);
+                tablesProperties.computeIfAbsent(entry.substring(0, index), table -> new HashMap<>())
+                        .put(entry.substring(index + 1), properties.getProperty(entry));
+            }
+        }
+        final Map<String, TableWatermark> watermarks = new HashMap<>();
+        tablesProperties.forEach((table, properties) -> watermarks.put(table, TableWatermark.from(properties)));
+        return new SnapshotManifest(file, watermarks);
+    }
+
+    /**
+     * @param tableName The table name
+     * @return  The table watermark of the saved snapshot, null when the table was never extracted
+     */
+    public TableWatermark getWatermark(final String tableName) {
+        return watermarks.get(tableName);
+    }
+
+    /**
+     * @param tableName The table name
+     * @return  The table watermark of the current extraction, null when the table was not extracted
+     */
+    public TableWatermark getExtracted(final String tableName) {
+        return extracted.get(tableName);
+    }
+
+    /**
+     * Define the table watermark of the current extraction: it replaces the saved one on {@link #save()}.
+     * @param tableName The table name
+     * @param watermark The table watermark, computed by the database
+     */
+    public void setExtracted(final String tableName, final TableWatermark watermark) {
+        extracted.put(tableName, Objects.requireNonNull(watermark, "The table watermark is mandatory."));
+    }
+
+    /**
+     * @param tableName The table name
+     * @return  true when only the rows changed since the saved snapshot are extracted: the table has a primary key
+     * watermark, with the same key and last modification columns as in the saved snapshot. Otherwise, all the table
+     * rows are extracted.
+     */
+    public boolean isIncremental(final String tableName) {
+        final TableWatermark previous = watermarks.get(tableName);
+        final TableWatermark current = extracted.get(tableName);
+        return previous != null && current != null && current.getKeyColumn() != null
+                && current.getKeyColumn().equals(previous.getKeyColumn())
+                && current.getLastModifiedColumn() != null
+                && current.getLastModifiedColumn().equals(previous.getLastModifiedColumn());
+    }
+
+    /**
+     * @param tableName The table name
+     * @return  The key ranges (key / {@link #BUCKET_WIDTH}) whose summary changed since the saved snapshot: some of
+     * their rows were inserted or deleted.
+     */
+    public Set<Long> getChangedBuckets(final String tableName) {
+        if (!isIncremental(tableName)) {
+            return Collections.emptySet();
+        }
+        final Map<Long, String> previous = watermarks.get(tableName).getBuckets();
+        final Map<Long, String> current = extracted.get(tableName).getBuckets();
+        final Set<Long> changed = new TreeSet<>();
+        previous.forEach((bucket, summary) -> {
+            if (!summary.equals(current.get(bucket))) {
+                changed.add(bucket);
+            }
+        });
+        current.forEach((bucket, summary) -> {
+            if (!previous.containsKey(bucket)) {
+                changed.add(bucket);
+            }
+        });
+        return changed;
+    }
+
+    /**
+     * Write the manifest file: the tables of the current extraction replace the saved ones.
+     */
+    public void save() {
+        watermarks.putAll(extracted);
+        extracted.clear();
+        final Properties properties = new Properties();
+        watermarks.forEach((table, watermark) -> watermark.toProperties().forEach(
+                (property, value) -> properties.setProperty(table + TABLE_SEPARATOR + property, value)
+        ));
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                properties.store(writer, "JUnit Utils - DB Reverse Engineering snapshot");
+            }
+            LOGGER.info("Snapshot manifest saved: [{}]", file);
+        } catch (IOException ex) {
+            LOGGER.error("Failed to save the snapshot manifest [{}]", file);
+            throw new IllegalStateException(ex.getMessage(), ex);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotManifest{" +
+                "file=" + file +
+                ", tables=" + StringUtils.join(watermarks.keySet(), ", ") +
+                '}';
+    }
+
+    /**
+     * The watermark of a table: the values are SQL literals, read from the database.
+     */
+    public static final class TableWatermark {
+
+        private final String keyColumn;
+        private final String maxKey;
+        private final String lastModifiedColumn;
+        private final String lastModified;
+        private final Map<Long, String> buckets;
+
+        /**
+         * @param keyColumn The primary key column, null when the table has no single numeric primary key (all its
+         *                  rows are then extracted)
+         * @param maxKey    The maximum key, null when the table is empty
+         * @param lastModifiedColumn    The last modification column, null when none is defined (all the table rows
+         *                              are then extracted)
+         * @param lastModified  The maximum last modification, null when none is defined or the table is empty
+         * @param buckets   The summary of each key range: [key / {@link #BUCKET_WIDTH}, summary]
+         */
+        public TableWatermark(final String keyColumn, final String maxKey, final String lastModifiedColumn,
+                              final String lastModified, final Map<Long, String> buckets) {
+            this.keyColumn = keyColumn;
+            this.maxKey = maxKey;
+            this.lastModifiedColumn = lastModifiedColumn;
+            this.lastModified = lastModified;
+            this.buckets = Collections.unmodifiableMap(new TreeMap<>(buckets));
+        }
+
+        /**
+         * @return  The watermark of a table without single numeric primary key.
+         */
+        public static TableWatermark allRows() {
+            return new TableWatermark(null, null, null, null, Map.of());
+        }
+
+        private static TableWatermark from(final Map<String, String> properties) {
+            final Map<Long, String> buckets = new HashMap<>();
+            properties.forEach((property, value) -> {
+                if (property.startsWith(BUCKET_PROPERTY_PREFIX)) {
+                    buckets.put(Long.parseLong(property.substring(BUCKET_PROPERTY_PREFIX.length())), value);
+                }
+            });
+            return new TableWatermark(
+                    properties.get(KEY_PROPERTY),
+                    properties.get(MAX_KEY_PROPERTY),
+                    properties.get(LAST_MODIFIED_PROPERTY),
+                    properties.get(LAST_MODIFIED_VALUE_PROPERTY),
+                    buckets
+            );
+        }
+
+        private Map<String, String> toProperties() {
+            final Map<String, String> properties = new HashMap<>();
+            putIfNotNull(properties, KEY_PROPERTY, keyColumn);
+            putIfNotNull(properties, MAX_KEY_PROPERTY, maxKey);
+            putIfNotNull(properties, LAST_MODIFIED_PROPERTY, lastModifiedColumn);
+            putIfNotNull(properties, LAST_MODIFIED_VALUE_PROPERTY, lastModified);
+            buckets.forEach((bucket, summary) -> properties.put(BUCKET_PROPERTY_PREFIX + bucket, summary));
+            return properties;
+        }
+
+        private static void putIfNotNull(final Map<String, String> properties, final String property,
+                                         final String value) {
+            if (value != null) {
+                properties.put(property, value);
+            }
+        }
+
+        public String getKeyColumn() {
+            return keyColumn;
+        }
+
+        public String getMaxKey() {
+            return maxKey;
+        }
+
+        public String getLastModifiedColumn() {
+            return lastModifiedColumn;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public Map<Long, String> getBuckets() {
+            return buckets;
+        }
+    }
+}
@@ -2,6 +2,31 @@ package lu.mms.common.quality.assets.db.re.script;
 
 import lu.mms.common.quality.assets.db.re.CanBuild;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 public interface SqlScript extends CanBuild {
 
+    /**
+     * Render the script in the given output, piece by piece, without building the whole script in memory.
+     * @param output    The output (example: a buffered file writer)
+     * @throws IOException  Thrown when the output can not be written
+     */
+    void writeTo(Appendable output) throws IOException;
+
+    /**
+     * @return  The script string
+     */
+    @Override
+    default String build() {
+        final StringBuilder builder = new StringBuilder();
+        try {
+            writeTo(builder);
+        } catch (IOException ex) {
+            // not expected with a StringBuilder
+            throw new UncheckedIOException(ex);
+        }
+        return builder.toString();
+    }
+
 }
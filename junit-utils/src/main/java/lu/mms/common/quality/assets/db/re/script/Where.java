@@ -1,22 +1,30 @@
 package lu.mms.common.quality.assets.db.re.script;
 
 import lu.mms.common.quality.assets.db.re.Statement;
+import lu.mms.common.quality.assets.db.re.schema.Table;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 public class Where extends DataQueryOperation implements SqlScript {
 
     /**
-     * Retrieve all entries.
+     * The statement line end.
      */
-    private static final String STATEMENT_LINE = "%s \n";
+    private static final String STATEMENT_LINE_END = " \n";
+
+    private static final String SEMI_JOIN_TEMPLATE = "EXISTS (SELECT 1 FROM %s WHERE %s)";
 
     private final From from;
     private final Set<String> joints = new HashSet<>();
+    private final Set<String> semiJoinTables = new LinkedHashSet<>();
+    private final Set<String> semiJoinConditions = new LinkedHashSet<>();
 
-    private String whereExpression;
+    private Set<Statement> statements = Set.of();
 
     public Where(From from) {
         this.from = from;
@@ -29,31 +37,87 @@ public class Where extends DataQueryOperation implements SqlScript {
         return this;
     }
 
+    /**
+     * Restrict the rows to the ones having related rows, with an 'EXISTS' sub query instead of joins: each row is
+     * selected once, whatever the amount of related rows. <br>
+     * The statements on the other tables (see {@link #where(Set)}) are moved into the sub query. The outer joins
+     * ('LEFT', 'RIGHT', 'FULL') can't be expressed as a semi-join: the relations are then joined (see
+     * {@link #join(Set)}).
+     * @param relations The relations
+     * @return  The {@link Where} object
+     */
+    public Where semiJoin(final Set<Relation> relations) {
+        if (relations.stream().anyMatch(relation -> relation.getJoinType() != null)) {
+            return join(relations);
+        }
+        final Table table = this.from.getTable();
+        for (final Relation relation : relations) {
+            // a table can't be semi-joined with itself
+            if (relation.isSelfReference()) {
+                continue;
+            }
+            semiJoinTables.add(relation.buildTableReference(table));
+            semiJoinConditions.add(relation.buildCondition(table));
+        }
+        return this;
+    }
+
     public DataQueryOperation where(final Set<Statement> statements) {
-        this.whereExpression = statements.stream()
-                .map(Statement::build)
-                .reduce((a, b) -> String.format("%s and %s", a, b))
-                .orElse(StringUtils.EMPTY);
+        this.statements = statements;
         return this;
     }
 
     @Override
-    public String build() {
+    public void writeTo(final Appendable output) throws IOException {
         // select # from
-        StringBuilder whereBuilder = new StringBuilder(String.format(STATEMENT_LINE, from.toString()));
+        from.writeTo(output);
+        output.append(STATEMENT_LINE_END);
 
         // join
         for (final String join : joints) {
-            whereBuilder.append(String.format(STATEMENT_LINE, join));
+            output.append(join).append(STATEMENT_LINE_END);
         }
 
+        // where
+        final String whereExpression = buildWhereExpression();
         if (StringUtils.isNotBlank(whereExpression)) {
-            whereBuilder.append(String.format(STATEMENT_LINE, "WHERE " + whereExpression));
+            output.append("WHERE ").append(whereExpression).append(STATEMENT_LINE_END);
         }
 
-        whereBuilder.append(getDqoExpression());
+        output.append(getDqoExpression());
+    }
 
-        // where
-        return whereBuilder.toString();
+    /*
+     * The statements are split in conjuncts, and each conjunct is written once: the related tables share the
+     * statements of the tables they are related to, and would repeat them otherwise.
+     */
+    private String buildWhereExpression() {
+        if (semiJoinTables.isEmpty()) {
+            return statements.stream()
+                    .flatMap(statement -> statement.buildConjuncts().stream())
+                    .filter(StringUtils::isNotBlank)
+                    .collect(Collectors.toCollection(LinkedHashSet::new))
+                    .stream()
+                    .collect(Collectors.joining(" and "));
+        }
+
+        // the statements on the queried table stay in the outer query
+        final String alias = from.getTable().getAlias();
+        final Set<String> outerConditions = new LinkedHashSet<>();
+        final Set<String> innerConditions = new LinkedHashSet<>(semiJoinConditions);
+        for (final Statement statement : statements) {
+            final Set<String> conditions = statement.getAlias() == null || statement.getAlias().equals(alias)
+                    ? outerConditions
+                    : innerConditions;
+            statement.buildConjuncts().stream()
+                    .filter(StringUtils::isNotBlank)
+                    .forEach(conditions::add);
+        }
+        outerConditions.add(String.format(
+                SEMI_JOIN_TEMPLATE,
+                String.join(", ", semiJoinTables),
+                String.join(" and ", innerConditions)
+        ));
+        return String.join(" and ", outerConditions);
     }
 }
@@ -2,6 +2,7 @@ package lu.mms.common.quality.assets.mybatis;
 
 import lu.mms.common.quality.assets.db.InMemoryDb;
 import lu.mms.common.quality.assets.db.MyBatisSqlSessionResolver;
+import lu.mms.common.quality.assets.db.re.script.MigrationScript;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.ibatis.annotations.Mapper;
@@ -25,12 +26,14 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import static lu.mms.common.quality.assets.mybatis.SessionFactoryUtils.newSqlSessionFactory;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
@@ -46,6 +49,10 @@ public class MyBatisMapperExtension extends MyBatisSqlSessionResolver implements
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MyBatisMapperExtension.class);
 
+    private static final String CSV_LOADER_SCRIPT_EXTENSION = ".csv.sql";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     @Override
     public void beforeAll(final ExtensionContext context) {
         super.beforeAll(context);
@@ -234,7 +241,13 @@ public class MyBatisMapperExtension extends MyBatisSqlSessionResolver implements
             }
 
             try (InputStream migrationStream = Resources.getResourceAsStream(migration)) {
-                applyMigrationScripts(jdbcTemplate, migrationStream);
+                if (MigrationScript.isCompressed(migration)) {
+                    applyCompressedMigrationScript(jdbcTemplate, migrationStream);
+                } else if (StringUtils.endsWithIgnoreCase(migration, CSV_LOADER_SCRIPT_EXTENSION)) {
+                    applyStatements(jdbcTemplate, new InputStreamReader(migrationStream, StandardCharsets.UTF_8));
+                } else {
+                    applyMigrationScripts(jdbcTemplate, migrationStream);
+                }
             } catch (Exception ex) {
                 final String errorMsg = String.format(
                         "Failed to execute the migration script [%s]: [%s].", migration, ex.getMessage()
@@ -258,4 +271,27 @@ public class MyBatisMapperExtension extends MyBatisSqlSessionResolver implements
         }
     }
 
+    /*
+     * The compressed scripts are the large data scripts: they are decompressed while their statements are executed,
+     * one at a time.
+     */
+    private static void applyCompressedMigrationScript(final JdbcTemplate jdbcTemplate, final InputStream migStream)
+                                                                                                throws IOException {
+        final InputStream script = new GZIPInputStream(migStream, BUFFER_SIZE);
+        applyStatements(jdbcTemplate, new InputStreamReader(script, StandardCharsets.UTF_8));
+    }
+
+    /*
+     * The CSV loader scripts (see Dml#writeCsv) create the tables their next statements read from: the statements
+     * are executed one at a time, to be compiled once the previous ones are executed.
+     */
+    private static void applyStatements(final JdbcTemplate jdbcTemplate, final Reader script) throws IOException {
+        try (SqlStatementReader reader = new SqlStatementReader(new BufferedReader(script, BUFFER_SIZE))) {
+            String statement;
+            while ((statement = reader.next()) != null) {
+                jdbcTemplate.execute(statement);
+            }
+        }
+    }
+
 }
@@ -35,7 +35,8 @@ public @interface MyBatisMapperTest {
 
     /**
      * The migration scripts to run when configuring the DataSource. <br>
-     * The script will be executed in the declared order.
+     * The script will be executed in the declared order. The gzip compressed scripts (<i>*.gz</i>) and the CSV
+     * loader scripts (<i>*.csv.sql</i>) are executed one statement at a time.
      * @return The script.
      */
     String[] script() default StringUtils.EMPTY;
@@ -0,0 +1,128 @@
+package lu.mms.common.quality.assets.mybatis;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Read the statements of a migration script one at a time, so that the script is never loaded in memory as a whole.
+ * <br>
+ * The statements are separated by semicolons. The semicolons within the quoted literals and identifiers, the
+ * comments and the <i>$$</i> quoted routine bodies do not end a statement. The comments are skipped.
+ */
+final class SqlStatementReader implements Closeable {
+
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private final StringBuilder statement = new StringBuilder();
+    private int pending = EOF;
+
+    /**
+     * Constructor.
+     * @param reader    The script reader (buffered by the caller)
+     */
+    SqlStatementReader(final Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return  The next statement, without its semicolon, null when the script is over.
+     * @throws IOException  Thrown when the script can not be read
+     */
+    String next() throws IOException {
+        statement.setLength(0);
+        int current;
+        while ((current = read()) != EOF) {
+            if (current == ';') {
+                if (!isBlank()) {
+                    return statement.toString().trim();
+                }
+                statement.setLength(0);
+            } else if (current == '\'' || current == '"') {
+                statement.append((char) current);
+                copyQuoted(current);
+            } else if (current == '-' && peek() == '-') {
+                skipLine();
+            } else if (current == '/' && peek() == '*') {
+                skipBlockComment();
+            } else if (current == '$' && peek() == '$') {
+                statement.append((char) current).append((char) read());
+                copyDollarQuoted();
+            } else {
+                statement.append((char) current);
+            }
+        }
+        return isBlank() ? null : statement.toString().trim();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private boolean isBlank() {
+        return statement.toString().isBlank();
+    }
+
+    /*
+     * Copy a quoted literal or identifier, the doubled quote being the escaped quote.
+     */
+    private void copyQuoted(final int quote) throws IOException {
+        int current;
+        while ((current = read()) != EOF) {
+            statement.append((char) current);
+            if (current == quote) {
+                if (peek() != quote) {
+                    return;
+                }
+                statement.append((char) read());
+            }
+        }
+    }
+
+    private void copyDollarQuoted() throws IOException {
+        int current;
+        while ((current = read()) != EOF) {
+            statement.append((char) current);
+            if (current == '$' && peek() == '$') {
+                statement.append((char) read());
+                return;
+            }
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int current;
+        while ((current = read()) != EOF && current != '\n') {
+            // skip the comment
+        }
+        statement.append('\n');
+    }
+
+    private void skipBlockComment() throws IOException {
+        read();
+        int previous = EOF;
+        int current;
+        while ((current = read()) != EOF && !(previous == '*' && current == '/')) {
+            previous = current;
+        }
+        statement.append(' ');
+    }
+
+    private int read() throws IOException {
+        if (pending != EOF) {
+            final int current = pending;
+            pending = EOF;
+            return current;
+        }
+        return reader.read();
+    }
+
+    private int peek() throws IOException {
+        if (pending == EOF) {
+            pending = reader.read();
+        }
+        return pending;
+    }
+}
@@ -1,5 +1,6 @@
 package lu.mms.common.quality.assets.db;
 
+import lu.mms.common.quality.assets.db.re.Expression;
 import lu.mms.common.quality.assets.db.re.schema.Column;
 import lu.mms.common.quality.assets.db.re.schema.Schema;
 import lu.mms.common.quality.assets.db.re.schema.Table;
@@ -7,9 +8,12 @@ import lu.mms.common.quality.assets.db.re.script.Dql;
 import org.hamcrest.core.StringContains;
 import org.junit.jupiter.api.Test;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
 
 public class DqlOperationTest {
 
@@ -69,4 +73,60 @@ public class DqlOperationTest {
         // Assert
         assertThat(result, StringContains.containsString("UNION"));
     }
+
+    @Test
+    void shouldBuildExistsSubQueryWhenSemiJoin() {
+        //Arrange
+        final Schema schema = new Schema("PUBLIC");
+        final Table customer = new Table("CUSTOMER");
+        final Table address = new Table("ADDRESS");
+        schema.addTable(customer);
+        schema.addTable(address);
+        customer.addColumn(new Column(0, "ID", "NUMBER", true, true, false, 1));
+        customer.addColumn(new Column(1, "ID_ADDRESS", "NUMBER", false, false, false, 1));
+        address.addColumn(new Column(0, "ID", "NUMBER", true, true, false, 1));
+        address.appendForeignKey("ID", customer, "ID_ADDRESS");
+        final Expression filter = Expression.value("ID");
+        filter.eq(5);
+
+        // Act
+        String result = Dql.select(address.getColumns().values())
+                .from(address)
+                .semiJoin(address.getAllRelations())
+                .where(Set.of(filter.withAlias(customer.getAlias())))
+                .build();
+
+        // Assert
+        assertThat(result, StringContains.containsString(String.format(
+                "WHERE EXISTS (SELECT 1 FROM PUBLIC.CUSTOMER %s WHERE %s.ID_ADDRESS = %s.ID and %s.ID = 5)",
+                customer.getAlias(), customer.getAlias(), address.getAlias(), customer.getAlias()
+        )));
+        assertThat(result.contains("JOIN"), equalTo(false));
+    }
+
+    @Test
+    void shouldWriteConjunctOnceWhenStatementsRepeatIt() {
+        //Arrange
+        final Table customer = new Table("CUSTOMER");
+        new Schema("PUBLIC").addTable(customer);
+        customer.addColumn(new Column(0, "ID", "NUMBER", true, true, false, 1));
+        final Expression filter = Expression.value("ID");
+        filter.gt(1);
+        final Expression sameFilter = Expression.value("ID");
+        sameFilter.gt(1);
+        sameFilter.and(Expression.value("ID").lt(9));
+
+        // Act
+        String result = Dql.select(customer.getColumns().values())
+                .from(customer)
+                .where(new LinkedHashSet<>(List.of(
+                        filter.withAlias(customer.getAlias()), sameFilter.withAlias(customer.getAlias())
+                )))
+                .build();
+
+        // Assert
+        assertThat(result, StringContains.containsString(String.format(
+                "WHERE %s.ID > 1 and %s.ID < 9 \n", customer.getAlias(), customer.getAlias()
+        )));
+    }
 }
@@ -0,0 +1,57 @@
+package lu.mms.common.quality.assets.db.h2;
+
+import lu.mms.common.quality.assets.db.InMemoryDb;
+import lu.mms.common.quality.assets.db.MetadataFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+class H2MetadataTest {
+
+    @Test
+    void shouldListConstraintColumnsWhenCompositeUniqueConstraint() {
+        // Arrange
+        final DataSource dataSource = new DriverManagerDataSource(String.format(
+                InMemoryDb.H2_ORACLE.getUrlTemplate(), "h2_metadata_unique"
+        ));
+        new JdbcTemplate(dataSource).execute("CREATE TABLE DEVICE (ID NUMBER(19,0) PRIMARY KEY, "
+                + "LA_NAME VARCHAR2(20), LA_BRAND VARCHAR2(20), CONSTRAINT UK_DEVICE UNIQUE (LA_NAME, LA_BRAND))");
+
+        // Act
+        final String uniqueConstraint = new H2Metadata(dataSource, "PUBLIC", "DEVICE").getUniqueTableConstraint();
+
+        // Assert
+        assertThat(uniqueConstraint, equalTo("LA_NAME,LA_BRAND"));
+    }
+
+    @Test
+    void shouldListIndexColumnsWhenSchemaScoped() {
+        // Arrange
+        final DataSource dataSource = new DriverManagerDataSource(String.format(
+                InMemoryDb.H2_ORACLE.getUrlTemplate(), "h2_metadata_indexes"
+        ));
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE DEVICE (ID NUMBER(19,0) PRIMARY KEY, LA_NAME VARCHAR2(20), "
+                + "LA_BRAND VARCHAR2(20))");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX IDX_DEVICE_BRAND ON DEVICE (LA_BRAND, LA_NAME)");
+
+        // Act
+        final List<Map<String, Object>> indexColumns = new H2Metadata(dataSource, "PUBLIC").forTable("DEVICE")
+                .getIndexColumns();
+
+        // Assert
+        assertThat(indexColumns.stream()
+                .filter(row -> "IDX_DEVICE_BRAND".equals(row.get(MetadataFactory.INDEX_NAME)))
+                .map(row -> row.get(MetadataFactory.INDEX_COLUMN_NAME) + ":"
+                        + row.get(MetadataFactory.INDEX_COLUMN_POSITION) + ":" + row.get(MetadataFactory.INDEX_UNIQUE))
+                .collect(Collectors.toList()), equalTo(List.of("LA_BRAND:1:1", "LA_NAME:2:1")));
+    }
+}
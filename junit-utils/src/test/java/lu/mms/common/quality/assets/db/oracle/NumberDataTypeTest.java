@@ -0,0 +1,36 @@
+package lu.mms.common.quality.assets.db.oracle;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+class NumberDataTypeTest {
+
+    @Test
+    void shouldFormatPrecisionWhenInRange() {
+        // Act
+        final String type = NumberDataType.format(19, 0);
+
+        // Assert
+        assertThat(type, equalTo("NUMBER(19)"));
+    }
+
+    @Test
+    void shouldFormatNumberWhenNoPrecision() {
+        // Act
+        final String type = NumberDataType.format(null, null);
+
+        // Assert
+        assertThat(type, equalTo("NUMBER"));
+    }
+
+    @Test
+    void shouldFallBackToNumberWhenPrecisionOutOfRange() {
+        // Act: the precision H2 reports for a NUMBER column without precision
+        final String type = NumberDataType.format(100000, 0);
+
+        // Assert
+        assertThat(type, equalTo("NUMBER"));
+    }
+}
@@ -0,0 +1,54 @@
+package lu.mms.common.quality.assets.db.re;
+
+import lu.mms.common.quality.assets.db.InMemoryDb;
+import lu.mms.common.quality.assets.db.re.schema.Column;
+import lu.mms.common.quality.assets.db.re.schema.Schema;
+import lu.mms.common.quality.assets.db.re.schema.Table;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+class BatchLoaderTest {
+
+    @ParameterizedTest
+    @EnumSource(value = InMemoryDb.class, names = {"H2_ORACLE", "HSQL_ORACLE"})
+    void shouldRollbackRowsAndKeepTablesWhenNotCommitted(final InMemoryDb dialect) throws SQLException {
+        // Arrange
+        final Schema schema = new Schema("PUBLIC");
+        final Table table = new Table("ITEM");
+        table.addColumn(new Column(1, "ID", "NUMERIC(19,0)", true, false, false, null));
+        schema.addTable(table);
+        final int[] remainingRows = {3};
+
+        try (Connection connection = DriverManager.getConnection(
+                String.format(dialect.getUrlTemplate(), "loader_" + dialect.name().toLowerCase()))) {
+            // Act
+            try (BatchLoader loader = BatchLoader.open(connection, dialect)) {
+                loader.createTable(table, new String[1]);
+                loader.load(table, statement -> {
+                    if (remainingRows[0] == 0) {
+                        return false;
+                    }
+                    statement.setLong(1, remainingRows[0]--);
+                    return true;
+                });
+            }
+
+            // Assert
+            assertThat(connection.getAutoCommit(), equalTo(true));
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM PUBLIC.ITEM")) {
+                resultSet.next();
+                assertThat(resultSet.getInt(1), equalTo(0));
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package lu.mms.common.quality.assets.db.re;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class ExpressionConjunctsTest {
+
+    @Test
+    void shouldBeEqualWhenSameCondition() {
+        // Arrange
+        final Expression first = Expression.value("ID");
+        first.eq(5);
+        final Expression second = Expression.value("ID");
+        second.eq(5);
+        final Expression third = Expression.value("ID");
+        third.eq(6);
+
+        // Act
+        final Set<Statement> statements = new LinkedHashSet<>(List.of(first, second, third));
+
+        // Assert
+        assertThat(first, equalTo(second));
+        assertThat(first.hashCode(), equalTo(second.hashCode()));
+        assertThat(statements.size(), equalTo(2));
+    }
+
+    @Test
+    void shouldNotBeEqualWhenLiteralsDifferInWhiteSpaces() {
+        // Arrange
+        final Expression first = Expression.value("NAME");
+        first.eq("a  b");
+        final Expression second = Expression.value("NAME");
+        second.eq("a b");
+
+        // Act
+        final Set<Statement> statements = new LinkedHashSet<>(List.of(first, second));
+
+        // Assert
+        assertThat(first.equals(second), equalTo(false));
+        assertThat(statements.size(), equalTo(2));
+        assertThat(first.buildConjuncts(), equalTo(List.of(Expression.ALIAS + ".NAME = 'a  b'")));
+    }
+
+    @Test
+    void shouldBeEqualWhenSameStructureAndSameAlias() {
+        // Arrange
+        final Expression first = Expression.value("ID");
+        first.gt(1);
+        first.and(Expression.value("NAME").eq("x"));
+        final Expression second = Expression.value("ID");
+        second.gt(1);
+        second.and(Expression.value("NAME").eq("x"));
+
+        // Act
+        final Statement firstAliased = first.withAlias("T0");
+        final Statement secondAliased = second.withAlias("T0");
+
+        // Assert
+        assertThat(firstAliased, equalTo(secondAliased));
+        assertThat(firstAliased.hashCode(), equalTo(secondAliased.hashCode()));
+        assertThat(firstAliased.equals(second.withAlias("T1")), equalTo(false));
+    }
+
+    @Test
+    void shouldKeepSetMembershipWhenAliased() {
+        // Arrange
+        final Expression expression = Expression.value("ID");
+        expression.eq(5);
+        final Set<Statement> statements = new HashSet<>(Set.of(expression));
+
+        // Act
+        final Statement aliased = expression.withAlias("T0");
+
+        // Assert
+        assertThat(statements.contains(expression), equalTo(true));
+        assertThat(expression.build(), equalTo(Expression.ALIAS + ".ID = 5"));
+        assertThat(aliased.build(), equalTo("T0.ID = 5"));
+        assertThat(aliased.getAlias(), equalTo("T0"));
+    }
+
+    @Test
+    void shouldFlattenNestedConjunctionsWhenConjuncts() {
+        // Arrange
+        final Expression expression = Expression.value("ID");
+        expression.eq(5);
+        final Expression nested = Expression.value("NAME");
+        nested.eq("a and b");
+        nested.and(Expression.value("ZIP").eq(42));
+        expression.and(nested);
+
+        // Act
+        final List<String> conjuncts = expression.buildConjuncts();
+
+        // Assert
+        assertThat(conjuncts, equalTo(List.of(
+                Expression.ALIAS + ".ID = 5",
+                Expression.ALIAS + ".NAME = 'a and b'",
+                Expression.ALIAS + ".ZIP = 42"
+        )));
+    }
+
+    @Test
+    void shouldKeepParenthesisWhenDisjunction() {
+        // Arrange
+        final Expression expression = Expression.value("ID");
+        expression.eq(5);
+        expression.or(Expression.value("ID").eq(6));
+
+        // Act
+        final List<String> conjuncts = expression.buildConjuncts();
+
+        // Assert
+        assertThat(conjuncts, equalTo(List.of(
+                "(" + Expression.ALIAS + ".ID = 5 or " + Expression.ALIAS + ".ID = 6)"
+        )));
+    }
+}
@@ -0,0 +1,40 @@
+package lu.mms.common.quality.assets.db.re;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+class KeysetQueryTest {
+
+    private static final String QUERY = "SELECT T1.ID, T1.LA_NAME, T1.LA_DESCRIPTION FROM PUBLIC.DEVICE T1";
+
+    @Test
+    void shouldReadFromFirstKeyWhenFirstPage() {
+        // Arrange
+        final KeysetQuery sut = new KeysetQuery(QUERY, List.of("ID", "LA_NAME", "LA_DESCRIPTION"), List.of("ID"), 100);
+
+        // Act
+        final String sql = sut.buildPage(null);
+
+        // Assert
+        assertThat(sql, equalTo("SELECT * FROM (\n" + QUERY + "\n) page\nORDER BY ID\nFETCH FIRST 100 ROWS ONLY"));
+    }
+
+    @Test
+    void shouldResumeAfterLastKeyWhenCompositeKey() {
+        // Arrange
+        final KeysetQuery sut = new KeysetQuery(QUERY, List.of("ID", "LA_NAME", "LA_DESCRIPTION"),
+                List.of("ID", "LA_NAME"), 100);
+
+        // Act
+        final String sql = sut.buildPage(new Object[] {1, "TV"});
+
+        // Assert
+        assertThat(sql, equalTo("SELECT * FROM (\n" + QUERY + "\n) page\n"
+                + "WHERE (ID > ?) or (ID = ? and LA_NAME > ?)\n"
+                + "ORDER BY ID, LA_NAME\nFETCH FIRST 100 ROWS ONLY"));
+    }
+}
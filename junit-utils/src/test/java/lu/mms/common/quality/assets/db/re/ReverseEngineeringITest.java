@@ -8,10 +8,20 @@ import lu.mms.common.quality.assets.mybatis.MyBatisMapperTest;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.StringContains.containsString;
 import static org.junit.jupiter.api.Assumptions.assumeFalse;
@@ -28,11 +38,12 @@ import static org.junit.jupiter.api.Assumptions.assumeFalse;
 )
 class ReverseEngineeringITest {
 
+    private DataSource dataSource;
     private Schema schema;
 
     @BeforeEach
     void resolveJdbcTemplate(final SqlSessionFactory sqlSessionFactory) {
-        final DataSource dataSource = sqlSessionFactory.openSession().getConfiguration().getEnvironment().getDataSource();
+        dataSource = sqlSessionFactory.openSession().getConfiguration().getEnvironment().getDataSource();
         schema = new ReverseEngineeringWizard(dataSource, "PUBLIC", 1)
                 .withTable("CUSTOMER_ADDRESS", Expression.value("ID_ADDRESS").eq(1))
                 .build();
@@ -85,4 +96,68 @@ class ReverseEngineeringITest {
         assertThat(sql, not(containsString("CREATE TABLE")));
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldStreamDMLWhenSchemaProvided(@TempDir final Path tempDir) throws IOException {
+        //  Arrange
+        final ReverseEngineeringWizard sut = new ReverseEngineeringWizard(dataSource, "PUBLIC", 1)
+                .withTable("CUSTOMER_ADDRESS", Expression.value("ID_ADDRESS").eq(1));
+
+        // Act
+        final Path file = sut.streamDml(tempDir.resolve("data.sql"));
+
+        // Assert
+        final String sql = Files.readString(file);
+        assertThat(sql, containsString("DELETE FROM  PUBLIC.CUSTOMER;"));
+        assertThat(sql, containsString("INSERT INTO PUBLIC.CUSTOMER"));
+        assertThat(sql, containsString("(5, 'gama', null, null)"));
+        assertThat(sql, containsString("(6, 'x man', null, null)"));
+
+        assertThat(sql, containsString("INSERT INTO PUBLIC.ADDRESS"));
+        assertThat(sql, containsString("(1, 42, 'Rte de Luxembourg', '4590', 'Bascharage', 'Luxembourg', null)"));
+
+        assertThat(sql, containsString("INSERT INTO PUBLIC.CUSTOMER_ADDRESS"));
+        assertThat(sql, containsString("(5, 1)"));
+        assertThat(sql, containsString("(6, 1)"));
+        assertThat(sql, containsString(Dml.with(schema).build()));
+    }
+
+    @Test
+    void shouldCompressStreamedDMLWhenGzipFile(@TempDir final Path tempDir) throws IOException {
+        //  Arrange
+        final ReverseEngineeringWizard sut = new ReverseEngineeringWizard(dataSource, "PUBLIC", 1)
+                .withTable("CUSTOMER_ADDRESS", Expression.value("ID_ADDRESS").eq(1));
+
+        // Act
+        final Path file = sut.streamDml(tempDir.resolve("data.sql.gz"));
+
+        // Assert
+        final String sql;
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+            sql = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertThat(sql, containsString(Dml.with(schema).build()));
+    }
+
+    @Test
+    void shouldWriteExpectedScriptsWhenRenderedToWriter() throws IOException {
+        //  Arrange
+        assumeFalse(schema.getTables().isEmpty());
+        final StringWriter ddl = new StringWriter();
+        final StringWriter dml = new StringWriter();
+
+        // Act
+        Ddl.with(schema).writeTo(ddl);
+        Dml.with(schema).writeTo(dml);
+
+        // Assert
+        assertThat(ddl.toString(), equalTo(readResource("sql/re/customer_address_ddl.sql")));
+        assertThat(dml.toString(), equalTo(readResource("sql/re/customer_address_dml.sql")));
+    }
+
+    private static String readResource(final String location) throws IOException {
+        try (InputStream input = ReverseEngineeringITest.class.getClassLoader().getResourceAsStream(location)) {
+            return new String(Objects.requireNonNull(input, location).readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+}
@@ -1,24 +1,55 @@
 package lu.mms.common.quality.assets.db.re;
 
+import lu.mms.common.quality.assets.db.DBDriverName;
 import lu.mms.common.quality.assets.db.InMemoryDb;
+import lu.mms.common.quality.assets.db.h2.H2Metadata;
+import lu.mms.common.quality.assets.db.re.schema.ForeignKeyIndex;
+import lu.mms.common.quality.assets.db.re.schema.Index;
 import lu.mms.common.quality.assets.db.re.schema.Record;
 import lu.mms.common.quality.assets.db.re.schema.Schema;
 import lu.mms.common.quality.assets.db.re.schema.Table;
+import lu.mms.common.quality.assets.db.re.script.Ddl;
+import lu.mms.common.quality.assets.db.re.script.Delta;
+import lu.mms.common.quality.assets.db.re.script.Dml;
+import lu.mms.common.quality.assets.db.re.script.IndexCreation;
+import lu.mms.common.quality.assets.db.re.script.LoadProfile;
 import lu.mms.common.quality.assets.db.re.script.Relation;
+import lu.mms.common.quality.assets.db.re.script.SnapshotManifest;
 import lu.mms.common.quality.assets.mybatis.MyBatisMapperTest;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
 
 import javax.sql.DataSource;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
+import static org.hamcrest.number.OrderingComparison.greaterThan;
+import static org.hamcrest.number.OrderingComparison.lessThan;
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.IsNull.notNullValue;
 import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 
 /**
@@ -33,11 +64,12 @@ import static org.hamcrest.core.IsNull.nullValue;
 )
 class ReverseEngineeringWizardCTest {
 
+    private DataSource dataSource;
     private ReverseEngineeringWizard sut;
 
     @BeforeEach
     void resolveSqlSessionFactory(final SqlSessionFactory sqlSessionFactory) {
-        final DataSource dataSource = sqlSessionFactory.openSession().getConfiguration().getEnvironment().getDataSource();
+        dataSource = sqlSessionFactory.openSession().getConfiguration().getEnvironment().getDataSource();
         sut = new ReverseEngineeringWizard(dataSource, "PUBLIC");
     }
 
@@ -313,4 +345,699 @@ class ReverseEngineeringWizardCTest {
         assertThat(addresses.get(0).getValue("ID").toString(), equalTo("5"));
     }
 
+    @Test
+    void shouldExtractSameRecordsWhenParallelism() {
+        // Arrange
+        sut.withLevel(2)
+                .withParallelism(3)
+                .withTable("CUSTOMER", Expression.value("ID").between(1, 6));
+        final Schema serialSchema = new ReverseEngineeringWizard(dataSource, "PUBLIC", 2)
+                .withTable("CUSTOMER", Expression.value("ID").between(1, 6))
+                .build();
+
+        // Act
+        final Schema schema = sut.build();
+
+        // Assert
+        assertThat(schema.getTables().keySet(), equalTo(serialSchema.getTables().keySet()));
+        for (final String tableName : serialSchema.getTables().keySet()) {
+            assertThat(schema.getTables().get(tableName).getRecords().toString(),
+                    equalTo(serialSchema.getTables().get(tableName).getRecords().toString()));
+        }
+        assertThat(schema.getTables().get("CUSTOMER").getRecords().size(), equalTo(4));
+    }
+
+    @Test
+    void shouldExtractSameRecordsWhenKeysetPagination() {
+        // Arrange
+        sut.withLevel(2)
+                .withPageSize(2)
+                .withFetchSize("CUSTOMER", 1)
+                .withTable("CUSTOMER", Expression.value("ID").between(1, 9))
+                .withTable("DEVICE");
+        final Schema expectedSchema = new ReverseEngineeringWizard(dataSource, "PUBLIC", 2)
+                .withTable("CUSTOMER", Expression.value("ID").between(1, 9))
+                .withTable("DEVICE")
+                .build();
+
+        // Act
+        final Schema schema = sut.build();
+
+        // Assert
+        assertThat(schema.getTables().keySet(), equalTo(expectedSchema.getTables().keySet()));
+        for (final String tableName : expectedSchema.getTables().keySet()) {
+            assertThat(tableName, schema.getTables().get(tableName).getRecords().stream().map(Record::toString).toList(),
+                    containsInAnyOrder(expectedSchema.getTables().get(tableName).getRecords().stream()
+                            .map(Record::toString).toArray()));
+        }
+        assertThat(schema.getTables().get("CUSTOMER").getRecords().size(), equalTo(5));
+    }
+
+    @Test
+    void shouldFailWhenFetchSizeNotPositive() {
+        // Arrange
+
+        // Act
+        final Exception exception = assertThrows(IllegalArgumentException.class, () -> sut.withFetchSize("CUSTOMER", 0));
+
+        // Assert
+        assertThat(exception.getMessage(), equalTo("The fetch size must be greater than zero."));
+    }
+
+    @Test
+    void shouldReportExtractionFiguresWhenListener() {
+        // Arrange
+        final ExtractionSummary summary = new ExtractionSummary();
+        final List<String> discoveredTables = new ArrayList<>();
+        sut.withLevel(2)
+                .withPageSize(2)
+                .withListener(summary)
+                .withListener(new ExtractionListener() {
+                    @Override
+                    public void onTableDiscovered(final String tableName, final String relatedTable) {
+                        discoveredTables.add(tableName);
+                    }
+                })
+                .withTable("CUSTOMER", Expression.value("ID").between(1, 9));
+
+        // Act
+        final Schema schema = sut.build();
+
+        // Assert
+        assertThat(discoveredTables, containsInAnyOrder(schema.getTables().keySet().toArray()));
+        assertThat(summary.getRows("CUSTOMER"), equalTo(5L));
+        assertThat(summary.getQueries("CUSTOMER"), equalTo(3));
+        assertThat(summary.getMetadataQueries() > schema.getTables().size(), equalTo(true));
+        for (final ExtractionListener.Phase phase : List.of(ExtractionListener.Phase.METADATA,
+                ExtractionListener.Phase.FOREIGN_KEYS, ExtractionListener.Phase.DATA)) {
+            assertThat(phase.name(), summary.getPhaseNanos(phase) > 0, equalTo(true));
+        }
+        assertThat(summary.getSummary(), containsString("CUSTOMER"));
+    }
+
+    @Test
+    void shouldReportSameEncodedBytesWhenDmlBuiltOrStreamed(@TempDir final Path directory) {
+        // Arrange
+        final ExtractionSummary builtSummary = new ExtractionSummary();
+        final ExtractionSummary streamedSummary = new ExtractionSummary();
+        final Schema schema = new ReverseEngineeringWizard(dataSource, "PUBLIC", 1)
+                .withTable("CUSTOMER", Expression.value("ID").between(1, 9))
+                .build();
+
+        // Act
+        Dml.with(schema).listener(builtSummary).build();
+        new ReverseEngineeringWizard(dataSource, "PUBLIC", 1)
+                .withListener(streamedSummary)
+                .withTable("CUSTOMER", Expression.value("ID").between(1, 9))
+                .streamDml(directory.resolve("data.sql"));
+
+        // Assert
+        assertThat(builtSummary.getPhaseNanos(ExtractionListener.Phase.RENDER) > 0, equalTo(true));
+        assertThat(builtSummary.getEncodedBytes("CUSTOMER") > 0, equalTo(true));
+        for (final String tableName : schema.getTables().keySet()) {
+            assertThat(tableName, streamedSummary.getEncodedBytes(tableName),
+                    equalTo(builtSummary.getEncodedBytes(tableName)));
+        }
+    }
+
+    @Test
+    void shouldUseDmlDialectAndBatchSizeWhenStreamed(@TempDir final Path directory) throws IOException {
+        // Arrange
+        final ReverseEngineeringWizard wizard = new ReverseEngineeringWizard(dataSource, "PUBLIC", 1)
+                .withTable("CUSTOMER", Expression.value("ID").between(1, 3))
+                .withDmlDialect(DBDriverName.ORACLE)
+                .withDmlBatchSize(2);
+
+        // Act
+        final String dml = Files.readString(wizard.streamDml(directory.resolve("data.sql")));
+
+        // Assert
+        assertThat(dml.split("INSERT ALL", -1).length - 1, equalTo(2));
+        assertThat(dml, containsString("SELECT 1 FROM DUAL;"));
+    }
+
+    @Test
+    void shouldFetchRelatedRecordOnceWhenSeveralRelatedRecords() {
+        // Arrange
+        final ExtractionSummary summary = new ExtractionSummary();
+        sut.withLevel(2)
+                .withListener(summary)
+                .withTable("CUSTOMER", Expression.value("ID").between(5, 6));
+
+        // Act
+        final Schema schema = sut.build();
+
+        // Assert: the address 1 is related to the customers 5 and 6
+        assertThat(schema.getColumnValues("ADDRESS", "ID"), containsInAnyOrder(BigDecimal.ONE));
+        assertThat(summary.getRows("ADDRESS"), equalTo(1L));
+        assertThat(summary.getRows("CUSTOMER_ADDRESS"), equalTo(2L));
+    }
+
+    @Test
+    void shouldCollectSameDefinitionsWhenMetadataPrefetched() {
+        // Arrange
+        sut.withLevel(2)
+                .prefetchMetadata(true)
+                .withTable("CUSTOMER", Expression.value("ID").between(7, 9))
+                .withTable("DEVICE");
+        final Schema expectedSchema = new ReverseEngineeringWizard(dataSource, "PUBLIC", 2)
+                .withTable("CUSTOMER", Expression.value("ID").between(7, 9))
+                .withTable("DEVICE")
+                .build();
+
+        // Act
+        final Schema schema = sut.build();
+
+        // Assert
+        assertThat(schema.getTables().keySet(), equalTo(expectedSchema.getTables().keySet()));
+        for (final Table expected : expectedSchema.getTables().values()) {
+            final Table table = schema.getTables().get(expected.getName());
+            assertThat(table.getColumns().values().toString(), equalTo(expected.getColumns().values().toString()));
+            assertThat(table.getPrimaryKeyConstraint(), equalTo(expected.getPrimaryKeyConstraint()));
+            assertThat(table.getUniqueConstraint(), equalTo(expected.getUniqueConstraint()));
+            assertThat(table.getCheckConstraint(), equalTo(expected.getCheckConstraint()));
+        }
+    }
+
+    @Test
+    void shouldCollectSameDefinitionsWhenMetadataCached(@TempDir final Path cacheDirectory) throws IOException {
+        // Arrange
+        new ReverseEngineeringWizard(dataSource, "PUBLIC", 2)
+                .withMetadataCache(cacheDirectory)
+                .withTable("CUSTOMER", Expression.value("ID").between(7, 9))
+                .withTable("DEVICE")
+                .build();
+        sut.withLevel(2)
+                .withMetadataCache(cacheDirectory)
+                .withTable("CUSTOMER", Expression.value("ID").between(7, 9))
+                .withTable("DEVICE");
+        final Schema expectedSchema = new ReverseEngineeringWizard(dataSource, "PUBLIC", 2)
+                .withTable("CUSTOMER", Expression.value("ID").between(7, 9))
+                .withTable("DEVICE")
+                .build();
+
+        // Act
+        final Schema schema = sut.build();
+
+        // Assert
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            assertThat(files.count(), equalTo(1L));
+        }
+        assertThat(schema.getTables().keySet(), equalTo(expectedSchema.getTables().keySet()));
+        for (final Table expected : expectedSchema.getTables().values()) {
+            final Table table = schema.getTables().get(expected.getName());
+            assertThat(table.getColumns().values().toString(), equalTo(expected.getColumns().values().toString()));
+            assertThat(table.getPrimaryKeyConstraint(), equalTo(expected.getPrimaryKeyConstraint()));
+            assertThat(table.getUniqueConstraint(), equalTo(expected.getUniqueConstraint()));
+            assertThat(table.getCheckConstraint(), equalTo(expected.getCheckConstraint()));
+            assertThat(table.getRecords().size(), equalTo(expected.getRecords().size()));
+        }
+    }
+
+    @Test
+    void shouldExtractSameRecordsWhenColumnarStorage() {
+        // Arrange
+        sut.withLevel(2)
+                .columnarStorage(true)
+                .withTable("CUSTOMER", Expression.value("ID").between(1, 6))
+                .withTable("DEVICE");
+        final Schema expectedSchema = new ReverseEngineeringWizard(dataSource, "PUBLIC", 2)
+                .withTable("CUSTOMER", Expression.value("ID").between(1, 6))
+                .withTable("DEVICE")
+                .build();
+
+        // Act
+        final Schema schema = sut.build();
+
+        // Assert
+        assertThat(schema.getTables().get("DEVICE").isColumnarStorage(), equalTo(true));
+        assertThat(Dml.with(schema).build(), equalTo(Dml.with(expectedSchema).build()));
+        assertThat(schema.getColumnValues("DEVICE", "ID"), equalTo(expectedSchema.getColumnValues("DEVICE", "ID")));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = InMemoryDb.class, names = {"H2_ORACLE", "HSQL_ORACLE"})
+    void shouldCopyRecordsWhenTargetDataSource(final InMemoryDb dialect) {
+        // Arrange
+        final DataSource target = new DriverManagerDataSource(String.format(dialect.getUrlTemplate(), "copy" + dialect));
+        sut.withLevel(2)
+                .withTable("CUSTOMER", Expression.value("ID").between(1, 6))
+                .withTable("DEVICE");
+        final Schema expectedSchema = new ReverseEngineeringWizard(dataSource, "PUBLIC", 2)
+                .withTable("CUSTOMER", Expression.value("ID").between(1, 6))
+                .withTable("DEVICE")
+                .build();
+
+        // Act
+        final Schema schema = sut.copyTo(target, dialect);
+
+        // Assert
+        final JdbcTemplate targetTemplate = new JdbcTemplate(target);
+        assertThat(schema.getTables().keySet(), equalTo(expectedSchema.getTables().keySet()));
+        for (final Table expected : expectedSchema.getTables().values()) {
+            final Integer rows = targetTemplate.queryForObject(
+                    String.format("SELECT COUNT(*) FROM PUBLIC.%s", expected.getName()), Integer.class
+            );
+            assertThat(expected.getName(), rows, equalTo(expected.getRecords().size()));
+        }
+        assertThat(targetTemplate.queryForList("SELECT ID FROM PUBLIC.DEVICE ORDER BY ID", BigDecimal.class),
+                equalTo(expectedSchema.getColumnValues("DEVICE", "ID").stream().sorted().toList()));
+    }
+
+    @Test
+    void shouldExtractRelatedRecordsOfSampleWhenFirstRowsSampling() {
+        // Arrange
+        sut.withLevel(1).withTable("CUSTOMER", Sampling.firstRows(2));
+
+        // Act
+        final Schema schema = sut.build();
+
+        // Assert
+        assertThat(schema.getColumnValues("CUSTOMER", "ID"), containsInAnyOrder(BigDecimal.ONE, new BigDecimal(2)));
+        assertThat(schema.getColumnValues("CUSTOMER_ADDRESS", "ID_CUSTOMER"),
+                containsInAnyOrder(BigDecimal.ONE, new BigDecimal(2)));
+    }
+
+    @Test
+    void shouldSampleSameRecordsWhenRandomSamplingWithSameSeed() {
+        // Arrange
+        sut.withTable("CUSTOMER", Sampling.random(3, 42L), Expression.value("ID").gt(1));
+
+        // Act
+        final Schema schema = sut.build();
+        final Schema sameSeedSchema = new ReverseEngineeringWizard(dataSource, "PUBLIC")
+                .withTable("CUSTOMER", Sampling.random(3, 42L), Expression.value("ID").gt(1))
+                .build();
+
+        // Assert
+        final List<Object> ids = schema.getColumnValues("CUSTOMER", "ID");
+        assertThat(ids.size(), equalTo(3));
+        assertThat(ids.contains(BigDecimal.ONE), equalTo(false));
+        assertThat(sameSeedSchema.getColumnValues("CUSTOMER", "ID"), containsInAnyOrder(ids.toArray()));
+    }
+
+    @Test
+    void shouldExtractNoRecordWhenEmptyPercentageSampling() {
+        // Arrange
+        sut.withTable("CUSTOMER", Sampling.percentage(0));
+
+        // Act
+        final Schema schema = sut.build();
+
+        // Assert
+        assertThat(schema.getTables().get("CUSTOMER").getRecords().size(), equalTo(0));
+    }
+
+    @Test
+    void shouldExtractAllRecordsWhenFullPercentageSampling() {
+        // Arrange
+        final int customers = new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COUNT(*) FROM PUBLIC.CUSTOMER", Integer.class);
+        sut.withTable("CUSTOMER", Sampling.percentage(100, 7L));
+
+        // Act
+        final Schema schema = sut.build();
+
+        // Assert
+        assertThat(schema.getTables().get("CUSTOMER").getRecords().size(), equalTo(customers));
+    }
+
+    @Test
+    void shouldSampleOnCompositeKeyWhenFirstRowsSampling() {
+        // Arrange
+        sut.withTable("DEVICE", Sampling.firstRows(2));
+
+        // Act
+        final Schema schema = sut.build();
+
+        // Assert
+        assertThat(schema.getColumnValues("DEVICE", "ID"), containsInAnyOrder(BigDecimal.ONE, new BigDecimal(2)));
+        assertThat(schema.getColumnValues("DEVICE", "LA_NAME"), containsInAnyOrder("'mobile phone'", "'TV'"));
+    }
+
+    @Test
+    void shouldFailWhenSampledTableWithoutPrimaryKey() {
+        // Arrange
+        sut.withTable("CUSTOMER_ADDRESS", Sampling.firstRows(1));
+
+        // Act
+        final Exception exception = assertThrows(IllegalStateException.class, () -> sut.build());
+
+        // Assert
+        assertThat(exception.getMessage(),
+                equalTo("The table [CUSTOMER_ADDRESS] has no primary key: it can't be sampled."));
+    }
+
+    @Test
+    void shouldIndexSameForeignKeysWhenSchemaCatalogQuery() throws SQLException {
+        // Arrange
+        final ForeignKeyIndex expected = new ForeignKeyIndex();
+        try (Connection connection = dataSource.getConnection()) {
+            for (final String tableName : List.of("CUSTOMER", "ADDRESS", "CUSTOMER_ADDRESS", "DEVICE")) {
+                try (ResultSet importedKeys = connection.getMetaData().getImportedKeys(null, "PUBLIC", tableName)) {
+                    expected.addAll(importedKeys);
+                }
+            }
+        }
+
+        // Act
+        final ForeignKeyIndex index = ForeignKeyIndex.of(H2Metadata.fetchForeignKeys(dataSource, "PUBLIC"));
+
+        // Assert
+        assertThat(index.size(), equalTo(expected.size()));
+        assertThat(index.getImportedKeys("CUSTOMER_ADDRESS").stream().map(Object::toString).toList(),
+                containsInAnyOrder(expected.getImportedKeys("CUSTOMER_ADDRESS").stream().map(Object::toString).toArray()));
+        assertThat(index.getExportedKeys("CUSTOMER").stream().map(Object::toString).toList(),
+                containsInAnyOrder(expected.getExportedKeys("CUSTOMER").stream().map(Object::toString).toArray()));
+    }
+
+    @Test
+    void shouldReplicateSecondaryIndexWhenIndexCreation() {
+        // Arrange
+        final DataSource source = newCyclicSource("indexes");
+        new JdbcTemplate(source).execute("CREATE INDEX IDX_A_NAME ON A (LA_NAME, ID)");
+        final ReverseEngineeringWizard wizard = new ReverseEngineeringWizard(source, "PUBLIC", 2).withTable("A");
+
+        // Act
+        final Schema schema = wizard.build();
+        final String ddl = Ddl.with(schema).build();
+        final String ddlAfterLoad = Ddl.with(schema).indexCreation(IndexCreation.AFTER_LOAD).build();
+        final String dml = Dml.with(schema).indexCreation(IndexCreation.AFTER_LOAD).build();
+
+        // Assert
+        final String createIndex = "CREATE INDEX PUBLIC.IDX_A_NAME ON PUBLIC.A (LA_NAME, ID);";
+        assertThat(schema.getTables().get("A").getIndexes().stream().map(Index::getName).collect(Collectors.toSet()),
+                equalTo(Set.of("IDX_A_NAME")));
+        // the indexes backing the foreign keys are created by the constraints
+        assertThat(schema.getTables().get("B").getIndexes().isEmpty(), equalTo(true));
+        assertThat(schema.getTables().get("C").getIndexes().isEmpty(), equalTo(true));
+        assertThat(ddl.split("CREATE INDEX PUBLIC.", -1).length - 1, equalTo(1));
+        assertThat(ddl, containsString(createIndex));
+        assertThat(ddlAfterLoad, not(containsString(createIndex)));
+        assertThat(dml, containsString(createIndex));
+        assertThat(dml.indexOf(createIndex), greaterThan(dml.indexOf("INSERT INTO PUBLIC.A")));
+    }
+
+    @Test
+    void shouldSkipCompositeForeignKeyIndexWhenPrefetchedMetadata() {
+        // Arrange
+        final DataSource source = new DriverManagerDataSource(String.format(
+                InMemoryDb.H2_ORACLE.getUrlTemplate(), "composite_fk_indexes"
+        ));
+        final JdbcTemplate sourceTemplate = new JdbcTemplate(source);
+        sourceTemplate.execute("CREATE TABLE P (A NUMBER(19,0), B NUMBER(19,0), CONSTRAINT PK_P PRIMARY KEY (A, B))");
+        sourceTemplate.execute("CREATE TABLE C (ID NUMBER(19,0) PRIMARY KEY, A NUMBER(19,0), B NUMBER(19,0), "
+                + "LA_NAME VARCHAR2(20), CONSTRAINT FK_C_P FOREIGN KEY (A, B) REFERENCES P (A, B))");
+        sourceTemplate.execute("CREATE INDEX IDX_C_NAME ON C (LA_NAME, A)");
+
+        // Act
+        final Schema schema = new ReverseEngineeringWizard(source, "PUBLIC", 1)
+                .prefetchMetadata(true)
+                .withTable("C")
+                .build();
+
+        // Assert
+        assertThat(schema.getTables().get("C").getIndexes().stream().map(Index::getName).collect(Collectors.toSet()),
+                equalTo(Set.of("IDX_C_NAME")));
+        assertThat(schema.getTables().get("C").getIndexes().iterator().next().getColumns(),
+                equalTo(List.of("LA_NAME", "A")));
+        assertThat(schema.getTables().get("P").getIndexes().isEmpty(), equalTo(true));
+    }
+
+    @Test
+    void shouldRefreshCachedIndexesWhenIndexCreated(@TempDir final Path cacheDirectory) {
+        // Arrange
+        final DataSource source = newCyclicSource("cached_indexes");
+        new ReverseEngineeringWizard(source, "PUBLIC").withMetadataCache(cacheDirectory).withTable("A").build();
+        new JdbcTemplate(source).execute("CREATE INDEX IDX_A_NAME ON A (LA_NAME)");
+
+        // Act
+        final Schema schema = new ReverseEngineeringWizard(source, "PUBLIC")
+                .withMetadataCache(cacheDirectory)
+                .withTable("A")
+                .build();
+
+        // Assert
+        assertThat(schema.getTables().get("A").getIndexes().stream().map(Index::getName).collect(Collectors.toSet()),
+                equalTo(Set.of("IDX_A_NAME")));
+    }
+
+    @Test
+    void shouldAddCyclicForeignKeysAfterRecordsWhenConstrainedLoadProfile(@TempDir final Path directory)
+                                                                                        throws IOException {
+        // Arrange
+        final DataSource source = newCyclicSource("cycle");
+        final JdbcTemplate targetTemplate = new JdbcTemplate(new DriverManagerDataSource(String.format(
+                InMemoryDb.H2_ORACLE.getUrlTemplate(), "cycle_target"
+        )));
+        final Schema schema = new ReverseEngineeringWizard(source, "PUBLIC", 2)
+                .withTable("A", Expression.value("ID").eq(1))
+                .build();
+
+        // Act
+        final String ddl = Ddl.with(schema).build();
+        final String dml = Dml.with(schema).build();
+        final String streamedDml = Files.readString(new ReverseEngineeringWizard(source, "PUBLIC", 2)
+                .withTable("A", Expression.value("ID").eq(1))
+                .streamDml(directory.resolve("data.sql")));
+        targetTemplate.execute(ddl);
+        targetTemplate.execute(dml);
+        // the script can be run again
+        targetTemplate.execute(streamedDml);
+
+        // Assert
+        final String addForeignKey = "ALTER TABLE PUBLIC.A ADD CONSTRAINT FK_A_1 FOREIGN KEY (B_ID) REFERENCES B(ID);";
+        assertThat(ddl, not(containsString("ALTER TABLE")));
+        assertThat(dml.indexOf(addForeignKey), greaterThan(dml.lastIndexOf("INSERT INTO")));
+        assertThat(streamedDml.indexOf(addForeignKey), greaterThan(streamedDml.lastIndexOf("INSERT INTO")));
+        assertThat(targetTemplate.queryForObject("SELECT B_ID FROM PUBLIC.A", Integer.class), equalTo(10));
+        assertThat(targetTemplate.queryForObject("SELECT A_ID FROM PUBLIC.B", Integer.class), equalTo(1));
+        assertThat(targetTemplate.queryForObject("SELECT COUNT(*) FROM PUBLIC.C", Integer.class), equalTo(1));
+        assertThrows(DataIntegrityViolationException.class, () -> targetTemplate.execute(
+                "UPDATE PUBLIC.A SET B_ID = 999"
+        ));
+    }
+
+    @Test
+    void shouldExtractChangedRecordsOnlyWhenSnapshot(@TempDir final Path directory) {
+        // Arrange
+        final DataSource source = new DriverManagerDataSource(String.format(
+                InMemoryDb.H2_ORACLE.getUrlTemplate(), "snapshot"
+        ));
+        final JdbcTemplate sourceTemplate = new JdbcTemplate(source);
+        sourceTemplate.execute("CREATE TABLE ITEM (ID NUMBER(19,0) PRIMARY KEY, LA_NAME VARCHAR2(20), "
+                + "TS_UPDATE TIMESTAMP)");
+        sourceTemplate.execute("INSERT INTO ITEM VALUES (1, 'one', TIMESTAMP '2024-01-01 00:00:00'), "
+                + "(2, 'two', TIMESTAMP '2024-01-01 00:00:00'), "
+                + "(1001, 'thousand one', TIMESTAMP '2024-01-01 00:00:00'), "
+                + "(1002, 'thousand two', TIMESTAMP '2024-01-01 00:00:00')");
+        final JdbcTemplate targetTemplate = new JdbcTemplate(new DriverManagerDataSource(String.format(
+                InMemoryDb.H2_ORACLE.getUrlTemplate(), "snapshot_target"
+        )));
+        final Path manifestFile = directory.resolve("snapshot.properties");
+        final SnapshotManifest initialManifest = SnapshotManifest.load(manifestFile);
+        final Schema initial = new ReverseEngineeringWizard(source, "PUBLIC")
+                .withTable("ITEM")
+                .withLastModified("ITEM", "TS_UPDATE")
+                .withSnapshot(initialManifest)
+                .build();
+        targetTemplate.execute(Ddl.with(initial).build());
+        targetTemplate.execute(Delta.with(initial, initialManifest).build());
+        initialManifest.save();
+        sourceTemplate.execute("UPDATE ITEM SET LA_NAME = 'first', TS_UPDATE = TIMESTAMP '2024-02-01 00:00:00' "
+                + "WHERE ID = 1");
+        sourceTemplate.execute("DELETE FROM ITEM WHERE ID = 1002");
+        sourceTemplate.execute("INSERT INTO ITEM VALUES (2001, 'two thousand one', NULL)");
+        final SnapshotManifest manifest = SnapshotManifest.load(manifestFile);
+
+        // Act
+        final Schema schema = new ReverseEngineeringWizard(source, "PUBLIC")
+                .withTable("ITEM")
+                .withLastModified("ITEM", "TS_UPDATE")
+                .withSnapshot(manifest)
+                .build();
+        final String delta = Delta.with(schema, manifest).build();
+        targetTemplate.execute(delta);
+
+        // Assert
+        // the rows 2 (unchanged) and 1002 (deleted) are not read again
+        assertThat(schema.getColumnValues("ITEM", "ID"), containsInAnyOrder(
+                new BigDecimal(1), new BigDecimal(1001), new BigDecimal(2001)
+        ));
+        assertThat(delta, containsString(
+                "DELETE FROM PUBLIC.ITEM WHERE ID >= 1000 AND ID < 2000 AND ID NOT IN (1001);"
+        ));
+        final String query = "SELECT ID, LA_NAME FROM PUBLIC.ITEM ORDER BY ID";
+        assertThat(targetTemplate.queryForList(query), equalTo(sourceTemplate.queryForList(query)));
+    }
+
+    @Test
+    void shouldExtractAllRecordsWhenSnapshotWithoutLastModified(@TempDir final Path directory) {
+        // Arrange
+        final DataSource source = new DriverManagerDataSource(String.format(
+                InMemoryDb.H2_ORACLE.getUrlTemplate(), "snapshot_no_last_modified"
+        ));
+        final JdbcTemplate sourceTemplate = new JdbcTemplate(source);
+        sourceTemplate.execute("CREATE TABLE ITEM (ID NUMBER(19,0) PRIMARY KEY, LA_NAME VARCHAR2(20))");
+        sourceTemplate.execute("INSERT INTO ITEM VALUES (1, 'one'), (2, 'two')");
+        final JdbcTemplate targetTemplate = new JdbcTemplate(new DriverManagerDataSource(String.format(
+                InMemoryDb.H2_ORACLE.getUrlTemplate(), "snapshot_no_last_modified_target"
+        )));
+        final Path manifestFile = directory.resolve("snapshot.properties");
+        final SnapshotManifest initialManifest = SnapshotManifest.load(manifestFile);
+        final Schema initial = new ReverseEngineeringWizard(source, "PUBLIC")
+                .withTable("ITEM")
+                .withSnapshot(initialManifest)
+                .build();
+        targetTemplate.execute(Ddl.with(initial).build());
+        targetTemplate.execute(Delta.with(initial, initialManifest).build());
+        initialManifest.save();
+        // the key range summary does not change
+        sourceTemplate.execute("UPDATE ITEM SET LA_NAME = 'first' WHERE ID = 1");
+        final SnapshotManifest manifest = SnapshotManifest.load(manifestFile);
+
+        // Act
+        final Schema schema = new ReverseEngineeringWizard(source, "PUBLIC")
+                .withTable("ITEM")
+                .withSnapshot(manifest)
+                .build();
+        targetTemplate.execute(Delta.with(schema, manifest).build());
+
+        // Assert
+        assertThat(schema.getColumnValues("ITEM", "ID"), containsInAnyOrder(new BigDecimal(1), new BigDecimal(2)));
+        final String query = "SELECT ID, LA_NAME FROM PUBLIC.ITEM ORDER BY ID";
+        assertThat(targetTemplate.queryForList(query), equalTo(sourceTemplate.queryForList(query)));
+    }
+
+    @Test
+    void shouldAddConstraintsAfterRecordsWhenBulkLoadProfile() {
+        // Arrange
+        final DataSource target = new DriverManagerDataSource(String.format(
+                InMemoryDb.H2_ORACLE.getUrlTemplate(), "bulk"
+        ));
+        final Schema schema = sut.withLevel(2)
+                .withTable("CUSTOMER", Expression.value("ID").between(1, 6))
+                .withTable("DEVICE")
+                .build();
+
+        // Act
+        final String ddl = Ddl.with(schema).loadProfile(LoadProfile.BULK).build();
+        final String dml = Dml.with(schema).loadProfile(LoadProfile.BULK).build();
+        final JdbcTemplate targetTemplate = new JdbcTemplate(target);
+        targetTemplate.execute(ddl);
+        targetTemplate.execute(dml);
+
+        // Assert
+        assertThat(ddl, not(containsString("FOREIGN KEY")));
+        assertThat(ddl, not(containsString("CHECK")));
+        assertThat(dml.indexOf("ALTER TABLE PUBLIC.CUSTOMER_ADDRESS ADD CONSTRAINT FK_CUSTOMER_ADDRESS_1"),
+                greaterThan(dml.indexOf("INSERT INTO PUBLIC.CUSTOMER_ADDRESS")));
+        assertThat(targetTemplate.queryForObject("SELECT COUNT(*) FROM PUBLIC.CUSTOMER_ADDRESS", Integer.class),
+                equalTo(schema.getTables().get("CUSTOMER_ADDRESS").getRecords().size()));
+        assertThrows(DataIntegrityViolationException.class, () -> targetTemplate.execute(
+                "INSERT INTO PUBLIC.CUSTOMER_ADDRESS (ID_CUSTOMER, ID_ADDRESS) VALUES (999, 999)"
+        ));
+    }
+
+    @Test
+    void shouldRunDmlAgainWhenBulkLoadProfile() {
+        // Arrange
+        final DataSource target = new DriverManagerDataSource(String.format(
+                InMemoryDb.H2_ORACLE.getUrlTemplate(), "bulk_rerun"
+        ));
+        final Schema schema = sut.withLevel(2)
+                .withTable("CUSTOMER", Expression.value("ID").between(1, 6))
+                .withTable("DEVICE")
+                .build();
+        final String dml = Dml.with(schema).loadProfile(LoadProfile.BULK).build();
+        final JdbcTemplate targetTemplate = new JdbcTemplate(target);
+        targetTemplate.execute(Ddl.with(schema).loadProfile(LoadProfile.BULK).build());
+        targetTemplate.execute(dml);
+
+        // Act
+        targetTemplate.execute(dml);
+
+        // Assert
+        final String dropForeignKey =
+                "ALTER TABLE PUBLIC.CUSTOMER_ADDRESS DROP CONSTRAINT IF EXISTS FK_CUSTOMER_ADDRESS_1;";
+        assertThat(dml, containsString(dropForeignKey));
+        assertThat(dml.indexOf(dropForeignKey), lessThan(dml.indexOf("DELETE FROM  PUBLIC.CUSTOMER_ADDRESS")));
+        assertThat(targetTemplate.queryForObject("SELECT COUNT(*) FROM PUBLIC.CUSTOMER_ADDRESS", Integer.class),
+                equalTo(schema.getTables().get("CUSTOMER_ADDRESS").getRecords().size()));
+        assertThrows(DataIntegrityViolationException.class, () -> targetTemplate.execute(
+                "INSERT INTO PUBLIC.CUSTOMER_ADDRESS (ID_CUSTOMER, ID_ADDRESS) VALUES (999, 999)"
+        ));
+    }
+
+    @Test
+    void shouldReadLobsFromSideFilesWhenLobFiles(@TempDir final Path directory) {
+        // Arrange
+        final JdbcTemplate sourceTemplate = new JdbcTemplate(dataSource);
+        sourceTemplate.execute("CREATE TABLE DOCUMENT (ID NUMBER(19,0) PRIMARY KEY, LA_BODY CLOB, BL_DATA BLOB)");
+        sourceTemplate.execute("INSERT INTO DOCUMENT VALUES (1, 'it''s a document', X'CAFE'), (2, NULL, NULL)");
+        final DataSource target = new DriverManagerDataSource(String.format(
+                InMemoryDb.H2_ORACLE.getUrlTemplate(), "lob"
+        ));
+
+        // Act
+        final Schema schema = sut.withTable("DOCUMENT").withLobFiles(directory).build();
+        final String dml = Dml.with(schema).build();
+        final JdbcTemplate targetTemplate = new JdbcTemplate(target);
+        targetTemplate.execute(Ddl.with(schema).build());
+        targetTemplate.execute(dml);
+
+        // Assert
+        assertThat(dml, containsString("FILE_READ('"));
+        assertThat(dml, not(containsString("it\\'s a document")));
+        assertThat(targetTemplate.queryForObject("SELECT LA_BODY FROM PUBLIC.DOCUMENT WHERE ID = 1", String.class),
+                equalTo("it's a document"));
+        assertThat(targetTemplate.queryForObject("SELECT BL_DATA FROM PUBLIC.DOCUMENT WHERE ID = 1", byte[].class),
+                equalTo(new byte[] {(byte) 0xCA, (byte) 0xFE}));
+        assertThat(targetTemplate.queryForObject("SELECT LA_BODY FROM PUBLIC.DOCUMENT WHERE ID = 2", String.class),
+                nullValue());
+    }
+
+    @Test
+    void shouldInlineLobFilesWhenCsvAndSnapshotOutput(@TempDir final Path directory) throws IOException {
+        // Arrange
+        final JdbcTemplate sourceTemplate = new JdbcTemplate(dataSource);
+        sourceTemplate.execute("CREATE TABLE ATTACHMENT (ID NUMBER(19,0) PRIMARY KEY, LA_BODY CLOB, BL_DATA BLOB)");
+        sourceTemplate.execute("INSERT INTO ATTACHMENT VALUES (1, 'it''s an attachment', X'CAFE'), (2, NULL, NULL)");
+        final Schema schema = sut.withTable("ATTACHMENT").withLobFiles(directory.resolve("lob")).build();
+
+        // Act
+        Dml.with(schema).writeCsv(directory.resolve("data.csv.sql"));
+        SchemaSnapshot.write(schema, directory.resolve("data.snapshot"));
+        final SchemaSnapshot snapshot = SchemaSnapshot.open(directory.resolve("data.snapshot"));
+        final Exception exception = assertThrows(IllegalStateException.class,
+                () -> Dml.with(schema).dialect(DBDriverName.HSQL).build());
+
+        // Assert
+        assertThat(Files.readString(directory.resolve("data").resolve("ATTACHMENT.csv")),
+                containsString("1,\"it's an attachment\",CAFE"));
+        assertThat(snapshot.getColumnValues("ATTACHMENT", "BL_DATA"), containsInAnyOrder("X'CAFE'", null));
+        assertThat(exception.getMessage(),
+                equalTo("The LOB files of the table [ATTACHMENT] can only be read by H2, not by HSQL."));
+    }
+
+    /**
+     * A standalone source: A and B reference each other, C references A.
+     */
+    private static DataSource newCyclicSource(final String name) {
+        final DataSource source = new DriverManagerDataSource(String.format(
+                InMemoryDb.H2_ORACLE.getUrlTemplate(), name
+        ));
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(source);
+        jdbcTemplate.execute("CREATE TABLE A (ID NUMBER(19,0) PRIMARY KEY, B_ID NUMBER(19,0), LA_NAME VARCHAR2(20))");
+        jdbcTemplate.execute("CREATE TABLE B (ID NUMBER(19,0) PRIMARY KEY, A_ID NUMBER(19,0), "
+                + "CONSTRAINT FK_B_A FOREIGN KEY (A_ID) REFERENCES A (ID))");
+        jdbcTemplate.execute("ALTER TABLE A ADD CONSTRAINT FK_A_B FOREIGN KEY (B_ID) REFERENCES B (ID)");
+        jdbcTemplate.execute("CREATE TABLE C (ID NUMBER(19,0) PRIMARY KEY, A_ID NUMBER(19,0), "
+                + "CONSTRAINT FK_C_A FOREIGN KEY (A_ID) REFERENCES A (ID))");
+        jdbcTemplate.execute("INSERT INTO A VALUES (1, NULL, 'first'), (2, NULL, 'second')");
+        jdbcTemplate.execute("INSERT INTO B VALUES (10, 1), (20, 2)");
+        jdbcTemplate.execute("UPDATE A SET B_ID = ID * 10");
+        jdbcTemplate.execute("INSERT INTO C VALUES (100, 1)");
+        return source;
+    }
 }
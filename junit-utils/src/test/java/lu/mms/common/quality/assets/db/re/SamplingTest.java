@@ -0,0 +1,82 @@
+package lu.mms.common.quality.assets.db.re;
+
+import lu.mms.common.quality.assets.db.DBDriverName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SamplingTest {
+
+    private static final String KEYS_QUERY = "SELECT c.ID FROM PUBLIC.CUSTOMER c";
+
+    @Test
+    void shouldFetchFirstKeysWhenFirstRowsSampling() {
+        // Act
+        final String sql = Sampling.firstRows(2).buildSampleQuery(KEYS_QUERY, List.of("ID"), DBDriverName.H2);
+
+        // Assert
+        assertThat(sql, equalTo("SELECT K.ID FROM (SELECT c.ID FROM PUBLIC.CUSTOMER c) K "
+                + "ORDER BY K.ID FETCH FIRST 2 ROWS ONLY"));
+    }
+
+    @Test
+    void shouldFilterOnSeededHashWhenPercentageSampling() {
+        // Act
+        final String sql = Sampling.percentage(12.5, 42L)
+                .buildSampleQuery(KEYS_QUERY, List.of("ID"), DBDriverName.ORACLE);
+
+        // Assert
+        assertThat(sql, equalTo("SELECT K.ID FROM (SELECT c.ID FROM PUBLIC.CUSTOMER c) K "
+                + "WHERE ORA_HASH(TO_CHAR(K.ID), 9999, 42) < 1250"));
+    }
+
+    @Test
+    void shouldOrderByHashOfEachColumnWhenRandomSamplingOnCompositeKey() {
+        // Act
+        final String sql = Sampling.random(3, -1L)
+                .buildSampleQuery("SELECT d.ID, d.LA_NAME FROM PUBLIC.DEVICE d", List.of("ID", "LA_NAME"),
+                        DBDriverName.H2);
+
+        // Assert
+        assertThat(sql, equalTo("SELECT K.ID, K.LA_NAME FROM (SELECT d.ID, d.LA_NAME FROM PUBLIC.DEVICE d) K "
+                + "ORDER BY ORA_HASH(K.ID || '|' || K.LA_NAME, 4294967295, 4294967295), K.ID, K.LA_NAME "
+                + "FETCH FIRST 3 ROWS ONLY"));
+    }
+
+    @Test
+    void shouldHashNumericKeyWhenRandomSamplingWithoutOraHash() {
+        // Act
+        final String sql = Sampling.random(3, 42L).buildSampleQuery(KEYS_QUERY, List.of("ID"), DBDriverName.HSQL);
+
+        // Assert
+        assertThat(sql, equalTo("SELECT K.ID FROM (SELECT c.ID FROM PUBLIC.CUSTOMER c) K "
+                + "ORDER BY MOD(ABS(K.ID * 7919 + 42), 1000003), K.ID FETCH FIRST 3 ROWS ONLY"));
+    }
+
+    @Test
+    void shouldFailWhenCompositeKeyRandomSamplingWithoutOraHash() {
+        // Arrange
+        final Sampling sampling = Sampling.percentage(10);
+
+        // Act
+        final Exception exception = assertThrows(IllegalStateException.class,
+                () -> sampling.buildSampleQuery(KEYS_QUERY, List.of("ID", "LA_NAME"), DBDriverName.DB2));
+
+        // Assert
+        assertThat(exception.getMessage(),
+                equalTo("The composite primary keys can't be sampled randomly with the [DB2] database."));
+    }
+
+    @Test
+    void shouldFailWhenInvalidPercentage() {
+        // Act
+        final Exception exception = assertThrows(IllegalArgumentException.class, () -> Sampling.percentage(101));
+
+        // Assert
+        assertThat(exception.getMessage(), equalTo("The sampling percentage must be between 0 and 100."));
+    }
+}
@@ -0,0 +1,122 @@
+package lu.mms.common.quality.assets.db.re;
+
+import lu.mms.common.quality.assets.db.InMemoryDb;
+import lu.mms.common.quality.assets.db.re.schema.Schema;
+import lu.mms.common.quality.assets.db.re.schema.Table;
+import lu.mms.common.quality.assets.db.re.script.Ddl;
+import lu.mms.common.quality.assets.db.re.script.Dml;
+import lu.mms.common.quality.assets.mybatis.MyBatisMapperTest;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@MyBatisMapperTest(
+        dbEngine = InMemoryDb.H2_ORACLE,
+        script = {
+        "sql/schema.sql",
+        "sql/data.sql"}
+)
+class SchemaSnapshotCTest {
+
+    @TempDir
+    Path snapshotDirectory;
+
+    private Schema schema;
+    private Path snapshotFile;
+
+    @BeforeEach
+    void init(final SqlSessionFactory sqlSessionFactory) {
+        final DataSource dataSource = sqlSessionFactory.openSession().getConfiguration().getEnvironment().getDataSource();
+        schema = new ReverseEngineeringWizard(dataSource, "PUBLIC", 2)
+                .withTable("CUSTOMER", Expression.value("ID").between(1, 6))
+                .withTable("DEVICE")
+                .build();
+        snapshotFile = snapshotDirectory.resolve("snapshot.bin");
+    }
+
+    @Test
+    void shouldRestoreSameScriptsWhenSnapshotWritten() {
+        // Arrange
+        SchemaSnapshot.write(schema, snapshotFile);
+
+        // Act
+        final Schema restored = SchemaSnapshot.open(snapshotFile).toSchema();
+
+        // Assert
+        assertThat(restored.getName(), equalTo(schema.getName()));
+        assertThat(restored.getTables().keySet(), equalTo(schema.getTables().keySet()));
+        assertThat(Dml.with(restored).build(), equalTo(Dml.with(schema).build()));
+        assertThat(Ddl.with(restored).build(), equalTo(Ddl.with(schema).build()));
+    }
+
+    @Test
+    void shouldReadColumnInPlaceWhenSnapshotOpened() {
+        // Arrange
+        SchemaSnapshot.write(schema, snapshotFile);
+
+        // Act
+        final SchemaSnapshot snapshot = SchemaSnapshot.open(snapshotFile);
+
+        // Assert
+        assertThat(snapshot.getTableNames(), equalTo(schema.getTables().keySet()));
+        for (final Table table : schema.getTables().values()) {
+            assertThat(snapshot.getRowCount(table.getName()), equalTo(table.getRecords().size()));
+            for (final String column : table.getColumns().keySet()) {
+                assertThat(snapshot.getColumnValues(table.getName(), column),
+                        equalTo(schema.getColumnValues(table.getName(), column)));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = InMemoryDb.class, names = {"H2_ORACLE", "HSQL_ORACLE"})
+    void shouldLoadRecordsWhenTargetDataSource(final InMemoryDb dialect) {
+        // Arrange
+        final DataSource target = new DriverManagerDataSource(String.format(dialect.getUrlTemplate(), "snapshot" + dialect));
+        SchemaSnapshot.write(schema, snapshotFile);
+
+        // Act
+        SchemaSnapshot.open(snapshotFile).loadInto(target, dialect);
+
+        // Assert
+        final JdbcTemplate targetTemplate = new JdbcTemplate(target);
+        for (final Table expected : schema.getTables().values()) {
+            final Integer rows = targetTemplate.queryForObject(
+                    String.format("SELECT COUNT(*) FROM PUBLIC.%s", expected.getName()), Integer.class
+            );
+            assertThat(expected.getName(), rows, equalTo(expected.getRecords().size()));
+        }
+        assertThat(targetTemplate.queryForList("SELECT LA_NAME FROM PUBLIC.DEVICE WHERE ID = 1", String.class),
+                equalTo(schema.getTables().get("DEVICE").getRecords().stream()
+                        .filter(record -> BigDecimal.ONE.equals(record.getValue("ID")))
+                        .map(record -> String.valueOf(record.getValue("LA_NAME")).replace("'", ""))
+                        .toList()));
+    }
+
+    @Test
+    void shouldFailWhenNotSnapshotFile() throws IOException {
+        // Arrange
+        Files.writeString(snapshotFile, "INSERT INTO PUBLIC.DEVICE (ID) VALUES (1);");
+
+        // Act
+        final Exception exception = assertThrows(IllegalStateException.class, () -> SchemaSnapshot.open(snapshotFile));
+
+        // Assert
+        assertThat(exception.getMessage(), equalTo(String.format("The file [%s] is not a schema snapshot.", snapshotFile)));
+    }
+}
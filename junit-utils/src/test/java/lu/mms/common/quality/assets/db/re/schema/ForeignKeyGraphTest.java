@@ -0,0 +1,92 @@
+package lu.mms.common.quality.assets.db.re.schema;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+class ForeignKeyGraphTest {
+
+    @Test
+    void shouldSortReferencedTablesFirstWhenForeignKeys() {
+        // Arrange
+        final Table customer = new Table("CUSTOMER");
+        final Table address = new Table("ADDRESS");
+        final Table customerAddress = new Table("CUSTOMER_ADDRESS");
+        customerAddress.appendForeignKey("CUSTOMER_ID", customer, "ID");
+        customerAddress.appendForeignKey("ADDRESS_ID", address, "ID");
+        final Table zone = new Table("ZONE");
+        address.appendForeignKey("ZONE_ID", zone, "ID");
+
+        // Act
+        final ForeignKeyGraph graph = ForeignKeyGraph.of(List.of(customerAddress, address, customer, zone));
+
+        // Assert
+        assertThat(names(graph.getInsertOrder()), equalTo(List.of("CUSTOMER", "ZONE", "ADDRESS", "CUSTOMER_ADDRESS")));
+        assertThat(names(graph.getDeleteOrder()), equalTo(List.of("CUSTOMER_ADDRESS", "ADDRESS", "ZONE", "CUSTOMER")));
+        assertThat(graph.getCyclicTables(), equalTo(Set.of()));
+        assertThat(graph.getDeferredForeignKeys(), equalTo(List.of()));
+    }
+
+    @Test
+    void shouldDeferForeignKeyWhenCycle() {
+        // Arrange
+        final Table department = new Table("DEPARTMENT");
+        final Table employee = new Table("EMPLOYEE");
+        final Table badge = new Table("BADGE");
+        department.appendForeignKey("MANAGER_ID", employee, "ID");
+        employee.appendForeignKey("DEPARTMENT_ID", department, "ID");
+        badge.appendForeignKey("EMPLOYEE_ID", employee, "ID");
+
+        // Act
+        final ForeignKeyGraph graph = ForeignKeyGraph.of(List.of(badge, employee, department));
+
+        // Assert
+        assertThat(names(graph.getInsertOrder()), equalTo(List.of("DEPARTMENT", "EMPLOYEE", "BADGE")));
+        assertThat(graph.getCyclicTables(), equalTo(Set.of("DEPARTMENT", "EMPLOYEE")));
+        assertThat(graph.getDeferredForeignKeys().stream().map(Object::toString).collect(Collectors.toList()),
+                equalTo(List.of("DEPARTMENT.MANAGER_ID -> EMPLOYEE.ID")));
+    }
+
+    @Test
+    void shouldIgnoreSelfReferenceAndDuplicatesWhenForeignKeys() {
+        // Arrange
+        final Table customer = new Table("CUSTOMER");
+        final Table device = new Table("DEVICE");
+        customer.appendForeignKey("PARENT_ID", customer, "ID");
+        device.appendForeignKey("CUSTOMER_ID", customer, "ID");
+        device.appendForeignKey("CUSTOMER_ID", customer, "ID");
+
+        // Act
+        final ForeignKeyGraph graph = ForeignKeyGraph.of(List.of(device, customer));
+
+        // Assert
+        assertThat(names(graph.getInsertOrder()), equalTo(List.of("CUSTOMER", "DEVICE")));
+        assertThat(graph.getCyclicTables(), equalTo(Set.of()));
+        assertThat(graph.getForeignKeys("DEVICE").size(), equalTo(1));
+        assertThat(graph.getForeignKeys("CUSTOMER").get(0).isDeferred(), equalTo(false));
+    }
+
+    @Test
+    void shouldKeepForeignKeyWhenTargetNotInGraph() {
+        // Arrange
+        final Table customer = new Table("CUSTOMER");
+        final Table device = new Table("DEVICE");
+        device.appendForeignKey("CUSTOMER_ID", customer, "ID");
+
+        // Act
+        final ForeignKeyGraph graph = ForeignKeyGraph.of(List.of(device));
+
+        // Assert
+        assertThat(names(graph.getInsertOrder()), equalTo(List.of("DEVICE")));
+        assertThat(graph.getForeignKeys("DEVICE").get(0).getTargetTable(), equalTo("CUSTOMER"));
+    }
+
+    private static List<String> names(final List<Table> tables) {
+        return tables.stream().map(Table::getName).collect(Collectors.toList());
+    }
+}
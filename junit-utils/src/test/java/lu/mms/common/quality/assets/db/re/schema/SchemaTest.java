@@ -0,0 +1,35 @@
+package lu.mms.common.quality.assets.db.re.schema;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+class SchemaTest {
+
+    @Test
+    void shouldFormatSecondsAndMillisWhenLessThanOneMinute() {
+        // Arrange
+        final long nanos = TimeUnit.SECONDS.toNanos(5) + TimeUnit.MILLISECONDS.toNanos(30);
+
+        // Act
+        final String elapsedTime = Schema.formatElapsedTime(nanos);
+
+        // Assert
+        assertThat(elapsedTime, equalTo("5 sec 30 ms."));
+    }
+
+    @Test
+    void shouldFormatRemainingSecondsAndMillisWhenMinutes() {
+        // Arrange
+        final long nanos = TimeUnit.MINUTES.toNanos(2) + TimeUnit.SECONDS.toNanos(7) + TimeUnit.MILLISECONDS.toNanos(450);
+
+        // Act
+        final String elapsedTime = Schema.formatElapsedTime(nanos);
+
+        // Assert
+        assertThat(elapsedTime, equalTo("2 min, 7 sec 450 ms."));
+    }
+}
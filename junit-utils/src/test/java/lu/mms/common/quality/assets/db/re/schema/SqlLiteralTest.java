@@ -0,0 +1,122 @@
+package lu.mms.common.quality.assets.db.re.schema;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SqlLiteralTest {
+
+    private static final String SELECT_VALUES = "SELECT CAST(12.50 AS DECIMAL(10, 2)), CAST(7 AS INTEGER),"
+            + " 'it''s' || CHAR(10) || 'ok', CAST('abc' AS CLOB), DATE '2024-01-31',"
+            + " TIMESTAMP '2024-01-31 10:15:30', X'CAFE', TRUE, CAST(NULL AS VARCHAR(10))";
+
+    @Test
+    void shouldAppendLiteralsWhenColumnTypesResolved() throws SQLException {
+        // Arrange
+        final StringBuilder buffer = new StringBuilder();
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:");
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(SELECT_VALUES)) {
+            resultSet.next();
+            final SqlLiteral[] literals = SqlLiteral.forColumns(resultSet.getMetaData());
+
+            // Act
+            for (int index = 0; index < literals.length; index++) {
+                if (!literals[index].append(resultSet, index + 1, buffer)) {
+                    buffer.append("null");
+                }
+                buffer.append('|');
+            }
+
+            // Assert
+            assertThat(buffer.toString(), equalTo("12.50|7|'it\\'sok'|'abc'|'2024-01-31'|'2024-01-31 10:15:30.0'"
+                    + "|X'CAFE'|true|null|"));
+        }
+    }
+
+    @Test
+    void shouldReadRecordValuesWhenSameFormatThanRecord() throws SQLException {
+        // Arrange
+        final StringBuilder buffer = new StringBuilder();
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:");
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(SELECT_VALUES)) {
+            resultSet.next();
+            final SqlLiteral[] literals = SqlLiteral.forColumns(resultSet.getMetaData());
+
+            // Act
+            final Object number = literals[0].read(resultSet, 1, buffer);
+            final Object text = literals[2].read(resultSet, 3, buffer);
+            final Object timestamp = literals[5].read(resultSet, 6, buffer);
+            final Object nullText = literals[8].read(resultSet, 9, buffer);
+
+            // Assert
+            assertThat(number, equalTo(new BigDecimal("12.50")));
+            assertThat(text, equalTo(Record.toSqlValue("it's\nok")));
+            assertThat(timestamp, equalTo(Record.toSqlValue(resultSet.getTimestamp(6))));
+            assertThat(nullText, nullValue());
+        }
+    }
+
+    @Test
+    void shouldReadSameValuesThanAppendedWhenNumericColumns() throws SQLException {
+        // Arrange
+        final StringBuilder buffer = new StringBuilder();
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:");
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT CAST(18446744073709551615 AS NUMERIC(20, 0)),"
+                     + " CAST(9223372036854775807 AS BIGINT), CAST(NULL AS INTEGER)")) {
+            resultSet.next();
+            final SqlLiteral[] literals = SqlLiteral.forColumns(resultSet.getMetaData());
+
+            // Act
+            final Object unsigned = literals[0].read(resultSet, 1, buffer);
+            final Object bigint = literals[1].read(resultSet, 2, buffer);
+            final Object nullInteger = literals[2].read(resultSet, 3, buffer);
+            literals[0].append(resultSet, 1, buffer);
+            buffer.append('|');
+            literals[1].append(resultSet, 2, buffer);
+
+            // Assert
+            assertThat(unsigned, equalTo(new BigDecimal("18446744073709551615")));
+            assertThat(bigint, equalTo(Long.MAX_VALUE));
+            assertThat(nullInteger, nullValue());
+            assertThat(buffer.toString(), equalTo(unsigned + "|" + bigint));
+        }
+    }
+
+    @Test
+    void shouldResolveNumberWhenUnsignedBigint() throws SQLException {
+        // Arrange
+        final ResultSetMetaData metadata = mock(ResultSetMetaData.class);
+        when(metadata.getColumnCount()).thenReturn(2);
+        when(metadata.getColumnType(1)).thenReturn(Types.BIGINT);
+        when(metadata.isSigned(1)).thenReturn(false);
+        when(metadata.getColumnType(2)).thenReturn(Types.BIGINT);
+        when(metadata.isSigned(2)).thenReturn(true);
+
+        // Act
+        final SqlLiteral[] literals = SqlLiteral.forColumns(metadata);
+
+        // Assert
+        assertThat(literals[0], sameInstance(SqlLiteral.NUMBER));
+        assertThat(literals[1], sameInstance(SqlLiteral.INTEGER));
+    }
+}
@@ -0,0 +1,103 @@
+package lu.mms.common.quality.assets.db.re.schema;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+class TableTest {
+
+    @Test
+    void shouldIgnoreDuplicatedRecordWhenSamePrimaryKeyAndValues() {
+        // Arrange
+        final Table table = newTable(true);
+
+        // Act
+        table.addRecord(newRecord(1, "alpha"));
+        table.addRecord(newRecord(1, "alpha"));
+        table.addRecord(newRecord(2, "alpha"));
+
+        // Assert
+        assertThat(table.getRecords().size(), equalTo(2));
+    }
+
+    @Test
+    void shouldKeepRecordsWhenSamePrimaryKeyAndDifferentValues() {
+        // Arrange
+        final Table table = newTable(true);
+
+        // Act
+        table.addRecord(newRecord(1, "alpha"));
+        table.addRecord(newRecord(1, "beta"));
+
+        // Assert
+        assertThat(table.getRecords().size(), equalTo(2));
+    }
+
+    @Test
+    void shouldIgnoreDuplicatedRecordWhenNoPrimaryKey() {
+        // Arrange
+        final Table table = newTable(false);
+
+        // Act
+        table.addRecord(newRecord(1, "alpha"));
+        table.addRecord(newRecord(1, "alpha"));
+        table.addRecord(newRecord(1, null));
+        table.addRecord(newRecord(1, null));
+
+        // Assert
+        assertThat(table.getRecords().size(), equalTo(2));
+    }
+
+    @Test
+    void shouldKeepRecordValuesWhenColumnarStorage() {
+        // Arrange
+        final Table table = newTable(true);
+        table.enableColumnarStorage();
+
+        // Act
+        table.addRecord(newRecord(1, "alpha"));
+        table.addRecord(newRecord(1, "alpha"));
+        table.addRecord(newRecord(2, null));
+        table.addRecord(newRecord(3, "alpha"));
+
+        // Assert
+        assertThat(table.getRecords().size(), equalTo(3));
+        assertThat(table.getRecords().get(0).getValues(), equalTo(newRecord(1, "alpha").getValues()));
+        assertThat(table.getRecords().get(1).getValues(), equalTo(newRecord(2, null).getValues()));
+        assertThat(table.getValue("LA_NAME"), equalTo(Arrays.asList("'alpha'", null, "'alpha'")));
+    }
+
+    @Test
+    void shouldIgnoreDuplicatedRecordsWhenColumnarStorageWithoutPrimaryKey() {
+        // Arrange
+        final Table table = newTable(false);
+        table.enableColumnarStorage();
+
+        // Act
+        for (int id = 0; id < 100; id++) {
+            table.addRecord(newRecord(id, "alpha"));
+            table.addRecord(newRecord(id, id % 2 == 0 ? "alpha" : null));
+        }
+
+        // Assert
+        assertThat(table.getRecords().size(), equalTo(150));
+        assertThat(table.getRecords().get(149).getValues(), equalTo(newRecord(99, null).getValues()));
+    }
+
+    private static Table newTable(final boolean withPrimaryKey) {
+        final Table table = new Table("CUSTOMER");
+        table.addColumn(new Column(1, "ID", "NUMBER", withPrimaryKey, false, false, null));
+        table.addColumn(new Column(2, "LA_NAME", "VARCHAR2(10)", false, false, false, null));
+        return table;
+    }
+
+    private static Record newRecord(final int id, final String name) {
+        final Record record = new Record();
+        record.appendColumnValue("ID", id);
+        record.appendColumnValue("LA_NAME", name);
+        return record;
+    }
+}
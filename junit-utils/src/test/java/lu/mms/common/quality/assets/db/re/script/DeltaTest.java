@@ -0,0 +1,231 @@
+package lu.mms.common.quality.assets.db.re.script;
+
+import lu.mms.common.quality.assets.db.DBDriverName;
+import lu.mms.common.quality.assets.db.re.schema.Column;
+import lu.mms.common.quality.assets.db.re.schema.Record;
+import lu.mms.common.quality.assets.db.re.schema.Schema;
+import lu.mms.common.quality.assets.db.re.schema.Table;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DeltaTest {
+
+    @Test
+    void shouldReloadAllRecordsWhenNoSnapshot(@TempDir final Path directory) {
+        // Arrange
+        final SnapshotManifest manifest = SnapshotManifest.load(directory.resolve("snapshot.properties"));
+        manifest.setExtracted("CUSTOMER", new SnapshotManifest.TableWatermark(
+                "ID", "2", null, null, Map.of(0L, "2:3")
+        ));
+        final Schema schema = newSchema(newRecord(1, "alpha"), newRecord(2, "beta"));
+
+        // Act
+        final String delta = Delta.with(schema, manifest).build();
+
+        // Assert
+        assertThat(delta, containsString("DELETE FROM PUBLIC.CUSTOMER;"));
+        assertThat(delta, containsString("INSERT INTO PUBLIC.CUSTOMER (ID, NAME) VALUES (1, 'alpha');"));
+        assertThat(delta, containsString("INSERT INTO PUBLIC.CUSTOMER (ID, NAME) VALUES (2, 'beta');"));
+        assertThat(delta, not(containsString("MERGE INTO")));
+    }
+
+    @Test
+    void shouldEmitChangedRecordsOnlyWhenSnapshotSaved(@TempDir final Path directory) {
+        // Arrange
+        final Path file = directory.resolve("snapshot.properties");
+        final SnapshotManifest previous = SnapshotManifest.load(file);
+        previous.setExtracted("CUSTOMER", new SnapshotManifest.TableWatermark(
+                "ID", "1003", "TS_UPDATE", "'2024-01-01 10:00:00.0'", Map.of(0L, "2:3", 1L, "2:2005")
+        ));
+        previous.save();
+        final SnapshotManifest manifest = SnapshotManifest.load(file);
+        // 1003 deleted, 1004 inserted: the key range [1000, 2000) is extracted again, along with the new keys
+        manifest.setExtracted("CUSTOMER", new SnapshotManifest.TableWatermark(
+                "ID", "2001", "TS_UPDATE", "'2024-01-01 10:00:00.0'", Map.of(0L, "2:3", 1L, "2:2006", 2L, "1:2001")
+        ));
+        final Schema schema = newSchema(newRecord(1002, "delta"), newRecord(1004, "epsilon"),
+                newRecord(2001, "zeta"));
+
+        // Act
+        final String delta = Delta.with(schema, manifest).build();
+
+        // Assert
+        assertThat(delta, containsString(
+                "DELETE FROM PUBLIC.CUSTOMER WHERE ID >= 1000 AND ID < 2000 AND ID NOT IN (1002, 1004);"
+        ));
+        assertThat(delta, not(containsString("ID >= 0 AND")));
+        assertThat(delta, containsString("MERGE INTO PUBLIC.CUSTOMER (ID, NAME) KEY (ID) VALUES (1002, 'delta');"));
+        assertThat(delta, containsString("INSERT INTO PUBLIC.CUSTOMER (ID, NAME) VALUES (1004, 'epsilon');"));
+        assertThat(delta, containsString("INSERT INTO PUBLIC.CUSTOMER (ID, NAME) VALUES (2001, 'zeta');"));
+        assertThat(delta, not(containsString("DELETE FROM PUBLIC.CUSTOMER;")));
+    }
+
+    @Test
+    void shouldReloadAllRecordsWhenNoLastModifiedColumn(@TempDir final Path directory) {
+        // Arrange
+        final Path file = directory.resolve("snapshot.properties");
+        final SnapshotManifest previous = SnapshotManifest.load(file);
+        previous.setExtracted("CUSTOMER", new SnapshotManifest.TableWatermark(
+                "ID", "2", null, null, Map.of(0L, "2:3")
+        ));
+        previous.save();
+        final SnapshotManifest manifest = SnapshotManifest.load(file);
+        // the summary does not change when a row is updated in place
+        manifest.setExtracted("CUSTOMER", new SnapshotManifest.TableWatermark(
+                "ID", "2", null, null, Map.of(0L, "2:3")
+        ));
+        final Schema schema = newSchema(newRecord(1, "alpha"), newRecord(2, "updated"));
+
+        // Act
+        final String delta = Delta.with(schema, manifest).build();
+
+        // Assert
+        assertThat(manifest.isIncremental("CUSTOMER"), equalTo(false));
+        assertThat(delta, containsString("DELETE FROM PUBLIC.CUSTOMER;"));
+        assertThat(delta, containsString("INSERT INTO PUBLIC.CUSTOMER (ID, NAME) VALUES (2, 'updated');"));
+    }
+
+    @Test
+    void shouldMergeWithUsingWhenHsqlDialect(@TempDir final Path directory) throws SQLException {
+        // Arrange
+        final SnapshotManifest manifest = newIncrementalManifest(directory);
+        final Schema schema = newSchema(newRecord(1, "updated"), newRecord(1001, "gamma"));
+
+        // Act
+        final String delta = Delta.with(schema, manifest).dialect(DBDriverName.HSQL).build();
+
+        // Assert
+        assertThat(delta, containsString("MERGE INTO PUBLIC.CUSTOMER T USING (VALUES (1, 'updated')) S (ID, NAME) "
+                + "ON (T.ID = S.ID) WHEN MATCHED THEN UPDATE SET T.NAME = S.NAME "
+                + "WHEN NOT MATCHED THEN INSERT (ID, NAME) VALUES (S.ID, S.NAME);"));
+        try (Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:delta", "SA", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE PUBLIC.CUSTOMER (ID NUMERIC(19) PRIMARY KEY, NAME VARCHAR(100))");
+            statement.execute("INSERT INTO PUBLIC.CUSTOMER VALUES (1, 'alpha'), (2, 'beta')");
+            for (final String sql : delta.replaceAll("(?m)^--.*$", "").split(";\\s*\\n")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+            try (ResultSet resultSet = statement.executeQuery("SELECT NAME FROM PUBLIC.CUSTOMER ORDER BY ID")) {
+                resultSet.next();
+                assertThat(resultSet.getString(1), equalTo("updated"));
+                resultSet.next();
+                assertThat(resultSet.getString(1), equalTo("beta"));
+                resultSet.next();
+                assertThat(resultSet.getString(1), equalTo("gamma"));
+            }
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    @Test
+    void shouldMergeFromDualWhenOracleDialect(@TempDir final Path directory) {
+        // Arrange
+        final SnapshotManifest manifest = newIncrementalManifest(directory);
+        final Schema schema = newSchema(newRecord(1, "updated"));
+
+        // Act
+        final String delta = Delta.with(schema, manifest).dialect(DBDriverName.ORACLE).build();
+
+        // Assert
+        assertThat(delta, containsString("MERGE INTO PUBLIC.CUSTOMER T USING (SELECT 1 ID, 'updated' NAME FROM DUAL) S "
+                + "ON (T.ID = S.ID) WHEN MATCHED THEN UPDATE SET T.NAME = S.NAME "
+                + "WHEN NOT MATCHED THEN INSERT (ID, NAME) VALUES (S.ID, S.NAME);"));
+    }
+
+    @Test
+    void shouldFailWhenMergeDialectNotSupported(@TempDir final Path directory) {
+        // Arrange
+        final Delta delta = Delta.with(newSchema(newRecord(1, "alpha")), newIncrementalManifest(directory))
+                .dialect(DBDriverName.MYSQL);
+
+        // Act
+        final IllegalStateException exception = assertThrows(IllegalStateException.class, delta::build);
+
+        // Assert
+        assertThat(exception.getMessage(), equalTo("The records can not be merged in MYSQL."));
+    }
+
+    @Test
+    void shouldLoadSavedWatermarksWhenManifestReloaded(@TempDir final Path directory) {
+        // Arrange
+        final Path file = directory.resolve("snapshot.properties");
+        final SnapshotManifest manifest = SnapshotManifest.load(file);
+        manifest.setExtracted("CUSTOMER", new SnapshotManifest.TableWatermark(
+                "ID", "1001", "TS_UPDATE", "'2024-01-01 10:00:00.0'", Map.of(0L, "2:3", 1L, "1:1001")
+        ));
+
+        // Act
+        manifest.save();
+
+        // Assert
+        final SnapshotManifest.TableWatermark watermark = SnapshotManifest.load(file).getWatermark("CUSTOMER");
+        assertThat(watermark.getKeyColumn(), equalTo("ID"));
+        assertThat(watermark.getMaxKey(), equalTo("1001"));
+        assertThat(watermark.getLastModifiedColumn(), equalTo("TS_UPDATE"));
+        assertThat(watermark.getLastModified(), equalTo("'2024-01-01 10:00:00.0'"));
+        assertThat(watermark.getBuckets(), equalTo(Map.of(0L, "2:3", 1L, "1:1001")));
+    }
+
+    @Test
+    void shouldFailWhenTableNotExtractedWithManifest(@TempDir final Path directory) {
+        // Arrange
+        final SnapshotManifest manifest = SnapshotManifest.load(directory.resolve("snapshot.properties"));
+        final Delta delta = Delta.with(newSchema(newRecord(1, "alpha")), manifest);
+
+        // Act
+        final IllegalStateException exception = assertThrows(IllegalStateException.class, delta::build);
+
+        // Assert
+        assertThat(exception.getMessage(), containsString("CUSTOMER"));
+    }
+
+    private static SnapshotManifest newIncrementalManifest(final Path directory) {
+        final Path file = directory.resolve("snapshot.properties");
+        final SnapshotManifest previous = SnapshotManifest.load(file);
+        previous.setExtracted("CUSTOMER", new SnapshotManifest.TableWatermark(
+                "ID", "2", "TS_UPDATE", "'2024-01-01 10:00:00.0'", Map.of(0L, "2:3")
+        ));
+        previous.save();
+        final SnapshotManifest manifest = SnapshotManifest.load(file);
+        manifest.setExtracted("CUSTOMER", new SnapshotManifest.TableWatermark(
+                "ID", "1001", "TS_UPDATE", "'2024-02-01 10:00:00.0'", Map.of(0L, "2:3", 1L, "1:1001")
+        ));
+        return manifest;
+    }
+
+    private static Schema newSchema(final Record... records) {
+        final Table table = new Table("CUSTOMER");
+        table.addColumn(new Column(1, "ID", "NUMBER", true, false, false, null));
+        table.addColumn(new Column(2, "NAME", "VARCHAR2(100)", false, false, false, null));
+        for (final Record record : records) {
+            table.addRecord(record);
+        }
+        final Schema schema = new Schema("PUBLIC");
+        schema.addTable(table);
+        return schema;
+    }
+
+    private static Record newRecord(final int id, final String name) {
+        final Record record = new Record();
+        record.appendColumnValue("ID", new BigDecimal(id));
+        record.appendColumnValue("NAME", name);
+        return record;
+    }
+}
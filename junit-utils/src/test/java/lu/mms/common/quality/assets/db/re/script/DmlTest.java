@@ -0,0 +1,257 @@
+package lu.mms.common.quality.assets.db.re.script;
+
+import lu.mms.common.quality.assets.db.DBDriverName;
+import lu.mms.common.quality.assets.db.re.ExtractionListener;
+import lu.mms.common.quality.assets.db.re.schema.Column;
+import lu.mms.common.quality.assets.db.re.schema.Index;
+import lu.mms.common.quality.assets.db.re.schema.Record;
+import lu.mms.common.quality.assets.db.re.schema.Schema;
+import lu.mms.common.quality.assets.db.re.schema.Table;
+import org.h2.tools.RunScript;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DmlTest {
+
+    private static final String CSV_TABLE = "CREATE TABLE PUBLIC.CUSTOMER (ID INTEGER, NAME VARCHAR(40), "
+            + "PHOTO VARBINARY(10))";
+
+    @Test
+    void shouldSplitRowsWhenBatchSizeReached() throws SQLException {
+        // Arrange
+        final Schema schema = newSchema(5);
+
+        // Act
+        final String sql = Dml.with(schema).batchSize(2).build();
+
+        // Assert
+        assertThat(sql.split("INSERT INTO PUBLIC.CUSTOMER", -1).length - 1, equalTo(3));
+        assertThat(sql, containsString("INSERT INTO PUBLIC.CUSTOMER \n\t(ID, NAME) \nVALUES \n\t(1, 'name 1'),\n\t(2, 'name 2') \n;"));
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:")) {
+            RunScript.execute(connection, new StringReader("CREATE TABLE PUBLIC.CUSTOMER (ID NUMBER, NAME VARCHAR(20));"));
+            RunScript.execute(connection, new StringReader(sql));
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM PUBLIC.CUSTOMER")) {
+                resultSet.next();
+                assertThat(resultSet.getInt(1), equalTo(5));
+            }
+        }
+    }
+
+    @Test
+    void shouldUseInsertAllWhenOracleDialect() {
+        // Arrange
+        final Schema schema = newSchema(3);
+
+        // Act
+        final String sql = Dml.with(schema).batchSize(2).dialect(DBDriverName.ORACLE).build();
+
+        // Assert
+        assertThat(sql, containsString("INSERT ALL \n"
+                + "\tINTO PUBLIC.CUSTOMER (ID, NAME) VALUES (1, 'name 1')\n"
+                + "\tINTO PUBLIC.CUSTOMER (ID, NAME) VALUES (2, 'name 2')\n"
+                + "SELECT 1 FROM DUAL;\n"));
+        assertThat(sql, containsString("INSERT ALL \n"
+                + "\tINTO PUBLIC.CUSTOMER (ID, NAME) VALUES (3, 'name 3')\n"
+                + "SELECT 1 FROM DUAL;\n"));
+    }
+
+    @Test
+    void shouldLoadCsvFilesWhenH2Loader(@TempDir final Path directory) throws IOException, SQLException {
+        // Arrange
+        final Schema schema = newCsvSchema();
+        final Path loader = directory.resolve("data_test.csv.sql");
+
+        // Act
+        Dml.with(schema).writeCsv(loader);
+
+        // Assert
+        final String csv = Files.readString(directory.resolve("data_test/CUSTOMER.csv"), StandardCharsets.UTF_8);
+        assertThat(csv, equalTo("ID,NAME,PHOTO\r\n1,\"it's \"\"quoted\"\", a, b\",CAFE\r\n2,,\r\n"));
+        assertThat(Files.readString(loader), containsString("INSERT INTO PUBLIC.CUSTOMER (ID, NAME, PHOTO) "
+                + "SELECT ID, NAME, HEXTORAW(PHOTO) FROM CSVREAD("));
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:;MODE=Oracle")) {
+            RunScript.execute(connection, new StringReader(CSV_TABLE));
+            RunScript.execute(connection, Files.newBufferedReader(loader));
+            assertCsvRecords(connection);
+        }
+    }
+
+    @Test
+    void shouldLoadCsvFilesWhenHsqlLoader() throws IOException, SQLException {
+        // Arrange
+        final Schema schema = newCsvSchema();
+        final Path directory = Files.createDirectories(Path.of("target", "csv-loader"));
+        final Path loader = directory.resolve("data_hsql.csv.sql");
+
+        // Act
+        Dml.with(schema).dialect(DBDriverName.HSQL).writeCsv(loader);
+
+        // Assert
+        assertThat(Files.readString(loader), containsString("SET TABLE PUBLIC.CUSTOMER_CSV SOURCE "
+                + "'target/csv-loader/data_hsql/CUSTOMER.csv;ignore_first=true;encoding=UTF-8;quoted=true';"));
+        try (Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:csv;sql.syntax_ora=true", "SA", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute(CSV_TABLE);
+            final String script = Files.readString(loader).replaceAll("(?m)^--.*$", "");
+            for (final String sql : script.split(";\\s*\\n")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+            assertCsvRecords(connection);
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    @Test
+    void shouldFailWhenCsvDialectNotSupported(@TempDir final Path directory) {
+        // Arrange
+        final Dml dml = Dml.with(newCsvSchema()).dialect(DBDriverName.ORACLE);
+
+        // Act
+        final IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> dml.writeCsv(directory.resolve("data_test.csv.sql")));
+
+        // Assert
+        assertThat(exception.getMessage(), equalTo("The CSV files can not be loaded in ORACLE."));
+    }
+
+    @Test
+    void shouldRunAgainWhenHsqlIndexesAfterLoad() throws SQLException {
+        // Arrange
+        final Schema schema = newSchema(2);
+        schema.getTables().get("CUSTOMER").appendIndex(new Index("IDX_CUSTOMER_NAME", false).appendColumn("NAME"));
+        final String sql = Dml.with(schema).dialect(DBDriverName.HSQL).indexCreation(IndexCreation.AFTER_LOAD).build();
+
+        // Act
+        try (Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:rerun", "SA", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE PUBLIC.CUSTOMER (ID NUMERIC(19), NAME VARCHAR(20))");
+            executeScript(statement, sql);
+            executeScript(statement, sql);
+
+            // Assert
+            assertThat(sql, containsString("DROP INDEX IF EXISTS PUBLIC.IDX_CUSTOMER_NAME;"));
+            try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM PUBLIC.CUSTOMER")) {
+                resultSet.next();
+                assertThat(resultSet.getInt(1), equalTo(2));
+            }
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    @Test
+    void shouldFailWhenBulkAndConstraintsNotDropped() {
+        // Arrange
+        final Schema schema = newSchema(1);
+        schema.getTables().get("CUSTOMER").addColumn(
+                new Column(3, "CODE", "VARCHAR2(20)", false, true, false, null)
+        );
+        final Dml dml = Dml.with(schema).dialect(DBDriverName.HSQL).loadProfile(LoadProfile.BULK);
+
+        // Act
+        final IllegalStateException exception = assertThrows(IllegalStateException.class, dml::build);
+
+        // Assert
+        assertThat(exception.getMessage(), equalTo("The BULK load profile can't be used with HSQL: the constraints "
+                + "can't be dropped when the script is run again."));
+    }
+
+    @Test
+    void shouldReportUtf8BytesWhenListener() {
+        // Arrange
+        final Schema schema = newSchema(1);
+        schema.getTables().get("CUSTOMER").getRecords().get(0).appendColumnValue("NAME", "caf\u00e9 \u20ac");
+        final long[] encoded = new long[2];
+
+        // Act
+        Dml.with(schema).listener(new ExtractionListener() {
+            @Override
+            public void onRowsEncoded(final String tableName, final long rows, final long bytes) {
+                encoded[0] = rows;
+                encoded[1] = bytes;
+            }
+        }).build();
+
+        // Assert: 1, 'caf\u00e9 \u20ac' (\u00e9 is encoded in 2 bytes, \u20ac in 3 bytes)
+        assertThat(encoded[0], equalTo(1L));
+        assertThat(encoded[1], equalTo(14L));
+    }
+
+    private static void executeScript(final Statement statement, final String script) throws SQLException {
+        for (final String sql : script.replaceAll("(?m)^--.*$", "").split(";\\s*\\n")) {
+            if (!sql.isBlank()) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private static void assertCsvRecords(final Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT ID, NAME, PHOTO FROM PUBLIC.CUSTOMER ORDER BY ID")) {
+            resultSet.next();
+            assertThat(resultSet.getInt(1), equalTo(1));
+            assertThat(resultSet.getString(2), equalTo("it's \"quoted\", a, b"));
+            assertThat(resultSet.getBytes(3), equalTo(new byte[] {(byte) 0xCA, (byte) 0xFE}));
+            resultSet.next();
+            assertThat(resultSet.getInt(1), equalTo(2));
+            assertThat(resultSet.getString(2), nullValue());
+            assertThat(resultSet.getBytes(3), nullValue());
+            assertThat(resultSet.next(), equalTo(false));
+        }
+    }
+
+    private static Schema newCsvSchema() {
+        final Table table = new Table("CUSTOMER");
+        table.addColumn(new Column(1, "ID", "NUMBER", true, false, false, null));
+        table.addColumn(new Column(2, "NAME", "VARCHAR2(20)", false, false, false, null));
+        table.addColumn(new Column(3, "PHOTO", "VARBINARY(10)", false, false, false, null));
+        final Record quoted = new Record();
+        quoted.appendColumnValue("ID", new BigDecimal(1));
+        quoted.appendColumnValue("NAME", "it's \"quoted\", a, b");
+        quoted.appendColumnLiteral("PHOTO", "X'CAFE'");
+        table.addRecord(quoted);
+        final Record empty = new Record();
+        empty.appendColumnValue("ID", new BigDecimal(2));
+        empty.appendColumnValue("NAME", null);
+        empty.appendColumnValue("PHOTO", null);
+        table.addRecord(empty);
+        final Schema schema = new Schema("PUBLIC");
+        schema.addTable(table);
+        return schema;
+    }
+
+    private static Schema newSchema(final int rows) {
+        final Table table = new Table("CUSTOMER");
+        table.addColumn(new Column(1, "ID", "NUMBER", true, false, false, null));
+        table.addColumn(new Column(2, "NAME", "VARCHAR2(20)", false, false, false, null));
+        for (int id = 1; id <= rows; id++) {
+            final Record record = new Record();
+            record.appendColumnValue("ID", new BigDecimal(id));
+            record.appendColumnValue("NAME", "name " + id);
+            table.addRecord(record);
+        }
+        final Schema schema = new Schema("PUBLIC");
+        schema.addTable(table);
+        return schema;
+    }
+}
@@ -0,0 +1,116 @@
+package lu.mms.common.quality.assets.db.re.script;
+
+import lu.mms.common.quality.assets.db.re.schema.Column;
+import lu.mms.common.quality.assets.db.re.schema.ColumnEncoder;
+import lu.mms.common.quality.assets.db.re.schema.SqlLiteral;
+import lu.mms.common.quality.assets.db.re.schema.Table;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+class LobFilesTest {
+
+    private static final String TEXT = "it's a large\ntext";
+
+    @Test
+    void shouldStoreLobsOnceWhenSameContent(@TempDir final Path directory)
+            throws SQLException, IOException, NoSuchAlgorithmException {
+        // Arrange
+        final LobFiles sut = LobFiles.in(directory.resolve("lob"));
+        final List<Object[]> rows = new ArrayList<>();
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE DOC (ID INTEGER PRIMARY KEY, BODY CLOB, DATA BLOB)");
+            statement.execute("INSERT INTO DOC VALUES (1, 'it''s a large' || CHAR(10) || 'text', X'CAFE'), "
+                    + "(2, 'it''s a large' || CHAR(10) || 'text', X'CAFE'), (3, NULL, NULL)");
+
+            // Act
+            try (ResultSet resultSet = statement.executeQuery("SELECT ID, BODY, DATA FROM DOC ORDER BY ID")) {
+                final ColumnEncoder[] encoders = sut.forColumns(newTable(),
+                        SqlLiteral.forColumns(resultSet.getMetaData()));
+                final StringBuilder buffer = new StringBuilder();
+                while (resultSet.next()) {
+                    rows.add(new Object[] {
+                            encoders[1].read(resultSet, 2, buffer), encoders[2].read(resultSet, 3, buffer)
+                    });
+                }
+                assertThat(encoders[0], sameInstance(SqlLiteral.INTEGER));
+            }
+
+            // Assert
+            final Path textFile = directory.resolve("lob").resolve(sha256(TEXT.getBytes(StandardCharsets.UTF_8))
+                    + LobFiles.CHARACTER_EXTENSION);
+            final Path binaryFile = directory.resolve("lob").resolve(sha256(new byte[] {(byte) 0xCA, (byte) 0xFE})
+                    + LobFiles.BINARY_EXTENSION);
+            try (Stream<Path> files = Files.list(directory.resolve("lob"))) {
+                assertThat(files.count(), equalTo(2L));
+            }
+            assertThat(Files.readString(textFile), equalTo(TEXT));
+            assertThat(rows.get(0)[0], equalTo("FILE_READ('" + MigrationScript.toFileLocation(textFile)
+                    + "', 'UTF-8')"));
+            assertThat(rows.get(0)[1], equalTo("FILE_READ('" + MigrationScript.toFileLocation(binaryFile) + "')"));
+            assertThat(rows.get(1)[0], equalTo(rows.get(0)[0]));
+            assertThat(rows.get(2)[0], nullValue());
+            assertThat(rows.get(2)[1], nullValue());
+
+            // the DML reads the side files back
+            statement.execute("CREATE TABLE DOC_COPY (ID INTEGER PRIMARY KEY, BODY CLOB, DATA BLOB)");
+            statement.execute(String.format("INSERT INTO DOC_COPY VALUES (1, %s, %s)", rows.get(0)[0], rows.get(0)[1]));
+            try (ResultSet copy = statement.executeQuery("SELECT BODY, DATA FROM DOC_COPY")) {
+                copy.next();
+                assertThat(copy.getString(1), equalTo(TEXT));
+                assertThat(copy.getBytes(2), equalTo(new byte[] {(byte) 0xCA, (byte) 0xFE}));
+            }
+        }
+    }
+
+    @Test
+    void shouldInlineFileContentWhenReference(@TempDir final Path directory) throws IOException {
+        // Arrange
+        final Path textFile = Files.writeString(directory.resolve("body.txt"), TEXT, StandardCharsets.UTF_8);
+        final Path binaryFile = Files.write(directory.resolve("data.bin"), new byte[] {(byte) 0xCA, (byte) 0xFE});
+
+        // Act
+        final Object text = LobFiles.inline("FILE_READ('" + MigrationScript.toFileLocation(textFile) + "', 'UTF-8')");
+        final Object binary = LobFiles.inline("FILE_READ('" + MigrationScript.toFileLocation(binaryFile) + "')");
+
+        // Assert
+        assertThat(text, equalTo("'it\\'s a largetext'"));
+        assertThat(binary, equalTo("X'CAFE'"));
+        assertThat(LobFiles.inline("'FILE_READ'"), equalTo("'FILE_READ'"));
+        assertThat(LobFiles.inline(42), equalTo(42));
+    }
+
+    private static Table newTable() {
+        final Table table = new Table("DOC");
+        table.addColumn(new Column(1, "ID", "INTEGER", true, false, false, null));
+        table.addColumn(new Column(2, "BODY", "CHARACTER LARGE OBJECT", false, false, false, null));
+        table.addColumn(new Column(3, "DATA", "BLOB", false, false, false, null));
+        return table;
+    }
+
+    private static String sha256(final byte[] content) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
@@ -70,6 +70,59 @@ class MyBatisTestUtilsHsqlCTest {
         assertThat(itemCount, IsEqual.equalTo(3));
     }
 
+    @Test
+    @MyBatisMapperTest(script = {
+            "sql/schema.sql",
+            "sql/data-for-test_compressed.sql.gz"
+    })
+    void shouldLoadCompressedScriptWhenGzipResource() {
+        // Arrange
+
+        // Act
+        final String customer = sut.findCustomerNameById(1);
+
+        // Assert
+        assertThat(customer, equalTo("alpha;gz"));
+        assertThat(sut.findCustomerNameById(2), equalTo("beta's gz"));
+
+        final int itemCount = ObjectUtils.defaultIfNull(jdbcTemplate.queryForObject("select count(*) from CUSTOMER where ID > 0", Integer.class), 0);
+        assertThat(itemCount, IsEqual.equalTo(3));
+    }
+
+    @Test
+    @MyBatisMapperTest(script = {
+            "sql/schema.sql",
+            "sql/data-for-test_compressed.gz"
+    })
+    void shouldLoadCompressedScriptWhenGzipExtensionOnly() {
+        // Arrange
+
+        // Act
+        final String customer = sut.findCustomerNameById(1);
+
+        // Assert
+        assertThat(customer, equalTo("alpha;gz"));
+    }
+
+    @Test
+    @MyBatisMapperTest(script = {
+            "sql/schema.sql",
+            "sql/data-for-test_csv.csv.sql"
+    })
+    void shouldLoadCsvFilesWhenCsvLoaderScript() {
+        // Arrange
+
+        // Act
+        final String customer = sut.findCustomerNameById(1);
+
+        // Assert
+        assertThat(customer, equalTo("alpha, \"csv\""));
+        assertThat(sut.findCustomerNameById(2), equalTo("beta's csv"));
+
+        final int itemCount = ObjectUtils.defaultIfNull(jdbcTemplate.queryForObject("select count(*) from CUSTOMER where ID > 0", Integer.class), 0);
+        assertThat(itemCount, IsEqual.equalTo(3));
+    }
+
     @Test
     @MyBatisMapperTest(script = {
             "sql/schema.sql",
@@ -0,0 +1,44 @@
+package lu.mms.common.quality.assets.mybatis;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+class SqlStatementReaderTest {
+
+    @Test
+    void shouldSplitStatementsWhenSemicolonOutsideLiterals() throws IOException {
+        // Arrange
+        final String script = "-- header; comment\n"
+                + "DELETE FROM CUSTOMER;\n"
+                + "INSERT INTO CUSTOMER (ID, LA_NAME) VALUES (1, 'a;b'), (2, 'it''s');\n"
+                + "/* block; comment */ UPDATE \"MY;TABLE\" SET X = 1;\n"
+                + "CREATE ALIAS F AS $$ int f() { return 1; } $$;\n"
+                + ";\n"
+                + "DELETE FROM ADDRESS";
+
+        // Act
+        final List<String> statements = new ArrayList<>();
+        try (SqlStatementReader reader = new SqlStatementReader(new StringReader(script))) {
+            String statement;
+            while ((statement = reader.next()) != null) {
+                statements.add(statement);
+            }
+        }
+
+        // Assert
+        assertThat(statements, equalTo(List.of(
+                "DELETE FROM CUSTOMER",
+                "INSERT INTO CUSTOMER (ID, LA_NAME) VALUES (1, 'a;b'), (2, 'it''s')",
+                "UPDATE \"MY;TABLE\" SET X = 1",
+                "CREATE ALIAS F AS $$ int f() { return 1; } $$",
+                "DELETE FROM ADDRESS"
+        )));
+    }
+}
@@ -0,0 +1,13 @@
+
+--------------------------------------------- ----------------------------------------
+------------------------------------- DELETE RECORDS ---------------------------------
+--------------------------------------------- ----------------------------------------
+DELETE FROM  PUBLIC.CUSTOMER;
+
+--------------------------------------------- ----------------------------------------
+------------------------------------- LOAD CSV FILES ---------------------------------
+--------------------------------------------- ----------------------------------------
+CREATE TEXT TABLE PUBLIC.CUSTOMER_CSV (ID LONGVARCHAR, LA_NAME LONGVARCHAR, LA_TRIGGER_COUNTER LONGVARCHAR, TS_UPDATE LONGVARCHAR);
+SET TABLE PUBLIC.CUSTOMER_CSV SOURCE 'src/test/resources/sql/data-for-test_csv/CUSTOMER.csv;ignore_first=true;encoding=UTF-8;quoted=true';
+INSERT INTO PUBLIC.CUSTOMER (ID, LA_NAME, LA_TRIGGER_COUNTER, TS_UPDATE) SELECT ID, LA_NAME, LA_TRIGGER_COUNTER, TS_UPDATE FROM PUBLIC.CUSTOMER_CSV;
+DROP TABLE PUBLIC.CUSTOMER_CSV;
@@ -0,0 +1,42 @@
+
+--------------------------------------------- ---------------------------------------
+---------------------------------------- CREATE SCHEMA ------------------------------
+--------------------------------------------- ---------------------------------------
+CREATE SCHEMA IF NOT EXISTS PUBLIC;
+
+
+--------------------------------------------- ---------------------------------------
+-------------------------------------- DROP TABLES ----------------------------------
+--------------------------------------------- ---------------------------------------
+DROP TABLE PUBLIC.CUSTOMER_ADDRESS IF EXISTS; --null
+DROP TABLE PUBLIC.CUSTOMER IF EXISTS; --null
+DROP TABLE PUBLIC.ADDRESS IF EXISTS; --null
+
+--------------------------------------------- ----------------------------------------
+-------------------------------------- CREATE TABLE ----------------------------------
+--------------------------------------------- ----------------------------------------
+CREATE TABLE PUBLIC.ADDRESS (
+	ID NUMBER(19) PRIMARY KEY
+,	NU_NUMBER NUMBER
+,	LA_STREET VARCHAR2(100)
+,	LA_POSTAL_CODE VARCHAR2(10)
+,	LA_CITY VARCHAR2(100)
+,	LA_COUNTRY VARCHAR2(100)
+,	TS_UPDATE TIMESTAMP
+);
+
+CREATE TABLE PUBLIC.CUSTOMER (
+	ID NUMBER(19) PRIMARY KEY
+,	LA_NAME VARCHAR2(100)
+,	LA_TRIGGER_COUNTER VARCHAR2(100)
+,	TS_UPDATE TIMESTAMP
+,	CONSTRAINT CHK_CUSTOMER CHECK ("ID" < CAST(1000 AS NUMERIC(4)))
+);
+
+CREATE TABLE PUBLIC.CUSTOMER_ADDRESS (
+	ID_CUSTOMER NUMBER(19)
+,	ID_ADDRESS NUMBER(19)
+,	CONSTRAINT FK_CUSTOMER_ADDRESS_1 FOREIGN KEY (ID_ADDRESS) REFERENCES ADDRESS(ID)
+,	CONSTRAINT FK_CUSTOMER_ADDRESS_2 FOREIGN KEY (ID_CUSTOMER) REFERENCES CUSTOMER(ID)
+);
+
@@ -0,0 +1,31 @@
+
+--------------------------------------------- ----------------------------------------
+------------------------------------- DELETE RECORDS ---------------------------------
+--------------------------------------------- ----------------------------------------
+DELETE FROM  PUBLIC.CUSTOMER_ADDRESS;
+DELETE FROM  PUBLIC.CUSTOMER;
+DELETE FROM  PUBLIC.ADDRESS;
+
+--------------------------------------------- ----------------------------------------
+------------------------------------- INSERT RECORDS ---------------------------------
+--------------------------------------------- ----------------------------------------
+INSERT INTO PUBLIC.ADDRESS 
+	(ID, NU_NUMBER, LA_STREET, LA_POSTAL_CODE, LA_CITY, LA_COUNTRY, TS_UPDATE) 
+VALUES 
+	(1, 42, 'Rte de Luxembourg', '4590', 'Bascharage', 'Luxembourg', null) 
+;
+
+INSERT INTO PUBLIC.CUSTOMER 
+	(ID, LA_NAME, LA_TRIGGER_COUNTER, TS_UPDATE) 
+VALUES 
+	(5, 'gama', null, null),
+	(6, 'x man', null, null) 
+;
+
+INSERT INTO PUBLIC.CUSTOMER_ADDRESS 
+	(ID_CUSTOMER, ID_ADDRESS) 
+VALUES 
+	(5, 1),
+	(6, 1) 
+;
+